@@ -24,7 +24,7 @@
 	import upl.platform.Platform;
 	import upl.platform.platforms.OtherPlatform;
 	import upl.util.ArrayList;
-	import upl.util.HashMap;
+	import upl.util.ConcurrentHashMap;
 	import upl.util.List;
 	import upl.util.Map;
 	
@@ -42,7 +42,7 @@
 			return new StubPackage ();
 		}
 		
-		protected Map<String, Localization> localizations = new HashMap<> ();
+		protected Map<String, Localization> localizations = new ConcurrentHashMap<> ();
 		
 		protected Manifest setManifest () {
 			return new Manifest ();
@@ -20,6 +20,7 @@
 	import upl.core.File;
 	import upl.exceptions.OutOfMemoryException;
 	import upl.json.JSONObject;
+	import upl.json.JSONReader;
 	
 	public class Manifest extends JSONObject {
 		
@@ -31,8 +32,15 @@
 			
 			try {
 				
-				if (data == null)
-					data = new JSONObject (new File (app.getPlatform ().getEnvironment ().getProjectPath (), "manifest.json").read ());
+				if (data == null) {
+					
+					File file = new File (app.getPlatform ().getEnvironment ().getProjectPath (), "manifest.json");
+					
+					try (JSONReader reader = new JSONReader (file.getStream ())) {
+						data = new JSONObject (reader);
+					}
+					
+				}
 				
 			} catch (IOException | OutOfMemoryException e) {
 				data = new JSONObject ();
@@ -27,12 +27,12 @@
 	
 	import java.util.List;
 	import java.util.ServiceLoader;
-	import upl.util.HashMap;
+	import upl.util.ConcurrentLinkedHashMap;
 	import upl.util.Map;
 	
 	public class PluginService<C extends Plugin> extends upl.type.Object {
 		
-		protected Map<Object, C> pluginsMap;
+		protected volatile Map<Object, C> pluginsMap;
 		
 		protected int flags;
 		
@@ -104,13 +104,27 @@
 			
 		}
 		
+		protected Map<Object, C> getPluginsMap () {
+			
+			if (pluginsMap == null) {
+				
+				synchronized (this) {
+					
+					if (pluginsMap == null)
+						pluginsMap = new ConcurrentLinkedHashMap<> ();
+					
+				}
+				
+			}
+			
+			return pluginsMap;
+			
+		}
+		
 		@SuppressWarnings ("return")
 		public PluginService<C> add (C obj) {
 			
-			if (pluginsMap == null)
-				pluginsMap = new HashMap<> ();
-			
-			pluginsMap.add (obj.getName (), obj);
+			getPluginsMap ().put (obj.getName (), obj);
 			
 			return this;
 			
@@ -118,10 +132,7 @@
 		
 		public PluginService<C> addClass (C obj) {
 			
-			if (pluginsMap == null)
-				pluginsMap = new HashMap<> ();
-			
-			pluginsMap.add (obj.getClass (), obj);
+			getPluginsMap ().put (obj.getClass (), obj);
 			
 			return this;
 			
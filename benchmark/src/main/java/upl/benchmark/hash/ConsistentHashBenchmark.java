@@ -0,0 +1,80 @@
+	/*
+	 * Copyright (c) 2020 - 2024 UPL Foundation
+	 *
+	 * Licensed under the Apache License, Version 2.0 (the "License");
+	 * you may not use this file except in compliance with the License.
+	 * You may obtain a copy of the License at
+	 *
+	 *     http://www.apache.org/licenses/LICENSE-2.0
+	 *
+	 * Unless required by applicable law or agreed to in writing, software
+	 * distributed under the License is distributed on an "AS IS" BASIS,
+	 * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	 * See the License for the specific language governing permissions and
+	 * limitations under the License.
+	 */
+	
+	package upl.benchmark.hash;
+	
+	import java.util.concurrent.ThreadLocalRandom;
+	import java.util.concurrent.TimeUnit;
+	import org.openjdk.jmh.annotations.Benchmark;
+	import org.openjdk.jmh.annotations.BenchmarkMode;
+	import org.openjdk.jmh.annotations.Fork;
+	import org.openjdk.jmh.annotations.Measurement;
+	import org.openjdk.jmh.annotations.Mode;
+	import org.openjdk.jmh.annotations.OutputTimeUnit;
+	import org.openjdk.jmh.annotations.Param;
+	import org.openjdk.jmh.annotations.Scope;
+	import org.openjdk.jmh.annotations.Setup;
+	import org.openjdk.jmh.annotations.State;
+	import org.openjdk.jmh.annotations.Warmup;
+	import upl.core.Hash;
+	import upl.hash.HashFunction;
+	import upl.hash.HashRing;
+	
+	/**
+	 * Key lookups on a {@link HashRing} of 64 nodes per placement strategy, and
+	 * on a ring hashed with the {@link Hash} digest it used before.
+	 */
+	@State (Scope.Benchmark)
+	@BenchmarkMode (Mode.Throughput)
+	@OutputTimeUnit (TimeUnit.MILLISECONDS)
+	@Warmup (iterations = 3, time = 2)
+	@Measurement (iterations = 5, time = 2)
+	@Fork (1)
+	public class ConsistentHashBenchmark {
+		
+		@Param ({"RING", "RENDEZVOUS", "JUMP", "RING_DIGEST"})
+		public String strategy;
+		
+		private HashRing<String> ring;
+		
+		private String[] keys;
+		
+		@Setup
+		public void setUp () {
+			
+			ring = new HashRing<> ();
+			
+			if (strategy.equals ("RING_DIGEST"))
+				ring.setHash (HashFunction.of (new Hash ()));
+			else
+				ring.setStrategy (HashRing.Strategy.valueOf (strategy));
+			
+			for (int i = 0; i < 64; i++)
+				ring.add ("node" + i, "node" + i, 160);
+			
+			keys = new String[4096];
+			
+			for (int i = 0; i < keys.length; i++)
+				keys[i] = "key" + i;
+			
+		}
+		
+		@Benchmark
+		public String get () {
+			return ring.get (keys[ThreadLocalRandom.current ().nextInt (keys.length)]);
+		}
+		
+	}
\ No newline at end of file
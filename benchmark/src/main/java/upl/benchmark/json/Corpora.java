@@ -0,0 +1,162 @@
+	/*
+	 * Copyright (c) 2020 - 2024 UPL Foundation
+	 *
+	 * Licensed under the Apache License, Version 2.0 (the "License");
+	 * you may not use this file except in compliance with the License.
+	 * You may obtain a copy of the License at
+	 *
+	 *     http://www.apache.org/licenses/LICENSE-2.0
+	 *
+	 * Unless required by applicable law or agreed to in writing, software
+	 * distributed under the License is distributed on an "AS IS" BASIS,
+	 * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	 * See the License for the specific language governing permissions and
+	 * limitations under the License.
+	 */
+	
+	package upl.benchmark.json;
+	
+	import java.util.Random;
+	import upl.json.JSONArray;
+	import upl.json.JSONObject;
+	
+	/**
+	 * Generated JSON documents shaped like the ones the library handles in
+	 * practice. The generator is seeded, so every run sees the same bytes.
+	 */
+	public enum Corpora {
+		
+		/**
+		 * A storage API response: a page of ten file entries.
+		 */
+		SMALL {
+			
+			@Override
+			JSONObject generate (Random random) {
+				
+				JSONArray entries = new JSONArray ();
+				
+				for (int i = 0; i < 10; i++)
+					entries.put (entry (random, i));
+				
+				JSONObject response = new JSONObject ();
+				
+				response.put ("entries", entries);
+				response.put ("cursor", "AAG" + Long.toHexString (random.nextLong ()) + Long.toHexString (random.nextLong ()));
+				response.put ("has_more", random.nextBoolean ());
+				
+				return response;
+				
+			}
+			
+		},
+		
+		/**
+		 * A long list of flat records with numeric fields, 10000 of them.
+		 */
+		LARGE {
+			
+			@Override
+			JSONObject generate (Random random) {
+				
+				JSONArray items = new JSONArray (10000);
+				
+				for (int i = 0; i < 10000; i++) {
+					
+					JSONObject item = new JSONObject ();
+					
+					item.put ("id", i);
+					item.put ("timestamp", 1700000000000L + random.nextInt (1000000000));
+					item.put ("score", random.nextInt (100000) / 100d);
+					item.put ("name", "item-" + Integer.toString (random.nextInt (), 36));
+					item.put ("active", random.nextBoolean ());
+					
+					JSONArray values = new JSONArray (8);
+					
+					for (int j = 0; j < 8; j++)
+						values.put (random.nextInt (1000));
+					
+					item.put ("values", values);
+					
+					items.put (item);
+					
+				}
+				
+				JSONObject list = new JSONObject ();
+				
+				list.put ("total", items.length ());
+				list.put ("items", items);
+				
+				return list;
+				
+			}
+			
+		},
+		
+		/**
+		 * A configuration tree, six levels deep with four sections per level.
+		 */
+		NESTED {
+			
+			@Override
+			JSONObject generate (Random random) {
+				return section (random, 6);
+			}
+			
+			private JSONObject section (Random random, int depth) {
+				
+				JSONObject section = new JSONObject ();
+				
+				section.put ("enabled", random.nextBoolean ());
+				section.put ("timeout", random.nextInt (60000));
+				section.put ("ratio", random.nextInt (1000) / 1000d);
+				section.put ("label", "section " + depth + "." + random.nextInt (100));
+				
+				if (depth > 0)
+					for (int i = 0; i < 4; i++)
+						section.put ("child" + i, section (random, depth - 1));
+				
+				return section;
+				
+			}
+			
+		};
+		
+		abstract JSONObject generate (Random random);
+		
+		/**
+		 * Returns the document as a new object.
+		 */
+		public JSONObject object () {
+			return generate (new Random (42));
+		}
+		
+		/**
+		 * Returns the document as compact JSON.
+		 */
+		public String json () {
+			return object ().toString ();
+		}
+		
+		private static JSONObject entry (Random random, int i) {
+			
+			JSONObject entry = new JSONObject ();
+			String name = "Document " + i + " " + Integer.toString (random.nextInt (1 << 20), 36) + ".pdf";
+			
+			entry.put (".tag", "file");
+			entry.put ("name", name);
+			entry.put ("path_lower", "/projects/reports/" + name.toLowerCase ());
+			entry.put ("path_display", "/Projects/Reports/" + name);
+			entry.put ("id", "id:" + Long.toString (random.nextLong () >>> 1, 36));
+			entry.put ("client_modified", "2024-0" + (1 + random.nextInt (9)) + "-1" + random.nextInt (10) + "T10:2" + random.nextInt (10) + ":00Z");
+			entry.put ("server_modified", "2024-0" + (1 + random.nextInt (9)) + "-2" + random.nextInt (10) + "T11:4" + random.nextInt (10) + ":00Z");
+			entry.put ("rev", Long.toHexString (random.nextLong ()));
+			entry.put ("size", (long) random.nextInt (50000000));
+			entry.put ("is_downloadable", true);
+			entry.put ("content_hash", Long.toHexString (random.nextLong ()) + Long.toHexString (random.nextLong ()) + Long.toHexString (random.nextLong ()));
+			
+			return entry;
+			
+		}
+		
+	}
\ No newline at end of file
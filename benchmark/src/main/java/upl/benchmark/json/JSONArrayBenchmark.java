@@ -0,0 +1,132 @@
+	/*
+	 * Copyright (c) 2020 - 2024 UPL Foundation
+	 *
+	 * Licensed under the Apache License, Version 2.0 (the "License");
+	 * you may not use this file except in compliance with the License.
+	 * You may obtain a copy of the License at
+	 *
+	 *     http://www.apache.org/licenses/LICENSE-2.0
+	 *
+	 * Unless required by applicable law or agreed to in writing, software
+	 * distributed under the License is distributed on an "AS IS" BASIS,
+	 * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	 * See the License for the specific language governing permissions and
+	 * limitations under the License.
+	 */
+	
+	package upl.benchmark.json;
+	
+	import java.util.concurrent.TimeUnit;
+	import org.openjdk.jmh.annotations.Benchmark;
+	import org.openjdk.jmh.annotations.BenchmarkMode;
+	import org.openjdk.jmh.annotations.Fork;
+	import org.openjdk.jmh.annotations.Measurement;
+	import org.openjdk.jmh.annotations.Mode;
+	import org.openjdk.jmh.annotations.OutputTimeUnit;
+	import org.openjdk.jmh.annotations.Param;
+	import org.openjdk.jmh.annotations.Scope;
+	import org.openjdk.jmh.annotations.Setup;
+	import org.openjdk.jmh.annotations.State;
+	import org.openjdk.jmh.annotations.Warmup;
+	import upl.json.JSONArray;
+	
+	/**
+	 * Numeric {@link JSONArray} workloads: filling, summing through the boxed
+	 * and the primitive getters, bulk conversion, and parsing and encoding
+	 * number lists.
+	 */
+	@State (Scope.Benchmark)
+	@BenchmarkMode (Mode.Throughput)
+	@OutputTimeUnit (TimeUnit.SECONDS)
+	@Warmup (iterations = 3, time = 2)
+	@Measurement (iterations = 5, time = 2)
+	@Fork (1)
+	public class JSONArrayBenchmark {
+		
+		@Param ({"1000", "100000"})
+		public int size;
+		
+		private JSONArray ints, doubles;
+		private String json;
+		
+		@Setup
+		public void setUp () {
+			
+			ints = new JSONArray (size);
+			doubles = new JSONArray (size);
+			
+			for (int i = 0; i < size; i++) {
+				
+				ints.put (i * 31);
+				doubles.put (i / 7d);
+				
+			}
+			
+			json = ints.toString ();
+			
+		}
+		
+		@Benchmark
+		public JSONArray fill () {
+			
+			JSONArray array = new JSONArray (size);
+			
+			for (int i = 0; i < size; i++)
+				array.put (i);
+			
+			return array;
+			
+		}
+		
+		@Benchmark
+		public long sumBoxed () {
+			
+			long sum = 0;
+			
+			for (int i = 0; i < size; i++)
+				sum += ints.getInt (i);
+			
+			return sum;
+			
+		}
+		
+		@Benchmark
+		public long sumPrimitive () {
+			
+			long sum = 0;
+			
+			for (int i = 0; i < size; i++)
+				sum += ints.getIntValue (i);
+			
+			return sum;
+			
+		}
+		
+		@Benchmark
+		public double sumDoubles () {
+			
+			double sum = 0;
+			
+			for (int i = 0; i < size; i++)
+				sum += doubles.getDoubleValue (i);
+			
+			return sum;
+			
+		}
+		
+		@Benchmark
+		public int[] toIntArray () {
+			return ints.toIntArray ();
+		}
+		
+		@Benchmark
+		public JSONArray parse () {
+			return new JSONArray (json);
+		}
+		
+		@Benchmark
+		public String encode () {
+			return ints.toString ();
+		}
+		
+	}
\ No newline at end of file
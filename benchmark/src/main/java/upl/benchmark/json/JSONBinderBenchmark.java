@@ -0,0 +1,158 @@
+	/*
+	 * Copyright (c) 2020 - 2024 UPL Foundation
+	 *
+	 * Licensed under the Apache License, Version 2.0 (the "License");
+	 * you may not use this file except in compliance with the License.
+	 * You may obtain a copy of the License at
+	 *
+	 *     http://www.apache.org/licenses/LICENSE-2.0
+	 *
+	 * Unless required by applicable law or agreed to in writing, software
+	 * distributed under the License is distributed on an "AS IS" BASIS,
+	 * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	 * See the License for the specific language governing permissions and
+	 * limitations under the License.
+	 */
+	
+	package upl.benchmark.json;
+	
+	import java.util.concurrent.TimeUnit;
+	import org.openjdk.jmh.annotations.Benchmark;
+	import org.openjdk.jmh.annotations.BenchmarkMode;
+	import org.openjdk.jmh.annotations.Fork;
+	import org.openjdk.jmh.annotations.Measurement;
+	import org.openjdk.jmh.annotations.Mode;
+	import org.openjdk.jmh.annotations.OutputTimeUnit;
+	import org.openjdk.jmh.annotations.Scope;
+	import org.openjdk.jmh.annotations.Setup;
+	import org.openjdk.jmh.annotations.State;
+	import org.openjdk.jmh.annotations.Warmup;
+	import upl.json.JSONArray;
+	import upl.json.JSONBinder;
+	import upl.json.JSONName;
+	import upl.json.JSONObject;
+	import upl.json.JSONReader;
+	
+	/**
+	 * Reading the entries of {@link Corpora#SMALL} into typed objects: by hand
+	 * from a parsed tree, through {@link JSONBinder} from a tree and straight
+	 * from a {@link JSONReader}, and back to a tree.
+	 */
+	@State (Scope.Benchmark)
+	@BenchmarkMode (Mode.Throughput)
+	@OutputTimeUnit (TimeUnit.SECONDS)
+	@Warmup (iterations = 3, time = 2)
+	@Measurement (iterations = 5, time = 2)
+	@Fork (1)
+	public class JSONBinderBenchmark {
+		
+		public static class Entry {
+			
+			@JSONName (".tag")
+			String tag;
+			
+			String name, id, rev;
+			
+			@JSONName ("path_display")
+			String path;
+			
+			long size;
+			
+			@JSONName ("is_downloadable")
+			boolean downloadable;
+			
+		}
+		
+		private static final JSONBinder<Entry> binder = JSONBinder.of (Entry.class);
+		
+		private String json;
+		private Entry[] entries;
+		
+		@Setup
+		public void setUp () {
+			
+			json = Corpora.SMALL.json ();
+			entries = tree ();
+			
+		}
+		
+		@Benchmark
+		public Entry[] byHand () {
+			
+			JSONArray items = new JSONObject (json).getJSONArray ("entries");
+			Entry[] entries = new Entry[items.length ()];
+			
+			for (int i = 0; i < entries.length; i++) {
+				
+				JSONObject item = items.getJSONObject (i);
+				Entry entry = new Entry ();
+				
+				entry.tag = item.getString (".tag");
+				entry.name = item.getString ("name");
+				entry.id = item.getString ("id");
+				entry.rev = item.getString ("rev");
+				entry.path = item.getString ("path_display");
+				entry.size = item.getLongValue ("size", 0);
+				entry.downloadable = item.getBoolValue ("is_downloadable", false);
+				
+				entries[i] = entry;
+				
+			}
+			
+			return entries;
+			
+		}
+		
+		@Benchmark
+		public Entry[] tree () {
+			
+			JSONArray items = new JSONObject (json).getJSONArray ("entries");
+			Entry[] entries = new Entry[items.length ()];
+			
+			for (int i = 0; i < entries.length; i++)
+				entries[i] = binder.read (items.getJSONObject (i));
+			
+			return entries;
+			
+		}
+		
+		@Benchmark
+		public Entry[] stream () {
+			
+			JSONReader reader = new JSONReader (json);
+			Entry[] entries = new Entry[10];
+			int count = 0;
+			
+			reader.beginObject ();
+			
+			while (reader.hasNext ())
+				if (reader.nextName ().equals ("entries")) {
+					
+					reader.beginArray ();
+					
+					while (reader.hasNext ())
+						entries[count++] = binder.read (reader);
+					
+					reader.endArray ();
+					
+				} else reader.skipValue ();
+			
+			reader.endObject ();
+			
+			return entries;
+			
+		}
+		
+		@Benchmark
+		public JSONArray write () {
+			
+			JSONArray array = new JSONArray (entries.length);
+			
+			for (Entry entry : entries)
+				array.put (binder.write (entry));
+			
+			return array;
+			
+		}
+		
+	}
\ No newline at end of file
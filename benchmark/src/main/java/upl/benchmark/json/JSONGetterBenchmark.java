@@ -0,0 +1,111 @@
+	/*
+	 * Copyright (c) 2020 - 2024 UPL Foundation
+	 *
+	 * Licensed under the Apache License, Version 2.0 (the "License");
+	 * you may not use this file except in compliance with the License.
+	 * You may obtain a copy of the License at
+	 *
+	 *     http://www.apache.org/licenses/LICENSE-2.0
+	 *
+	 * Unless required by applicable law or agreed to in writing, software
+	 * distributed under the License is distributed on an "AS IS" BASIS,
+	 * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	 * See the License for the specific language governing permissions and
+	 * limitations under the License.
+	 */
+	
+	package upl.benchmark.json;
+	
+	import java.util.concurrent.TimeUnit;
+	import org.openjdk.jmh.annotations.Benchmark;
+	import org.openjdk.jmh.annotations.BenchmarkMode;
+	import org.openjdk.jmh.annotations.Fork;
+	import org.openjdk.jmh.annotations.Measurement;
+	import org.openjdk.jmh.annotations.Mode;
+	import org.openjdk.jmh.annotations.OutputTimeUnit;
+	import org.openjdk.jmh.annotations.Scope;
+	import org.openjdk.jmh.annotations.Setup;
+	import org.openjdk.jmh.annotations.State;
+	import org.openjdk.jmh.annotations.Warmup;
+	import upl.json.JSONArray;
+	import upl.json.JSONObject;
+	
+	/**
+	 * Typed reads of the members of {@link Corpora#LARGE} records: the boxed
+	 * getters against their primitive counterparts, and strings.
+	 */
+	@State (Scope.Benchmark)
+	@BenchmarkMode (Mode.Throughput)
+	@OutputTimeUnit (TimeUnit.SECONDS)
+	@Warmup (iterations = 3, time = 2)
+	@Measurement (iterations = 5, time = 2)
+	@Fork (1)
+	public class JSONGetterBenchmark {
+		
+		private JSONObject[] items;
+		
+		@Setup
+		public void setUp () {
+			
+			JSONArray items = new JSONObject (Corpora.LARGE.json ()).getJSONArray ("items");
+			
+			this.items = new JSONObject[items.length ()];
+			
+			for (int i = 0; i < this.items.length; i++)
+				this.items[i] = items.getJSONObject (i);
+			
+		}
+		
+		@Benchmark
+		public double boxed () {
+			
+			double sum = 0;
+			
+			for (JSONObject item : items) {
+				
+				sum += item.getInt ("id");
+				sum += item.getLong ("timestamp");
+				sum += item.getDouble ("score");
+				
+				if (item.getBool ("active"))
+					sum++;
+				
+			}
+			
+			return sum;
+			
+		}
+		
+		@Benchmark
+		public double primitive () {
+			
+			double sum = 0;
+			
+			for (JSONObject item : items) {
+				
+				sum += item.getIntValue ("id", 0);
+				sum += item.getLongValue ("timestamp", 0);
+				sum += item.getDoubleValue ("score", 0);
+				
+				if (item.getBoolValue ("active", false))
+					sum++;
+				
+			}
+			
+			return sum;
+			
+		}
+		
+		@Benchmark
+		public int strings () {
+			
+			int length = 0;
+			
+			for (JSONObject item : items)
+				length += item.getString ("name").length ();
+			
+			return length;
+			
+		}
+		
+	}
\ No newline at end of file
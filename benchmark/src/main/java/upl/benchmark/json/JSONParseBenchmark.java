@@ -0,0 +1,89 @@
+	/*
+	 * Copyright (c) 2020 - 2024 UPL Foundation
+	 *
+	 * Licensed under the Apache License, Version 2.0 (the "License");
+	 * you may not use this file except in compliance with the License.
+	 * You may obtain a copy of the License at
+	 *
+	 *     http://www.apache.org/licenses/LICENSE-2.0
+	 *
+	 * Unless required by applicable law or agreed to in writing, software
+	 * distributed under the License is distributed on an "AS IS" BASIS,
+	 * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	 * See the License for the specific language governing permissions and
+	 * limitations under the License.
+	 */
+	
+	package upl.benchmark.json;
+	
+	import java.nio.charset.StandardCharsets;
+	import java.util.concurrent.TimeUnit;
+	import org.openjdk.jmh.annotations.Benchmark;
+	import org.openjdk.jmh.annotations.BenchmarkMode;
+	import org.openjdk.jmh.annotations.Fork;
+	import org.openjdk.jmh.annotations.Measurement;
+	import org.openjdk.jmh.annotations.Mode;
+	import org.openjdk.jmh.annotations.OutputTimeUnit;
+	import org.openjdk.jmh.annotations.Param;
+	import org.openjdk.jmh.annotations.Scope;
+	import org.openjdk.jmh.annotations.Setup;
+	import org.openjdk.jmh.annotations.State;
+	import org.openjdk.jmh.annotations.Warmup;
+	import upl.json.JSONObject;
+	import upl.json.JSONReader;
+	import upl.json.JSONTokener;
+	
+	/**
+	 * Parsing a whole document into a tree, from a string through {@link
+	 * JSONTokener} and {@link JSONReader} and from UTF-8 bytes, plus a lazy
+	 * parse reading a single member.
+	 */
+	@State (Scope.Benchmark)
+	@BenchmarkMode (Mode.Throughput)
+	@OutputTimeUnit (TimeUnit.SECONDS)
+	@Warmup (iterations = 3, time = 2)
+	@Measurement (iterations = 5, time = 2)
+	@Fork (1)
+	public class JSONParseBenchmark {
+		
+		@Param ({"SMALL", "LARGE", "NESTED"})
+		public Corpora corpus;
+		
+		private String json;
+		private byte[] bytes;
+		
+		/**
+		 * Top-level member read by {@link #lazy}.
+		 */
+		private String key;
+		
+		@Setup
+		public void setUp () {
+			
+			json = corpus.json ();
+			bytes = json.getBytes (StandardCharsets.UTF_8);
+			key = corpus.object ().keySet ().iterator ().next ();
+			
+		}
+		
+		@Benchmark
+		public JSONObject tokener () {
+			return new JSONObject (new JSONTokener (json));
+		}
+		
+		@Benchmark
+		public JSONObject reader () {
+			return new JSONObject (new JSONReader (json));
+		}
+		
+		@Benchmark
+		public JSONObject bytes () {
+			return new JSONObject (bytes);
+		}
+		
+		@Benchmark
+		public Object lazy () {
+			return new JSONObject (json, true).get (key);
+		}
+		
+	}
\ No newline at end of file
@@ -0,0 +1,123 @@
+	/*
+	 * Copyright (c) 2020 - 2024 UPL Foundation
+	 *
+	 * Licensed under the Apache License, Version 2.0 (the "License");
+	 * you may not use this file except in compliance with the License.
+	 * You may obtain a copy of the License at
+	 *
+	 *     http://www.apache.org/licenses/LICENSE-2.0
+	 *
+	 * Unless required by applicable law or agreed to in writing, software
+	 * distributed under the License is distributed on an "AS IS" BASIS,
+	 * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	 * See the License for the specific language governing permissions and
+	 * limitations under the License.
+	 */
+	
+	package upl.benchmark.json;
+	
+	import java.io.StringWriter;
+	import java.util.Map;
+	import java.util.concurrent.TimeUnit;
+	import org.openjdk.jmh.annotations.Benchmark;
+	import org.openjdk.jmh.annotations.BenchmarkMode;
+	import org.openjdk.jmh.annotations.Fork;
+	import org.openjdk.jmh.annotations.Measurement;
+	import org.openjdk.jmh.annotations.Mode;
+	import org.openjdk.jmh.annotations.OutputTimeUnit;
+	import org.openjdk.jmh.annotations.Param;
+	import org.openjdk.jmh.annotations.Scope;
+	import org.openjdk.jmh.annotations.Setup;
+	import org.openjdk.jmh.annotations.State;
+	import org.openjdk.jmh.annotations.Warmup;
+	import upl.json.JSONArray;
+	import upl.json.JSONObject;
+	import upl.json.JSONStringer;
+	import upl.json.JSONWriter;
+	
+	/**
+	 * Encoding a tree: compact and indented {@code toString}, a hand driven
+	 * {@link JSONStringer} and a streaming {@link JSONWriter}.
+	 */
+	@State (Scope.Benchmark)
+	@BenchmarkMode (Mode.Throughput)
+	@OutputTimeUnit (TimeUnit.SECONDS)
+	@Warmup (iterations = 3, time = 2)
+	@Measurement (iterations = 5, time = 2)
+	@Fork (1)
+	public class JSONWriteBenchmark {
+		
+		@Param ({"SMALL", "LARGE", "NESTED"})
+		public Corpora corpus;
+		
+		private JSONObject object;
+		
+		@Setup
+		public void setUp () {
+			object = corpus.object ();
+		}
+		
+		@Benchmark
+		public String compact () {
+			return object.toString ();
+		}
+		
+		@Benchmark
+		public String indented () {
+			return object.toString (2);
+		}
+		
+		@Benchmark
+		public String stringer () {
+			
+			JSONStringer stringer = new JSONStringer ();
+			write (stringer, object);
+			
+			return stringer.toString ();
+			
+		}
+		
+		private static void write (JSONStringer stringer, Object value) {
+			
+			if (value instanceof JSONObject) {
+				
+				stringer.object ();
+				
+				for (Map.Entry<String, Object> entry : ((JSONObject) value).entrySet ()) {
+					
+					stringer.key (entry.getKey ());
+					write (stringer, entry.getValue ());
+					
+				}
+				
+				stringer.endObject ();
+				
+			} else if (value instanceof JSONArray) {
+				
+				JSONArray array = (JSONArray) value;
+				
+				stringer.array ();
+				
+				for (int i = 0; i < array.length (); i++)
+					write (stringer, array.opt (i));
+				
+				stringer.endArray ();
+				
+			} else stringer.value (value);
+			
+		}
+		
+		@Benchmark
+		public StringWriter writer () {
+			
+			StringWriter output = new StringWriter ();
+			JSONWriter writer = new JSONWriter (output);
+			
+			writer.value (object);
+			writer.flush ();
+			
+			return output;
+			
+		}
+		
+	}
\ No newline at end of file
@@ -0,0 +1,121 @@
+	/*
+	 * Copyright (c) 2020 - 2024 UPL Foundation
+	 *
+	 * Licensed under the Apache License, Version 2.0 (the "License");
+	 * you may not use this file except in compliance with the License.
+	 * You may obtain a copy of the License at
+	 *
+	 *     http://www.apache.org/licenses/LICENSE-2.0
+	 *
+	 * Unless required by applicable law or agreed to in writing, software
+	 * distributed under the License is distributed on an "AS IS" BASIS,
+	 * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	 * See the License for the specific language governing permissions and
+	 * limitations under the License.
+	 */
+	
+	package upl.benchmark.util;
+	
+	import java.util.Collections;
+	import java.util.concurrent.ThreadLocalRandom;
+	import java.util.concurrent.TimeUnit;
+	import org.openjdk.jmh.annotations.Benchmark;
+	import org.openjdk.jmh.annotations.BenchmarkMode;
+	import org.openjdk.jmh.annotations.Fork;
+	import org.openjdk.jmh.annotations.Measurement;
+	import org.openjdk.jmh.annotations.Mode;
+	import org.openjdk.jmh.annotations.OutputTimeUnit;
+	import org.openjdk.jmh.annotations.Param;
+	import org.openjdk.jmh.annotations.Scope;
+	import org.openjdk.jmh.annotations.Setup;
+	import org.openjdk.jmh.annotations.State;
+	import org.openjdk.jmh.annotations.Threads;
+	import org.openjdk.jmh.annotations.Warmup;
+	import upl.util.ConcurrentHashMap;
+	import upl.util.ConcurrentLinkedHashMap;
+	import upl.util.LinkedHashMap;
+	
+	/**
+	 * Multi-threaded throughput of a map shared by all benchmark threads: the
+	 * concurrent {@code upl.util} maps against a {@link LinkedHashMap} behind
+	 * {@link Collections#synchronizedMap}, the way shared maps were guarded so
+	 * far. Override the thread count with {@code -t}.
+	 */
+	@State (Scope.Benchmark)
+	@BenchmarkMode (Mode.Throughput)
+	@OutputTimeUnit (TimeUnit.MILLISECONDS)
+	@Warmup (iterations = 3, time = 2)
+	@Measurement (iterations = 5, time = 2)
+	@Threads (4)
+	@Fork (1)
+	public class ConcurrentMapBenchmark {
+		
+		@Param ({"synchronized", "concurrent", "concurrentLinked"})
+		public String map;
+		
+		@Param ({"10000"})
+		public int keys;
+		
+		private java.util.Map<Integer, Integer> object;
+		
+		@Setup
+		public void setUp () {
+			
+			switch (map) {
+				
+				case "synchronized":
+					object = Collections.synchronizedMap (new LinkedHashMap<> ());
+					break;
+				
+				case "concurrent":
+					object = new ConcurrentHashMap<> ();
+					break;
+				
+				default:
+					object = new ConcurrentLinkedHashMap<> ();
+					break;
+				
+			}
+			
+			for (int i = 0; i < keys; i++)
+				object.put (i, i);
+			
+		}
+		
+		@Benchmark
+		public Integer get () {
+			return object.get (ThreadLocalRandom.current ().nextInt (keys));
+		}
+		
+		@Benchmark
+		public Integer put () {
+			
+			int key = ThreadLocalRandom.current ().nextInt (keys);
+			return object.put (key, key);
+			
+		}
+		
+		/**
+		 * Nine reads to one write, removing and adding keys back.
+		 */
+		@Benchmark
+		public Integer mixed () {
+			
+			ThreadLocalRandom random = ThreadLocalRandom.current ();
+			int key = random.nextInt (keys);
+			
+			if (random.nextInt (10) > 0)
+				return object.get (key);
+			else if (object.remove (key) == null)
+				return object.put (key, key);
+			
+			return null;
+			
+		}
+		
+		@Benchmark
+		public Integer merge () {
+			return object.merge (ThreadLocalRandom.current ().nextInt (keys), 1, Integer::sum);
+		}
+		
+	}
\ No newline at end of file
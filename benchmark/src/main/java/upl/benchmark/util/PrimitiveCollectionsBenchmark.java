@@ -0,0 +1,281 @@
+	/*
+	 * Copyright (c) 2020 - 2024 UPL Foundation
+	 *
+	 * Licensed under the Apache License, Version 2.0 (the "License");
+	 * you may not use this file except in compliance with the License.
+	 * You may obtain a copy of the License at
+	 *
+	 *     http://www.apache.org/licenses/LICENSE-2.0
+	 *
+	 * Unless required by applicable law or agreed to in writing, software
+	 * distributed under the License is distributed on an "AS IS" BASIS,
+	 * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	 * See the License for the specific language governing permissions and
+	 * limitations under the License.
+	 */
+	
+	package upl.benchmark.util;
+	
+	import java.util.ArrayList;
+	import java.util.HashMap;
+	import java.util.HashSet;
+	import java.util.List;
+	import java.util.Map;
+	import java.util.Random;
+	import java.util.Set;
+	import java.util.concurrent.TimeUnit;
+	import org.openjdk.jmh.annotations.Benchmark;
+	import org.openjdk.jmh.annotations.BenchmarkMode;
+	import org.openjdk.jmh.annotations.Fork;
+	import org.openjdk.jmh.annotations.Measurement;
+	import org.openjdk.jmh.annotations.Mode;
+	import org.openjdk.jmh.annotations.OutputTimeUnit;
+	import org.openjdk.jmh.annotations.Param;
+	import org.openjdk.jmh.annotations.Scope;
+	import org.openjdk.jmh.annotations.Setup;
+	import org.openjdk.jmh.annotations.State;
+	import org.openjdk.jmh.annotations.Warmup;
+	import upl.util.IntIntMap;
+	import upl.util.IntList;
+	import upl.util.IntObjectMap;
+	import upl.util.IntSet;
+	
+	/**
+	 * Primitive collections of {@code upl.util} against their boxed
+	 * {@code java.util} equivalents: filling, looking up random keys and
+	 * iterating. Run with {@code -prof gc} to compare the allocation rates.
+	 */
+	@State (Scope.Benchmark)
+	@BenchmarkMode (Mode.Throughput)
+	@OutputTimeUnit (TimeUnit.SECONDS)
+	@Warmup (iterations = 3, time = 2)
+	@Measurement (iterations = 5, time = 2)
+	@Fork (1)
+	public class PrimitiveCollectionsBenchmark {
+		
+		@Param ({"1000", "100000"})
+		public int size;
+		
+		private int[] keys, lookups;
+		
+		private IntIntMap intIntMap;
+		private Map<Integer, Integer> boxedMap;
+		
+		private IntObjectMap<String> intObjectMap;
+		private Map<Integer, String> boxedObjectMap;
+		
+		private IntSet intSet;
+		private Set<Integer> boxedSet;
+		
+		private IntList intList;
+		private List<Integer> boxedList;
+		
+		@Setup
+		public void setUp () {
+			
+			Random random = new Random (42);
+			
+			keys = new int[size];
+			lookups = new int[size];
+			
+			for (int i = 0; i < size; i++) {
+				
+				keys[i] = random.nextInt ();
+				lookups[i] = (random.nextBoolean () ? keys[random.nextInt (i + 1)] : random.nextInt ());
+				
+			}
+			
+			intIntMap = fillIntIntMap ();
+			boxedMap = fillBoxedMap ();
+			
+			intObjectMap = new IntObjectMap<> (size);
+			boxedObjectMap = new HashMap<> (size);
+			
+			intSet = IntSet.of (keys);
+			boxedSet = new HashSet<> (boxedMap.keySet ());
+			
+			intList = fillIntList ();
+			boxedList = fillBoxedList ();
+			
+			for (int key : keys) {
+				
+				intObjectMap.put (key, "v");
+				boxedObjectMap.put (key, "v");
+				
+			}
+			
+		}
+		
+		@Benchmark
+		public IntIntMap fillIntIntMap () {
+			
+			IntIntMap map = new IntIntMap ();
+			
+			for (int key : keys)
+				map.add (key, 1);
+			
+			return map;
+			
+		}
+		
+		@Benchmark
+		public Map<Integer, Integer> fillBoxedMap () {
+			
+			Map<Integer, Integer> map = new HashMap<> ();
+			
+			for (int key : keys)
+				map.merge (key, 1, Integer::sum);
+			
+			return map;
+			
+		}
+		
+		@Benchmark
+		public long getIntIntMap () {
+			
+			long sum = 0;
+			
+			for (int key : lookups)
+				sum += intIntMap.get (key);
+			
+			return sum;
+			
+		}
+		
+		@Benchmark
+		public long getBoxedMap () {
+			
+			long sum = 0;
+			
+			for (int key : lookups)
+				sum += boxedMap.getOrDefault (key, 0);
+			
+			return sum;
+			
+		}
+		
+		@Benchmark
+		public int getIntObjectMap () {
+			
+			int found = 0;
+			
+			for (int key : lookups)
+				if (intObjectMap.get (key) != null)
+					found++;
+			
+			return found;
+			
+		}
+		
+		@Benchmark
+		public int getBoxedObjectMap () {
+			
+			int found = 0;
+			
+			for (int key : lookups)
+				if (boxedObjectMap.get (key) != null)
+					found++;
+			
+			return found;
+			
+		}
+		
+		@Benchmark
+		public int containsIntSet () {
+			
+			int found = 0;
+			
+			for (int key : lookups)
+				if (intSet.contains (key))
+					found++;
+			
+			return found;
+			
+		}
+		
+		@Benchmark
+		public int containsBoxedSet () {
+			
+			int found = 0;
+			
+			for (int key : lookups)
+				if (boxedSet.contains (key))
+					found++;
+			
+			return found;
+			
+		}
+		
+		@Benchmark
+		public long iterateIntIntMap () {
+			
+			long sum = 0;
+			
+			for (int slot = intIntMap.next (-1); slot >= 0; slot = intIntMap.next (slot))
+				sum += intIntMap.keyAt (slot) + intIntMap.valueAt (slot);
+			
+			return sum;
+			
+		}
+		
+		@Benchmark
+		public long iterateBoxedMap () {
+			
+			long sum = 0;
+			
+			for (Map.Entry<Integer, Integer> entry : boxedMap.entrySet ())
+				sum += entry.getKey () + entry.getValue ();
+			
+			return sum;
+			
+		}
+		
+		@Benchmark
+		public IntList fillIntList () {
+			
+			IntList list = new IntList ();
+			
+			for (int key : keys)
+				list.add (key);
+			
+			return list;
+			
+		}
+		
+		@Benchmark
+		public List<Integer> fillBoxedList () {
+			
+			List<Integer> list = new ArrayList<> ();
+			
+			for (int key : keys)
+				list.add (key);
+			
+			return list;
+			
+		}
+		
+		@Benchmark
+		public long sumIntList () {
+			
+			long sum = 0;
+			
+			for (int i = 0; i < intList.size (); i++)
+				sum += intList.get (i);
+			
+			return sum;
+			
+		}
+		
+		@Benchmark
+		public long sumBoxedList () {
+			
+			long sum = 0;
+			
+			for (int i = 0; i < boxedList.size (); i++)
+				sum += boxedList.get (i);
+			
+			return sum;
+			
+		}
+		
+	}
\ No newline at end of file
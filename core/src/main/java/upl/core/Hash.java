@@ -27,9 +27,17 @@
 		
 		protected static String ALGORITHM = "SHA-256";
 		
+		protected String algorithm = ALGORITHM;
+		
+		/**
+		 * Sets the digest algorithm of this instance, {@link #ALGORITHM} by
+		 * default.
+		 */
 		public Hash setAlgorithm (String algorithm) {
 			
-			Hash.ALGORITHM = algorithm;
+			this.algorithm = algorithm;
+			md = null;
+			
 			return this;
 			
 		}
@@ -41,7 +49,7 @@
 			try {
 				
 				if (md == null)
-					md = MessageDigest.getInstance (ALGORITHM);
+					md = MessageDigest.getInstance (algorithm);
 				
 				return md;
 				
@@ -80,32 +88,50 @@
 		
 		public Hash process (byte[] bytes, int offset, int length) {
 			
+			if (digest != null) {
+				
+				digest = null;
+				stringHash = null;
+				
+			}
+			
 			getDigest ().update (bytes, offset, length);
 			
 			return this;
 			
 		}
 		
-		protected long longHash;
+		/**
+		 * Digest of the data processed so far, kept until more data is processed
+		 * so that {@link #toLong} and {@link #toString} agree.
+		 */
+		protected byte[] digest;
+		
+		public byte[] digest () {
+			
+			if (digest == null)
+				digest = getDigest ().digest ();
+			
+			return digest;
+			
+		}
 		
+		/**
+		 * Returns the first 4 bytes of the digest as a non-negative number.
+		 */
 		public long toLong () {
 			
-			if (longHash == 0) {
-				
-				byte[] digest = md.digest ();
-				
-				for (int i = 0; i < 4; i++) {
-					
-					longHash <<= 8;
-					longHash |= ((int) digest[i]) & 0xFF;
-					
-				}
+			byte[] digest = digest ();
+			long hash = 0;
+			
+			for (int i = 0; i < 4; i++) {
 				
-				return longHash;
+				hash <<= 8;
+				hash |= ((int) digest[i]) & 0xFF;
 				
 			}
 			
-			return longHash;
+			return hash;
 			
 		}
 		
@@ -118,7 +144,7 @@
 				
 				StringBuilder result = new StringBuilder ();
 				
-				for (byte value : getDigest ().digest ())
+				for (byte value : digest ())
 					result.append (Integer.toString ((value & 0xff) + 0x100, 16).substring (1));
 				
 				stringHash = result.toString ();
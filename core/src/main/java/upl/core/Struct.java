@@ -18,22 +18,76 @@
 	package upl.core;
 	
 	import upl.map.KeysSortedHashMap;
+	import upl.util.CompactHashMap;
 	import upl.util.HashMap;
 	import upl.util.Map;
 	
 	public abstract class Struct extends KeysSortedHashMap<String, Object> {
 		
-		protected Map<String, Object> defValues = new HashMap<> ();
+		/**
+		 * Default values, allocated on the first {@link #setDefValue} call.
+		 */
+		protected Map<String, Object> defValues;
+		
+		/**
+		 * Creates a struct stored in a {@link CompactHashMap}, which holds keys and
+		 * values in flat arrays instead of a chain of entry objects.
+		 */
+		public Struct () {
+			this (0);
+		}
+		
+		/**
+		 * @param capacity number of mappings the struct holds without growing.
+		 */
+		public Struct (int capacity) {
+			super (new CompactHashMap<> (capacity));
+		}
+		
+		/**
+		 * Creates a struct stored in {@code object}.
+		 */
+		protected Struct (java.util.Map<String, Object> object) {
+			super (object);
+		}
 		
 		protected abstract void assertNull (String key, Object value);
 		
+		/**
+		 * Makes room for at least {@code capacity} mappings.
+		 */
+		public void ensureCapacity (int capacity) {
+			
+			if (object instanceof CompactHashMap)
+				((CompactHashMap<String, Object>) object).ensureCapacity (capacity);
+			
+		}
+		
+		/**
+		 * Makes an empty struct share its key layout with other structs through
+		 * {@code shape}, see {@link CompactHashMap.Shape}.
+		 */
+		public void setShape (CompactHashMap.Shape shape) {
+			
+			if (object instanceof CompactHashMap)
+				((CompactHashMap<String, Object>) object).setShape (shape);
+			
+		}
+		
+		/**
+		 * Returns the default value registered for {@code key}, or null.
+		 */
+		protected final Object getDefValue (String key) {
+			return (defValues != null ? defValues.get (key) : null);
+		}
+		
 		/**
 		 * Returns the value mapped by {@code name} if it exists and is an int or can be coerced
 		 * to a String.
 		 * Returns {@code fallback} otherwise.
 		 */
 		public final String getString (String key) {
-			return getString (key, (String) defValues.get (key));
+			return getString (key, (String) getDefValue (key));
 		}
 		
 		/**
@@ -42,7 +96,7 @@
 		 * Returns {@code fallback} otherwise.
 		 */
 		public final Boolean getBool (String key) {
-			return getBool (key, (Boolean) defValues.get (key));
+			return getBool (key, (Boolean) getDefValue (key));
 		}
 		
 		/**
@@ -51,7 +105,7 @@
 		 * Returns {@code fallback} otherwise.
 		 */
 		public final Integer getInt (String key) {
-			return getInt (key, (Integer) defValues.get (key));
+			return getInt (key, (Integer) getDefValue (key));
 		}
 		
 		/**
@@ -60,7 +114,7 @@
 		 * Returns {@code fallback} otherwise.
 		 */
 		public final Long getLong (String key) {
-			return getLong (key, (Long) defValues.get (key));
+			return getLong (key, (Long) getDefValue (key));
 		}
 		
 		/**
@@ -69,7 +123,7 @@
 		 * Returns {@code fallback} otherwise.
 		 */
 		public final Float getFloat (String key) {
-			return getFloat (key, (Float) defValues.get (key));
+			return getFloat (key, (Float) getDefValue (key));
 		}
 		
 		/**
@@ -78,7 +132,7 @@
 		 * Returns {@code fallback} otherwise.
 		 */
 		public final Double getDouble (String key) {
-			return getDouble (key, (Double) defValues.get (key));
+			return getDouble (key, (Double) getDefValue (key));
 		}
 		
 		/**
@@ -176,6 +230,121 @@
 			
 		}
 		
+		/**
+		 * Same as {@link #getBool(String, Boolean)} without boxing: returns the value mapped by
+		 * {@code name} if it exists and is a boolean or can be coerced to a boolean, {@code
+		 * defValue} if there is no such mapping.
+		 */
+		public final boolean getBoolValue (String name, boolean defValue) {
+			
+			Object object = get (name);
+			
+			if (object instanceof Boolean)
+				return (Boolean) object;
+			else if (object == null)
+				return defValue;
+			
+			Boolean result = toBool (object);
+			
+			if (result == null)
+				throw typeMismatch (name, object, "boolean");
+			
+			return result;
+			
+		}
+		
+		/**
+		 * Same as {@link #getInt(String, Integer)} without boxing: returns the value mapped by
+		 * {@code name} if it exists and is an int or can be coerced to an int, {@code defValue}
+		 * if there is no such mapping.
+		 */
+		public final int getIntValue (String name, int defValue) {
+			
+			Object object = get (name);
+			
+			if (object instanceof Number)
+				return ((Number) object).intValue ();
+			else if (object == null)
+				return defValue;
+			
+			Integer result = toInteger (object);
+			
+			if (result == null)
+				throw typeMismatch (name, object, "int");
+			
+			return result;
+			
+		}
+		
+		/**
+		 * Same as {@link #getLong(String, Long)} without boxing: returns the value mapped by
+		 * {@code name} if it exists and is a long or can be coerced to a long, {@code defValue}
+		 * if there is no such mapping.
+		 */
+		public final long getLongValue (String name, long defValue) {
+			
+			Object object = get (name);
+			
+			if (object instanceof Number)
+				return ((Number) object).longValue ();
+			else if (object == null)
+				return defValue;
+			
+			Long result = toLong (object);
+			
+			if (result == null)
+				throw typeMismatch (name, object, "long");
+			
+			return result;
+			
+		}
+		
+		/**
+		 * Same as {@link #getFloat(String, Float)} without boxing: returns the value mapped by
+		 * {@code name} if it exists and is a float or can be coerced to a float, {@code
+		 * defValue} if there is no such mapping.
+		 */
+		public final float getFloatValue (String name, float defValue) {
+			
+			Object object = get (name);
+			
+			if (object instanceof Number)
+				return ((Number) object).floatValue ();
+			else if (object == null)
+				return defValue;
+			
+			Float result = toFloat (object);
+			
+			if (result == null)
+				throw typeMismatch (name, object, "float");
+			
+			return result;
+			
+		}
+		
+		/**
+		 * Same as {@link #getDouble(String, Double)} without boxing: returns the value mapped by
+		 * {@code name} if it exists and is a double or can be coerced to a double, {@code
+		 * defValue} if there is no such mapping.
+		 */
+		public final double getDoubleValue (String name, double defValue) {
+			
+			Object object = get (name);
+			
+			if (object instanceof Number)
+				return ((Number) object).doubleValue ();
+			else if (object == null)
+				return defValue;
+			
+			Double result = toDouble (object);
+			
+			if (result == null)
+				throw typeMismatch (name, object, "double");
+			
+			return result;
+			
+		}
+		
 		/**
 		 * Returns the value mapped by {@code name} if it exists and is an int or can be coerced
 		 * to a String.
@@ -232,6 +401,9 @@
 		
 		public Struct setDefValue (String key, Object value) {
 			
+			if (defValues == null)
+				defValues = new HashMap<> ();
+			
 			defValues.add (key, value);
 			
 			return this;
@@ -17,9 +17,6 @@
 	
 	package upl.hash;
 	
-	import java.util.Iterator;
-	import java.util.SortedMap;
-	import java.util.TreeMap;
 	import upl.core.Hash;
 	import upl.json.JSONObject;
 	
@@ -28,10 +25,16 @@
 	 * <p>
 	 * To hash Node objects to a hash ring with a certain amount of virtual node.
 	 * Method routeNode will return a Node instance which the object key should be allocated to according to consistent hash algorithm
+	 * <p>
+	 * The ring is a {@link HashRing}, see it for the lookup strategies. Adding or removing a node returns the
+	 * {@link Rebalance} of the keys it moves.
+	 * <p>
+	 * This class used to be the {@code TreeMap} of the ring points itself, with a {@code VirtualNode} for each point; it
+	 * isn't a {@link java.util.Map} anymore, the points are reached through {@link #getRing}.
 	 */
-	public class ConsistentHash extends TreeMap<Long, ConsistentHash.VirtualNode> {
+	public class ConsistentHash {
 		
-		protected Hash hashFunction;
+		protected final HashRing<Node> ring = new HashRing<> ();
 		protected int vNodeCount;
 		
 		public ConsistentHash () {
@@ -42,25 +45,28 @@
      * @param vNodeCount   amounts of virtual nodes
      */
 		public ConsistentHash (int vNodeCount) {
+			
+			if (vNodeCount < 1)
+				throw new IllegalArgumentException ("Virtual nodes must be at least 1: " + vNodeCount);
+			
 			this.vNodeCount = vNodeCount;
+			
 		}
 		
 		/**
      * add physical node to the hash ring with some virtual nodes
      *
      * @param pNode      physical node needs added to hash ring
+     * @return the keys to move to it
      */
-		public void put (Node pNode) {
-			
-			int existingReplicas = getExistingReplicas (pNode);
+		public Rebalance<Node> put (Node pNode) {
 			
-			for (int i = 0; i < vNodeCount; i++) {
+			synchronized (ring) {
 				
-				VirtualNode vNode = new VirtualNode (pNode);
+				HashRing.Snapshot<Node> before = ring.snapshot ();
+				ring.add (pNode.getKey (), pNode, vNodeCount);
 				
-				vNode.replicaIndex = i + existingReplicas;
-				
-				put (getHash (vNode.getKey ()), vNode);
+				return ring.diff (before);
 				
 			}
 			
@@ -70,93 +76,70 @@
      * remove the physical node from the hash ring
      *
      * @param pNode      physical node needs to be removed from hash ring
+     * @return the keys to move from it
      */
-		@SuppressWarnings ("Java8CollectionRemoveIf")
-		public void remove (Node pNode) {
-			
-			Iterator<Long> it = keySet ().iterator ();
+		public Rebalance<Node> remove (Node pNode) {
 			
-			while (it.hasNext ())
-				if (get (it.next ()).isVirtualNodeOf (pNode))
-					it.remove ();
+			synchronized (ring) {
+				
+				HashRing.Snapshot<Node> before = ring.snapshot ();
+				ring.remove (pNode.getKey ());
+				
+				return ring.diff (before);
+				
+			}
 			
 		}
 		
+		/**
+     * hash keys with a digest instead of the default {@link HashFunction#MURMUR3}
+     */
 		public ConsistentHash setHash (Hash hash) {
+			return setHash (HashFunction.of (hash));
+		}
+		
+		public ConsistentHash setHash (HashFunction hash) {
 			
-			hashFunction = hash;
+			ring.setHash (hash);
 			return this;
 			
 		}
 		
-		protected long getHash (String key) {
-			
-			if (hashFunction == null)
-				hashFunction = new Hash ();
+		public ConsistentHash setStrategy (HashRing.Strategy strategy) {
 			
-			return hashFunction.process (key).toLong ();
+			ring.setStrategy (strategy);
+			return this;
 			
 		}
 		
+		public HashRing<Node> getRing () {
+			return ring;
+		}
+		
 		/**
      * with a specified key, route the nearest Node instance in the current hash ring
      *
      * @param objectKey the object key to find a nearest Node
      */
 		public Node get (String objectKey) {
-			
-			if (!isEmpty ()) {
-				
-				SortedMap<Long, VirtualNode> tailMap = tailMap (getHash (objectKey));
-				
-				Long nodeHashVal = !tailMap.isEmpty () ? tailMap.firstKey () : firstKey ();
-				
-				return get (nodeHashVal).getPhysicalNode ();
-				
-			} else return null;
-			
+			return ring.get (objectKey);
 		}
 		
 		public int getExistingReplicas (Node pNode) {
-			
-			int replicas = 0;
-			
-			for (VirtualNode vNode : values ())
-				if (vNode.isVirtualNodeOf (pNode))
-					replicas++;
-			
-			return replicas;
-			
+			return ring.getReplicas (pNode.getKey ());
 		}
 		
-		public static abstract class Node extends JSONObject {
-			
-			public abstract String getKey ();
-			
+		public boolean isEmpty () {
+			return ring.isEmpty ();
 		}
 		
-		protected static class VirtualNode extends Node {
-			
-			protected int replicaIndex;
-			
-			protected Node physicalNode;
-			
-			protected VirtualNode (Node physicalNode) {
-				this.physicalNode = physicalNode;
-			}
-			
-			@Override
-			public String getKey () {
-				return physicalNode.getKey () + "-" + replicaIndex;
-			}
-			
-			protected boolean isVirtualNodeOf (Node pNode) {
-				return physicalNode.getKey ().equals (pNode.getKey ());
-			}
+		public int size () {
+			return ring.size ();
+		}
+		
+		public static abstract class Node extends JSONObject {
 			
-			protected Node getPhysicalNode () {
-				return physicalNode;
-			}
+			public abstract String getKey ();
 			
 		}
 		
@@ -0,0 +1,49 @@
+	/*
+	 * Copyright (c) 2020 - 2024 UPL Foundation
+	 *
+	 * Licensed under the Apache License, Version 2.0 (the "License");
+	 * you may not use this file except in compliance with the License.
+	 * You may obtain a copy of the License at
+	 *
+	 *     http://www.apache.org/licenses/LICENSE-2.0
+	 *
+	 * Unless required by applicable law or agreed to in writing, software
+	 * distributed under the License is distributed on an "AS IS" BASIS,
+	 * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	 * See the License for the specific language governing permissions and
+	 * limitations under the License.
+	 */
+	
+	package upl.hash;
+	
+	import upl.core.Hash;
+	
+	/**
+	 * Hashes keys to positions of a {@link HashRing}.
+	 */
+	public interface HashFunction {
+		
+		long hash (String key);
+		
+		/**
+		 * The default, fast and non-cryptographic.
+		 */
+		HashFunction MURMUR3 = Murmur3::hash64;
+		
+		/**
+		 * Adapts a digest, SHA-256 by default. The digest is not thread safe, so
+		 * calls are serialized on it.
+		 */
+		static HashFunction of (Hash hash) {
+			
+			return key -> {
+				
+				synchronized (hash) {
+					return hash.process (key).toLong ();
+				}
+				
+			};
+			
+		}
+		
+	}
\ No newline at end of file
@@ -0,0 +1,563 @@
+	/*
+	 * Copyright (c) 2020 - 2024 UPL Foundation
+	 *
+	 * Licensed under the Apache License, Version 2.0 (the "License");
+	 * you may not use this file except in compliance with the License.
+	 * You may obtain a copy of the License at
+	 *
+	 *     http://www.apache.org/licenses/LICENSE-2.0
+	 *
+	 * Unless required by applicable law or agreed to in writing, software
+	 * distributed under the License is distributed on an "AS IS" BASIS,
+	 * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	 * See the License for the specific language governing permissions and
+	 * limitations under the License.
+	 */
+	
+	package upl.hash;
+	
+	import java.util.ArrayList;
+	import java.util.Arrays;
+	import java.util.Iterator;
+	import java.util.LinkedHashMap;
+	import java.util.List;
+	import java.util.Map;
+	import java.util.NoSuchElementException;
+	import java.util.TreeMap;
+	import java.util.concurrent.atomic.AtomicInteger;
+	import java.util.concurrent.atomic.AtomicLong;
+	
+	/**
+	 * Routes keys to nodes by consistent hashing.
+	 *
+	 * <p>Every node is placed on the ring at the hashes of {@code key-0},
+	 * {@code key-1} and so on, one point per virtual node. Points are kept in a
+	 * {@link TreeMap}, so adding or removing a node costs O(vnodes log n). The
+	 * ring is compiled into a sorted {@code long[]} of hashes with a parallel
+	 * array of nodes on the first lookup after a change, and lookups binary
+	 * search it without locking or allocating.
+	 *
+	 * <p>The {@link Strategy} chooses how a key is placed:
+	 *
+	 * <ul>
+	 *   <li>{@link Strategy#RING}, the default: the first point clockwise from
+	 *       the key hash.
+	 *   <li>{@link Strategy#BOUNDED_LOAD}: as {@code RING}, skipping nodes whose
+	 *       load reached {@link #setLoadFactor} times the average, see
+	 *       {@link #acquire} and {@link #release}.
+	 *   <li>{@link Strategy#RENDEZVOUS}: the node with the highest score for
+	 *       the key, weighted by virtual nodes. No ring is needed but a lookup
+	 *       is O(n).
+	 *   <li>{@link Strategy#JUMP}: Jump consistent hash over the nodes in the
+	 *       order they were added, in O(log n) with no memory. Only removing the
+	 *       last added node moves the minimum of keys.
+	 * </ul>
+	 *
+	 * <p>The ring is thread safe: changes are synchronized, lookups are not.
+	 *
+	 * @param <N> the type of nodes
+	 */
+	public class HashRing<N> implements Iterable<N> {
+		
+		public enum Strategy {
+			RING, BOUNDED_LOAD, RENDEZVOUS, JUMP
+		}
+		
+		protected static final class Member<N> {
+			
+			protected final String key;
+			protected final N node;
+			protected final long hash;
+			
+			protected int replicas = 0;
+			
+			protected final AtomicInteger load = new AtomicInteger ();
+			
+			protected Member (String key, N node, long hash) {
+				
+				this.key = key;
+				this.node = node;
+				this.hash = hash;
+				
+			}
+			
+		}
+		
+		/**
+		 * Immutable state of the ring used by lookups. Take one with
+		 * {@link #snapshot} before a change to get its {@link #diff} after.
+		 */
+		public static final class Snapshot<N> {
+			
+			protected final long[] hashes;
+			protected final Member<N>[] owners, members;
+			protected final int[] weights;
+			
+			protected final HashFunction hashFunction;
+			protected final Strategy strategy;
+			
+			protected Snapshot (long[] hashes, Member<N>[] owners, Member<N>[] members, HashFunction hashFunction, Strategy strategy) {
+				
+				this.hashes = hashes;
+				this.owners = owners;
+				this.members = members;
+				this.hashFunction = hashFunction;
+				this.strategy = strategy;
+				
+				weights = new int[members.length];
+				
+				for (int i = 0; i < members.length; i++)
+					weights[i] = Math.max (1, members[i].replicas);
+				
+			}
+			
+			/**
+			 * Returns the node of {@code key} at the time of the snapshot, or null
+			 * if the ring was empty. Loads are not part of a snapshot, so
+			 * {@link Strategy#BOUNDED_LOAD} places keys as {@link Strategy#RING}.
+			 */
+			public N get (String key) {
+				
+				Member<N> member = owner (hashFunction.hash (key));
+				return (member != null ? member.node : null);
+				
+			}
+			
+			protected Member<N> owner (long hash) {
+				
+				if (members.length == 0)
+					return null;
+				
+				switch (strategy) {
+					
+					case JUMP:
+						return members[jump (hash, members.length)];
+					
+					case RENDEZVOUS:
+						return rendezvous (members, weights, hash);
+					
+					default:
+						return owners[point (hashes, hash)];
+					
+				}
+				
+			}
+			
+			/**
+			 * Tells whether keys are placed by ring points, so that the keys moved
+			 * between two snapshots form hash ranges.
+			 */
+			protected boolean isRing () {
+				return (strategy == Strategy.RING || strategy == Strategy.BOUNDED_LOAD);
+			}
+			
+			/**
+			 * Returns the number of nodes.
+			 */
+			public int size () {
+				return members.length;
+			}
+			
+		}
+		
+		protected HashFunction hashFunction = HashFunction.MURMUR3;
+		protected Strategy strategy = Strategy.RING;
+		protected double loadFactor = 1.25;
+		
+		protected final TreeMap<Long, Member<N>> points = new TreeMap<> ();
+		protected final Map<String, Member<N>> members = new LinkedHashMap<> ();
+		
+		protected final AtomicLong load = new AtomicLong ();
+		
+		private volatile Snapshot<N> compiled;
+		
+		/**
+		 * Sets the hash function. Nodes already added are placed again.
+		 */
+		public synchronized HashRing<N> setHash (HashFunction hashFunction) {
+			
+			this.hashFunction = hashFunction;
+			
+			if (!members.isEmpty ()) {
+				
+				List<Member<N>> members = new ArrayList<> (this.members.values ());
+				
+				this.members.clear ();
+				points.clear ();
+				
+				for (Member<N> member : members) {
+					
+					add (member.key, member.node, member.replicas);
+					this.members.get (member.key).load.set (member.load.get ());
+					
+				}
+				
+			}
+			
+			return this;
+			
+		}
+		
+		public synchronized HashRing<N> setStrategy (Strategy strategy) {
+			
+			this.strategy = strategy;
+			compiled = null;
+			
+			return this;
+			
+		}
+		
+		/**
+		 * Sets how much more than the average load a node takes in the
+		 * {@link Strategy#BOUNDED_LOAD} strategy, 1.25 by default.
+		 */
+		public synchronized HashRing<N> setLoadFactor (double loadFactor) {
+			
+			if (loadFactor < 1)
+				throw new IllegalArgumentException ("Load factor must be at least 1: " + loadFactor);
+			
+			this.loadFactor = loadFactor;
+			return this;
+			
+		}
+		
+		/**
+		 * Adds {@code vnodes} virtual nodes of {@code node}, after the ones it
+		 * already has.
+		 *
+		 * @throws IllegalArgumentException if {@code vnodes} is less than 1.
+		 */
+		public synchronized HashRing<N> add (String key, N node, int vnodes) {
+			
+			if (vnodes < 1)
+				throw new IllegalArgumentException ("Virtual nodes must be at least 1: " + vnodes);
+			
+			Member<N> member = members.get (key);
+			
+			if (member == null) {
+				
+				member = new Member<> (key, node, hashFunction.hash (key));
+				members.put (key, member);
+				
+			}
+			
+			for (int i = 0; i < vnodes; i++)
+				points.put (hashFunction.hash (key + "-" + member.replicas++), member);
+			
+			compiled = null;
+			
+			return this;
+			
+		}
+		
+		/**
+		 * Removes the node added as {@code key} with all its virtual nodes.
+		 *
+		 * @return the node, or null if there is no such node.
+		 */
+		public synchronized N remove (String key) {
+			
+			Member<N> member = members.remove (key);
+			
+			if (member == null)
+				return null;
+			
+			for (int i = 0; i < member.replicas; i++)
+				points.remove (hashFunction.hash (key + "-" + i), member);
+			
+			load.addAndGet (-member.load.get ());
+			compiled = null;
+			
+			return member.node;
+			
+		}
+		
+		public synchronized void clear () {
+			
+			members.clear ();
+			points.clear ();
+			load.set (0);
+			
+			compiled = null;
+			
+		}
+		
+		public synchronized boolean contains (String key) {
+			return members.containsKey (key);
+		}
+		
+		/**
+		 * Returns the number of virtual nodes of the node added as {@code key}.
+		 */
+		public synchronized int getReplicas (String key) {
+			
+			Member<N> member = members.get (key);
+			return (member != null ? member.replicas : 0);
+			
+		}
+		
+		public synchronized N getNode (String key) {
+			
+			Member<N> member = members.get (key);
+			return (member != null ? member.node : null);
+			
+		}
+		
+		/**
+		 * Returns the number of nodes.
+		 */
+		public int size () {
+			return compiled ().members.length;
+		}
+		
+		public boolean isEmpty () {
+			return size () == 0;
+		}
+		
+		/**
+		 * Returns the current state of the ring. Snapshots are shared and cost
+		 * nothing until the next change.
+		 */
+		public Snapshot<N> snapshot () {
+			return compiled ();
+		}
+		
+		/**
+		 * Returns what changed between {@code before} and now, see
+		 * {@link Rebalance}. Take both under the same lock to diff a single
+		 * change:
+		 *
+		 * <pre>
+		 * synchronized (ring) {
+		 *   HashRing.Snapshot&lt;N&gt; before = ring.snapshot ();
+		 *   ring.add (key, node, vnodes);
+		 *   return ring.diff (before);
+		 * }
+		 * </pre>
+		 */
+		public Rebalance<N> diff (Snapshot<N> before) {
+			return new Rebalance<> (before, compiled ());
+		}
+		
+		private Snapshot<N> compiled () {
+			
+			Snapshot<N> compiled = this.compiled;
+			return (compiled != null ? compiled : compile ());
+			
+		}
+		
+		@SuppressWarnings ("unchecked")
+		private static <N> Member<N>[] newMembers (int length) {
+			return (Member<N>[]) new Member<?>[length];
+		}
+		
+		private synchronized Snapshot<N> compile () {
+			
+			if (compiled == null) {
+				
+				long[] hashes = new long[points.size ()];
+				Member<N>[] owners = newMembers (hashes.length);
+				
+				int i = 0;
+				
+				for (Map.Entry<Long, Member<N>> point : points.entrySet ()) {
+					
+					hashes[i] = point.getKey ();
+					owners[i++] = point.getValue ();
+					
+				}
+				
+				compiled = new Snapshot<> (hashes, owners, members.values ().toArray (newMembers (0)), hashFunction, strategy);
+				
+			}
+			
+			return compiled;
+			
+		}
+		
+		/**
+		 * Returns the node of {@code key}, or null if the ring is empty.
+		 */
+		public N get (String key) {
+			
+			Snapshot<N> ring = compiled ();
+			Member<N> member = member (ring, ring.hashFunction.hash (key));
+			return (member != null ? member.node : null);
+			
+		}
+		
+		/**
+		 * Returns the node of {@code key} and counts it as a load of that node,
+		 * until {@link #release}. Loads are what {@link Strategy#BOUNDED_LOAD}
+		 * balances; concurrent acquires may overshoot the bound slightly.
+		 */
+		public N acquire (String key) {
+			
+			Snapshot<N> ring = compiled ();
+			Member<N> member = member (ring, ring.hashFunction.hash (key));
+			
+			if (member == null)
+				return null;
+			
+			member.load.incrementAndGet ();
+			load.incrementAndGet ();
+			
+			return member.node;
+			
+		}
+		
+		/**
+		 * Releases a load counted by {@link #acquire}.
+		 */
+		public void release (N node) {
+			
+			for (Member<N> member : compiled ().members)
+				if (member.node.equals (node)) {
+					
+					if (member.load.getAndDecrement () > 0)
+						load.decrementAndGet ();
+					else
+						member.load.incrementAndGet ();
+					
+					return;
+					
+				}
+			
+		}
+		
+		/**
+		 * Returns the load counted for {@code node}.
+		 */
+		public int getLoad (N node) {
+			
+			for (Member<N> member : compiled ().members)
+				if (member.node.equals (node))
+					return member.load.get ();
+			
+			return 0;
+			
+		}
+		
+		protected Member<N> member (Snapshot<N> ring, long hash) {
+			
+			if (ring.strategy == Strategy.BOUNDED_LOAD && ring.members.length > 0)
+				return bounded (ring, hash);
+			
+			return ring.owner (hash);
+			
+		}
+		
+		/**
+		 * Returns the index of the first point at or after {@code hash}, wrapping
+		 * around to the first one.
+		 */
+		protected static int point (long[] hashes, long hash) {
+			
+			int i = Arrays.binarySearch (hashes, hash);
+			
+			if (i < 0) i = -i - 1;
+			
+			return (i < hashes.length ? i : 0);
+			
+		}
+		
+		/**
+		 * Walks clockwise from the key to the first node below its load bound.
+		 */
+		protected Member<N> bounded (Snapshot<N> ring, long hash) {
+			
+			long bound = (long) Math.ceil (loadFactor * (load.get () + 1) / ring.members.length);
+			int start = point (ring.hashes, hash);
+			
+			for (int i = 0; i < ring.hashes.length; i++) {
+				
+				Member<N> member = ring.owners[(start + i) % ring.hashes.length];
+				
+				if (member.load.get () < bound)
+					return member;
+				
+			}
+			
+			return ring.owners[start];
+			
+		}
+		
+		/**
+		 * Weighted rendezvous hashing: the score of a node is
+		 * {@code -weight / ln (u)} for a uniform {@code u} drawn from the key
+		 * and the node.
+		 */
+		protected static <N> Member<N> rendezvous (Member<N>[] members, int[] weights, long hash) {
+			
+			Member<N> best = null;
+			double bestScore = Double.NEGATIVE_INFINITY;
+			
+			for (int i = 0; i < members.length; i++) {
+				
+				double u = ((Murmur3.fmix (hash ^ members[i].hash) >>> 11) + 1) * 0x1.0p-53;
+				double score = -weights[i] / Math.log (u);
+				
+				if (score > bestScore) {
+					
+					best = members[i];
+					bestScore = score;
+					
+				}
+				
+			}
+			
+			return best;
+			
+		}
+		
+		/**
+		 * Jump consistent hash by Lamping and Veach.
+		 */
+		protected static int jump (long key, int buckets) {
+			
+			long b = -1, j = 0;
+			
+			while (j < buckets) {
+				
+				b = j;
+				key = key * 2862933555777941757L + 1;
+				j = (long) ((b + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+				
+			}
+			
+			return (int) b;
+			
+		}
+		
+		/**
+		 * Returns the nodes in the order they were added.
+		 */
+		@Override
+		public Iterator<N> iterator () {
+			
+			Member<N>[] members = compiled ().members;
+			
+			return new Iterator<N> () {
+				
+				private int i = 0;
+				
+				@Override
+				public boolean hasNext () {
+					return i < members.length;
+				}
+				
+				@Override
+				public N next () {
+					
+					if (i >= members.length)
+						throw new NoSuchElementException ();
+					
+					return members[i++].node;
+					
+				}
+				
+			};
+			
+		}
+		
+	}
\ No newline at end of file
@@ -0,0 +1,135 @@
+	/*
+	 * Copyright (c) 2020 - 2024 UPL Foundation
+	 *
+	 * Licensed under the Apache License, Version 2.0 (the "License");
+	 * you may not use this file except in compliance with the License.
+	 * You may obtain a copy of the License at
+	 *
+	 *     http://www.apache.org/licenses/LICENSE-2.0
+	 *
+	 * Unless required by applicable law or agreed to in writing, software
+	 * distributed under the License is distributed on an "AS IS" BASIS,
+	 * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	 * See the License for the specific language governing permissions and
+	 * limitations under the License.
+	 */
+	
+	package upl.hash;
+	
+	import java.nio.charset.StandardCharsets;
+	
+	/**
+	 * MurmurHash3, the x64 128-bit variant truncated to its first 64 bits: a fast
+	 * non-cryptographic hash with good distribution, the same as the
+	 * {@code hash64} of Guava and most other ports.
+	 */
+	public final class Murmur3 {
+		
+		private static final long C1 = 0x87C37B91114253D5L, C2 = 0x4CF5AD432745937FL;
+		
+		private Murmur3 () {}
+		
+		public static long hash64 (String key) {
+			
+			byte[] bytes = key.getBytes (StandardCharsets.UTF_8);
+			return hash64 (bytes, 0, bytes.length, 0);
+			
+		}
+		
+		public static long hash64 (byte[] bytes) {
+			return hash64 (bytes, 0, bytes.length, 0);
+		}
+		
+		@SuppressWarnings ("fallthrough")
+		public static long hash64 (byte[] bytes, int offset, int length, long seed) {
+			
+			long h1 = seed, h2 = seed;
+			int end = offset + (length & ~15);
+			
+			for (int i = offset; i < end; i += 16) {
+				
+				long k1 = getLong (bytes, i), k2 = getLong (bytes, i + 8);
+				
+				h1 ^= mixK1 (k1);
+				h1 = Long.rotateLeft (h1, 27) + h2;
+				h1 = h1 * 5 + 0x52DCE729;
+				
+				h2 ^= mixK2 (k2);
+				h2 = Long.rotateLeft (h2, 31) + h1;
+				h2 = h2 * 5 + 0x38495AB5;
+				
+			}
+			
+			long k1 = 0, k2 = 0;
+			
+			switch (length & 15) { // the tail bytes fall through as in the reference code
+				
+				case 15: k2 ^= (long) (bytes[end + 14] & 0xFF) << 48;
+				case 14: k2 ^= (long) (bytes[end + 13] & 0xFF) << 40;
+				case 13: k2 ^= (long) (bytes[end + 12] & 0xFF) << 32;
+				case 12: k2 ^= (long) (bytes[end + 11] & 0xFF) << 24;
+				case 11: k2 ^= (long) (bytes[end + 10] & 0xFF) << 16;
+				case 10: k2 ^= (long) (bytes[end + 9] & 0xFF) << 8;
+				case 9: k2 ^= bytes[end + 8] & 0xFF;
+					h2 ^= mixK2 (k2);
+				case 8: k1 ^= (long) (bytes[end + 7] & 0xFF) << 56;
+				case 7: k1 ^= (long) (bytes[end + 6] & 0xFF) << 48;
+				case 6: k1 ^= (long) (bytes[end + 5] & 0xFF) << 40;
+				case 5: k1 ^= (long) (bytes[end + 4] & 0xFF) << 32;
+				case 4: k1 ^= (long) (bytes[end + 3] & 0xFF) << 24;
+				case 3: k1 ^= (long) (bytes[end + 2] & 0xFF) << 16;
+				case 2: k1 ^= (long) (bytes[end + 1] & 0xFF) << 8;
+				case 1: k1 ^= bytes[end] & 0xFF;
+					h1 ^= mixK1 (k1);
+				
+			}
+			
+			h1 ^= length;
+			h2 ^= length;
+			
+			h1 += h2;
+			h2 += h1;
+			
+			h1 = fmix (h1);
+			h2 = fmix (h2);
+			
+			return h1 + h2;
+			
+		}
+		
+		private static long getLong (byte[] bytes, int i) {
+			
+			return (bytes[i] & 0xFFL)
+				| (bytes[i + 1] & 0xFFL) << 8
+				| (bytes[i + 2] & 0xFFL) << 16
+				| (bytes[i + 3] & 0xFFL) << 24
+				| (bytes[i + 4] & 0xFFL) << 32
+				| (bytes[i + 5] & 0xFFL) << 40
+				| (bytes[i + 6] & 0xFFL) << 48
+				| (bytes[i + 7] & 0xFFL) << 56;
+			
+		}
+		
+		private static long mixK1 (long k1) {
+			return Long.rotateLeft (k1 * C1, 31) * C2;
+		}
+		
+		private static long mixK2 (long k2) {
+			return Long.rotateLeft (k2 * C2, 33) * C1;
+		}
+		
+		/**
+		 * The finalizer of MurmurHash3, also a good mixer of any 64-bit value.
+		 */
+		public static long fmix (long k) {
+			
+			k ^= k >>> 33;
+			k *= 0xFF51AFD7ED558CCDL;
+			k ^= k >>> 33;
+			k *= 0xC4CEB9FE1A85EC53L;
+			
+			return k ^ (k >>> 33);
+			
+		}
+		
+	}
\ No newline at end of file
@@ -0,0 +1,315 @@
+	/*
+	 * Copyright (c) 2020 - 2024 UPL Foundation
+	 *
+	 * Licensed under the Apache License, Version 2.0 (the "License");
+	 * you may not use this file except in compliance with the License.
+	 * You may obtain a copy of the License at
+	 *
+	 *     http://www.apache.org/licenses/LICENSE-2.0
+	 *
+	 * Unless required by applicable law or agreed to in writing, software
+	 * distributed under the License is distributed on an "AS IS" BASIS,
+	 * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	 * See the License for the specific language governing permissions and
+	 * limitations under the License.
+	 */
+	
+	package upl.hash;
+	
+	import java.util.ArrayList;
+	import java.util.Arrays;
+	import java.util.Collections;
+	import java.util.Iterator;
+	import java.util.List;
+	import java.util.Objects;
+	import java.util.Spliterator;
+	import java.util.Spliterators;
+	import java.util.stream.Stream;
+	import java.util.stream.StreamSupport;
+	
+	/**
+	 * What a change of a {@link HashRing} moves, the diff of two
+	 * {@link HashRing.Snapshot snapshots}.
+	 *
+	 * <p>For the {@link HashRing.Strategy#RING} and
+	 * {@link HashRing.Strategy#BOUNDED_LOAD} strategies the moved keys are the
+	 * ones whose hash falls in {@link #getRanges}, computed in O(points) from the
+	 * two rings. A store indexed by hash can scan these ranges only; any other
+	 * store passes its keys to {@link #migrations}, which keeps the ones to move
+	 * at the cost of a hash and a binary search per key. Other strategies and a
+	 * change of the hash function have no ranges, and keys are placed in both
+	 * snapshots to see if they move.
+	 *
+	 * @param <N> the type of nodes
+	 */
+	public class Rebalance<N> {
+		
+		/**
+		 * Hashes from {@link #getStart} to {@link #getEnd}, both inclusive, which
+		 * moved from {@link #getSource} to {@link #getTarget}. Either node is null
+		 * if the ring was empty on that side.
+		 */
+		public static final class Range<N> {
+			
+			protected final long start, end;
+			protected final N source, target;
+			
+			protected Range (long start, long end, N source, N target) {
+				
+				this.start = start;
+				this.end = end;
+				this.source = source;
+				this.target = target;
+				
+			}
+			
+			public long getStart () {
+				return start;
+			}
+			
+			public long getEnd () {
+				return end;
+			}
+			
+			public N getSource () {
+				return source;
+			}
+			
+			public N getTarget () {
+				return target;
+			}
+			
+			public boolean contains (long hash) {
+				return (hash >= start && hash <= end);
+			}
+			
+			@Override
+			public String toString () {
+				return "[" + start + ", " + end + "]: " + source + " -> " + target;
+			}
+			
+		}
+		
+		/**
+		 * A key to move from {@link #getSource} to {@link #getTarget}.
+		 */
+		public static final class Move<N> {
+			
+			protected final String key;
+			protected final N source, target;
+			
+			protected Move (String key, N source, N target) {
+				
+				this.key = key;
+				this.source = source;
+				this.target = target;
+				
+			}
+			
+			public String getKey () {
+				return key;
+			}
+			
+			public N getSource () {
+				return source;
+			}
+			
+			public N getTarget () {
+				return target;
+			}
+			
+			@Override
+			public String toString () {
+				return key + ": " + source + " -> " + target;
+			}
+			
+		}
+		
+		protected final HashRing.Snapshot<N> before, after;
+		
+		protected final List<Range<N>> ranges;
+		protected final long[] starts;
+		
+		public Rebalance (HashRing.Snapshot<N> before, HashRing.Snapshot<N> after) {
+			
+			this.before = before;
+			this.after = after;
+			
+			if (isRanged ()) {
+				
+				ranges = Collections.unmodifiableList (ranges (before, after));
+				starts = new long[ranges.size ()];
+				
+				for (int i = 0; i < starts.length; i++)
+					starts[i] = ranges.get (i).start;
+				
+			} else {
+				
+				ranges = Collections.emptyList ();
+				starts = null;
+				
+			}
+			
+		}
+		
+		/**
+		 * Tells whether the moved keys are described by {@link #getRanges}.
+		 */
+		public boolean isRanged () {
+			return (before.isRing () && after.isRing () && before.hashFunction == after.hashFunction);
+		}
+		
+		/**
+		 * Returns the moved hash ranges in ascending order, adjacent ranges with
+		 * the same nodes merged. Empty if nothing moved or if the change is not
+		 * {@link #isRanged ranged}.
+		 */
+		public List<Range<N>> getRanges () {
+			return ranges;
+		}
+		
+		/**
+		 * Tells whether no key moves. Exact for {@link #isRanged ranged} changes;
+		 * otherwise true only if the ring did not change at all.
+		 */
+		public boolean isEmpty () {
+			
+			if (isRanged ())
+				return ranges.isEmpty ();
+			
+			return (before == after || (before.members.length == 0 && after.members.length == 0));
+			
+		}
+		
+		public HashRing.Snapshot<N> getBefore () {
+			return before;
+		}
+		
+		public HashRing.Snapshot<N> getAfter () {
+			return after;
+		}
+		
+		/**
+		 * Returns the move of {@code key}, or null if it stays on its node.
+		 */
+		public Move<N> move (String key) {
+			
+			if (isRanged ()) {
+				
+				if (starts.length == 0)
+					return null;
+				
+				long hash = after.hashFunction.hash (key);
+				int i = Arrays.binarySearch (starts, hash);
+				
+				if (i < 0) i = -i - 2;
+				
+				if (i < 0 || !ranges.get (i).contains (hash))
+					return null;
+				
+				Range<N> range = ranges.get (i);
+				return new Move<> (key, range.source, range.target);
+				
+			}
+			
+			N source = before.get (key), target = after.get (key);
+			return (Objects.equals (source, target) ? null : new Move<> (key, source, target));
+			
+		}
+		
+		public boolean moves (String key) {
+			return move (key) != null;
+		}
+		
+		/**
+		 * Streams the moves of the {@code keys} to move, in parallel and in no
+		 * particular order. Keys are pulled from the iterator in batches, so it
+		 * doesn't need to be thread safe.
+		 */
+		public Stream<Move<N>> migrations (Iterator<String> keys) {
+			return migrations (Spliterators.spliteratorUnknownSize (keys, Spliterator.NONNULL));
+		}
+		
+		public Stream<Move<N>> migrations (Iterable<String> keys) {
+			return migrations (keys.spliterator ());
+		}
+		
+		protected Stream<Move<N>> migrations (Spliterator<String> keys) {
+			
+			if (isEmpty ())
+				return Stream.empty ();
+			
+			return StreamSupport.stream (keys, true).map (this::move).filter (Objects::nonNull);
+			
+		}
+		
+		/**
+		 * Cuts the hash space at the points of both rings. Hashes between two
+		 * consecutive cuts have the same node in each ring, the one of the first
+		 * point at or after the upper cut, wrapping around.
+		 */
+		protected static <N> List<Range<N>> ranges (HashRing.Snapshot<N> before, HashRing.Snapshot<N> after) {
+			
+			List<Range<N>> ranges = new ArrayList<> ();
+			
+			long[] a = before.hashes, b = after.hashes;
+			
+			if (a.length == 0 && b.length == 0)
+				return ranges;
+			
+			int i = 0, j = 0;
+			long start = Long.MIN_VALUE;
+			boolean last = false;
+			
+			while (!last) {
+				
+				long end;
+				
+				if (i < a.length && (j >= b.length || a[i] <= b[j]))
+					end = a[i];
+				else if (j < b.length)
+					end = b[j];
+				else {
+					
+					end = Long.MAX_VALUE;
+					last = true;
+					
+				}
+				
+				while (i < a.length && a[i] == end) i++;
+				while (j < b.length && b[j] == end) j++;
+				
+				N source = node (before, end), target = node (after, end);
+				
+				if (!Objects.equals (source, target)) {
+					
+					Range<N> previous = (ranges.isEmpty () ? null : ranges.get (ranges.size () - 1));
+					
+					if (previous != null && previous.end == start - 1 && previous.source == source && previous.target == target)
+						ranges.set (ranges.size () - 1, new Range<> (previous.start, end, source, target));
+					else
+						ranges.add (new Range<> (start, end, source, target));
+					
+				}
+				
+				if (end == Long.MAX_VALUE)
+					last = true;
+				else
+					start = end + 1;
+				
+			}
+			
+			return ranges;
+			
+		}
+		
+		private static <N> N node (HashRing.Snapshot<N> ring, long hash) {
+			
+			if (ring.hashes.length == 0)
+				return null;
+			
+			return ring.owners[HashRing.point (ring.hashes, hash)].node;
+			
+		}
+		
+	}
\ No newline at end of file
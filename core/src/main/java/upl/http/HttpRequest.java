@@ -57,6 +57,7 @@
 	import upl.io.BufferedInputStream;
 	import upl.json.JSONArray;
 	import upl.json.JSONObject;
+	import upl.json.JSONReader;
 	import upl.type.Strings;
 	import upl.util.ArrayList;
 	import upl.util.HashMap;
@@ -356,6 +357,14 @@
 			return getInputStream ("");
 		}
 		
+		public JSONReader getJSONReader () throws HttpRequestException, OutOfMemoryException {
+			return getJSONReader ("");
+		}
+		
+		public JSONReader getJSONReader (String type) throws HttpRequestException, OutOfMemoryException {
+			return new JSONReader (getInputStream (type));
+		}
+		
 		public BufferedInputStream getInputStream (String type) throws HttpRequestException, OutOfMemoryException {
 			
 			try {
@@ -19,6 +19,12 @@
 	import java.io.EOFException;
 	import java.io.IOException;
 	import java.io.InputStream;
+	import java.io.StreamCorruptedException;
+	import java.nio.charset.StandardCharsets;
+	import java.util.ArrayList;
+	import java.util.List;
+	import upl.json.JSONArray;
+	import upl.json.JSONObject;
 	
 	public class DataInputStream extends java.io.DataInputStream {
 		
@@ -65,4 +71,220 @@
 			return new String (getBytes ());
 		}
 		
+		/**
+		 * Keys defined by the writer's key dictionary so far, in order of their
+		 * ids.
+		 */
+		protected List<String> keys;
+		
+		protected byte[] utf8 = new byte[64];
+		
+		/**
+		 * Forgets all dictionary keys read so far, see
+		 * {@link DataOutputStream#resetKeyDictionary}.
+		 */
+		public void resetKeyDictionary () {
+			
+			if (keys != null)
+				keys.clear ();
+			
+		}
+		
+		/**
+		 * Reads a value written by {@link DataOutputStream#writeBinary}.
+		 *
+		 * @return a {@link JSONObject}, {@link JSONArray}, String, Boolean,
+		 * Integer, Long, Double or {@link JSONObject#NULL}.
+		 * @throws EOFException if the stream ends before the value does.
+		 * @throws StreamCorruptedException if the data is not a binary value.
+		 */
+		public Object readBinary () throws IOException {
+			
+			int tag = readByte ();
+			
+			switch (tag) {
+				
+				case DataOutputStream.BINARY_NULL:
+					return JSONObject.NULL;
+				
+				case DataOutputStream.BINARY_FALSE:
+					return false;
+				
+				case DataOutputStream.BINARY_TRUE:
+					return true;
+				
+				case DataOutputStream.BINARY_INT:
+					return (int) readVarLong ();
+				
+				case DataOutputStream.BINARY_LONG:
+					return readVarLong ();
+				
+				case DataOutputStream.BINARY_DOUBLE:
+					return readDouble ();
+				
+				case DataOutputStream.BINARY_STRING:
+					return readUTF8 (readVarInt ());
+				
+				case DataOutputStream.BINARY_ARRAY: {
+					
+					int size = readVarInt ();
+					JSONArray array = new JSONArray (Math.min (size, 1024));
+					
+					for (int i = 0; i < size; i++)
+						array.put (readBinary ());
+					
+					return array;
+					
+				}
+				
+				case DataOutputStream.BINARY_OBJECT: {
+					
+					int size = readVarInt ();
+					JSONObject object = new JSONObject (Math.min (size, 1024));
+					
+					for (int i = 0; i < size; i++) {
+						
+						String key = readBinaryKey ();
+						object.put (key, readBinary ());
+						
+					}
+					
+					return object;
+					
+				}
+				
+				default:
+					throw new StreamCorruptedException ("Unknown binary tag " + tag);
+				
+			}
+			
+		}
+		
+		/**
+		 * Reads a binary value which must be an object.
+		 */
+		public JSONObject readBinaryObject () throws IOException {
+			
+			Object value = readBinary ();
+			
+			if (value instanceof JSONObject)
+				return (JSONObject) value;
+			
+			throw new StreamCorruptedException ("Expected a binary object, got " + value);
+			
+		}
+		
+		/**
+		 * Reads a binary value which must be an array.
+		 */
+		public JSONArray readBinaryArray () throws IOException {
+			
+			Object value = readBinary ();
+			
+			if (value instanceof JSONArray)
+				return (JSONArray) value;
+			
+			throw new StreamCorruptedException ("Expected a binary array, got " + value);
+			
+		}
+		
+		protected String readBinaryKey () throws IOException {
+			
+			int header = readVarInt ();
+			
+			switch (header & 3) {
+				
+				case DataOutputStream.KEY_LITERAL:
+					return readUTF8 (header >>> 2);
+				
+				case DataOutputStream.KEY_DEFINE: {
+					
+					String key = readUTF8 (header >>> 2);
+					
+					if (keys == null)
+						keys = new ArrayList<> ();
+					
+					keys.add (key);
+					
+					return key;
+					
+				}
+				
+				case DataOutputStream.KEY_REFERENCE: {
+					
+					int id = header >>> 2;
+					
+					if (keys == null || id >= keys.size ())
+						throw new StreamCorruptedException ("Undefined key " + id);
+					
+					return keys.get (id);
+					
+				}
+				
+				default:
+					throw new StreamCorruptedException ("Unknown key header " + header);
+				
+			}
+			
+		}
+		
+		/**
+		 * Reads an unsigned LEB128 varint.
+		 */
+		public int readVarInt () throws IOException {
+			
+			int value = 0;
+			
+			for (int shift = 0; shift < 35; shift += 7) {
+				
+				int b = readUnsignedByte ();
+				value |= (b & 0x7F) << shift;
+				
+				if (b < 0x80)
+					return value;
+				
+			}
+			
+			throw new StreamCorruptedException ("Malformed varint");
+			
+		}
+		
+		/**
+		 * Reads a zigzag encoded varint.
+		 */
+		public long readVarLong () throws IOException {
+			
+			long value = 0;
+			
+			for (int shift = 0; shift < 70; shift += 7) {
+				
+				int b = readUnsignedByte ();
+				value |= (long) (b & 0x7F) << shift;
+				
+				if (b < 0x80)
+					return (value >>> 1) ^ -(value & 1);
+				
+			}
+			
+			throw new StreamCorruptedException ("Malformed varint");
+			
+		}
+		
+		/**
+		 * Reads {@code length} bytes of UTF-8, reusing the read buffer.
+		 */
+		public String readUTF8 (int length) throws IOException {
+			
+			if (length < 0)
+				throw new StreamCorruptedException ("Negative string length");
+			
+			if (buffer == null || buffer.length < length)
+				buffer = new byte[Math.max (length, 64)];
+			
+			readFully (buffer, 0, length);
+			
+			return new String (buffer, 0, length, StandardCharsets.UTF_8);
+			
+		}
+		
 	}
\ No newline at end of file
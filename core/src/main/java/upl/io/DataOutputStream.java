@@ -16,14 +16,43 @@
 	
 	package upl.io;
 	
+	import java.io.ByteArrayOutputStream;
 	import java.io.FilterOutputStream;
 	import java.io.IOException;
 	import java.io.OutputStream;
+	import java.util.HashMap;
+	import java.util.Map;
 	import upl.json.JSONArray;
 	import upl.json.JSONObject;
+	import upl.json.JSONWriter;
 	
 	public class DataOutputStream extends java.io.DataOutputStream {
 		
+		/*
+		 * Tags of the binary JSON encoding, see writeBinary.
+		 */
+		public static final byte BINARY_NULL = 0;
+		public static final byte BINARY_FALSE = 1;
+		public static final byte BINARY_TRUE = 2;
+		public static final byte BINARY_INT = 3;
+		public static final byte BINARY_LONG = 4;
+		public static final byte BINARY_DOUBLE = 5;
+		public static final byte BINARY_STRING = 6;
+		public static final byte BINARY_ARRAY = 7;
+		public static final byte BINARY_OBJECT = 8;
+		
+		/*
+		 * Kinds of binary keys, stored in the two lowest bits of the key header.
+		 */
+		static final int KEY_LITERAL = 0;
+		static final int KEY_DEFINE = 1;
+		static final int KEY_REFERENCE = 2;
+		
+		/**
+		 * Most keys a dictionary assigns ids to, later keys are written in full.
+		 */
+		public static final int MAX_KEYS = 65536;
+			
 		/**
 		 * Creates a new data output stream to write data to the specified
 		 * underlying output stream. The counter <code>written</code> is
@@ -36,12 +65,266 @@
 			super (out);
 		}
 		
+		protected ByteArrayOutputStream jsonBuffer;
+		protected JSONWriter jsonWriter;
+		
 		public void write (JSONArray data) throws IOException {
-			write (data.toString ());
+			writeJSON (data);
 		}
 		
 		public void write (JSONObject data) throws IOException {
-			write (data.toString ());
+			writeJSON (data);
+		}
+		
+		/**
+		 * Writes the length-prefixed UTF-8 encoding of {@code data}, serializing
+		 * it through a reused buffer instead of an intermediate String.
+		 */
+		protected void writeJSON (Object data) throws IOException {
+			
+			if (jsonWriter == null) {
+				
+				jsonBuffer = new ByteArrayOutputStream ();
+				jsonWriter = new JSONWriter (jsonBuffer);
+				
+			}
+			
+			jsonBuffer.reset ();
+			
+			jsonWriter.reset ().value (data).flush ();
+			
+			writeInt (jsonBuffer.size ());
+			jsonBuffer.writeTo (this);
+			
+		}
+		
+		protected Map<String, Integer> keyIds;
+		
+		protected byte[] bytes = new byte[64];
+		
+		/**
+		 * Makes {@link #writeBinary} give each new key an id and write the id
+		 * instead of the key the next time it occurs, which shrinks streams of
+		 * records sharing the same keys. The reading side needs no setup.
+		 */
+		public DataOutputStream setKeyDictionary (boolean enabled) {
+			
+			keyIds = (enabled ? new HashMap<> () : null);
+			return this;
+			
+		}
+		
+		/**
+		 * Forgets all keys defined so far, so the data written next can be read
+		 * by a fresh {@link DataInputStream}. The reading side must call
+		 * {@link DataInputStream#resetKeyDictionary} at the same point.
+		 */
+		public void resetKeyDictionary () {
+			
+			if (keyIds != null)
+				keyIds.clear ();
+			
+		}
+		
+		/**
+		 * Writes {@code data} in a compact binary encoding, read back by
+		 * {@link DataInputStream#readBinary}. Each value starts with a one byte
+		 * tag: ints and longs follow as zigzag varints, doubles as 8 bytes,
+		 * strings as a varint byte length plus UTF-8, arrays and objects as a
+		 * varint count plus their values, which avoids both text escaping and
+		 * number formatting.
+		 *
+		 * @param data a {@link JSONObject}, {@link JSONArray}, String, Boolean,
+		 *             Number or null. Other objects are written as their string
+		 *             representation, like with {@link JSONWriter}.
+		 */
+		public void writeBinary (Object data) throws IOException {
+			
+			if (data instanceof JSONObject) {
+				
+				JSONObject object = (JSONObject) data;
+				
+				write (BINARY_OBJECT);
+				writeVarInt (object.size ());
+				
+				for (Map.Entry<String, Object> entry : object.entrySet ()) {
+					
+					writeBinaryKey (entry.getKey ());
+					writeBinary (entry.getValue ());
+					
+				}
+				
+			} else if (data instanceof JSONArray) {
+				
+				java.util.List<Object> list = ((JSONArray) data).getList ();
+				
+				write (BINARY_ARRAY);
+				writeVarInt (list.size ());
+				
+				for (Object item : list)
+					writeBinary (item);
+				
+			} else if (data == null || data == JSONObject.NULL) {
+				write (BINARY_NULL);
+			} else if (data instanceof Boolean) {
+				write ((Boolean) data ? BINARY_TRUE : BINARY_FALSE);
+			} else if (data instanceof Integer || data instanceof Short || data instanceof Byte) {
+				
+				write (BINARY_INT);
+				writeVarLong (((Number) data).intValue ());
+				
+			} else if (data instanceof Long) {
+				
+				write (BINARY_LONG);
+				writeVarLong ((Long) data);
+				
+			} else if (data instanceof Number) {
+				
+				write (BINARY_DOUBLE);
+				writeDouble (((Number) data).doubleValue ());
+				
+			} else {
+				
+				write (BINARY_STRING);
+				writeUTF8 (data.toString ());
+				
+			}
+			
+		}
+		
+		protected void writeBinaryKey (String key) throws IOException {
+			
+			if (keyIds != null) {
+				
+				Integer id = keyIds.get (key);
+				
+				if (id != null) {
+					
+					writeVarInt ((id << 2) | KEY_REFERENCE);
+					return;
+					
+				} else if (keyIds.size () < MAX_KEYS) {
+					
+					keyIds.put (key, keyIds.size ());
+					writeUTF8 (key, KEY_DEFINE);
+					
+					return;
+					
+				}
+				
+			}
+			
+			writeUTF8 (key, KEY_LITERAL);
+			
+		}
+		
+		/**
+		 * Writes {@code value} as an unsigned LEB128 varint.
+		 */
+		public void writeVarInt (int value) throws IOException {
+			
+			while ((value & ~0x7F) != 0) {
+				
+				write ((value & 0x7F) | 0x80);
+				value >>>= 7;
+				
+			}
+			
+			write (value);
+			
+		}
+		
+		/**
+		 * Writes {@code value} as a zigzag encoded varint, so that small negative
+		 * numbers stay short too.
+		 */
+		public void writeVarLong (long value) throws IOException {
+			
+			value = (value << 1) ^ (value >> 63);
+			
+			while ((value & ~0x7FL) != 0) {
+				
+				write ((int) (value & 0x7F) | 0x80);
+				value >>>= 7;
+				
+			}
+			
+			write ((int) value);
+			
+		}
+		
+		/**
+		 * Writes the varint byte length of {@code value} followed by its UTF-8
+		 * encoding.
+		 */
+		public void writeUTF8 (String value) throws IOException {
+			
+			int length = encode (value);
+			
+			writeVarInt (length);
+			write (bytes, 0, length);
+			
+		}
+		
+		private void writeUTF8 (String value, int kind) throws IOException {
+			
+			int length = encode (value);
+			
+			writeVarInt ((length << 2) | kind);
+			write (bytes, 0, length);
+			
+		}
+		
+		/**
+		 * Encodes {@code value} into {@link #bytes}, returning the byte length.
+		 * Unpaired surrogates are replaced with '?', like {@link String#getBytes}
+		 * does.
+		 */
+		private int encode (String value) {
+			
+			int length = value.length ();
+			
+			if (bytes.length < length * 3)
+				bytes = new byte[Math.max (length * 3, bytes.length * 2)];
+			
+			int size = 0;
+			
+			for (int i = 0; i < length; i++) {
+				
+				char c = value.charAt (i);
+				
+				if (c < 0x80)
+					bytes[size++] = (byte) c;
+				else if (c < 0x800) {
+					
+					bytes[size++] = (byte) (0xC0 | (c >> 6));
+					bytes[size++] = (byte) (0x80 | (c & 0x3F));
+					
+				} else if (Character.isSurrogate (c)) {
+					
+					if (Character.isHighSurrogate (c) && i + 1 < length && Character.isLowSurrogate (value.charAt (i + 1))) {
+						
+						int codePoint = Character.toCodePoint (c, value.charAt (++i));
+						
+						bytes[size++] = (byte) (0xF0 | (codePoint >> 18));
+						bytes[size++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+						bytes[size++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+						bytes[size++] = (byte) (0x80 | (codePoint & 0x3F));
+						
+					} else bytes[size++] = '?';
+					
+				} else {
+					
+					bytes[size++] = (byte) (0xE0 | (c >> 12));
+					bytes[size++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+					bytes[size++] = (byte) (0x80 | (c & 0x3F));
+					
+				}
+				
+			}
+			
+			return size;
+			
 		}
 		
 		public void write (String mess) throws IOException {
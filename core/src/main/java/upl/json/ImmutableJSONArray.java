@@ -0,0 +1,423 @@
+	/*
+	 * Copyright (c) 2020 - 2024 UPL Foundation
+	 *
+	 * Licensed under the Apache License, Version 2.0 (the "License");
+	 * you may not use this file except in compliance with the License.
+	 * You may obtain a copy of the License at
+	 *
+	 *     http://www.apache.org/licenses/LICENSE-2.0
+	 *
+	 * Unless required by applicable law or agreed to in writing, software
+	 * distributed under the License is distributed on an "AS IS" BASIS,
+	 * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	 * See the License for the specific language governing permissions and
+	 * limitations under the License.
+	 */
+	
+	package upl.json;
+	
+	import java.util.Iterator;
+	import upl.core.Struct;
+	
+	/**
+	 * An immutable sequence of values, holding the same values as {@link
+	 * JSONArray} except that nested objects and arrays are {@link
+	 * ImmutableJSONObject ImmutableJSONObjects} and {@link ImmutableJSONArray
+	 * ImmutableJSONArrays}.
+	 *
+	 * <p>"Changing" methods return a new array and leave this one as it is. The
+	 * values are kept in a persistent vector, so {@link #put(int, Object)} and
+	 * {@link #put(Object)} take O(log n) time and share all untouched parts
+	 * with the original array. {@link #concat} appends the values of the other
+	 * array one by one and {@link #remove} copies the whole array.
+	 *
+	 * <p>Instances are thread safe.
+	 */
+	public final class ImmutableJSONArray implements Iterable<Object> {
+		
+		public static final ImmutableJSONArray EMPTY = new ImmutableJSONArray (JSONVector.EMPTY);
+		
+		private final JSONVector values;
+		
+		private ImmutableJSONArray (JSONVector values) {
+			this.values = values;
+		}
+		
+		/**
+		 * Returns an immutable copy of {@code array}, converting nested objects
+		 * and arrays as well.
+		 */
+		public static ImmutableJSONArray of (JSONArray array) {
+			
+			int length = array.length ();
+			Object[] values = new Object[length];
+			
+			for (int i = 0; i < length; i++)
+				values[i] = ImmutableJSONObject.freeze (array.opt (i));
+			
+			return new ImmutableJSONArray (JSONVector.of (values, length));
+			
+		}
+		
+		/**
+		 * Returns a mutable copy of this array, converting nested objects and
+		 * arrays as well.
+		 */
+		public JSONArray toJSONArray () {
+			
+			JSONArray result = new JSONArray (values.size);
+			
+			for (Object value : values)
+				result.put (ImmutableJSONObject.thaw (value));
+			
+			return result;
+			
+		}
+		
+		/**
+		 * Returns the number of values in this array.
+		 */
+		public int length () {
+			return values.size;
+		}
+		
+		public boolean isEmpty () {
+			return values.size == 0;
+		}
+		
+		/**
+		 * Returns true if this array has no value at {@code index}, or if its
+		 * value is the {@code null} reference or {@link JSONObject#NULL}.
+		 */
+		public boolean isNull (int index) {
+			
+			Object value = opt (index);
+			return value == null || value == JSONObject.NULL;
+			
+		}
+		
+		/**
+		 * Returns the value at {@code index}, or null if the array has no value at
+		 * {@code index}.
+		 */
+		public Object opt (int index) {
+			
+			if (index < 0 || index >= values.size)
+				return null;
+			
+			return values.get (index);
+			
+		}
+		
+		/**
+		 * Returns the value at {@code index}.
+		 *
+		 * @throws JSONException if this array has no value at {@code index}, or if
+		 *                       that value is the {@code null} reference.
+		 */
+		public Object get (int index) {
+			
+			if (index < 0 || index >= values.size)
+				throw new JSONException ("Index " + index + " out of range [0.." + values.size + ")");
+			
+			Object value = values.get (index);
+			
+			if (value == null)
+				throw new JSONException ("Value at " + index + " is null.");
+			
+			return value;
+			
+		}
+		
+		public String getString (int index) {
+			return Struct.toString (get (index));
+		}
+		
+		public String optString (int index, String fallback) {
+			
+			Object value = opt (index);
+			return value != null ? Struct.toString (value) : fallback;
+			
+		}
+		
+		public boolean getBoolean (int index) {
+			
+			Object value = get (index);
+			Boolean result = Struct.toBool (value);
+			
+			if (result == null)
+				throw ImmutableJSONObject.typeMismatch (index, value, "boolean");
+			
+			return result;
+			
+		}
+		
+		public boolean optBoolean (int index, boolean fallback) {
+			
+			Object value = opt (index);
+			Boolean result = (value != null ? Struct.toBool (value) : null);
+			
+			return result != null ? result : fallback;
+			
+		}
+		
+		public int getInt (int index) {
+			
+			Object value = get (index);
+			Integer result = Struct.toInteger (value);
+			
+			if (result == null)
+				throw ImmutableJSONObject.typeMismatch (index, value, "int");
+			
+			return result;
+			
+		}
+		
+		public int optInt (int index, int fallback) {
+			
+			Integer result = Struct.toInteger (opt (index));
+			return result != null ? result : fallback;
+			
+		}
+		
+		public long getLong (int index) {
+			
+			Object value = get (index);
+			Long result = Struct.toLong (value);
+			
+			if (result == null)
+				throw ImmutableJSONObject.typeMismatch (index, value, "long");
+			
+			return result;
+			
+		}
+		
+		public long optLong (int index, long fallback) {
+			
+			Long result = Struct.toLong (opt (index));
+			return result != null ? result : fallback;
+			
+		}
+		
+		public double getDouble (int index) {
+			
+			Object value = get (index);
+			Double result = Struct.toDouble (value);
+			
+			if (result == null)
+				throw ImmutableJSONObject.typeMismatch (index, value, "double");
+			
+			return result;
+			
+		}
+		
+		public double optDouble (int index, double fallback) {
+			
+			Double result = Struct.toDouble (opt (index));
+			return result != null ? result : fallback;
+			
+		}
+		
+		public ImmutableJSONObject getJSONObject (int index) {
+			
+			Object value = get (index);
+			
+			if (value instanceof ImmutableJSONObject)
+				return (ImmutableJSONObject) value;
+			
+			throw ImmutableJSONObject.typeMismatch (index, value, "JSONObject");
+			
+		}
+		
+		public ImmutableJSONObject optJSONObject (int index) {
+			
+			Object value = opt (index);
+			return value instanceof ImmutableJSONObject ? (ImmutableJSONObject) value : null;
+			
+		}
+		
+		public ImmutableJSONArray getJSONArray (int index) {
+			
+			Object value = get (index);
+			
+			if (value instanceof ImmutableJSONArray)
+				return (ImmutableJSONArray) value;
+			
+			throw ImmutableJSONObject.typeMismatch (index, value, "JSONArray");
+			
+		}
+		
+		public ImmutableJSONArray optJSONArray (int index) {
+			
+			Object value = opt (index);
+			return value instanceof ImmutableJSONArray ? (ImmutableJSONArray) value : null;
+			
+		}
+		
+		/**
+		 * Returns an array with {@code value} appended. Mutable objects and arrays
+		 * are copied into immutable ones.
+		 */
+		public ImmutableJSONArray put (Object value) {
+			return new ImmutableJSONArray (values.append (ImmutableJSONObject.freeze (value)));
+		}
+		
+		/**
+		 * Returns an array with {@code value} at {@code index}. If {@code index}
+		 * is past the end the array is padded with nulls, like {@link
+		 * JSONArray#put(int, Object)} does.
+		 */
+		public ImmutableJSONArray put (int index, Object value) {
+			
+			if (index < 0)
+				throw new JSONException ("Index " + index + " out of range [0.." + values.size + ")");
+			
+			value = ImmutableJSONObject.freeze (value);
+			
+			if (index < values.size && values.get (index) == value)
+				return this;
+			
+			JSONVector values = this.values;
+			
+			while (values.size < index)
+				values = values.append (null);
+			
+			return new ImmutableJSONArray (values.set (index, value));
+			
+		}
+		
+		/**
+		 * Returns an array without the value at {@code index}. Takes O(n) time.
+		 */
+		public ImmutableJSONArray remove (int index) {
+			
+			if (index < 0 || index >= values.size)
+				return this;
+			
+			Object[] values = new Object[this.values.size - 1];
+			int i = 0, j = 0;
+			
+			for (Object value : this.values)
+				if (i++ != index)
+					values[j++] = value;
+			
+			return new ImmutableJSONArray (JSONVector.of (values, j));
+			
+		}
+		
+		/**
+		 * Returns an array with the values of {@code other} appended.
+		 */
+		public ImmutableJSONArray concat (ImmutableJSONArray other) {
+			
+			if (isEmpty ())
+				return other;
+			
+			JSONVector values = this.values;
+			
+			for (Object value : other.values)
+				values = values.append (value);
+			
+			return new ImmutableJSONArray (values);
+			
+		}
+		
+		/**
+		 * Returns an array with the values of {@code other} appended.
+		 */
+		public ImmutableJSONArray concat (JSONArray other) {
+			
+			JSONVector values = this.values;
+			
+			for (int i = 0; i < other.length (); i++)
+				values = values.append (ImmutableJSONObject.freeze (other.opt (i)));
+			
+			return new ImmutableJSONArray (values);
+			
+		}
+		
+		@Override
+		public Iterator<Object> iterator () {
+			return values.iterator ();
+		}
+		
+		void writeTo (JSONStringer stringer) {
+			
+			stringer.array ();
+			
+			for (Object value : values)
+				stringer.value (value);
+			
+			stringer.endArray ();
+			
+		}
+		
+		void writeTo (JSONWriter writer) {
+			
+			writer.array ();
+			
+			for (Object value : values)
+				writer.value (value);
+			
+			writer.endArray ();
+			
+		}
+		
+		/**
+		 * Encodes this array as a compact JSON string.
+		 */
+		@Override
+		public String toString () {
+			
+			JSONStringer stringer = new JSONStringer ();
+			writeTo (stringer);
+			
+			return stringer.toString ();
+			
+		}
+		
+		public String toString (int indentSpaces) {
+			
+			JSONStringer stringer = new JSONStringer (indentSpaces);
+			writeTo (stringer);
+			
+			return stringer.toString ();
+			
+		}
+		
+		@Override
+		public boolean equals (Object o) {
+			
+			if (o == this)
+				return true;
+			else if (!(o instanceof ImmutableJSONArray) || ((ImmutableJSONArray) o).values.size != values.size)
+				return false;
+			
+			Iterator<Object> others = ((ImmutableJSONArray) o).values.iterator ();
+			
+			for (Object value : values) {
+				
+				Object other = others.next ();
+				
+				if (value == null ? other != null : other == null || !value.equals (other))
+					return false;
+				
+			}
+			
+			return true;
+			
+		}
+		
+		@Override
+		public int hashCode () {
+			
+			int hash = 1;
+			
+			for (Object value : values)
+				hash = 31 * hash + (value == null ? 0 : value.hashCode ());
+			
+			return hash;
+			
+		}
+		
+	}
\ No newline at end of file
@@ -0,0 +1,596 @@
+	/*
+	 * Copyright (c) 2020 - 2024 UPL Foundation
+	 *
+	 * Licensed under the Apache License, Version 2.0 (the "License");
+	 * you may not use this file except in compliance with the License.
+	 * You may obtain a copy of the License at
+	 *
+	 *     http://www.apache.org/licenses/LICENSE-2.0
+	 *
+	 * Unless required by applicable law or agreed to in writing, software
+	 * distributed under the License is distributed on an "AS IS" BASIS,
+	 * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	 * See the License for the specific language governing permissions and
+	 * limitations under the License.
+	 */
+	
+	package upl.json;
+	
+	import java.util.AbstractMap;
+	import java.util.Iterator;
+	import java.util.Map;
+	import java.util.NoSuchElementException;
+	import java.util.function.BiConsumer;
+	import upl.core.Struct;
+	
+	/**
+	 * An immutable set of name/value mappings in insertion order, holding the
+	 * same values as {@link JSONObject} except that nested objects and arrays
+	 * are {@link ImmutableJSONObject ImmutableJSONObjects} and {@link
+	 * ImmutableJSONArray ImmutableJSONArrays}.
+	 *
+	 * <p>"Changing" methods like {@link #put} and {@link #remove} return a new
+	 * object and leave this one as it is. Names are indexed by a hash trie and
+	 * the entries are kept in persistent vectors, so such a copy takes
+	 * O(log n) time and shares all untouched parts with the original: a
+	 * per-request overlay of a large configuration only costs the entries it
+	 * overrides. Example usage: <pre>
+	 * ImmutableJSONObject defaults = ImmutableJSONObject.of (config);
+	 *
+	 * ImmutableJSONObject request = defaults.put ("locale", locale).extend (overrides);</pre>
+	 *
+	 * <p>Instances are thread safe.
+	 */
+	public final class ImmutableJSONObject implements Iterable<Map.Entry<String, Object>> {
+		
+		public static final ImmutableJSONObject EMPTY = new ImmutableJSONObject (JSONHashTrie.EMPTY, JSONVector.EMPTY, JSONVector.EMPTY, 0);
+		
+		/**
+		 * Name to position in {@link #names} and {@link #values}.
+		 */
+		private final JSONHashTrie index;
+		
+		/**
+		 * Names and values in insertion order, removed entries are null until the
+		 * next compaction.
+		 */
+		private final JSONVector names, values;
+		
+		private final int length;
+		
+		private ImmutableJSONObject (JSONHashTrie index, JSONVector names, JSONVector values, int length) {
+			
+			this.index = index;
+			this.names = names;
+			this.values = values;
+			this.length = length;
+			
+		}
+		
+		/**
+		 * Returns an immutable copy of {@code object}, converting nested objects
+		 * and arrays as well.
+		 */
+		public static ImmutableJSONObject of (JSONObject object) {
+			
+			int length = object.size ();
+			
+			Object[] names = new Object[length], values = new Object[length];
+			JSONHashTrie index = JSONHashTrie.EMPTY;
+			
+			int i = 0;
+			
+			for (Map.Entry<String, Object> entry : object.entrySet ()) {
+				
+				names[i] = entry.getKey ();
+				values[i] = freeze (entry.getValue ());
+				
+				index = index.put (entry.getKey (), i++);
+				
+			}
+			
+			return new ImmutableJSONObject (index, JSONVector.of (names, i), JSONVector.of (values, i), i);
+			
+		}
+		
+		/**
+		 * Converts a value to its immutable counterpart.
+		 */
+		static Object freeze (Object value) {
+			
+			if (value instanceof JSONObject)
+				return of ((JSONObject) value);
+			else if (value instanceof JSONArray)
+				return ImmutableJSONArray.of ((JSONArray) value);
+			else if (value instanceof Number)
+				JSONArray.checkDouble (((Number) value).doubleValue ());
+			
+			return value;
+			
+		}
+		
+		/**
+		 * Converts a value to its mutable counterpart.
+		 */
+		static Object thaw (Object value) {
+			
+			if (value instanceof ImmutableJSONObject)
+				return ((ImmutableJSONObject) value).toJSONObject ();
+			else if (value instanceof ImmutableJSONArray)
+				return ((ImmutableJSONArray) value).toJSONArray ();
+			
+			return value;
+			
+		}
+		
+		/**
+		 * Returns a mutable copy of this object, converting nested objects and
+		 * arrays as well.
+		 */
+		public JSONObject toJSONObject () {
+			
+			JSONObject result = new JSONObject (length);
+			
+			for (Map.Entry<String, Object> entry : this)
+				result.put (entry.getKey (), thaw (entry.getValue ()));
+			
+			return result;
+			
+		}
+		
+		/**
+		 * Returns the number of name/value mappings in this object.
+		 */
+		public int length () {
+			return length;
+		}
+		
+		public boolean isEmpty () {
+			return length == 0;
+		}
+		
+		/**
+		 * Returns true if this object has a mapping for {@code name}. The mapping
+		 * may be {@link JSONObject#NULL}.
+		 */
+		public boolean has (String name) {
+			return index.get (name) != null;
+		}
+		
+		/**
+		 * Returns true if this object has no mapping for {@code name} or if it has
+		 * a mapping whose value is {@link JSONObject#NULL}.
+		 */
+		public boolean isNull (String name) {
+			
+			Object value = opt (name);
+			return value == null || value == JSONObject.NULL;
+			
+		}
+		
+		/**
+		 * Returns the value mapped by {@code name}, or null if there is no such
+		 * mapping.
+		 */
+		public Object opt (String name) {
+			
+			Integer position = (Integer) index.get (name);
+			return position != null ? values.get (position) : null;
+			
+		}
+		
+		/**
+		 * Returns the value mapped by {@code name}.
+		 *
+		 * @throws JSONException if no such mapping exists.
+		 */
+		public Object get (String name) {
+			
+			Object value = opt (name);
+			
+			if (value == null)
+				throw new JSONException ("No value for " + name);
+			
+			return value;
+			
+		}
+		
+		public String getString (String name) {
+			return Struct.toString (get (name));
+		}
+		
+		public String optString (String name, String fallback) {
+			
+			Object value = opt (name);
+			return value != null ? Struct.toString (value) : fallback;
+			
+		}
+		
+		public boolean getBoolean (String name) {
+			
+			Object value = get (name);
+			Boolean result = Struct.toBool (value);
+			
+			if (result == null)
+				throw typeMismatch (name, value, "boolean");
+			
+			return result;
+			
+		}
+		
+		public boolean optBoolean (String name, boolean fallback) {
+			
+			Object value = opt (name);
+			Boolean result = (value != null ? Struct.toBool (value) : null);
+			
+			return result != null ? result : fallback;
+			
+		}
+		
+		public int getInt (String name) {
+			
+			Object value = get (name);
+			Integer result = Struct.toInteger (value);
+			
+			if (result == null)
+				throw typeMismatch (name, value, "int");
+			
+			return result;
+			
+		}
+		
+		public int optInt (String name, int fallback) {
+			
+			Integer result = Struct.toInteger (opt (name));
+			return result != null ? result : fallback;
+			
+		}
+		
+		public long getLong (String name) {
+			
+			Object value = get (name);
+			Long result = Struct.toLong (value);
+			
+			if (result == null)
+				throw typeMismatch (name, value, "long");
+			
+			return result;
+			
+		}
+		
+		public long optLong (String name, long fallback) {
+			
+			Long result = Struct.toLong (opt (name));
+			return result != null ? result : fallback;
+			
+		}
+		
+		public double getDouble (String name) {
+			
+			Object value = get (name);
+			Double result = Struct.toDouble (value);
+			
+			if (result == null)
+				throw typeMismatch (name, value, "double");
+			
+			return result;
+			
+		}
+		
+		public double optDouble (String name, double fallback) {
+			
+			Double result = Struct.toDouble (opt (name));
+			return result != null ? result : fallback;
+			
+		}
+		
+		public ImmutableJSONObject getJSONObject (String name) {
+			
+			Object value = get (name);
+			
+			if (value instanceof ImmutableJSONObject)
+				return (ImmutableJSONObject) value;
+			
+			throw typeMismatch (name, value, "JSONObject");
+			
+		}
+		
+		public ImmutableJSONObject optJSONObject (String name) {
+			
+			Object value = opt (name);
+			return value instanceof ImmutableJSONObject ? (ImmutableJSONObject) value : null;
+			
+		}
+		
+		public ImmutableJSONArray getJSONArray (String name) {
+			
+			Object value = get (name);
+			
+			if (value instanceof ImmutableJSONArray)
+				return (ImmutableJSONArray) value;
+			
+			throw typeMismatch (name, value, "JSONArray");
+			
+		}
+		
+		public ImmutableJSONArray optJSONArray (String name) {
+			
+			Object value = opt (name);
+			return value instanceof ImmutableJSONArray ? (ImmutableJSONArray) value : null;
+			
+		}
+		
+		static JSONException typeMismatch (Object indexOrName, Object actual, String requiredType) {
+			return new JSONException ("Value " + actual + " at " + indexOrName + " of type " + actual.getClass ().getName () + " cannot be converted to " + requiredType + ".");
+		}
+		
+		/**
+		 * Returns an object which maps {@code name} to {@code value}, in place of
+		 * an existing mapping or after the last one. Mutable objects and arrays
+		 * are copied into immutable ones.
+		 *
+		 * @param value a {@link JSONObject}, {@link JSONArray}, their immutable
+		 *              counterparts, String, Boolean, Integer, Long, Double,
+		 *              {@link JSONObject#NULL}, or {@code null}, which removes the
+		 *              mapping. May not be {@link Double#isNaN() NaNs} or {@link
+		 *              Double#isInfinite() infinities}.
+		 */
+		public ImmutableJSONObject put (String name, Object value) {
+			
+			if (name == null)
+				throw new JSONException ("Names must be non-null");
+			
+			if (value == null)
+				return remove (name);
+			
+			value = freeze (value);
+			
+			Integer position = (Integer) index.get (name);
+			
+			if (position != null) {
+				
+				if (values.get (position) == value)
+					return this;
+				
+				return new ImmutableJSONObject (index, names, values.set (position, value), length);
+				
+			}
+			
+			return new ImmutableJSONObject (index.put (name, names.size), names.append (name), values.append (value), length + 1);
+			
+		}
+		
+		/**
+		 * Returns an object without the mapping of {@code name}, or this object if
+		 * it has no such mapping.
+		 */
+		public ImmutableJSONObject remove (String name) {
+			
+			Integer position = (Integer) index.get (name);
+			
+			if (position == null)
+				return this;
+			else if (length == 1)
+				return EMPTY;
+			
+			ImmutableJSONObject result = new ImmutableJSONObject (index.remove (name), names.set (position, null), values.set (position, null), length - 1);
+			
+			if (result.names.size > 32 && result.length < result.names.size / 2) // drop the holes
+				return result.compact ();
+			
+			return result;
+			
+		}
+		
+		private ImmutableJSONObject compact () {
+			
+			Object[] names = new Object[length], values = new Object[length];
+			JSONHashTrie index = JSONHashTrie.EMPTY;
+			
+			int i = 0;
+			
+			for (Map.Entry<String, Object> entry : this) {
+				
+				names[i] = entry.getKey ();
+				values[i] = entry.getValue ();
+				
+				index = index.put (entry.getKey (), i++);
+				
+			}
+			
+			return new ImmutableJSONObject (index, JSONVector.of (names, i), JSONVector.of (values, i), i);
+			
+		}
+		
+		/**
+		 * Returns an object with the mappings of {@code overrides} put over the
+		 * ones of this object.
+		 */
+		public ImmutableJSONObject extend (ImmutableJSONObject overrides) {
+			
+			if (isEmpty ())
+				return overrides;
+			
+			ImmutableJSONObject result = this;
+			
+			for (Map.Entry<String, Object> entry : overrides)
+				result = result.put (entry.getKey (), entry.getValue ());
+			
+			return result;
+			
+		}
+		
+		/**
+		 * Returns an object with the mappings of {@code overrides} put over the
+		 * ones of this object.
+		 */
+		public ImmutableJSONObject extend (JSONObject overrides) {
+			
+			ImmutableJSONObject result = this;
+			
+			for (Map.Entry<String, Object> entry : overrides.entrySet ())
+				result = result.put (entry.getKey (), entry.getValue ());
+			
+			return result;
+			
+		}
+		
+		/**
+		 * Returns an iterator of the names in insertion order.
+		 */
+		public Iterator<String> keys () {
+			
+			Iterator<Map.Entry<String, Object>> entries = iterator ();
+			
+			return new Iterator<String> () {
+				
+				@Override
+				public boolean hasNext () {
+					return entries.hasNext ();
+				}
+				
+				@Override
+				public String next () {
+					return entries.next ().getKey ();
+				}
+				
+			};
+			
+		}
+		
+		/**
+		 * Returns an iterator of the mappings in insertion order.
+		 */
+		@Override
+		public Iterator<Map.Entry<String, Object>> iterator () {
+			
+			Iterator<Object> names = this.names.iterator (), values = this.values.iterator ();
+			
+			return new Iterator<Map.Entry<String, Object>> () {
+				
+				private String name;
+				private Object value;
+				
+				@Override
+				public boolean hasNext () {
+					
+					while (name == null && names.hasNext ()) {
+						
+						name = (String) names.next ();
+						value = values.next ();
+						
+					}
+					
+					return name != null;
+					
+				}
+				
+				@Override
+				public Map.Entry<String, Object> next () {
+					
+					if (!hasNext ())
+						throw new NoSuchElementException ();
+					
+					Map.Entry<String, Object> entry = new AbstractMap.SimpleImmutableEntry<> (name, value);
+					name = null;
+					
+					return entry;
+					
+				}
+				
+			};
+			
+		}
+		
+		public void forEach (BiConsumer<String, Object> action) {
+			
+			Iterator<Object> values = this.values.iterator ();
+			
+			for (Object name : names) {
+				
+				Object value = values.next ();
+				
+				if (name != null)
+					action.accept ((String) name, value);
+				
+			}
+			
+		}
+		
+		void writeTo (JSONStringer stringer) {
+			
+			stringer.object ();
+			forEach ((name, value) -> stringer.key (name).value (value));
+			stringer.endObject ();
+			
+		}
+		
+		void writeTo (JSONWriter writer) {
+			
+			writer.object ();
+			forEach ((name, value) -> writer.key (name).value (value));
+			writer.endObject ();
+			
+		}
+		
+		/**
+		 * Encodes this object as a compact JSON string.
+		 */
+		@Override
+		public String toString () {
+			
+			JSONStringer stringer = new JSONStringer ();
+			writeTo (stringer);
+			
+			return stringer.toString ();
+			
+		}
+		
+		public String toString (int indentSpaces) {
+			
+			JSONStringer stringer = new JSONStringer (indentSpaces);
+			writeTo (stringer);
+			
+			return stringer.toString ();
+			
+		}
+		
+		/**
+		 * Objects are equal if they have the same mappings, in any order.
+		 */
+		@Override
+		public boolean equals (Object o) {
+			
+			if (o == this)
+				return true;
+			else if (!(o instanceof ImmutableJSONObject) || ((ImmutableJSONObject) o).length != length)
+				return false;
+			
+			ImmutableJSONObject other = (ImmutableJSONObject) o;
+			
+			for (Map.Entry<String, Object> entry : this) {
+				
+				Object value = other.opt (entry.getKey ());
+				
+				if (value == null || !entry.getValue ().equals (value))
+					return false;
+				
+			}
+			
+			return true;
+			
+		}
+		
+		@Override
+		public int hashCode () {
+			
+			int hash = 0;
+			
+			for (Map.Entry<String, Object> entry : this)
+				hash += entry.hashCode ();
+			
+			return hash;
+			
+		}
+		
+	}
\ No newline at end of file
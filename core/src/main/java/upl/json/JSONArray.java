@@ -16,6 +16,7 @@
 	
 	package upl.json;
 	
+	import java.nio.ByteBuffer;
 	import java.util.Collection;
 	
 	import upl.core.Range;
@@ -48,7 +49,7 @@
 	 */
 	public class JSONArray {
 		
-		protected List<Object> array = new ArrayList<> ();
+		protected List<Object> array = new JSONNumberList ();
 		
 		/**
 		 * Creates a {@code JSONArray} with no values.
@@ -56,6 +57,24 @@
 		public JSONArray () {
 		}
 		
+		/**
+		 * Creates a {@code JSONArray} with room for {@code capacity} values before
+		 * its storage has to grow.
+		 */
+		public JSONArray (int capacity) {
+			array = new JSONNumberList (capacity);
+		}
+		
+		/**
+		 * Makes room for at least {@code capacity} values.
+		 */
+		public void ensureCapacity (int capacity) {
+			
+			if (array instanceof ArrayList)
+				((ArrayList<Object>) array).ensureCapacity (capacity);
+			
+		}
+		
 		public JSONArray (Object[] params) {
 			
 			this ();
@@ -103,16 +122,53 @@
 		 *                       {@code JSONArray}.
 		 */
 		public JSONArray (JSONTokener readFrom) {
-			/*
-			 * Getting the parser to populate JSONArray could get tricky. Instead, just
-			 * parse to temporary JSONArray and then steal the data from that.
-			 */
-			Object object = readFrom.nextValue ();
-			if (object instanceof JSONArray) {
-				array = ((JSONArray) object).array;
-			} else {
-				throw typeMismatch (object, "JSONArray");
-			}
+			readFrom.nextArray (this);
+		}
+		
+		/**
+		 * Creates a new {@code JSONArray} with values from the next array in the
+		 * reader. The input is consumed incrementally, so the whole document never
+		 * has to be held in memory as a string.
+		 *
+		 * @param readFrom a reader whose next token is the start of an array.
+		 * @throws JSONException if the parse fails or doesn't yield a
+		 *                       {@code JSONArray}.
+		 */
+		public JSONArray (JSONReader readFrom) {
+			readFrom.nextArray (this);
+		}
+		
+		/**
+		 * Creates a new {@code JSONArray} with values from the next array in the
+		 * byte tokener.
+		 *
+		 * @throws JSONException if the parse fails or doesn't yield a
+		 *                       {@code JSONArray}.
+		 */
+		public JSONArray (JSONByteTokener readFrom) {
+			readFrom.nextArray (this);
+		}
+		
+		/**
+		 * Creates a new {@code JSONArray} from UTF-8 encoded JSON, parsing the
+		 * bytes directly instead of decoding them to a string first.
+		 *
+		 * @throws JSONException if the parse fails or doesn't yield a
+		 *                       {@code JSONArray}.
+		 */
+		public JSONArray (byte[] json) {
+			this (new JSONByteTokener (json));
+		}
+		
+		/**
+		 * Creates a new {@code JSONArray} from the UTF-8 encoded JSON between the
+		 * position and the limit of a heap, direct or memory-mapped buffer.
+		 *
+		 * @throws JSONException if the parse fails or doesn't yield a
+		 *                       {@code JSONArray}.
+		 */
+		public JSONArray (ByteBuffer json) {
+			this (new JSONByteTokener (json));
 		}
 		
 		/**
@@ -165,6 +221,31 @@
 			this (new JSONTokener (json));
 		}
 		
+		/**
+		 * Creates a new {@code JSONArray} from the JSON string, optionally in lazy
+		 * mode: the string is only indexed structurally and values are parsed when
+		 * they are first accessed. Lazy mode doesn't support comments and the
+		 * {@code =}, {@code =>} and {@code ;} separators.
+		 *
+		 * @param json a JSON-encoded string containing an array.
+		 * @param lazy whether values are parsed on access instead of upfront.
+		 * @throws JSONException if the parse fails or doesn't yield a {@code
+		 *                       JSONArray}. In lazy mode malformed values are
+		 *                       reported when they are accessed.
+		 */
+		public JSONArray (String json, boolean lazy) {
+			
+			if (lazy)
+				array = JSONIndex.array (json);
+			else
+				new JSONTokener (json).nextArray (this);
+			
+		}
+		
+		JSONArray (JSONIndex.Elements elements) {
+			array = elements;
+		}
+		
 		/**
 		 * Returns the number of values in JSONArray array.
 		 */
@@ -214,7 +295,13 @@
 		 */
 		public JSONArray put (double value) {
 			
-			array.add (checkDouble (value));
+			if (array instanceof JSONNumberList) {
+				
+				checkDouble (value);
+				((JSONNumberList) array).addDouble (value);
+				
+			} else array.add (checkDouble (value));
+			
 			return this;
 			
 		}
@@ -226,7 +313,11 @@
 		 */
 		public JSONArray put (int value) {
 			
-			array.add (value);
+			if (array instanceof JSONNumberList)
+				((JSONNumberList) array).addInt (value);
+			else
+				array.add (value);
+			
 			return this;
 			
 		}
@@ -238,7 +329,11 @@
 		 */
 		public JSONArray put (long value) {
 			
-			array.add (value);
+			if (array instanceof JSONNumberList)
+				((JSONNumberList) array).addLong (value);
+			else
+				array.add (value);
+			
 			return this;
 			
 		}
@@ -304,7 +399,16 @@
 		 * @return JSONArray array.
 		 */
 		public JSONArray put (int index, double value) {
+			
+			checkDouble (value);
+			
+			if (array instanceof JSONNumberList && ((JSONNumberList) array).setDouble (index, value))
+				return this;
+			else if (index == array.size ())
+				return put (value);
+			
 			return put (index, (Double) value);
+			
 		}
 		
 		/**
@@ -315,7 +419,14 @@
 		 * @return JSONArray array.
 		 */
 		public JSONArray put (int index, int value) {
+			
+			if (array instanceof JSONNumberList && ((JSONNumberList) array).setInt (index, value))
+				return this;
+			else if (index == array.size ())
+				return put (value);
+			
 			return put (index, (Integer) value);
+			
 		}
 		
 		/**
@@ -326,7 +437,14 @@
 		 * @return JSONArray array.
 		 */
 		public JSONArray put (int index, long value) {
+			
+			if (array instanceof JSONNumberList && ((JSONNumberList) array).setLong (index, value))
+				return this;
+			else if (index == array.size ())
+				return put (value);
+			
 			return put (index, (Long) value);
+			
 		}
 		
 		/**
@@ -438,6 +556,26 @@
 			return result != null ? result : fallback;
 		}
 		
+		/**
+		 * Same as {@link #getBoolean(int)} without boxing, but returns {@code
+		 * defValue} if the array has no value at {@code index}.
+		 *
+		 * @throws JSONException if the value at {@code index} cannot be coerced
+		 *                       to a boolean.
+		 */
+		public boolean getBooleanValue (int index, boolean defValue) {
+			
+			Object object = opt (index);
+			
+			if (object instanceof Boolean)
+				return (Boolean) object;
+			else if (object == null)
+				return defValue;
+			
+			return getBoolean (index);
+			
+		}
+		
 		/**
 		 * Returns the value at {@code index} if it exists and is a double or can
 		 * be coerced to a double.
@@ -543,6 +681,212 @@
 			
 		}
 		
+		/**
+		 * Returns the array storing only {@code kind} values (or a narrower kind) if
+		 * {@code index} is inside it, null otherwise.
+		 */
+		private JSONNumberList numbers (int kind, int index) {
+			
+			if (array instanceof JSONNumberList) {
+				
+				JSONNumberList numbers = (JSONNumberList) array;
+				int current = numbers.getKind ();
+				
+				if (current >= JSONNumberList.INT && current <= kind && index >= 0 && index < numbers.size ())
+					return numbers;
+				
+			}
+			
+			return null;
+			
+		}
+		
+		/**
+		 * Same as {@link #getInt(int)} without boxing the result if the array
+		 * holds only ints.
+		 *
+		 * @throws JSONException if the value at {@code index} doesn't exist or
+		 *                       cannot be coerced to a int.
+		 */
+		public int getIntValue (int index) {
+			
+			JSONNumberList numbers = numbers (JSONNumberList.INT, index);
+			
+			if (numbers != null)
+				return numbers.getInt (index);
+			
+			Object object = opt (index);
+			
+			return object instanceof Number ? ((Number) object).intValue () : getInt (index);
+			
+		}
+		
+		/**
+		 * Same as {@link #getInt(int)} without boxing, but returns {@code defValue}
+		 * if the array has no value at {@code index}.
+		 *
+		 * @throws JSONException if the value at {@code index} cannot be coerced
+		 *                       to an int.
+		 */
+		public int getIntValue (int index, int defValue) {
+			
+			JSONNumberList numbers = numbers (JSONNumberList.INT, index);
+			
+			if (numbers != null)
+				return numbers.getInt (index);
+			
+			Object object = opt (index);
+			
+			if (object instanceof Number)
+				return ((Number) object).intValue ();
+			else if (object == null)
+				return defValue;
+			
+			return getInt (index);
+			
+		}
+		
+		/**
+		 * Same as {@link #getLong(int)} without boxing the result if the array
+		 * holds only ints or only longs.
+		 *
+		 * @throws JSONException if the value at {@code index} doesn't exist or
+		 *                       cannot be coerced to a long.
+		 */
+		public long getLongValue (int index) {
+			
+			JSONNumberList numbers = numbers (JSONNumberList.LONG, index);
+			
+			if (numbers != null)
+				return numbers.getLong (index);
+			
+			Object object = opt (index);
+			
+			return object instanceof Number ? ((Number) object).longValue () : getLong (index);
+			
+		}
+		
+		/**
+		 * Same as {@link #getLong(int)} without boxing, but returns {@code defValue}
+		 * if the array has no value at {@code index}.
+		 *
+		 * @throws JSONException if the value at {@code index} cannot be coerced
+		 *                       to a long.
+		 */
+		public long getLongValue (int index, long defValue) {
+			
+			JSONNumberList numbers = numbers (JSONNumberList.LONG, index);
+			
+			if (numbers != null)
+				return numbers.getLong (index);
+			
+			Object object = opt (index);
+			
+			if (object instanceof Number)
+				return ((Number) object).longValue ();
+			else if (object == null)
+				return defValue;
+			
+			return getLong (index);
+			
+		}
+		
+		/**
+		 * Same as {@link #getDouble(int)} without boxing the result if the array
+		 * holds only numbers of one type.
+		 *
+		 * @throws JSONException if the value at {@code index} doesn't exist or
+		 *                       cannot be coerced to a double.
+		 */
+		public double getDoubleValue (int index) {
+			
+			JSONNumberList numbers = numbers (JSONNumberList.DOUBLE, index);
+			
+			if (numbers != null)
+				return numbers.getDouble (index);
+			
+			Object object = opt (index);
+			
+			return object instanceof Number ? ((Number) object).doubleValue () : getDouble (index);
+			
+		}
+		
+		/**
+		 * Same as {@link #getDouble(int)} without boxing, but returns {@code defValue}
+		 * if the array has no value at {@code index}.
+		 *
+		 * @throws JSONException if the value at {@code index} cannot be coerced
+		 *                       to a double.
+		 */
+		public double getDoubleValue (int index, double defValue) {
+			
+			JSONNumberList numbers = numbers (JSONNumberList.DOUBLE, index);
+			
+			if (numbers != null)
+				return numbers.getDouble (index);
+			
+			Object object = opt (index);
+			
+			if (object instanceof Number)
+				return ((Number) object).doubleValue ();
+			else if (object == null)
+				return defValue;
+			
+			return getDouble (index);
+			
+		}
+		
+		/**
+		 * Returns the values of this array as ints.
+		 *
+		 * @throws JSONException if a value cannot be coerced to an int.
+		 */
+		public int[] toIntArray () {
+			
+			if (array instanceof JSONNumberList && ((JSONNumberList) array).getKind () == JSONNumberList.INT)
+				return ((JSONNumberList) array).toIntArray ();
+			
+			int[] result = new int[length ()];
+			
+			for (int i = 0; i < result.length; i++)
+				result[i] = getIntValue (i);
+			
+			return result;
+			
+		}
+		
+		/**
+		 * Returns the values of this array as longs.
+		 *
+		 * @throws JSONException if a value cannot be coerced to a long.
+		 */
+		public long[] toLongArray () {
+			
+			long[] result = new long[length ()];
+			
+			for (int i = 0; i < result.length; i++)
+				result[i] = getLongValue (i);
+			
+			return result;
+			
+		}
+		
+		/**
+		 * Returns the values of this array as doubles.
+		 *
+		 * @throws JSONException if a value cannot be coerced to a double.
+		 */
+		public double[] toDoubleArray () {
+			
+			double[] result = new double[length ()];
+			
+			for (int i = 0; i < result.length; i++)
+				result[i] = getDoubleValue (i);
+			
+			return result;
+			
+		}
+		
 		/**
 		 * Returns the value at {@code index} if it exists, coercing it if
 		 * necessary.
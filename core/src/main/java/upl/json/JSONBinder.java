@@ -0,0 +1,885 @@
+	/*
+	 * Copyright (c) 2020 - 2024 UPL Foundation
+	 *
+	 * Licensed under the Apache License, Version 2.0 (the "License");
+	 * you may not use this file except in compliance with the License.
+	 * You may obtain a copy of the License at
+	 *
+	 *     http://www.apache.org/licenses/LICENSE-2.0
+	 *
+	 * Unless required by applicable law or agreed to in writing, software
+	 * distributed under the License is distributed on an "AS IS" BASIS,
+	 * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	 * See the License for the specific language governing permissions and
+	 * limitations under the License.
+	 */
+	
+	package upl.json;
+	
+	import java.lang.invoke.MethodHandle;
+	import java.lang.invoke.MethodHandles;
+	import java.lang.invoke.MethodType;
+	import java.lang.reflect.Field;
+	import java.lang.reflect.Modifier;
+	import java.util.ArrayList;
+	import java.util.Arrays;
+	import java.util.HashMap;
+	import java.util.List;
+	import java.util.Map;
+	import upl.core.Struct;
+	
+	/**
+	 * Binds the fields of a class to the members of JSON objects. The fields are
+	 * looked up once per class and turned into method handles typed like the
+	 * fields, so values are read and written without reflection and primitive
+	 * fields without boxing, straight from a {@link JSONReader} or into a
+	 * {@link JSONWriter} as well as from and into a {@link JSONObject}. Example
+	 * usage: <pre>
+	 * class Entry {
+	 *
+	 *   &#64;JSONName ("path_display")
+	 *   String path;
+	 *   long size;
+	 *
+	 * }
+	 *
+	 * Entry entry = JSONBinder.of (Entry.class).read (new JSONReader (stream));</pre>
+	 *
+	 * <p>All non-static, non-final and non-transient fields of the class and its
+	 * superclasses are bound, under the name given by {@link JSONName} or their
+	 * own. Supported are primitives and their wrappers, strings, enums (by
+	 * name), int, long and double arrays, {@link JSONObject}, {@link JSONArray}
+	 * and other classes bound recursively; fields of any other type take the
+	 * parsed value if it is an instance of the type. Classes need a constructor
+	 * without parameters. Unknown members are skipped.
+	 *
+	 * <p>Binders are cached per class and are thread safe.
+	 */
+	public class JSONBinder<T> {
+		
+		private static final ClassValue<JSONBinder<?>> binders = new ClassValue<JSONBinder<?>> () {
+			
+			@Override
+			protected JSONBinder<?> computeValue (Class<?> type) {
+				return new JSONBinder<> (type);
+			}
+			
+		};
+		
+		/*
+		 * Kinds of fields.
+		 */
+		
+		private static final int INT = 0;
+		private static final int LONG = 1;
+		private static final int DOUBLE = 2;
+		private static final int FLOAT = 3;
+		private static final int BOOLEAN = 4;
+		private static final int SHORT = 5;
+		private static final int BYTE = 6;
+		private static final int CHAR = 7;
+		private static final int STRING = 8;
+		private static final int ENUM = 9;
+		private static final int INT_ARRAY = 10;
+		private static final int LONG_ARRAY = 11;
+		private static final int DOUBLE_ARRAY = 12;
+		private static final int BOUND = 13;
+		private static final int INTEGER_OBJECT = 14;
+		private static final int LONG_OBJECT = 15;
+		private static final int DOUBLE_OBJECT = 16;
+		private static final int BOOLEAN_OBJECT = 17;
+		private static final int VALUE = 18;
+		
+		private static final class Property {
+			
+			private final String name;
+			private final Class<?> type;
+			private final int kind;
+			
+			/**
+			 * Typed (Object)X and (Object,X)void, where X is the primitive type of
+			 * primitive fields and Object otherwise.
+			 */
+			private final MethodHandle getter, setter;
+			
+			/**
+			 * Binder of a {@link #BOUND} field, set on first use so that classes
+			 * may refer to themselves.
+			 */
+			private JSONBinder<?> binder;
+			
+			private Property (String name, Field field, MethodHandles.Lookup lookup) throws IllegalAccessException {
+				
+				this.name = name;
+				
+				type = field.getType ();
+				kind = kindOf (type);
+				
+				Class<?> exact = (type.isPrimitive () ? type : Object.class);
+				
+				getter = lookup.unreflectGetter (field).asType (MethodType.methodType (exact, Object.class));
+				setter = lookup.unreflectSetter (field).asType (MethodType.methodType (void.class, Object.class, exact));
+				
+			}
+			
+			private JSONBinder<?> binder () {
+				
+				if (binder == null)
+					binder = of (type);
+				
+				return binder;
+				
+			}
+			
+		}
+		
+		protected final Class<T> type;
+		
+		private final MethodHandle constructor;
+		private final Property[] properties;
+		private final Map<String, Property> names = new HashMap<> ();
+		
+		private JSONBinder (Class<T> type) {
+			
+			this.type = type;
+			
+			List<Property> properties = new ArrayList<> ();
+			
+			try {
+				
+				MethodHandles.Lookup lookup = MethodHandles.privateLookupIn (type, MethodHandles.lookup ());
+				
+				constructor = lookup.findConstructor (type, MethodType.methodType (void.class)).asType (MethodType.methodType (Object.class));
+				
+				for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass ()) {
+					
+					MethodHandles.Lookup fields = (current == type ? lookup : MethodHandles.privateLookupIn (current, MethodHandles.lookup ()));
+					
+					for (Field field : current.getDeclaredFields ()) {
+						
+						int modifiers = field.getModifiers ();
+						JSONName annotation = field.getAnnotation (JSONName.class);
+						
+						if (Modifier.isStatic (modifiers) || Modifier.isFinal (modifiers) || Modifier.isTransient (modifiers) || field.isSynthetic () || (annotation != null && annotation.ignore ()))
+							continue;
+						
+						String name = (annotation != null && !annotation.value ().isEmpty () ? annotation.value () : field.getName ());
+						
+						if (!names.containsKey (name)) { // fields of subclasses hide the ones of superclasses
+							
+							Property property = new Property (name, field, fields);
+							
+							properties.add (property);
+							names.put (name, property);
+							
+						}
+						
+					}
+					
+				}
+				
+			} catch (NoSuchMethodException e) {
+				throw new JSONException (type.getName () + " has no constructor without parameters");
+			} catch (IllegalAccessException e) {
+				throw new JSONException ("Can't access " + type.getName () + ": " + e.getMessage ());
+			}
+			
+			this.properties = properties.toArray (new Property[0]);
+			
+		}
+		
+		/**
+		 * Returns the binder of {@code type}.
+		 *
+		 * @throws JSONException if the class can't be bound.
+		 */
+		@SuppressWarnings ("unchecked")
+		public static <T> JSONBinder<T> of (Class<T> type) {
+			return (JSONBinder<T>) binders.get (type);
+		}
+		
+		private static int kindOf (Class<?> type) {
+			
+			if (type == int.class)
+				return INT;
+			else if (type == long.class)
+				return LONG;
+			else if (type == double.class)
+				return DOUBLE;
+			else if (type == float.class)
+				return FLOAT;
+			else if (type == boolean.class)
+				return BOOLEAN;
+			else if (type == short.class)
+				return SHORT;
+			else if (type == byte.class)
+				return BYTE;
+			else if (type == char.class)
+				return CHAR;
+			else if (type == String.class)
+				return STRING;
+			else if (type.isEnum ())
+				return ENUM;
+			else if (type == int[].class)
+				return INT_ARRAY;
+			else if (type == long[].class)
+				return LONG_ARRAY;
+			else if (type == double[].class)
+				return DOUBLE_ARRAY;
+			else if (type == Integer.class)
+				return INTEGER_OBJECT;
+			else if (type == Long.class)
+				return LONG_OBJECT;
+			else if (type == Double.class)
+				return DOUBLE_OBJECT;
+			else if (type == Boolean.class)
+				return BOOLEAN_OBJECT;
+			else if (isBound (type))
+				return BOUND;
+			
+			return VALUE;
+			
+		}
+		
+		/**
+		 * Whether {@code type} is bound recursively: a concrete class outside of
+		 * the JDK and of this package.
+		 */
+		private static boolean isBound (Class<?> type) {
+			
+			String name = type.getName ();
+			
+			return !type.isArray () && !type.isInterface () && !Modifier.isAbstract (type.getModifiers ())
+				       && !name.startsWith ("java.") && !name.startsWith ("javax.") && type.getPackage () != JSONBinder.class.getPackage ();
+			
+		}
+		
+		/**
+		 * Creates an instance from the members of {@code object}.
+		 *
+		 * @throws JSONException if a member can't be converted to the type of its
+		 *                       field.
+		 */
+		public T read (JSONObject object) {
+			
+			Object target = newInstance ();
+			
+			for (Map.Entry<String, Object> entry : object.entrySet ()) {
+				
+				Property property = names.get (entry.getKey ());
+				
+				if (property != null)
+					set (property, target, entry.getValue ());
+				
+			}
+			
+			return type.cast (target);
+			
+		}
+		
+		/**
+		 * Creates an instance from the next object of {@code reader}, reading
+		 * primitive members straight into the fields and skipping unknown ones.
+		 * Returns null for a null value.
+		 *
+		 * @throws JSONException if the input is malformed or a member can't be
+		 *                       converted to the type of its field.
+		 */
+		public T read (JSONReader reader) {
+			
+			if (reader.peek () == JSONReader.Token.NULL) {
+				
+				reader.nextNull ();
+				return null;
+				
+			}
+			
+			Object target = newInstance ();
+			
+			reader.beginObject ();
+			
+			while (reader.hasNext ()) {
+				
+				Property property = names.get (reader.nextName ());
+				
+				if (property != null)
+					read (property, target, reader);
+				else
+					reader.skipValue ();
+				
+			}
+			
+			reader.endObject ();
+			
+			return type.cast (target);
+			
+		}
+		
+		public T read (String json) {
+			return read (new JSONReader (json));
+		}
+		
+		/**
+		 * Returns the fields of {@code value} as a new object.
+		 */
+		public JSONObject write (T value) {
+			
+			JSONObject result = new JSONObject (properties.length);
+			
+			try {
+				
+				for (Property property : properties)
+					switch (property.kind) {
+						
+						case INT:
+							
+							result.put (property.name, (int) property.getter.invokeExact (value));
+							break;
+						
+						case LONG:
+							
+							result.put (property.name, (long) property.getter.invokeExact (value));
+							break;
+						
+						case DOUBLE:
+							
+							result.put (property.name, (double) property.getter.invokeExact (value));
+							break;
+						
+						case FLOAT:
+							
+							result.put (property.name, (double) (float) property.getter.invokeExact (value));
+							break;
+						
+						case BOOLEAN:
+							
+							result.put (property.name, (boolean) property.getter.invokeExact (value));
+							break;
+						
+						case SHORT:
+							
+							result.put (property.name, (int) (short) property.getter.invokeExact (value));
+							break;
+						
+						case BYTE:
+							
+							result.put (property.name, (int) (byte) property.getter.invokeExact (value));
+							break;
+						
+						case CHAR:
+							
+							result.put (property.name, String.valueOf ((char) property.getter.invokeExact (value)));
+							break;
+						
+						default:
+							result.put (property.name, toValue (property, (Object) property.getter.invokeExact (value)));
+						
+					}
+				
+			} catch (Throwable e) {
+				throw rethrow (e);
+			}
+			
+			return result;
+			
+		}
+		
+		private Object toValue (Property property, Object value) {
+			
+			if (value == null)
+				return JSONObject.NULL;
+			
+			switch (property.kind) {
+				
+				case ENUM:
+					return ((Enum<?>) value).name ();
+				
+				case INT_ARRAY: {
+					
+					int[] values = (int[]) value;
+					JSONArray array = new JSONArray (values.length);
+					
+					for (int item : values)
+						array.put (item);
+					
+					return array;
+					
+				}
+				
+				case LONG_ARRAY: {
+					
+					long[] values = (long[]) value;
+					JSONArray array = new JSONArray (values.length);
+					
+					for (long item : values)
+						array.put (item);
+					
+					return array;
+					
+				}
+				
+				case DOUBLE_ARRAY: {
+					
+					double[] values = (double[]) value;
+					JSONArray array = new JSONArray (values.length);
+					
+					for (double item : values)
+						array.put (item);
+					
+					return array;
+					
+				}
+				
+				case BOUND:
+					return writeBound (property.binder (), value);
+				
+				default:
+					return value;
+				
+			}
+			
+		}
+		
+		@SuppressWarnings ("unchecked")
+		private static <V> JSONObject writeBound (JSONBinder<V> binder, Object value) {
+			return binder.write ((V) value);
+		}
+		
+		/**
+		 * Writes the fields of {@code value} as an object to {@code writer}.
+		 *
+		 * @return {@code writer}.
+		 */
+		public JSONWriter write (T value, JSONWriter writer) {
+			
+			if (value == null)
+				return writer.value ((Object) null);
+			
+			writer.object ();
+			
+			try {
+				
+				for (Property property : properties) {
+					
+					writer.key (property.name);
+					
+					switch (property.kind) {
+						
+						case INT:
+							
+							writer.value ((int) property.getter.invokeExact (value));
+							break;
+						
+						case LONG:
+							
+							writer.value ((long) property.getter.invokeExact (value));
+							break;
+						
+						case DOUBLE:
+							
+							writer.value ((double) property.getter.invokeExact (value));
+							break;
+						
+						case FLOAT:
+							
+							writer.value ((float) property.getter.invokeExact (value));
+							break;
+						
+						case BOOLEAN:
+							
+							writer.value ((boolean) property.getter.invokeExact (value));
+							break;
+						
+						case SHORT:
+							
+							writer.value ((short) property.getter.invokeExact (value));
+							break;
+						
+						case BYTE:
+							
+							writer.value ((byte) property.getter.invokeExact (value));
+							break;
+						
+						case CHAR:
+							
+							writer.value (String.valueOf ((char) property.getter.invokeExact (value)));
+							break;
+						
+						case INT_ARRAY:
+						case LONG_ARRAY:
+						case DOUBLE_ARRAY:
+							
+							writeArray (property.kind, (Object) property.getter.invokeExact (value), writer);
+							break;
+						
+						case BOUND:
+							
+							writeBound (property.binder (), (Object) property.getter.invokeExact (value), writer);
+							break;
+						
+						default:
+							writer.value (toValue (property, (Object) property.getter.invokeExact (value)));
+						
+					}
+					
+				}
+				
+			} catch (Throwable e) {
+				throw rethrow (e);
+			}
+			
+			return writer.endObject ();
+			
+		}
+		
+		@SuppressWarnings ("unchecked")
+		private static <V> void writeBound (JSONBinder<V> binder, Object value, JSONWriter writer) {
+			binder.write ((V) value, writer);
+		}
+		
+		private static void writeArray (int kind, Object value, JSONWriter writer) {
+			
+			if (value == null) {
+				
+				writer.value ((Object) null);
+				return;
+				
+			}
+			
+			writer.array ();
+			
+			if (kind == INT_ARRAY)
+				for (int item : (int[]) value)
+					writer.value (item);
+			else if (kind == LONG_ARRAY)
+				for (long item : (long[]) value)
+					writer.value (item);
+			else
+				for (double item : (double[]) value)
+					writer.value (item);
+			
+			writer.endArray ();
+			
+		}
+		
+		private Object newInstance () {
+			
+			try {
+				return (Object) constructor.invokeExact ();
+			} catch (Throwable e) {
+				throw rethrow (e);
+			}
+			
+		}
+		
+		/**
+		 * Sets a field to a value of a {@link JSONObject}, coerced like the
+		 * getters of JSONObject do.
+		 */
+		private void set (Property property, Object target, Object value) {
+			
+			try {
+				
+				switch (property.kind) {
+					
+					case INT:
+						
+						property.setter.invokeExact (target, value instanceof Integer ? (int) value : require (property, Struct.toInteger (value), value).intValue ());
+						break;
+					
+					case LONG:
+						
+						property.setter.invokeExact (target, value instanceof Long || value instanceof Integer ? ((Number) value).longValue () : require (property, Struct.toLong (value), value).longValue ());
+						break;
+					
+					case DOUBLE:
+						
+						property.setter.invokeExact (target, value instanceof Number ? ((Number) value).doubleValue () : require (property, Struct.toDouble (value), value).doubleValue ());
+						break;
+					
+					case FLOAT:
+						
+						property.setter.invokeExact (target, value instanceof Number ? ((Number) value).floatValue () : require (property, Struct.toFloat (value), value).floatValue ());
+						break;
+					
+					case SHORT:
+						
+						property.setter.invokeExact (target, require (property, Struct.toInteger (value), value).shortValue ());
+						break;
+					
+					case BYTE:
+						
+						property.setter.invokeExact (target, require (property, Struct.toInteger (value), value).byteValue ());
+						break;
+					
+					case BOOLEAN:
+						
+						property.setter.invokeExact (target, (boolean) require (property, value instanceof Boolean ? (Boolean) value : value != null ? Struct.toBool (value) : null, value));
+						break;
+					
+					case CHAR: {
+						
+						String string = Struct.toString (value);
+						
+						if (value == JSONObject.NULL || string == null || string.length () != 1)
+							throw mismatch (property, value);
+						
+						property.setter.invokeExact (target, string.charAt (0));
+						break;
+						
+					}
+					
+					default:
+						property.setter.invokeExact (target, fromValue (property, value));
+					
+				}
+				
+			} catch (Throwable e) {
+				throw rethrow (e);
+			}
+			
+		}
+		
+		/**
+		 * Converts a parsed value for a reference field.
+		 */
+		private Object fromValue (Property property, Object value) {
+			
+			if (value == null || value == JSONObject.NULL)
+				return null;
+			
+			switch (property.kind) {
+				
+				case STRING:
+					return Struct.toString (value);
+				
+				case INTEGER_OBJECT:
+					return require (property, Struct.toInteger (value), value);
+				
+				case LONG_OBJECT:
+					return require (property, Struct.toLong (value), value);
+				
+				case DOUBLE_OBJECT:
+					return require (property, Struct.toDouble (value), value);
+				
+				case BOOLEAN_OBJECT:
+					return require (property, Struct.toBool (value), value);
+				
+				case ENUM:
+					return toEnum (property, value);
+				
+				case INT_ARRAY:
+					return toArray (property, value).toIntArray ();
+				
+				case LONG_ARRAY:
+					return toArray (property, value).toLongArray ();
+				
+				case DOUBLE_ARRAY:
+					return toArray (property, value).toDoubleArray ();
+				
+				case BOUND:
+					
+					if (!(value instanceof JSONObject))
+						throw mismatch (property, value);
+					
+					return property.binder ().read ((JSONObject) value);
+				
+				default:
+					
+					if (!property.type.isInstance (value))
+						throw mismatch (property, value);
+					
+					return value;
+				
+			}
+			
+		}
+		
+		@SuppressWarnings ({"unchecked", "rawtypes"})
+		private static Object toEnum (Property property, Object value) {
+			
+			try {
+				return Enum.valueOf ((Class<? extends Enum>) property.type, value.toString ());
+			} catch (IllegalArgumentException e) {
+				throw mismatch (property, value);
+			}
+			
+		}
+		
+		private static JSONArray toArray (Property property, Object value) {
+			
+			if (!(value instanceof JSONArray))
+				throw mismatch (property, value);
+			
+			return (JSONArray) value;
+			
+		}
+		
+		/**
+		 * Reads the next value of {@code reader} into a field.
+		 */
+		private void read (Property property, Object target, JSONReader reader) {
+			
+			try {
+				
+				switch (property.kind) {
+					
+					case INT:
+						
+						property.setter.invokeExact (target, reader.nextInt ());
+						break;
+					
+					case LONG:
+						
+						property.setter.invokeExact (target, reader.nextLong ());
+						break;
+					
+					case DOUBLE:
+						
+						property.setter.invokeExact (target, reader.nextDouble ());
+						break;
+					
+					case FLOAT:
+						
+						property.setter.invokeExact (target, (float) reader.nextDouble ());
+						break;
+					
+					case BOOLEAN:
+						
+						property.setter.invokeExact (target, reader.nextBoolean ());
+						break;
+					
+					case STRING:
+						
+						if (reader.peek () == JSONReader.Token.NULL) {
+							
+							reader.nextNull ();
+							property.setter.invokeExact (target, (Object) null);
+							
+						} else property.setter.invokeExact (target, (Object) reader.nextString ());
+						
+						break;
+					
+					case INT_ARRAY:
+					case LONG_ARRAY:
+					case DOUBLE_ARRAY:
+						
+						property.setter.invokeExact (target, readArray (property.kind, reader));
+						break;
+					
+					case BOUND:
+						
+						property.setter.invokeExact (target, (Object) property.binder ().read (reader));
+						break;
+					
+					default:
+						set (property, target, reader.nextValue ());
+					
+				}
+				
+			} catch (Throwable e) {
+				throw rethrow (e);
+			}
+			
+		}
+		
+		private static Object readArray (int kind, JSONReader reader) {
+			
+			if (reader.peek () == JSONReader.Token.NULL) {
+				
+				reader.nextNull ();
+				return null;
+				
+			}
+			
+			reader.beginArray ();
+			
+			int size = 0;
+			Object result;
+			
+			if (kind == INT_ARRAY) {
+				
+				int[] values = new int[8];
+				
+				for (; reader.hasNext (); size++) {
+					
+					if (size == values.length)
+						values = Arrays.copyOf (values, size * 2);
+					
+					values[size] = reader.nextInt ();
+					
+				}
+				
+				result = Arrays.copyOf (values, size);
+				
+			} else if (kind == LONG_ARRAY) {
+				
+				long[] values = new long[8];
+				
+				for (; reader.hasNext (); size++) {
+					
+					if (size == values.length)
+						values = Arrays.copyOf (values, size * 2);
+					
+					values[size] = reader.nextLong ();
+					
+				}
+				
+				result = Arrays.copyOf (values, size);
+				
+			} else {
+				
+				double[] values = new double[8];
+				
+				for (; reader.hasNext (); size++) {
+					
+					if (size == values.length)
+						values = Arrays.copyOf (values, size * 2);
+					
+					values[size] = reader.nextDouble ();
+					
+				}
+				
+				result = Arrays.copyOf (values, size);
+				
+			}
+			
+			reader.endArray ();
+			
+			return result;
+			
+		}
+		
+		private static <V> V require (Property property, V converted, Object value) {
+			
+			if (converted == null || value == JSONObject.NULL)
+				throw mismatch (property, value);
+			
+			return converted;
+			
+		}
+		
+		private static JSONException mismatch (Property property, Object value) {
+			
+			if (value == null || value == JSONObject.NULL)
+				return new JSONException ("Value at " + property.name + " is null.");
+			
+			return new JSONException ("Value " + value + " at " + property.name + " of type " + value.getClass ().getName () + " cannot be converted to " + property.type.getName () + ".");
+			
+		}
+		
+		private static RuntimeException rethrow (Throwable e) {
+			
+			if (e instanceof RuntimeException)
+				return (RuntimeException) e;
+			else if (e instanceof Error)
+				throw (Error) e;
+			
+			JSONException exception = new JSONException (e.toString ());
+			exception.initCause (e);
+			
+			return exception;
+			
+		}
+		
+	}
\ No newline at end of file
@@ -0,0 +1,792 @@
+	/*
+	 * Copyright (c) 2020 - 2024 UPL Foundation
+	 *
+	 * Licensed under the Apache License, Version 2.0 (the "License");
+	 * you may not use this file except in compliance with the License.
+	 * You may obtain a copy of the License at
+	 *
+	 *     http://www.apache.org/licenses/LICENSE-2.0
+	 *
+	 * Unless required by applicable law or agreed to in writing, software
+	 * distributed under the License is distributed on an "AS IS" BASIS,
+	 * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	 * See the License for the specific language governing permissions and
+	 * limitations under the License.
+	 */
+	
+	package upl.json;
+	
+	import java.nio.ByteBuffer;
+	import java.nio.charset.StandardCharsets;
+	import java.util.Arrays;
+	import upl.math.NumberScanner;
+	
+	/**
+	 * Parses UTF-8 encoded JSON straight from bytes, accepting the same lenient
+	 * syntax as {@link JSONTokener}. The input is never decoded as a whole: only
+	 * the strings which end up in the result are decoded, numbers are scanned
+	 * from the bytes and names may be interned through a {@link JSONKeyCache}
+	 * without creating a String at all. Malformed UTF-8 in strings and literals
+	 * is reported as a syntax error.
+	 *
+	 * <p>The input may be a heap, direct or memory-mapped {@link ByteBuffer}; it
+	 * is read from its position to its limit with absolute gets and the
+	 * position of the buffer is left unchanged. A leading byte order mark is
+	 * skipped.
+	 *
+	 * <p>Instances of this class are not thread safe.
+	 */
+	public class JSONByteTokener {
+		
+		protected ByteBuffer in;
+		
+		/**
+		 * The index of the next byte to be read.
+		 */
+		private int pos;
+		
+		private final int limit;
+		
+		/**
+		 * The array of a heap buffer, read directly, and the array index of the
+		 * buffer's index 0. Positions are array indexes then.
+		 */
+		private final byte[] bytes;
+		private final int base;
+		
+		/**
+		 * Interns names and shares object layouts, or null.
+		 */
+		protected JSONKeyCache keys;
+		
+		private NumberScanner numbers;
+		
+		/**
+		 * Decoded chars of the current string or literal.
+		 */
+		private char[] chars = new char[64];
+		
+		public JSONByteTokener (byte[] in) {
+			this (ByteBuffer.wrap (in));
+		}
+		
+		public JSONByteTokener (byte[] in, int offset, int length) {
+			this (ByteBuffer.wrap (in, offset, length));
+		}
+		
+		public JSONByteTokener (ByteBuffer in) {
+			
+			this.in = in;
+			
+			if (in.hasArray ()) {
+				
+				bytes = in.array ();
+				base = in.arrayOffset ();
+				
+			} else {
+				
+				bytes = null;
+				base = 0;
+				
+			}
+			
+			pos = base + in.position ();
+			limit = base + in.limit ();
+			
+			if (limit - pos >= 3 && at (pos) == (byte) 0xEF && at (pos + 1) == (byte) 0xBB && at (pos + 2) == (byte) 0xBF)
+				pos += 3;
+			
+		}
+		
+		/**
+		 * Creates a tokener which interns names and shares the layout of objects
+		 * with the same keys through {@code keys}.
+		 */
+		public JSONByteTokener (ByteBuffer in, JSONKeyCache keys) {
+			
+			this (in);
+			this.keys = keys;
+			
+		}
+		
+		/**
+		 * Returns the next value from the input.
+		 *
+		 * @return a {@link JSONObject}, {@link JSONArray}, String, Boolean,
+		 * Integer, Long, Double or {@link JSONObject#NULL}.
+		 * @throws JSONException if the input is malformed.
+		 */
+		public Object nextValue () {
+			
+			int c = nextCleanInternal ();
+			
+			switch (c) {
+				
+				case -1:
+					throw syntaxError ("End of input");
+				
+				case '{':
+					return readObject (newObject (estimateSize ('}')));
+				
+				case '[':
+					return readArray (new JSONArray (estimateSize (']')));
+				
+				case '\'':
+				case '"':
+					return nextString ((char) c);
+				
+				default:
+					
+					pos--;
+					return readLiteral ();
+				
+			}
+			
+		}
+		
+		/**
+		 * Reads the next object into {@code result} instead of a new instance.
+		 *
+		 * @return {@code result}.
+		 * @throws JSONException if the input is malformed or the next value is
+		 *                       not an object.
+		 */
+		public JSONObject nextObject (JSONObject result) {
+			
+			if (nextCleanInternal () != '{')
+				throw syntaxError ("A JSONObject text must begin with '{'");
+			
+			if (keys != null)
+				result.setShape (keys.getShapes ());
+			
+			result.ensureCapacity (estimateSize ('}'));
+			
+			return readObject (result);
+			
+		}
+		
+		/**
+		 * Reads the next array into {@code result} instead of a new instance.
+		 *
+		 * @return {@code result}.
+		 * @throws JSONException if the input is malformed or the next value is
+		 *                       not an array.
+		 */
+		public JSONArray nextArray (JSONArray result) {
+			
+			if (nextCleanInternal () != '[')
+				throw syntaxError ("A JSONArray text must begin with '['");
+			
+			result.ensureCapacity (estimateSize (']'));
+			
+			return readArray (result);
+			
+		}
+		
+		/**
+		 * Returns true until the input has been exhausted.
+		 */
+		public boolean more () {
+			return pos < limit;
+		}
+		
+		/**
+		 * Returns the absolute index of the next byte to be read.
+		 */
+		public int getPosition () {
+			return pos - base;
+		}
+		
+		private int nextCleanInternal () {
+			
+			while (pos < limit) {
+				
+				int c = at (pos++);
+				
+				switch (c) {
+					
+					case '\t':
+					case ' ':
+					case '\n':
+					case '\r':
+						continue;
+					
+					case '/':
+						
+						if (pos == limit)
+							return c;
+						
+						byte peek = at (pos);
+						
+						if (peek != '*' && peek != '/')
+							return c;
+						
+						skipComment ();
+						continue;
+					
+					default:
+						return c;
+					
+				}
+				
+			}
+			
+			return -1;
+			
+		}
+		
+		/**
+		 * Advances the position beyond the comment whose opening slash was just
+		 * read, see {@link JSONTokener}.
+		 */
+		private void skipComment () {
+			
+			if (at (pos++) == '*') {
+				
+				for (; pos + 1 < limit; pos++)
+					if (at (pos) == '*' && at (pos + 1) == '/') {
+						
+						pos += 2;
+						return;
+						
+					}
+				
+				throw syntaxError ("Unterminated comment");
+				
+			} else {
+				
+				for (; pos < limit; pos++) {
+					
+					byte c = at (pos);
+					
+					if (c == '\r' || c == '\n') {
+						
+						pos++;
+						break;
+						
+					}
+					
+				}
+				
+			}
+			
+		}
+		
+		/**
+		 * Returns the string up to but not including {@code quote}, unescaping any
+		 * character escape sequences encountered along the way. The opening quote
+		 * should have already been read. This consumes the closing quote, but does
+		 * not include it in the returned string.
+		 *
+		 * @param quote either ' or ".
+		 * @throws JSONException if the string is unterminated, holds a malformed
+		 *                       escape sequence or malformed UTF-8.
+		 */
+		public String nextString (char quote) {
+			
+			// Plain ASCII of a heap buffer becomes a String with a single copy
+			
+			if (bytes != null)
+				for (int i = pos; i < limit; i++) {
+					
+					byte c = at (i);
+					
+					if (c == quote) {
+						
+						String result = new String (bytes, pos, i - pos, StandardCharsets.ISO_8859_1);
+						pos = i + 1;
+						
+						return result;
+						
+					} else if (c == '\\' || c < 0)
+						break;
+					
+				}
+			
+			int length = readString (quote); // may grow chars
+			
+			return new String (chars, 0, length);
+			
+		}
+		
+		/**
+		 * Decodes the string up to {@code quote} into {@link #chars}, returning its
+		 * length.
+		 */
+		private int readString (int quote) {
+			
+			int length = 0;
+			
+			while (pos < limit) {
+				
+				int c = at (pos++);
+				
+				if (c == quote)
+					return length;
+				
+				if (length + 2 > chars.length)
+					chars = Arrays.copyOf (chars, chars.length * 2);
+				
+				if (c == '\\') {
+					
+					if (pos == limit)
+						throw syntaxError ("Unterminated escape sequence");
+					
+					if (at (pos) >= 0)
+						chars[length++] = readEscapeCharacter ();
+					
+					// else an escaped multi-byte char is the char itself
+					
+				} else if (c >= 0)
+					chars[length++] = (char) c;
+				else
+					length = decode (c, length);
+				
+			}
+			
+			throw syntaxError ("Unterminated string");
+			
+		}
+		
+		/**
+		 * Decodes the UTF-8 sequence led by {@code lead} into {@link #chars} at
+		 * {@code length}, returning the new length. Overlong forms, surrogates
+		 * and truncated sequences are rejected.
+		 */
+		private int decode (int lead, int length) {
+			
+			lead &= 0xFF;
+			
+			int count, min, max = 0xBF, codePoint;
+			
+			if (lead >= 0xC2 && lead <= 0xDF) {
+				
+				count = 1;
+				min = 0x80;
+				codePoint = lead & 0x1F;
+				
+			} else if (lead >= 0xE0 && lead <= 0xEF) {
+				
+				count = 2;
+				min = (lead == 0xE0 ? 0xA0 : 0x80);
+				max = (lead == 0xED ? 0x9F : 0xBF);
+				codePoint = lead & 0x0F;
+				
+			} else if (lead >= 0xF0 && lead <= 0xF4) {
+				
+				count = 3;
+				min = (lead == 0xF0 ? 0x90 : 0x80);
+				max = (lead == 0xF4 ? 0x8F : 0xBF);
+				codePoint = lead & 0x07;
+				
+			} else throw malformed ();
+			
+			for (int i = 0; i < count; i++) {
+				
+				if (pos == limit)
+					throw malformed ();
+				
+				int next = at (pos) & 0xFF;
+				
+				if (next < min || next > max)
+					throw malformed ();
+				
+				codePoint = (codePoint << 6) | (next & 0x3F);
+				
+				min = 0x80;
+				max = 0xBF;
+				
+				pos++;
+				
+			}
+			
+			if (codePoint >= Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+				
+				chars[length++] = Character.highSurrogate (codePoint);
+				chars[length++] = Character.lowSurrogate (codePoint);
+				
+			} else chars[length++] = (char) codePoint;
+			
+			return length;
+			
+		}
+		
+		private JSONException malformed () {
+			return syntaxError ("Malformed UTF-8");
+		}
+		
+		/**
+		 * Unescapes the character following a backslash, see {@link JSONTokener}.
+		 */
+		private char readEscapeCharacter () {
+			
+			int escaped = at (pos++);
+			
+			switch (escaped) {
+				
+				case 'u':
+					
+					if (pos + 4 > limit)
+						throw syntaxError ("Unterminated escape sequence");
+					
+					int value = 0;
+					
+					for (int i = 0; i < 4; i++) {
+						
+						int digit = JSONTokener.dehexchar ((char) at (pos++));
+						
+						if (digit == -1)
+							throw syntaxError ("Invalid escape sequence");
+						
+						value = (value << 4) | digit;
+						
+					}
+					
+					return (char) value;
+				
+				case 't':
+					return '\t';
+				
+				case 'b':
+					return '\b';
+				
+				case 'n':
+					return '\n';
+				
+				case 'r':
+					return '\r';
+				
+				case 'f':
+					return '\f';
+				
+				default:
+					return (char) escaped;
+				
+			}
+			
+		}
+		
+		/**
+		 * Reads a null, boolean, numeric or unquoted string literal value.
+		 */
+		private Object readLiteral () {
+			
+			if (scanNumber ())
+				return numbers.getNumber ();
+			
+			int length = 0;
+			
+			for (; pos < limit; pos++) {
+				
+				int c = at (pos);
+				
+				if (c >= 0 && (c == '\r' || c == '\n' || "{}[]/\\:,=;# \t\f".indexOf (c) != -1))
+					break;
+				
+				if (length + 2 > chars.length)
+					chars = Arrays.copyOf (chars, chars.length * 2);
+				
+				if (c >= 0)
+					chars[length++] = (char) c;
+				else {
+					
+					pos++;
+					length = decode (c, length);
+					pos--;
+					
+				}
+				
+			}
+			
+			if (length == 0)
+				throw syntaxError ("Expected literal value");
+			
+			return JSONTokener.parseLiteral (new String (chars, 0, length));
+			
+		}
+		
+		/**
+		 * Scans a number at the current position and moves past it. Returns false
+		 * and leaves the position unchanged if the literal there is not a
+		 * complete number.
+		 */
+		private boolean scanNumber () {
+			
+			if (pos < limit) {
+				
+				byte c = at (pos);
+				
+				if (c == '-' || (c >= '0' && c <= '9')) {
+					
+					if (numbers == null)
+						numbers = new NumberScanner ();
+					
+					if ((bytes != null ? numbers.scan (bytes, pos, limit) : numbers.scan (in, pos, limit)) != NumberScanner.NONE) {
+						
+						int end = numbers.getEnd ();
+						
+						if (end == limit || JSONTokener.LITERAL_END.indexOf (at (end)) != -1) {
+							
+							pos = end;
+							return true;
+							
+						}
+						
+					}
+					
+				}
+				
+			}
+			
+			return false;
+			
+		}
+		
+		private JSONObject newObject (int capacity) {
+			
+			if (keys == null)
+				return new JSONObject (capacity);
+			
+			JSONObject result = keys.newObject ();
+			result.ensureCapacity (capacity);
+			
+			return result;
+			
+		}
+		
+		/**
+		 * Counts the elements of the container whose opening bracket was just
+		 * read, see {@link JSONTokener}.
+		 */
+		private int estimateSize (char close) {
+			
+			int depth = 0, separators = 0;
+			boolean empty = true;
+			int end = Math.min (limit, pos + JSONTokener.LOOKAHEAD);
+			
+			for (int i = pos; i < end; i++) {
+				
+				byte c = at (i);
+				
+				switch (c) {
+					
+					case '"':
+					case '\'':
+						
+						for (i++; i < end && at (i) != c; i++)
+							if (at (i) == '\\')
+								i++;
+						
+						empty = false;
+						break;
+					
+					case '{':
+					case '[':
+						
+						depth++;
+						empty = false;
+						break;
+					
+					case '}':
+					case ']':
+						
+						if (depth-- == 0)
+							return c == close ? (empty ? 0 : separators + 1) : 0;
+						
+						break;
+					
+					case ',':
+					case ';':
+						
+						if (depth == 0)
+							separators++;
+						
+						break;
+					
+					case ' ':
+					case '\t':
+					case '\n':
+					case '\r':
+						break;
+					
+					default:
+						empty = false;
+					
+				}
+				
+			}
+			
+			return 0;
+			
+		}
+		
+		private JSONObject readObject (JSONObject result) {
+			
+			int first = nextCleanInternal ();
+			
+			if (first == '}')
+				return result;
+			else if (first != -1)
+				pos--;
+			
+			while (true) {
+				
+				Object name = (keys != null ? nextName () : nextValue ());
+				
+				if (!(name instanceof String)) {
+					
+					if (name == null)
+						throw syntaxError ("Names cannot be null");
+					else
+						throw syntaxError ("Names must be strings, but " + name + " is of type " + name.getClass ().getName ());
+					
+				}
+				
+				int separator = nextCleanInternal ();
+				
+				if (separator != ':' && separator != '=')
+					throw syntaxError ("Expected ':' after " + name);
+				
+				if (pos < limit && at (pos) == '>')
+					pos++;
+				
+				result.put ((String) name, nextValue ());
+				
+				switch (nextCleanInternal ()) {
+					
+					case '}':
+						return result;
+					
+					case ';':
+					case ',':
+						continue;
+					
+					default:
+						throw syntaxError ("Unterminated object");
+					
+				}
+				
+			}
+			
+		}
+		
+		/**
+		 * Reads a quoted name through the key cache without creating a String for
+		 * names which are already interned.
+		 */
+		private Object nextName () {
+			
+			int c = nextCleanInternal ();
+			
+			if (c == '"' || c == '\'') {
+				
+				int length = readString (c);
+				
+				return keys.intern (chars, 0, length);
+				
+			}
+			
+			if (c != -1)
+				pos--;
+			
+			Object name = nextValue ();
+			
+			return (name instanceof String ? keys.intern ((String) name) : name);
+			
+		}
+		
+		private JSONArray readArray (JSONArray result) {
+			
+			boolean hasTrailingSeparator = false;
+			
+			while (true) {
+				
+				switch (nextCleanInternal ()) {
+					
+					case -1:
+						throw syntaxError ("Unterminated array");
+					
+					case ']':
+						
+						if (hasTrailingSeparator)
+							result.put (null);
+						
+						return result;
+					
+					case ',':
+					case ';':
+						
+						result.put (null);
+						hasTrailingSeparator = true;
+						
+						continue;
+					
+					default:
+						pos--;
+					
+				}
+				
+				if (scanNumber ())
+					switch (numbers.getType ()) {
+						
+						case NumberScanner.INT:
+							
+							result.put ((int) numbers.getLong ());
+							break;
+						
+						case NumberScanner.LONG:
+							
+							result.put (numbers.getLong ());
+							break;
+						
+						default:
+							
+							double value = numbers.getDouble ();
+							
+							if (Double.isInfinite (value)) // overflowing literals are not rejected like put (double) does
+								result.put ((Object) value);
+							else
+								result.put (value);
+						
+					}
+				else
+					result.put (nextValue ());
+				
+				switch (nextCleanInternal ()) {
+					
+					case ']':
+						return result;
+					
+					case ',':
+					case ';':
+						
+						hasTrailingSeparator = true;
+						continue;
+					
+					default:
+						throw syntaxError ("Unterminated array");
+					
+				}
+				
+			}
+			
+		}
+		
+		private byte at (int index) {
+			return (bytes != null ? bytes[index] : in.get (index));
+		}
+		
+		/**
+		 * Returns an exception containing the given message plus the current
+		 * position.
+		 */
+		public JSONException syntaxError (String message) {
+			return new JSONException (message + this);
+		}
+		
+		@Override
+		public String toString () {
+			return " at byte " + getPosition ();
+		}
+		
+	}
\ No newline at end of file
@@ -0,0 +1,842 @@
+	/*
+	 * Copyright (c) 2020 - 2024 UPL Foundation
+	 *
+	 * Licensed under the Apache License, Version 2.0 (the "License");
+	 * you may not use this file except in compliance with the License.
+	 * You may obtain a copy of the License at
+	 *
+	 *     http://www.apache.org/licenses/LICENSE-2.0
+	 *
+	 * Unless required by applicable law or agreed to in writing, software
+	 * distributed under the License is distributed on an "AS IS" BASIS,
+	 * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	 * See the License for the specific language governing permissions and
+	 * limitations under the License.
+	 */
+	
+	package upl.json;
+	
+	import java.nio.ByteBuffer;
+	import java.util.ArrayList;
+	import java.util.Arrays;
+	import upl.math.NumberScanner;
+	
+	/**
+	 * Non-blocking push parser for UTF-8 encoded JSON. Bytes are handed over by
+	 * {@link #feed} in chunks of any size, as they arrive from a socket or an
+	 * NIO channel, and every complete token is reported to a {@link Listener}
+	 * right away. The parser never waits for input: strings, escapes, UTF-8
+	 * sequences, literals and comments split across chunks are kept in its
+	 * state until the next chunk completes them. Example usage: <pre>
+	 * JSONFeedParser parser = new JSONFeedParser (new JSONFeedParser.ValueListener () {
+	 *
+	 *   protected void onValue (Object value) {
+	 *     handle ((JSONObject) value);
+	 *   }
+	 *
+	 * });
+	 *
+	 * // in the event loop, whenever data was read
+	 * parser.feed (buffer);
+	 *
+	 * // once the peer closed the stream
+	 * parser.end ();</pre>
+	 *
+	 * <p>The parser accepts the same lenient syntax as {@link JSONTokener} and
+	 * any number of top-level values, so a stream of JSON Lines may be fed to a
+	 * single parser. Since a top-level number or unquoted literal can only be
+	 * known to be complete when the next byte arrives, the last one is reported
+	 * by {@link #end}.
+	 *
+	 * <p>Instances of this class are not thread safe.
+	 */
+	public class JSONFeedParser {
+		
+		public interface Listener {
+			
+			/**
+			 * Called for every token.
+			 *
+			 * @param value the name for {@link JSONReader.Token#NAME}, the String,
+			 *              Number or Boolean of a scalar value, {@link JSONObject#NULL}
+			 *              for a null literal and null for everything else,
+			 *              including the empty slots of arrays like {@code [1,,2]}.
+			 */
+			void onToken (JSONReader.Token token, Object value);
+			
+		}
+		
+		/**
+		 * Listener assembling the tokens into the same values {@link JSONTokener}
+		 * returns and passing each complete top-level value on.
+		 */
+		public abstract static class ValueListener implements Listener {
+			
+			private final ArrayList<Object> containers = new ArrayList<> ();
+			private final ArrayList<String> names = new ArrayList<> ();
+			
+			/**
+			 * Called for every complete top-level value.
+			 */
+			protected abstract void onValue (Object value);
+			
+			@Override
+			public void onToken (JSONReader.Token token, Object value) {
+				
+				switch (token) {
+					
+					case BEGIN_OBJECT:
+						
+						containers.add (new JSONObject ());
+						break;
+					
+					case BEGIN_ARRAY:
+						
+						containers.add (new JSONArray ());
+						break;
+					
+					case NAME:
+						
+						names.add ((String) value);
+						break;
+					
+					case END_OBJECT:
+					case END_ARRAY:
+						
+						add (containers.remove (containers.size () - 1));
+						break;
+					
+					case END_DOCUMENT:
+						break;
+					
+					default:
+						add (value);
+					
+				}
+				
+			}
+			
+			private void add (Object value) {
+				
+				if (containers.isEmpty ())
+					onValue (value);
+				else {
+					
+					Object container = containers.get (containers.size () - 1);
+					
+					if (container instanceof JSONObject)
+						((JSONObject) container).put (names.remove (names.size () - 1), value);
+					else
+						((JSONArray) container).put (value);
+					
+				}
+				
+			}
+			
+		}
+		
+		/*
+		 * Lexer states.
+		 */
+		
+		private static final int CLEAN = 0;
+		private static final int STRING = 1;
+		private static final int ESCAPE = 2;
+		private static final int UNICODE = 3;
+		private static final int LITERAL = 4;
+		private static final int SLASH = 5;
+		private static final int LINE_COMMENT = 6;
+		private static final int BLOCK_COMMENT = 7;
+		private static final int BLOCK_COMMENT_STAR = 8;
+		private static final int ENDED = 9;
+		
+		/*
+		 * Scopes, telling what may come next.
+		 */
+		
+		private static final int DOCUMENT = 0;
+		private static final int EMPTY_OBJECT = 1;
+		private static final int OBJECT_NAME = 2; // after a separator
+		private static final int DANGLING_NAME = 3;
+		private static final int OBJECT_VALUE = 4; // after a name separator
+		private static final int NONEMPTY_OBJECT = 5;
+		private static final int EMPTY_ARRAY = 6;
+		private static final int ARRAY_VALUE = 7; // after a separator
+		private static final int NONEMPTY_ARRAY = 8;
+		
+		protected final Listener listener;
+		
+		private int state = CLEAN;
+		
+		private int[] stack = new int[32];
+		private int stackSize = 1;
+		
+		/**
+		 * Whether a top-level value was completed.
+		 */
+		private boolean hasValue = false;
+		
+		/**
+		 * Chars of the current string or literal.
+		 */
+		private final StringBuilder text = new StringBuilder ();
+		
+		private int quote;
+		
+		/**
+		 * Whether the current string or literal is a name.
+		 */
+		private boolean name;
+		
+		/**
+		 * Whether a '>' following is part of an "=>" name separator.
+		 */
+		private boolean arrow;
+		
+		/*
+		 * The UTF-8 sequence being decoded: continuation bytes still expected, the
+		 * bits decoded so far and the range allowed for the next byte.
+		 */
+		
+		private int continuations, codePoint, min, max;
+		
+		/**
+		 * Value of the \\u escape being read and the number of digits read.
+		 */
+		private int unicode, digits;
+		
+		/**
+		 * Number of bytes consumed, used to report positions.
+		 */
+		private long offset = 0;
+		
+		private byte[] scratch;
+		
+		/**
+		 * Interns names, or null.
+		 */
+		protected JSONKeyCache keys;
+		
+		private NumberScanner numbers;
+		
+		public JSONFeedParser (Listener listener) {
+			
+			this.listener = listener;
+			stack[0] = DOCUMENT;
+			
+		}
+		
+		/**
+		 * Interns names through {@code keys}.
+		 */
+		public JSONFeedParser setKeyCache (JSONKeyCache keys) {
+			
+			this.keys = keys;
+			return this;
+			
+		}
+		
+		/**
+		 * Parses the bytes between the position and the limit of {@code chunk},
+		 * leaving its position at the limit.
+		 *
+		 * @throws JSONException if the input is malformed. The parser can't be
+		 *                       used any more then.
+		 */
+		public void feed (ByteBuffer chunk) {
+			
+			if (chunk.hasArray ()) {
+				
+				feed (chunk.array (), chunk.arrayOffset () + chunk.position (), chunk.remaining ());
+				chunk.position (chunk.limit ());
+				
+			} else {
+				
+				if (scratch == null)
+					scratch = new byte[8192];
+				
+				while (chunk.hasRemaining ()) {
+					
+					int length = Math.min (chunk.remaining (), scratch.length);
+					
+					chunk.get (scratch, 0, length);
+					feed (scratch, 0, length);
+					
+				}
+				
+			}
+			
+		}
+		
+		public void feed (byte[] chunk) {
+			feed (chunk, 0, chunk.length);
+		}
+		
+		/**
+		 * Parses {@code length} bytes of {@code chunk} starting at {@code start}.
+		 *
+		 * @throws JSONException if the input is malformed. The parser can't be
+		 *                       used any more then.
+		 */
+		public void feed (byte[] chunk, int start, int length) {
+			
+			if (state == ENDED)
+				throw new JSONException ("Input has already ended");
+			
+			int end = start + length;
+			
+			try {
+				
+				for (int i = start; i < end; i++, offset++) {
+					
+					int c = chunk[i];
+					
+					switch (state) {
+						
+						case STRING:
+							
+							if (c < 0 || continuations > 0)
+								decode (c);
+							else if (c == quote) {
+								
+								state = CLEAN;
+								string ();
+								
+							} else if (c == '\\')
+								state = ESCAPE;
+							else
+								text.append ((char) c);
+							
+							break;
+						
+						case ESCAPE:
+							
+							state = STRING;
+							
+							if (c < 0) // an escaped multi-byte char is the char itself
+								decode (c);
+							else if (c == 'u') {
+								
+								state = UNICODE;
+								unicode = 0;
+								digits = 0;
+								
+							} else
+								text.append (escaped (c));
+							
+							break;
+						
+						case UNICODE: {
+							
+							int digit = JSONTokener.dehexchar ((char) (c & 0xFF));
+							
+							if (digit == -1)
+								throw syntaxError ("Invalid escape sequence");
+							
+							unicode = (unicode << 4) | digit;
+							
+							if (++digits == 4) {
+								
+								text.append ((char) unicode);
+								state = STRING;
+								
+							}
+							
+							break;
+							
+						}
+						
+						case LITERAL:
+							
+							if (c < 0 || continuations > 0)
+								decode (c);
+							else if (JSONTokener.LITERAL_END.indexOf (c) != -1) {
+								
+								state = CLEAN;
+								literal ();
+								
+								i--; // the delimiter is a token itself
+								offset--;
+								
+							} else
+								text.append ((char) c);
+							
+							break;
+						
+						case SLASH:
+							
+							if (c == '*')
+								state = BLOCK_COMMENT;
+							else if (c == '/')
+								state = LINE_COMMENT;
+							else
+								throw syntaxError ("Expected literal value");
+							
+							break;
+						
+						case LINE_COMMENT:
+							
+							if (c == '\r' || c == '\n')
+								state = CLEAN;
+							
+							break;
+						
+						case BLOCK_COMMENT:
+							
+							if (c == '*')
+								state = BLOCK_COMMENT_STAR;
+							
+							break;
+						
+						case BLOCK_COMMENT_STAR:
+							
+							if (c == '/')
+								state = CLEAN;
+							else if (c != '*')
+								state = BLOCK_COMMENT;
+							
+							break;
+						
+						default:
+							
+							if (arrow) {
+								
+								arrow = false;
+								
+								if (c == '>')
+									break;
+								
+							}
+							
+							clean (c);
+						
+					}
+					
+				}
+				
+			} catch (JSONException e) {
+				
+				state = ENDED;
+				throw e;
+				
+			}
+			
+		}
+		
+		/**
+		 * Signals the end of the input, reporting a pending top-level literal and
+		 * {@link JSONReader.Token#END_DOCUMENT}.
+		 *
+		 * @throws JSONException if the input ends inside of a value or had no value
+		 * at all.
+		 */
+		public void end () {
+			
+			int state = this.state;
+			
+			this.state = ENDED;
+			
+			switch (state) {
+				
+				case ENDED:
+					throw new JSONException ("Input has already ended");
+				
+				case LITERAL:
+					
+					literal ();
+					break;
+				
+				case STRING:
+				case ESCAPE:
+				case UNICODE:
+					throw syntaxError ("Unterminated string");
+				
+				case SLASH:
+					throw syntaxError ("Expected literal value");
+				
+				case BLOCK_COMMENT:
+				case BLOCK_COMMENT_STAR:
+					throw syntaxError ("Unterminated comment");
+				
+			}
+			
+			if (stackSize > 1)
+				throw syntaxError (stack[1] <= NONEMPTY_OBJECT ? "Unterminated object" : "Unterminated array");
+			else if (!hasValue)
+				throw syntaxError ("End of input");
+			
+			listener.onToken (JSONReader.Token.END_DOCUMENT, null);
+			
+		}
+		
+		/**
+		 * Returns the nesting depth of the current position, 0 at top level.
+		 */
+		public int getDepth () {
+			return stackSize - 1;
+		}
+		
+		/**
+		 * Handles a byte outside of strings, literals and comments.
+		 */
+		private void clean (int c) {
+			
+			switch (c) {
+				
+				case '\t':
+				case ' ':
+				case '\n':
+				case '\r':
+					break;
+				
+				case '/':
+					
+					state = SLASH;
+					break;
+				
+				case '"':
+				case '\'':
+					
+					name = beforeValue ();
+					quote = c;
+					text.setLength (0);
+					state = STRING;
+					
+					break;
+				
+				case '{':
+					
+					if (beforeValue ())
+						throw syntaxError ("Names must be strings, but found an object");
+					
+					listener.onToken (JSONReader.Token.BEGIN_OBJECT, null);
+					push (EMPTY_OBJECT);
+					
+					break;
+				
+				case '[':
+					
+					if (beforeValue ())
+						throw syntaxError ("Names must be strings, but found an array");
+					
+					listener.onToken (JSONReader.Token.BEGIN_ARRAY, null);
+					push (EMPTY_ARRAY);
+					
+					break;
+				
+				case '}':
+					
+					if (scope () != EMPTY_OBJECT && scope () != NONEMPTY_OBJECT)
+						throw syntaxError (scope () == OBJECT_NAME ? "Expected literal value" : "Unexpected '}'");
+					
+					stackSize--;
+					listener.onToken (JSONReader.Token.END_OBJECT, null);
+					afterValue ();
+					
+					break;
+				
+				case ']':
+					
+					switch (scope ()) {
+						
+						case ARRAY_VALUE:
+						case EMPTY_ARRAY:
+						case NONEMPTY_ARRAY:
+							
+							if (scope () == ARRAY_VALUE) // the trailing separator ends an empty slot
+								listener.onToken (JSONReader.Token.NULL, null);
+							
+							stackSize--;
+							listener.onToken (JSONReader.Token.END_ARRAY, null);
+							afterValue ();
+							
+							break;
+						
+						default:
+							throw syntaxError ("Unexpected ']'");
+						
+					}
+					
+					break;
+				
+				case ':':
+				case '=':
+					
+					if (scope () != DANGLING_NAME)
+						throw syntaxError ("Unexpected '" + (char) c + "'");
+					
+					stack[stackSize - 1] = OBJECT_VALUE;
+					arrow = (c == '=');
+					
+					break;
+				
+				case ',':
+				case ';':
+					
+					switch (scope ()) {
+						
+						case NONEMPTY_OBJECT:
+							
+							stack[stackSize - 1] = OBJECT_NAME;
+							break;
+						
+						case NONEMPTY_ARRAY:
+							
+							stack[stackSize - 1] = ARRAY_VALUE;
+							break;
+						
+						case EMPTY_ARRAY:
+						case ARRAY_VALUE: // a separator without a value first means null
+							
+							listener.onToken (JSONReader.Token.NULL, null);
+							stack[stackSize - 1] = ARRAY_VALUE;
+							
+							break;
+						
+						default:
+							throw syntaxError (scope () == DANGLING_NAME ? "Expected ':'" : "Unexpected '" + (char) c + "'");
+						
+					}
+					
+					break;
+				
+				default:
+					
+					name = beforeValue ();
+					text.setLength (0);
+					state = LITERAL;
+					
+					if (c < 0)
+						decode (c);
+					else if (JSONTokener.LITERAL_END.indexOf (c) != -1)
+						throw syntaxError ("Expected literal value");
+					else
+						text.append ((char) c);
+				
+			}
+			
+		}
+		
+		private int scope () {
+			return stack[stackSize - 1];
+		}
+		
+		private void push (int scope) {
+			
+			if (stackSize == stack.length)
+				stack = Arrays.copyOf (stack, stackSize * 2);
+			
+			stack[stackSize++] = scope;
+			
+		}
+		
+		/**
+		 * Checks that a value or a name may start here, returning true for a name.
+		 */
+		private boolean beforeValue () {
+			
+			switch (scope ()) {
+				
+				case EMPTY_OBJECT:
+				case OBJECT_NAME:
+					return true;
+				
+				case DANGLING_NAME:
+					throw syntaxError ("Expected ':'");
+				
+				case NONEMPTY_OBJECT:
+					throw syntaxError ("Unterminated object");
+				
+				case NONEMPTY_ARRAY:
+					throw syntaxError ("Unterminated array");
+				
+				default:
+					return false;
+				
+			}
+			
+		}
+		
+		private void afterValue () {
+			
+			switch (scope ()) {
+				
+				case DOCUMENT:
+					
+					hasValue = true;
+					break;
+				
+				case OBJECT_VALUE:
+					
+					stack[stackSize - 1] = NONEMPTY_OBJECT;
+					break;
+				
+				case EMPTY_ARRAY:
+				case ARRAY_VALUE:
+					
+					stack[stackSize - 1] = NONEMPTY_ARRAY;
+					break;
+				
+			}
+			
+		}
+		
+		private void string () {
+			
+			if (name) {
+				
+				stack[stackSize - 1] = DANGLING_NAME;
+				listener.onToken (JSONReader.Token.NAME, keys != null ? keys.intern (text, 0, text.length ()) : text.toString ());
+				
+			} else {
+				
+				listener.onToken (JSONReader.Token.STRING, text.toString ());
+				afterValue ();
+				
+			}
+			
+		}
+		
+		private void literal () {
+			
+			if (continuations > 0)
+				throw malformed ();
+			
+			if (numbers == null)
+				numbers = new NumberScanner ();
+			
+			Object value;
+			
+			if (numbers.scan (text, 0, text.length ()) != NumberScanner.NONE && numbers.getEnd () == text.length ())
+				value = numbers.getNumber ();
+			else
+				value = JSONTokener.parseLiteral (text.toString ());
+			
+			if (name) {
+				
+				if (!(value instanceof String))
+					throw syntaxError ("Names must be strings, but " + value + " is of type " + value.getClass ().getName ());
+				
+				stack[stackSize - 1] = DANGLING_NAME;
+				listener.onToken (JSONReader.Token.NAME, keys != null ? keys.intern ((String) value) : value);
+				
+			} else {
+				
+				JSONReader.Token token;
+				
+				if (value instanceof String)
+					token = JSONReader.Token.STRING;
+				else if (value instanceof Boolean)
+					token = JSONReader.Token.BOOLEAN;
+				else if (value instanceof Number)
+					token = JSONReader.Token.NUMBER;
+				else
+					token = JSONReader.Token.NULL;
+				
+				listener.onToken (token, value);
+				afterValue ();
+				
+			}
+			
+		}
+		
+		private static char escaped (int c) {
+			
+			switch (c) {
+				
+				case 't':
+					return '\t';
+				
+				case 'b':
+					return '\b';
+				
+				case 'n':
+					return '\n';
+				
+				case 'r':
+					return '\r';
+				
+				case 'f':
+					return '\f';
+				
+				default:
+					return (char) c;
+				
+			}
+			
+		}
+		
+		/**
+		 * Feeds a byte of a UTF-8 sequence. Overlong forms, surrogates and
+		 * truncated sequences are rejected.
+		 */
+		private void decode (int c) {
+			
+			c &= 0xFF;
+			
+			if (continuations > 0) {
+				
+				if (c < min || c > max)
+					throw malformed ();
+				
+				codePoint = (codePoint << 6) | (c & 0x3F);
+				min = 0x80;
+				max = 0xBF;
+				
+				if (--continuations == 0)
+					text.appendCodePoint (codePoint);
+				
+			} else {
+				
+				min = 0x80;
+				max = 0xBF;
+				
+				if (c >= 0xC2 && c <= 0xDF) {
+					
+					continuations = 1;
+					codePoint = c & 0x1F;
+					
+				} else if (c >= 0xE0 && c <= 0xEF) {
+					
+					continuations = 2;
+					codePoint = c & 0x0F;
+					
+					if (c == 0xE0)
+						min = 0xA0;
+					else if (c == 0xED)
+						max = 0x9F;
+					
+				} else if (c >= 0xF0 && c <= 0xF4) {
+					
+					continuations = 3;
+					codePoint = c & 0x07;
+					
+					if (c == 0xF0)
+						min = 0x90;
+					else if (c == 0xF4)
+						max = 0x8F;
+					
+				} else throw malformed ();
+				
+			}
+			
+		}
+		
+		private JSONException malformed () {
+			return syntaxError ("Malformed UTF-8");
+		}
+		
+		/**
+		 * Returns an exception containing the given message plus the current
+		 * position.
+		 */
+		public JSONException syntaxError (String message) {
+			return new JSONException (message + this);
+		}
+		
+		@Override
+		public String toString () {
+			return " at byte " + offset;
+		}
+		
+	}
\ No newline at end of file
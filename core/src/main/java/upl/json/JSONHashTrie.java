@@ -0,0 +1,220 @@
+	/*
+	 * Copyright (c) 2020 - 2024 UPL Foundation
+	 *
+	 * Licensed under the Apache License, Version 2.0 (the "License");
+	 * you may not use this file except in compliance with the License.
+	 * You may obtain a copy of the License at
+	 *
+	 *     http://www.apache.org/licenses/LICENSE-2.0
+	 *
+	 * Unless required by applicable law or agreed to in writing, software
+	 * distributed under the License is distributed on an "AS IS" BASIS,
+	 * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	 * See the License for the specific language governing permissions and
+	 * limitations under the License.
+	 */
+	
+	package upl.json;
+	
+	/**
+	 * Persistent hash array mapped trie from strings to values. Each node has a
+	 * bitmap of the 32 possible 5-bit hash fragments at its level and a compact
+	 * array of key/value pairs for the set ones, where a null key marks a child
+	 * node. Updates copy the nodes on the path to the key only, the rest is
+	 * shared with the original trie, which stays unchanged.
+	 */
+	final class JSONHashTrie {
+		
+		private static final int BITS = 5;
+		private static final int MASK = (1 << BITS) - 1;
+		
+		/**
+		 * Deepest level which still consumes hash bits, nodes below are lists of
+		 * keys with equal hashes.
+		 */
+		private static final int MAX_SHIFT = 30;
+		
+		static final JSONHashTrie EMPTY = new JSONHashTrie (0, new Object[0]);
+		
+		private final int bitmap;
+		private final Object[] array;
+		
+		private JSONHashTrie (int bitmap, Object[] array) {
+			
+			this.bitmap = bitmap;
+			this.array = array;
+			
+		}
+		
+		private static int hash (String key) {
+			
+			int hash = key.hashCode ();
+			return hash ^ (hash >>> 16);
+			
+		}
+		
+		/**
+		 * Returns the value of {@code key} or null.
+		 */
+		Object get (String key) {
+			
+			int hash = hash (key);
+			JSONHashTrie node = this;
+			
+			for (int shift = 0; shift <= MAX_SHIFT; shift += BITS) {
+				
+				int bit = 1 << ((hash >>> shift) & MASK);
+				
+				if ((node.bitmap & bit) == 0)
+					return null;
+				
+				int i = 2 * Integer.bitCount (node.bitmap & (bit - 1));
+				Object current = node.array[i];
+				
+				if (current == null)
+					node = (JSONHashTrie) node.array[i + 1];
+				else
+					return current.equals (key) ? node.array[i + 1] : null;
+				
+			}
+			
+			for (int i = 0; i < node.array.length; i += 2)
+				if (node.array[i].equals (key))
+					return node.array[i + 1];
+			
+			return null;
+			
+		}
+		
+		/**
+		 * Returns a trie which maps {@code key} to {@code value}.
+		 */
+		JSONHashTrie put (String key, Object value) {
+			return put (0, hash (key), key, value);
+		}
+		
+		private JSONHashTrie put (int shift, int hash, String key, Object value) {
+			
+			if (shift > MAX_SHIFT) {
+				
+				for (int i = 0; i < array.length; i += 2)
+					if (array[i].equals (key))
+						return new JSONHashTrie (0, replace (i + 1, value));
+				
+				return new JSONHashTrie (0, insert (array.length, key, value));
+				
+			}
+			
+			int bit = 1 << ((hash >>> shift) & MASK);
+			int i = 2 * Integer.bitCount (bitmap & (bit - 1));
+			
+			if ((bitmap & bit) == 0)
+				return new JSONHashTrie (bitmap | bit, insert (i, key, value));
+			
+			Object current = array[i];
+			
+			if (current == null)
+				return new JSONHashTrie (bitmap, replace (i + 1, ((JSONHashTrie) array[i + 1]).put (shift + BITS, hash, key, value)));
+			else if (current.equals (key))
+				return new JSONHashTrie (bitmap, replace (i + 1, value));
+			
+			// two keys share the fragment, move both one level down
+			
+			String other = (String) current;
+			JSONHashTrie child = EMPTY.put (shift + BITS, hash (other), other, array[i + 1]).put (shift + BITS, hash, key, value);
+			
+			Object[] array = replace (i + 1, child);
+			array[i] = null;
+			
+			return new JSONHashTrie (bitmap, array);
+			
+		}
+		
+		/**
+		 * Returns a trie without {@code key}, or this one if it has no such key.
+		 */
+		JSONHashTrie remove (String key) {
+			return remove (0, hash (key), key);
+		}
+		
+		private JSONHashTrie remove (int shift, int hash, String key) {
+			
+			if (shift > MAX_SHIFT) {
+				
+				for (int i = 0; i < array.length; i += 2)
+					if (array[i].equals (key))
+						return new JSONHashTrie (0, delete (i));
+				
+				return this;
+				
+			}
+			
+			int bit = 1 << ((hash >>> shift) & MASK);
+			
+			if ((bitmap & bit) == 0)
+				return this;
+			
+			int i = 2 * Integer.bitCount (bitmap & (bit - 1));
+			Object current = array[i];
+			
+			if (current == null) {
+				
+				JSONHashTrie child = (JSONHashTrie) array[i + 1], result = child.remove (shift + BITS, hash, key);
+				
+				if (result == child)
+					return this;
+				else if (result.array.length == 0)
+					return new JSONHashTrie (bitmap & ~bit, delete (i));
+				else if (result.array.length == 2 && result.array[0] != null) { // pull a lone pair up
+					
+					Object[] array = replace (i + 1, result.array[1]);
+					array[i] = result.array[0];
+					
+					return new JSONHashTrie (bitmap, array);
+					
+				}
+				
+				return new JSONHashTrie (bitmap, replace (i + 1, result));
+				
+			} else if (current.equals (key))
+				return new JSONHashTrie (bitmap & ~bit, delete (i));
+			
+			return this;
+			
+		}
+		
+		private Object[] replace (int i, Object value) {
+			
+			Object[] array = this.array.clone ();
+			array[i] = value;
+			
+			return array;
+			
+		}
+		
+		private Object[] insert (int i, Object key, Object value) {
+			
+			Object[] array = new Object[this.array.length + 2];
+			
+			System.arraycopy (this.array, 0, array, 0, i);
+			System.arraycopy (this.array, i, array, i + 2, this.array.length - i);
+			
+			array[i] = key;
+			array[i + 1] = value;
+			
+			return array;
+			
+		}
+		
+		private Object[] delete (int i) {
+			
+			Object[] array = new Object[this.array.length - 2];
+			
+			System.arraycopy (this.array, 0, array, 0, i);
+			System.arraycopy (this.array, i + 2, array, i, array.length - i);
+			
+			return array;
+			
+		}
+		
+	}
\ No newline at end of file
@@ -0,0 +1,503 @@
+	/*
+	 * Copyright (c) 2020 - 2024 UPL Foundation
+	 *
+	 * Licensed under the Apache License, Version 2.0 (the "License");
+	 * you may not use this file except in compliance with the License.
+	 * You may obtain a copy of the License at
+	 *
+	 *     http://www.apache.org/licenses/LICENSE-2.0
+	 *
+	 * Unless required by applicable law or agreed to in writing, software
+	 * distributed under the License is distributed on an "AS IS" BASIS,
+	 * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	 * See the License for the specific language governing permissions and
+	 * limitations under the License.
+	 */
+	
+	package upl.json;
+	
+	import java.util.AbstractList;
+	import java.util.Arrays;
+	import upl.util.ArrayList;
+	import upl.util.CompactHashMap;
+	
+	/**
+	 * Structural index of a JSON document backing lazily parsed
+	 * {@link JSONObject}s and {@link JSONArray}s. A single pass records the
+	 * positions of braces, brackets, colons and commas outside of strings along
+	 * with the matching closing bracket of each opening one. Containers built on
+	 * the index only split themselves into members when they are reached, and
+	 * values are parsed on their first access, so touching a few fields of a large
+	 * document skips the rest of it.
+	 *
+	 * <p>Lazy documents accept standard JSON plus single quoted strings and
+	 * unquoted names. As with {@link JSONTokener}, empty array slots are nulls,
+	 * empty object members are rejected and anything after the top level value
+	 * is ignored. Unlike it, comments and the {@code =}, {@code =>} and
+	 * {@code ;} separators are not supported. Since untouched values are never
+	 * parsed, malformed values are reported on access rather than on
+	 * construction.
+	 */
+	final class JSONIndex {
+		
+		final String in;
+		
+		/**
+		 * Positions of structural chars in {@link #in}.
+		 */
+		private int[] tokens;
+		
+		/**
+		 * For opening brackets, the token of the matching closing bracket.
+		 */
+		private int[] jumps;
+		
+		private int count = 0;
+		
+		private JSONIndex (String in) {
+			
+			this.in = in;
+			
+			int capacity = Math.max (16, in.length () >> 3);
+			
+			tokens = new int[capacity];
+			jumps = new int[capacity];
+			
+			index ();
+			
+		}
+		
+		/**
+		 * Indexes {@code json} and returns the storage of its top level object.
+		 */
+		static Members object (String json) {
+			
+			JSONIndex index = new JSONIndex (json);
+			index.expectRoot ('{', "A JSONObject text must begin with '{'");
+			
+			return new Members (index, 0);
+			
+		}
+		
+		/**
+		 * Indexes {@code json} and returns the storage of its top level array.
+		 */
+		static Elements array (String json) {
+			
+			JSONIndex index = new JSONIndex (json);
+			index.expectRoot ('[', "A JSONArray text must begin with '['");
+			
+			return new Elements (index, 0);
+			
+		}
+		
+		private void index () {
+			
+			int[] stack = new int[32];
+			int depth = 0;
+			
+			int length = in.length ();
+			
+			for (int i = 0; i < length; i++) {
+				
+				char c = in.charAt (i);
+				
+				switch (c) {
+					
+					case '"':
+					case '\'':
+						
+						i = skipString (i + 1, c);
+						break;
+					
+					case '{':
+					case '[':
+						
+						if (depth == stack.length)
+							stack = Arrays.copyOf (stack, depth * 2);
+						
+						stack[depth++] = count;
+						add (i);
+						
+						break;
+					
+					case '}':
+					case ']':
+						
+						if (depth == 0)
+							throw syntaxError ("Unexpected '" + c + "'", i);
+						
+						int open = stack[--depth];
+						
+						if (in.charAt (tokens[open]) != (c == '}' ? '{' : '['))
+							throw syntaxError ("Mismatched '" + c + "'", i);
+						
+						jumps[open] = count;
+						add (i);
+						
+						if (depth == 0)
+							return; // the rest is ignored, as by JSONTokener
+						
+						break;
+					
+					case ':':
+					case ',':
+						
+						add (i);
+						break;
+					
+				}
+				
+			}
+			
+			if (depth > 0)
+				throw syntaxError (in.charAt (tokens[stack[depth - 1]]) == '{' ? "Unterminated object" : "Unterminated array", length);
+			
+		}
+		
+		private int skipString (int i, char quote) {
+			
+			int length = in.length ();
+			
+			while (i < length) {
+				
+				char c = in.charAt (i);
+				
+				if (c == quote)
+					return i;
+				else if (c == '\\')
+					i++;
+				
+				i++;
+				
+			}
+			
+			throw syntaxError ("Unterminated string", length);
+			
+		}
+		
+		private void add (int position) {
+			
+			if (count == tokens.length) {
+				
+				tokens = Arrays.copyOf (tokens, count * 2);
+				jumps = Arrays.copyOf (jumps, count * 2);
+				
+			}
+			
+			tokens[count++] = position;
+			
+		}
+		
+		private void expectRoot (char open, String message) {
+			
+			if (count == 0 || in.charAt (tokens[0]) != open || !isBlank (0, tokens[0]))
+				throw syntaxError (message, 0);
+			
+		}
+		
+		private boolean isBlank (int start, int end) {
+			
+			for (int i = start; i < end; i++)
+				if (in.charAt (i) > ' ')
+					return false;
+			
+			return true;
+			
+		}
+		
+		private char charAt (int token) {
+			return in.charAt (tokens[token]);
+		}
+		
+		/**
+		 * Parses the value following {@code token}, which is a colon, a comma or an
+		 * opening bracket.
+		 */
+		Object value (int token) {
+			
+			int start = tokens[token] + 1, end = tokens[token + 1];
+			
+			if (isBlank (start, end)) {
+				
+				switch (charAt (token + 1)) {
+					
+					case '{':
+						return new JSONObject (new Members (this, token + 1));
+					
+					case '[':
+						return new JSONArray (new Elements (this, token + 1));
+					
+					default:
+						throw syntaxError ("Expected a value", end);
+					
+				}
+				
+			}
+			
+			JSONTokener tokener = new JSONTokener (in, start);
+			Object value = tokener.nextValue ();
+			
+			if (tokener.nextClean () != in.charAt (end))
+				throw syntaxError ("Unexpected value after " + value, start);
+			
+			return value;
+			
+		}
+		
+		/**
+		 * Returns the token following the value which follows {@code token}.
+		 */
+		private int next (int token) {
+			
+			if (isEmpty (token) && (charAt (token + 1) == '{' || charAt (token + 1) == '['))
+				return jumps[token + 1] + 1;
+			
+			return token + 1;
+			
+		}
+		
+		/**
+		 * Returns the number of values between the brackets {@code open} and
+		 * {@code close}, the same as the number of separators on that level plus
+		 * one.
+		 */
+		private int countMembers (int open, int close) {
+			
+			int count = 1;
+			
+			for (int token = open + 1; token < close; ) {
+				
+				char c = charAt (token);
+				
+				if (c == '{' || c == '[')
+					token = jumps[token] + 1;
+				else {
+					
+					if (c == ',')
+						count++;
+					
+					token++;
+					
+				}
+				
+			}
+			
+			return count;
+			
+		}
+		
+		/**
+		 * Returns whether nothing but whitespace lies between {@code token} and the
+		 * next one, as in "[]" or a trailing comma.
+		 */
+		private boolean isEmpty (int token) {
+			return isBlank (tokens[token] + 1, tokens[token + 1]);
+		}
+		
+		JSONException syntaxError (String message, int position) {
+			return new JSONException (message + " at character " + position);
+		}
+		
+		/**
+		 * Object storage splitting its members on construction and parsing each
+		 * value on its first access.
+		 */
+		static final class Members extends CompactHashMap<String, Object> {
+			
+			private final JSONIndex index;
+			
+			Members (JSONIndex index, int open) {
+				
+				this.index = index;
+				
+				int close = index.jumps[open];
+				
+				ensureCapacity (index.countMembers (open, close));
+				
+				for (int token = open; token < close; ) {
+					
+					if (index.charAt (token + 1) == ',' || index.charAt (token + 1) == '}') {
+						
+						if (!index.isEmpty (token))
+							throw index.syntaxError ("Expected ':' after " + index.in.substring (index.tokens[token] + 1, index.tokens[token + 1]).trim (), index.tokens[token + 1]);
+						
+						/* only "{}" may have nothing before a separator, same as JSONTokener */
+						if (token != open || index.charAt (token + 1) != '}')
+							throw index.syntaxError ("Expected literal value", index.tokens[token + 1]);
+						
+						token++;
+						continue;
+						
+					}
+					
+					Object name = index.value (token);
+					
+					if (!(name instanceof String))
+						throw index.syntaxError ("Names must be strings, but " + name + " is of type " + name.getClass ().getName (), index.tokens[token]);
+					
+					token++;
+					
+					if (index.charAt (token) != ':')
+						throw index.syntaxError ("Expected ':' after " + name, index.tokens[token]);
+					
+					super.put ((String) name, new Deferred (token));
+					
+					token = index.next (token);
+					
+					if (index.charAt (token) != ',' && token != close)
+						throw index.syntaxError ("Unterminated object", index.tokens[token]);
+					
+				}
+				
+			}
+			
+			@Override
+			protected Object valueAt (int position) {
+				
+				Object value = entryValues[position];
+				
+				if (value instanceof Deferred) {
+					
+					value = index.value (((Deferred) value).token);
+					entryValues[position] = value;
+					
+				}
+				
+				return value;
+				
+			}
+			
+		}
+		
+		/**
+		 * Array storage parsing each element on its first access.
+		 */
+		static final class Elements extends ArrayList<Object> {
+			
+			Elements (JSONIndex index, int open) {
+				object = new Values (index, open);
+			}
+			
+		}
+		
+		private static final class Values extends AbstractList<Object> {
+			
+			private final JSONIndex index;
+			
+			private Object[] values;
+			private int size = 0;
+			
+			private Values (JSONIndex index, int open) {
+				
+				this.index = index;
+				
+				int close = index.jumps[open];
+				
+				values = new Object[index.countMembers (open, close)];
+				
+				if (index.isEmpty (open) && index.charAt (open + 1) == ']')
+					return;
+				
+				for (int token = open; token < close; ) {
+					
+					/* same as JSONTokener, a separator without a value first means null */
+					if (index.isEmpty (token) && (index.charAt (token + 1) == ',' || index.charAt (token + 1) == ']')) {
+						
+						add (null);
+						token++;
+						
+					} else {
+						
+						add (new Deferred (token));
+						token = index.next (token);
+						
+					}
+					
+					if (index.charAt (token) != ',' && token != close)
+						throw index.syntaxError ("Unterminated array", index.tokens[token]);
+					
+				}
+				
+			}
+			
+			@Override
+			public Object get (int i) {
+				
+				if (i >= size)
+					throw new IndexOutOfBoundsException ("Index " + i + " out of range [0.." + size + ")");
+				
+				Object value = values[i];
+				
+				if (value instanceof Deferred) {
+					
+					value = index.value (((Deferred) value).token);
+					values[i] = value;
+					
+				}
+				
+				return value;
+				
+			}
+			
+			@Override
+			public Object set (int i, Object value) {
+				
+				Object old = get (i);
+				values[i] = value;
+				
+				return old;
+				
+			}
+			
+			@Override
+			public void add (int i, Object value) {
+				
+				if (i > size || i < 0)
+					throw new IndexOutOfBoundsException ("Index " + i + " out of range [0.." + size + "]");
+				
+				if (size == values.length)
+					values = Arrays.copyOf (values, Math.max (4, size * 2));
+				
+				System.arraycopy (values, i, values, i + 1, size - i);
+				
+				values[i] = value;
+				size++;
+				modCount++;
+				
+			}
+			
+			@Override
+			public Object remove (int i) {
+				
+				Object old = get (i);
+				
+				System.arraycopy (values, i + 1, values, i, size - i - 1);
+				values[--size] = null;
+				modCount++;
+				
+				return old;
+				
+			}
+			
+			@Override
+			public int size () {
+				return size;
+			}
+			
+		}
+		
+		/**
+		 * Value not parsed yet, which follows the token {@link #token}.
+		 */
+		private static final class Deferred {
+			
+			private final int token;
+			
+			private Deferred (int token) {
+				this.token = token;
+			}
+			
+		}
+		
+	}
\ No newline at end of file
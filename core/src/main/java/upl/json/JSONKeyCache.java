@@ -0,0 +1,176 @@
+	/*
+	 * Copyright (c) 2020 - 2024 UPL Foundation
+	 *
+	 * Licensed under the Apache License, Version 2.0 (the "License");
+	 * you may not use this file except in compliance with the License.
+	 * You may obtain a copy of the License at
+	 *
+	 *     http://www.apache.org/licenses/LICENSE-2.0
+	 *
+	 * Unless required by applicable law or agreed to in writing, software
+	 * distributed under the License is distributed on an "AS IS" BASIS,
+	 * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	 * See the License for the specific language governing permissions and
+	 * limitations under the License.
+	 */
+	
+	package upl.json;
+	
+	import upl.util.CompactHashMap;
+	
+	/**
+	 * Opt-in parser state for documents which repeat the same records over and
+	 * over, like database rows or API list responses: <pre>
+	 * JSONKeyCache keys = new JSONKeyCache ();
+	 *
+	 * JSONArray rows = new JSONArray (new JSONTokener (json, keys));</pre>
+	 *
+	 * <p>Names are interned through a fixed size table, so a key which occurs in
+	 * every record is allocated once instead of once per record. Objects are
+	 * created from a shared {@link CompactHashMap.Shape} tree, so objects with the
+	 * same key sequence share one key array and index and only store their
+	 * values. Both structures are bounded: a table slot simply keeps the latest
+	 * name hashed to it, and objects with layouts which did not fit into the tree
+	 * fall back to storing their own keys.
+	 *
+	 * <p>A cache may be shared by several parsers, including parsers running on
+	 * different threads.
+	 */
+	public class JSONKeyCache {
+		
+		/**
+		 * Longer names are not interned.
+		 */
+		public static final int MAX_LENGTH = 64;
+		
+		protected final String[] names;
+		protected final int mask;
+		
+		protected final CompactHashMap.Shape shapes;
+		
+		/**
+		 * Creates a cache of 1024 names and 1024 shapes.
+		 */
+		public JSONKeyCache () {
+			this (1024, 1024);
+		}
+		
+		/**
+		 * @param size   number of names the cache holds, rounded up to a power of
+		 *               two.
+		 * @param shapes number of object layouts recorded before objects stop
+		 *               sharing their keys.
+		 */
+		public JSONKeyCache (int size, int shapes) {
+			
+			if (size < 1)
+				throw new IllegalArgumentException ("Cache size must be positive");
+			
+			names = new String[Integer.highestOneBit (Math.max (1, size * 2 - 1))];
+			mask = names.length - 1;
+			
+			this.shapes = new CompactHashMap.Shape (shapes);
+			
+		}
+		
+		/**
+		 * Returns the interned copy of the chars {@code start} to {@code end} of
+		 * {@code in}, allocating it only if the cache doesn't hold it yet.
+		 */
+		public String intern (CharSequence in, int start, int end) {
+			
+			int length = end - start;
+			
+			if (length > MAX_LENGTH)
+				return in.subSequence (start, end).toString ();
+			
+			int hash = 0;
+			
+			for (int i = start; i < end; i++)
+				hash = 31 * hash + in.charAt (i);
+			
+			int slot = (hash ^ (hash >>> 16)) & mask;
+			String name = names[slot];
+			
+			if (name != null && name.length () == length) {
+				
+				int i = 0;
+				
+				while (i < length && name.charAt (i) == in.charAt (start + i))
+					i++;
+				
+				if (i == length)
+					return name;
+				
+			}
+			
+			name = in.subSequence (start, end).toString ();
+			names[slot] = name;
+			
+			return name;
+			
+		}
+		
+		/**
+		 * Returns the interned copy of {@code length} chars of {@code buffer}
+		 * starting at {@code start}.
+		 */
+		public String intern (char[] buffer, int start, int length) {
+			
+			if (length > MAX_LENGTH)
+				return new String (buffer, start, length);
+			
+			int hash = 0;
+			
+			for (int i = start; i < start + length; i++)
+				hash = 31 * hash + buffer[i];
+			
+			int slot = (hash ^ (hash >>> 16)) & mask;
+			String name = names[slot];
+			
+			if (name != null && name.length () == length) {
+				
+				int i = 0;
+				
+				while (i < length && name.charAt (i) == buffer[start + i])
+					i++;
+				
+				if (i == length)
+					return name;
+				
+			}
+			
+			name = new String (buffer, start, length);
+			names[slot] = name;
+			
+			return name;
+			
+		}
+		
+		/**
+		 * Returns the interned copy of {@code name}.
+		 */
+		public String intern (String name) {
+			return intern (name, 0, name.length ());
+		}
+		
+		/**
+		 * Returns the root of the shape tree new objects are created from.
+		 */
+		public CompactHashMap.Shape getShapes () {
+			return shapes;
+		}
+		
+		/**
+		 * Creates an empty object sharing its layout through this cache.
+		 */
+		public JSONObject newObject () {
+			
+			JSONObject object = new JSONObject ();
+			object.setShape (shapes);
+			
+			return object;
+			
+		}
+		
+	}
\ No newline at end of file
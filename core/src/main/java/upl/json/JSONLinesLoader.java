@@ -0,0 +1,359 @@
+	/*
+	 * Copyright (c) 2020 - 2024 UPL Foundation
+	 *
+	 * Licensed under the Apache License, Version 2.0 (the "License");
+	 * you may not use this file except in compliance with the License.
+	 * You may obtain a copy of the License at
+	 *
+	 *     http://www.apache.org/licenses/LICENSE-2.0
+	 *
+	 * Unless required by applicable law or agreed to in writing, software
+	 * distributed under the License is distributed on an "AS IS" BASIS,
+	 * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	 * See the License for the specific language governing permissions and
+	 * limitations under the License.
+	 */
+	
+	package upl.json;
+	
+	import java.io.File;
+	import java.io.IOException;
+	import java.nio.ByteBuffer;
+	import java.nio.channels.FileChannel;
+	import java.nio.file.StandardOpenOption;
+	import java.util.ArrayDeque;
+	import java.util.ArrayList;
+	import java.util.Arrays;
+	import java.util.List;
+	import java.util.concurrent.ForkJoinPool;
+	import java.util.concurrent.ForkJoinTask;
+	import java.util.concurrent.LinkedBlockingQueue;
+	import java.util.concurrent.RecursiveTask;
+	
+	/**
+	 * Loads newline-delimited JSON (one object per line, as written by
+	 * {@code upl.db.Database}) on all cores.
+	 *
+	 * <p>The file is cut into chunks of {@link #setChunkSize(int)} bytes. Every
+	 * chunk is read and parsed by a fork-join task; a line belongs to the chunk
+	 * its first byte falls into, so tasks find their boundaries by themselves
+	 * and there is no single reading thread. Parsed records are handed to the
+	 * {@link Listener} on the calling thread, in file order or in the order
+	 * chunks complete. No more than {@link #setMaxPending(int)} chunks are read
+	 * ahead of the listener, which bounds the memory used by a slow consumer.
+	 */
+	public class JSONLinesLoader {
+		
+		public interface Listener {
+			
+			/**
+			 * Called for every non-blank line.
+			 *
+			 * @param offset byte offset of the line in the file.
+			 */
+			void onRecord (JSONObject record, long offset) throws IOException;
+			
+		}
+		
+		protected File file;
+		protected ForkJoinPool pool = ForkJoinPool.commonPool ();
+		
+		protected int chunkSize = 4 << 20;
+		protected int maxPending = 0;
+		protected boolean ordered = true;
+		
+		public JSONLinesLoader (String file) {
+			this (new File (file));
+		}
+		
+		public JSONLinesLoader (File file) {
+			this.file = file;
+		}
+		
+		public JSONLinesLoader setPool (ForkJoinPool pool) {
+			
+			this.pool = pool;
+			return this;
+			
+		}
+		
+		public JSONLinesLoader setChunkSize (int chunkSize) {
+			
+			if (chunkSize < 1)
+				throw new IllegalArgumentException ("Chunk size must be positive: " + chunkSize);
+			
+			this.chunkSize = chunkSize;
+			return this;
+			
+		}
+		
+		/**
+		 * Sets how many chunks may be parsed ahead of the listener, two per thread
+		 * of the pool by default.
+		 */
+		public JSONLinesLoader setMaxPending (int maxPending) {
+			
+			this.maxPending = maxPending;
+			return this;
+			
+		}
+		
+		/**
+		 * Whether records are delivered in file order (the default), or as soon as
+		 * their chunk is parsed.
+		 */
+		public JSONLinesLoader setOrdered (boolean ordered) {
+			
+			this.ordered = ordered;
+			return this;
+			
+		}
+		
+		/**
+		 * Parses the whole file, passing each record to {@code listener}.
+		 *
+		 * @return the number of records.
+		 * @throws JSONException if a line is not a valid JSON object.
+		 */
+		public long load (Listener listener) throws IOException {
+			
+			try (FileChannel channel = FileChannel.open (file.toPath (), StandardOpenOption.READ)) {
+				
+				long size = channel.size ();
+				long chunks = (size + chunkSize - 1) / chunkSize;
+				
+				int maxPending = this.maxPending;
+				
+				if (maxPending < 1)
+					maxPending = 2 * pool.getParallelism ();
+				
+				ArrayDeque<Chunk> pending = new ArrayDeque<> ();
+				LinkedBlockingQueue<Chunk> done = new LinkedBlockingQueue<> ();
+				
+				long next = 0, count = 0;
+				
+				try {
+					
+					while (next < chunks || !pending.isEmpty ()) {
+						
+						while (next < chunks && pending.size () < maxPending) {
+							
+							Chunk chunk = new Chunk (channel, next * chunkSize, Math.min (size, (next + 1) * chunkSize), size, ordered ? null : done);
+							
+							pending.add (chunk);
+							pool.execute (chunk);
+							
+							next++;
+							
+						}
+						
+						Chunk chunk;
+						
+						if (ordered)
+							chunk = pending.poll ();
+						else {
+							
+							chunk = done.take ();
+							pending.remove (chunk);
+							
+						}
+						
+						List<JSONObject> records = chunk.join ();
+						
+						if (chunk.ioFailure != null)
+							throw chunk.ioFailure;
+						else if (chunk.failure != null)
+							throw chunk.failure;
+						
+						for (int i = 0; i < records.size (); i++)
+							listener.onRecord (records.get (i), chunk.offsets[i]);
+						
+						count += records.size ();
+						
+					}
+					
+				} catch (InterruptedException e) {
+					
+					Thread.currentThread ().interrupt ();
+					throw new IOException ("Interrupted while loading " + file, e);
+					
+				} finally {
+					
+					for (Chunk chunk : pending)
+						chunk.cancel (false);
+					
+				}
+				
+				return count;
+				
+			}
+			
+		}
+		
+		private static final class Chunk extends RecursiveTask<List<JSONObject>> {
+			
+			private static final long serialVersionUID = 1L;
+			
+			private final FileChannel channel;
+			private final long start, end, size;
+			private final LinkedBlockingQueue<Chunk> done;
+			
+			/*
+			 * Failures are kept here and rethrown by the loading thread, since
+			 * ForkJoinTask may replace exceptions thrown in another thread with a
+			 * wrapping copy.
+			 */
+			
+			private IOException ioFailure;
+			private RuntimeException failure;
+			
+			private long[] offsets = new long[16];
+			
+			private byte[] buffer;
+			private int length;
+			
+			/**
+			 * File offset of {@code buffer[0]}.
+			 */
+			private long bufferStart;
+			
+			private Chunk (FileChannel channel, long start, long end, long size, LinkedBlockingQueue<Chunk> done) {
+				
+				this.channel = channel;
+				this.start = start;
+				this.end = end;
+				this.size = size;
+				this.done = done;
+				
+			}
+			
+			@Override
+			protected List<JSONObject> compute () {
+				
+				try {
+					return parse ();
+				} catch (IOException e) {
+					ioFailure = e;
+				} catch (RuntimeException e) {
+					failure = e;
+				} finally {
+					
+					buffer = null;
+					
+					if (done != null)
+						done.add (this);
+					
+				}
+				
+				return null;
+				
+			}
+			
+			private List<JSONObject> parse () throws IOException {
+				
+				// One byte before the chunk tells whether it starts on a line
+				
+				bufferStart = Math.max (0, start - 1);
+				buffer = new byte[(int) (end - bufferStart) + 256];
+				
+				read (end - bufferStart);
+				
+				int pos = (int) (start - bufferStart);
+				
+				if (start > 0 && buffer[0] != '\n') {
+					
+					// The first line is the tail of the previous chunk's one
+					
+					pos = lineEnd (pos) + 1;
+					
+				}
+				
+				List<JSONObject> records = new ArrayList<> ();
+				
+				while (bufferStart + pos < end) {
+					
+					int lineEnd = lineEnd (pos), contentEnd = lineEnd;
+					
+					if (contentEnd > pos && buffer[contentEnd - 1] == '\r')
+						contentEnd--;
+					
+					if (!isBlank (pos, contentEnd)) {
+						
+						long offset = bufferStart + pos;
+						
+						try {
+							records.add (new JSONObject (ByteBuffer.wrap (buffer, pos, contentEnd - pos).slice ()));
+						} catch (JSONException e) {
+							throw new JSONException (e.getMessage () + " of the line at offset " + offset);
+						}
+						
+						if (records.size () > offsets.length)
+							offsets = Arrays.copyOf (offsets, offsets.length * 2);
+						
+						offsets[records.size () - 1] = offset;
+						
+					}
+					
+					pos = lineEnd + 1;
+					
+				}
+				
+				return records;
+				
+			}
+			
+			/**
+			 * Returns the index of the '\n' ending the line at {@code pos}, or
+			 * {@code length} at the end of the file, reading past the chunk if the
+			 * line continues there.
+			 */
+			private int lineEnd (int pos) throws IOException {
+				
+				while (true) {
+					
+					for (; pos < length; pos++)
+						if (buffer[pos] == '\n')
+							return pos;
+					
+					if (bufferStart + length >= size)
+						return length;
+					
+					if (length == buffer.length)
+						buffer = Arrays.copyOf (buffer, buffer.length + Math.max (4096, (int) (bufferStart + length - end)));
+					
+					read (buffer.length - length);
+					
+				}
+				
+			}
+			
+			private void read (long count) throws IOException {
+				
+				ByteBuffer target = ByteBuffer.wrap (buffer, length, (int) Math.min (count, buffer.length - length));
+				
+				while (target.hasRemaining ()) {
+					
+					int read = channel.read (target, bufferStart + target.position ());
+					
+					if (read < 0)
+						break;
+					
+				}
+				
+				length = target.position ();
+				
+			}
+			
+			private boolean isBlank (int from, int to) {
+				
+				for (int i = from; i < to; i++)
+					if (buffer[i] > ' ')
+						return false;
+				
+				return true;
+				
+			}
+			
+		}
+		
+	}
\ No newline at end of file
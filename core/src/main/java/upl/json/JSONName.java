@@ -0,0 +1,42 @@
+	/*
+	 * Copyright (c) 2020 - 2024 UPL Foundation
+	 *
+	 * Licensed under the Apache License, Version 2.0 (the "License");
+	 * you may not use this file except in compliance with the License.
+	 * You may obtain a copy of the License at
+	 *
+	 *     http://www.apache.org/licenses/LICENSE-2.0
+	 *
+	 * Unless required by applicable law or agreed to in writing, software
+	 * distributed under the License is distributed on an "AS IS" BASIS,
+	 * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	 * See the License for the specific language governing permissions and
+	 * limitations under the License.
+	 */
+	
+	package upl.json;
+	
+	import java.lang.annotation.ElementType;
+	import java.lang.annotation.Retention;
+	import java.lang.annotation.RetentionPolicy;
+	import java.lang.annotation.Target;
+	
+	/**
+	 * Sets the member name a field is bound to by {@link JSONBinder}, or leaves
+	 * the field out.
+	 */
+	@Retention (RetentionPolicy.RUNTIME)
+	@Target (ElementType.FIELD)
+	public @interface JSONName {
+		
+		/**
+		 * The member name, the name of the field if empty.
+		 */
+		String value () default "";
+		
+		/**
+		 * Whether the field is not bound at all.
+		 */
+		boolean ignore () default false;
+		
+	}
\ No newline at end of file
@@ -0,0 +1,501 @@
+	/*
+	 * Copyright (c) 2020 - 2024 UPL Foundation
+	 *
+	 * Licensed under the Apache License, Version 2.0 (the "License");
+	 * you may not use this file except in compliance with the License.
+	 * You may obtain a copy of the License at
+	 *
+	 *     http://www.apache.org/licenses/LICENSE-2.0
+	 *
+	 * Unless required by applicable law or agreed to in writing, software
+	 * distributed under the License is distributed on an "AS IS" BASIS,
+	 * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	 * See the License for the specific language governing permissions and
+	 * limitations under the License.
+	 */
+	
+	package upl.json;
+	
+	import java.util.AbstractList;
+	import java.util.Arrays;
+	import upl.util.ArrayList;
+	
+	/**
+	 * Default storage of {@link JSONArray}. While all values are Integers, Longs
+	 * or Doubles they are kept unboxed in an {@code int[]}, {@code long[]} or
+	 * {@code double[]}; the first value of another type moves the list to a
+	 * plain {@code Object[]}. Values read through the {@link java.util.List}
+	 * interface are boxed back into their original type, so the specialization
+	 * is invisible apart from the primitive accessors.
+	 */
+	final class JSONNumberList extends ArrayList<Object> {
+		
+		static final int EMPTY = 0;
+		static final int INT = 1;
+		static final int LONG = 2;
+		static final int DOUBLE = 3;
+		static final int OBJECT = 4;
+		
+		private final Values values;
+		
+		JSONNumberList () {
+			this (0);
+		}
+		
+		JSONNumberList (int capacity) {
+			object = values = new Values (capacity);
+		}
+		
+		/**
+		 * Returns which of the arrays holds the values.
+		 */
+		int getKind () {
+			return values.kind;
+		}
+		
+		@Override
+		public void ensureCapacity (int capacity) {
+			values.ensureCapacity (capacity);
+		}
+		
+		void addInt (int value) {
+			
+			Values values = this.values;
+			
+			if (values.kind == INT || values.specialize (INT)) {
+				
+				values.ensureCapacity (values.size + 1);
+				values.ints[values.size++] = value;
+				values.modified ();
+				
+			} else values.add (value);
+			
+		}
+		
+		void addLong (long value) {
+			
+			Values values = this.values;
+			
+			if (values.kind == LONG || values.specialize (LONG)) {
+				
+				values.ensureCapacity (values.size + 1);
+				values.longs[values.size++] = value;
+				values.modified ();
+				
+			} else values.add (value);
+			
+		}
+		
+		void addDouble (double value) {
+			
+			Values values = this.values;
+			
+			if (values.kind == DOUBLE || values.specialize (DOUBLE)) {
+				
+				values.ensureCapacity (values.size + 1);
+				values.doubles[values.size++] = value;
+				values.modified ();
+				
+			} else values.add (value);
+			
+		}
+		
+		/*
+		 * Primitive replacements, returning false if the list doesn't hold values
+		 * of that type only or {@code index} is outside of it.
+		 */
+		
+		boolean setInt (int index, int value) {
+			
+			if (values.kind != INT || index < 0 || index >= values.size)
+				return false;
+			
+			values.ints[index] = value;
+			
+			return true;
+			
+		}
+		
+		boolean setLong (int index, long value) {
+			
+			if (values.kind != LONG || index < 0 || index >= values.size)
+				return false;
+			
+			values.longs[index] = value;
+			
+			return true;
+			
+		}
+		
+		boolean setDouble (int index, double value) {
+			
+			if (values.kind != DOUBLE || index < 0 || index >= values.size)
+				return false;
+			
+			values.doubles[index] = value;
+			
+			return true;
+			
+		}
+		
+		/*
+		 * Unchecked primitive reads, callers check getKind and the index first.
+		 */
+		
+		int getInt (int index) {
+			return values.ints[index];
+		}
+		
+		long getLong (int index) {
+			return (values.kind == INT ? values.ints[index] : values.longs[index]);
+		}
+		
+		double getDouble (int index) {
+			
+			switch (values.kind) {
+				
+				case INT:
+					return values.ints[index];
+				
+				case LONG:
+					return values.longs[index];
+				
+				default:
+					return values.doubles[index];
+				
+			}
+			
+		}
+		
+		/**
+		 * Copies the values of an {@link #INT} list.
+		 */
+		int[] toIntArray () {
+			return Arrays.copyOf (values.ints, values.size);
+		}
+		
+		private static final class Values extends AbstractList<Object> {
+			
+			private int kind = EMPTY;
+			private int size = 0;
+			
+			/**
+			 * Capacity to allocate once the kind is known.
+			 */
+			private int capacity;
+			
+			private int[] ints;
+			private long[] longs;
+			private double[] doubles;
+			private Object[] objects;
+			
+			private Values (int capacity) {
+				this.capacity = capacity;
+			}
+			
+			private static int kindOf (Object value) {
+				
+				if (value instanceof Integer)
+					return INT;
+				else if (value instanceof Long)
+					return LONG;
+				else if (value instanceof Double)
+					return DOUBLE;
+				
+				return OBJECT;
+				
+			}
+			
+			/**
+			 * Switches an empty list to {@code kind}, returning false if it holds
+			 * values already.
+			 */
+			private boolean specialize (int kind) {
+				
+				if (size > 0)
+					return false;
+				
+				int capacity = Math.max (this.capacity, length ());
+				
+				ints = null;
+				longs = null;
+				doubles = null;
+				objects = null;
+				
+				switch (kind) {
+					
+					case INT:
+						ints = new int[capacity];
+						break;
+					
+					case LONG:
+						longs = new long[capacity];
+						break;
+					
+					case DOUBLE:
+						doubles = new double[capacity];
+						break;
+					
+					default:
+						objects = new Object[capacity];
+					
+				}
+				
+				this.kind = kind;
+				
+				return true;
+				
+			}
+			
+			/**
+			 * Moves the values to an {@code Object[]}, boxing them in their type.
+			 */
+			private void generalize () {
+				
+				Object[] objects = new Object[Math.max (length (), 4)];
+				
+				for (int i = 0; i < size; i++)
+					objects[i] = get (i);
+				
+				ints = null;
+				longs = null;
+				doubles = null;
+				
+				this.objects = objects;
+				kind = OBJECT;
+				
+			}
+			
+			/**
+			 * Makes the list able to store {@code value}.
+			 */
+			private void accept (Object value) {
+				
+				if (kind != OBJECT || size == 0) {
+					
+					int kind = kindOf (value);
+					
+					if (kind != this.kind && !specialize (kind))
+						generalize ();
+					
+				}
+				
+			}
+			
+			private int length () {
+				
+				switch (kind) {
+					
+					case INT:
+						return ints.length;
+					
+					case LONG:
+						return longs.length;
+					
+					case DOUBLE:
+						return doubles.length;
+					
+					case OBJECT:
+						return objects.length;
+					
+					default:
+						return capacity;
+					
+				}
+				
+			}
+			
+			private void ensureCapacity (int capacity) {
+				
+				int length = length ();
+				
+				if (capacity <= length)
+					return;
+				
+				capacity = Math.max (capacity, length + (length >> 1) + 4);
+				
+				switch (kind) {
+					
+					case INT:
+						ints = Arrays.copyOf (ints, capacity);
+						break;
+					
+					case LONG:
+						longs = Arrays.copyOf (longs, capacity);
+						break;
+					
+					case DOUBLE:
+						doubles = Arrays.copyOf (doubles, capacity);
+						break;
+					
+					case OBJECT:
+						objects = Arrays.copyOf (objects, capacity);
+						break;
+					
+					default:
+						this.capacity = capacity;
+					
+				}
+				
+			}
+			
+			private void modified () {
+				modCount++;
+			}
+			
+			@Override
+			public Object get (int index) {
+				
+				if (index < 0 || index >= size)
+					throw new IndexOutOfBoundsException ("Index " + index + " out of range [0.." + size + ")");
+				
+				switch (kind) {
+					
+					case INT:
+						return ints[index];
+					
+					case LONG:
+						return longs[index];
+					
+					case DOUBLE:
+						return doubles[index];
+					
+					default:
+						return objects[index];
+					
+				}
+				
+			}
+			
+			@Override
+			public Object set (int index, Object value) {
+				
+				Object old = get (index);
+				
+				if (kind != OBJECT && kindOf (value) != kind)
+					generalize ();
+				
+				store (index, value);
+				
+				return old;
+				
+			}
+			
+			private void store (int index, Object value) {
+				
+				switch (kind) {
+					
+					case INT:
+						ints[index] = (Integer) value;
+						break;
+					
+					case LONG:
+						longs[index] = (Long) value;
+						break;
+					
+					case DOUBLE:
+						doubles[index] = (Double) value;
+						break;
+					
+					default:
+						objects[index] = value;
+					
+				}
+				
+			}
+			
+			@Override
+			public void add (int index, Object value) {
+				
+				if (index < 0 || index > size)
+					throw new IndexOutOfBoundsException ("Index " + index + " out of range [0.." + size + "]");
+				
+				accept (value);
+				ensureCapacity (size + 1);
+				
+				if (index < size)
+					System.arraycopy (array (), index, array (), index + 1, size - index);
+				
+				store (index, value);
+				
+				size++;
+				modCount++;
+				
+			}
+			
+			@Override
+			public Object remove (int index) {
+				
+				Object old = get (index);
+				
+				System.arraycopy (array (), index + 1, array (), index, size - index - 1);
+				
+				size--;
+				
+				if (kind == OBJECT)
+					objects[size] = null;
+				
+				modCount++;
+				
+				return old;
+				
+			}
+			
+			private Object array () {
+				
+				switch (kind) {
+					
+					case INT:
+						return ints;
+					
+					case LONG:
+						return longs;
+					
+					case DOUBLE:
+						return doubles;
+					
+					default:
+						return objects;
+					
+				}
+				
+			}
+			
+			@Override
+			protected void removeRange (int fromIndex, int toIndex) {
+				
+				if (fromIndex == 0 && toIndex == size) {
+					
+					if (kind == OBJECT)
+						Arrays.fill (objects, 0, size, null);
+					
+					size = 0; // and the next value may specialize the list again
+					
+				} else {
+					
+					System.arraycopy (array (), toIndex, array (), fromIndex, size - toIndex);
+					
+					if (kind == OBJECT)
+						Arrays.fill (objects, size - (toIndex - fromIndex), size, null);
+					
+					size -= toIndex - fromIndex;
+					
+				}
+				
+				modCount++;
+				
+			}
+			
+			@Override
+			public void clear () {
+				removeRange (0, size);
+			}
+			
+			@Override
+			public int size () {
+				return size;
+			}
+			
+		}
+		
+	}
\ No newline at end of file
@@ -16,11 +16,14 @@
 	
 	package upl.json;
 	
+	import java.nio.ByteBuffer;
 	import java.util.ArrayList;
 	import java.util.Iterator;
 	
 	import upl.core.Struct;
+	import upl.math.DoubleFormat;
 	import upl.type.Strings;
+	import upl.util.CompactHashMap;
 	import upl.util.Map;
 	
 	/**
@@ -115,6 +118,14 @@
 		
 		}
 		
+		/**
+		 * Creates a {@code JSONObject} with room for {@code capacity} name/value
+		 * mappings before its storage has to grow.
+		 */
+		public JSONObject (int capacity) {
+			super (capacity);
+		}
+		
 		/**
 		 * Creates a new {@code JSONObject} by copying all name/value mappings from
 		 * the given map.
@@ -158,11 +169,50 @@
 		 *                       {@code JSONObject}.
 		 */
 		public JSONObject (JSONTokener readFrom) {
-			/*
-			 * Getting the parser to populate this could get tricky. Instead, just
-			 * parse to temporary JSONObject and then steal the data from that.
-			 */
-			this (((JSONObject) readFrom.nextValue ()));
+			readFrom.nextObject (this);
+		}
+		
+		/**
+		 * Creates a new {@code JSONObject} with name/value mappings from the next
+		 * object in the reader. The input is consumed incrementally, so the whole
+		 * document never has to be held in memory as a string.
+		 *
+		 * @param readFrom a reader whose next token is the start of an object.
+		 *
+		 * @throws JSONException if the parse fails or doesn't yield a {@code JSONObject}.
+		 */
+		public JSONObject (JSONReader readFrom) {
+			readFrom.nextObject (this);
+		}
+		
+		/**
+		 * Creates a new {@code JSONObject} with name/value mappings from the next
+		 * object in the byte tokener.
+		 *
+		 * @throws JSONException if the parse fails or doesn't yield a {@code JSONObject}.
+		 */
+		public JSONObject (JSONByteTokener readFrom) {
+			readFrom.nextObject (this);
+		}
+		
+		/**
+		 * Creates a new {@code JSONObject} from UTF-8 encoded JSON, parsing the
+		 * bytes directly instead of decoding them to a string first.
+		 *
+		 * @throws JSONException if the parse fails or doesn't yield a {@code JSONObject}.
+		 */
+		public JSONObject (byte[] json) {
+			this (new JSONByteTokener (json));
+		}
+		
+		/**
+		 * Creates a new {@code JSONObject} from the UTF-8 encoded JSON between the
+		 * position and the limit of a heap, direct or memory-mapped buffer.
+		 *
+		 * @throws JSONException if the parse fails or doesn't yield a {@code JSONObject}.
+		 */
+		public JSONObject (ByteBuffer json) {
+			this (new JSONByteTokener (json));
 		}
 		
 		/**
@@ -177,6 +227,32 @@
 			this (new JSONTokener (json));
 		}
 		
+		/**
+		 * Creates a new {@code JSONObject} from the JSON string, optionally in lazy
+		 * mode: the string is only indexed structurally and values are parsed when
+		 * they are first accessed, which pays off when a few fields of a large
+		 * document are read. Lazy mode doesn't support comments and the {@code =},
+		 * {@code =>} and {@code ;} separators.
+		 *
+		 * @param json a JSON-encoded string containing an object.
+		 * @param lazy whether values are parsed on access instead of upfront.
+		 *
+		 * @throws JSONException if the parse fails or doesn't yield a {@code JSONObject}.
+		 * In lazy mode malformed values are reported when they are accessed.
+		 */
+		public JSONObject (String json, boolean lazy) {
+			
+			super (lazy ? JSONIndex.object (json) : new CompactHashMap<> ());
+			
+			if (!lazy)
+				new JSONTokener (json).nextObject (this);
+			
+		}
+		
+		JSONObject (JSONIndex.Members members) {
+			super (members);
+		}
+		
 		public JSONObject put (String key, String value) {
 			
 			if (value == null)
@@ -247,7 +323,7 @@
 		 * Returns the value mapped by {@code name}, or null if no such mapping exists.
 		 */
 		protected final Object opt (String key) {
-			return get (key, defValues.get (key));
+			return get (key, getDefValue (key));
 		}
 		
 		/**
@@ -589,6 +665,10 @@
 				return Long.toString (longValue);
 			}
 			
+			if (number instanceof Double) {
+				return DoubleFormat.toString (doubleValue); // shortest round-trip digits
+			}
+			
 			return number.toString ();
 		}
 		
@@ -0,0 +1,520 @@
+	/*
+	 * Copyright (c) 2020 - 2024 UPL Foundation
+	 *
+	 * Licensed under the Apache License, Version 2.0 (the "License");
+	 * you may not use this file except in compliance with the License.
+	 * You may obtain a copy of the License at
+	 *
+	 *     http://www.apache.org/licenses/LICENSE-2.0
+	 *
+	 * Unless required by applicable law or agreed to in writing, software
+	 * distributed under the License is distributed on an "AS IS" BASIS,
+	 * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	 * See the License for the specific language governing permissions and
+	 * limitations under the License.
+	 */
+	
+	package upl.json;
+	
+	import java.util.ArrayList;
+	import java.util.Arrays;
+	import java.util.List;
+	import java.util.Map;
+	
+	/**
+	 * Compiled query selecting values from a JSON document while it is read by
+	 * a {@link JSONReader}. Only the matching values are materialized, all
+	 * other subtrees are skipped as they stream by. Example usage: <pre>
+	 * JSONPath paths = JSONPath.compile ("$.entries[*].path_display");
+	 *
+	 * for (Object path : paths.select (new JSONReader (stream)))
+	 *   ...</pre>
+	 *
+	 * <p>Two syntaxes are understood:
+	 * <ul>
+	 *   <li>a JSONPath subset starting with {@code $}: member access
+	 *   {@code .name} and {@code ['name']}, wildcards {@code .*} and {@code [*]},
+	 *   indexes {@code [0]}, unions {@code ['a','b']} and {@code [0,2]}, slices
+	 *   {@code [1:3]} and descendants {@code ..name}. Negative indexes and
+	 *   filters are not supported, since they can't be evaluated without
+	 *   looking ahead.
+	 *   <li>JSON Pointers (RFC 6901) like {@code /entries/0/path_display}, where
+	 *   a numeric token matches both an array index and a member name.
+	 * </ul>
+	 *
+	 * <p>Matches are reported in document order; a value matching several
+	 * times, as with {@code $..a} on nested {@code a} members, is reported once
+	 * for every match. Instances are immutable and may be shared between
+	 * threads.
+	 */
+	public class JSONPath {
+		
+		public interface Listener {
+			
+			/**
+			 * Called for every matching value.
+			 *
+			 * @return false to stop reading, leaving the reader inside of the
+			 * document.
+			 */
+			boolean onMatch (Object value);
+			
+		}
+		
+		/**
+		 * One step of the path, matching member names or array indexes.
+		 */
+		private static final class Step {
+			
+			/**
+			 * Whether the step may match at any depth below the previous one.
+			 */
+			private boolean descendant;
+			private boolean wildcard;
+			
+			private final List<String> names = new ArrayList<> ();
+			private int[] indexes = new int[0];
+			
+			/**
+			 * Slice bounds, {@code from} is -1 if there is no slice.
+			 */
+			private int from = -1, to;
+			
+			private boolean matches (String name) {
+				return wildcard || names.contains (name);
+			}
+			
+			private boolean matches (int index) {
+				
+				if (wildcard || (index >= from && index < to))
+					return true;
+				
+				for (int value : indexes)
+					if (value == index)
+						return true;
+				
+				return false;
+				
+			}
+			
+			private void addIndex (int index) {
+				
+				indexes = Arrays.copyOf (indexes, indexes.length + 1);
+				indexes[indexes.length - 1] = index;
+				
+			}
+			
+		}
+		
+		protected final String path;
+		
+		private final Step[] steps;
+		
+		/**
+		 * Bit of a complete match in the sets of active steps.
+		 */
+		private final long complete;
+		
+		private JSONPath (String path, List<Step> steps) {
+			
+			this.path = path;
+			this.steps = steps.toArray (new Step[0]);
+			
+			complete = 1L << this.steps.length;
+			
+		}
+		
+		/**
+		 * Compiles a JSONPath expression or a JSON Pointer.
+		 *
+		 * @throws JSONException if the path is malformed or uses unsupported
+		 *                       syntax.
+		 */
+		public static JSONPath compile (String path) {
+			
+			List<Step> steps = (path.startsWith ("$") ? parsePath (path) : parsePointer (path));
+			
+			if (steps.size () >= Long.SIZE)
+				throw new JSONException ("Path has too many steps: " + path);
+			
+			return new JSONPath (path, steps);
+			
+		}
+		
+		private static List<Step> parsePointer (String path) {
+			
+			List<Step> steps = new ArrayList<> ();
+			
+			if (path.isEmpty ())
+				return steps;
+			
+			if (path.charAt (0) != '/')
+				throw new JSONException ("Path must start with '$' or '/': " + path);
+			
+			for (String token : path.substring (1).split ("/", -1)) {
+				
+				Step step = new Step ();
+				
+				token = token.replace ("~1", "/").replace ("~0", "~");
+				step.names.add (token);
+				
+				if (isIndex (token))
+					step.addIndex (Integer.parseInt (token));
+				
+				steps.add (step);
+				
+			}
+			
+			return steps;
+			
+		}
+		
+		private static boolean isIndex (String token) {
+			
+			if (token.isEmpty () || token.length () > 9 || (token.charAt (0) == '0' && token.length () > 1))
+				return false;
+			
+			for (int i = 0; i < token.length (); i++)
+				if (token.charAt (i) < '0' || token.charAt (i) > '9')
+					return false;
+			
+			return true;
+			
+		}
+		
+		private static List<Step> parsePath (String path) {
+			
+			List<Step> steps = new ArrayList<> ();
+			int pos = 1;
+			
+			while (pos < path.length ()) {
+				
+				Step step = new Step ();
+				char c = path.charAt (pos);
+				
+				if (c == '.') {
+					
+					pos++;
+					
+					if (pos < path.length () && path.charAt (pos) == '.') {
+						
+						step.descendant = true;
+						pos++;
+						
+					}
+					
+					if (pos < path.length () && path.charAt (pos) == '[')
+						pos = parseBracket (path, pos, step);
+					else if (pos < path.length () && path.charAt (pos) == '*') {
+						
+						step.wildcard = true;
+						pos++;
+						
+					} else {
+						
+						int start = pos;
+						
+						while (pos < path.length () && path.charAt (pos) != '.' && path.charAt (pos) != '[')
+							pos++;
+						
+						if (pos == start)
+							throw syntaxError (path, pos, "Expected a name");
+						
+						step.names.add (path.substring (start, pos));
+						
+					}
+					
+				} else if (c == '[')
+					pos = parseBracket (path, pos, step);
+				else
+					throw syntaxError (path, pos, "Expected '.' or '['");
+				
+				steps.add (step);
+				
+			}
+			
+			return steps;
+			
+		}
+		
+		/**
+		 * Parses the bracket at {@code pos} into {@code step}, returning the index
+		 * after it.
+		 */
+		private static int parseBracket (String path, int pos, Step step) {
+			
+			pos++;
+			
+			if (pos < path.length () && path.charAt (pos) == '*') {
+				
+				step.wildcard = true;
+				pos++;
+				
+			} else
+				while (true) {
+					
+					if (pos == path.length ())
+						throw syntaxError (path, pos, "Unterminated bracket");
+					
+					char c = path.charAt (pos);
+					
+					if (c == '\'' || c == '"') {
+						
+						StringBuilder name = new StringBuilder ();
+						
+						for (pos++; pos < path.length () && path.charAt (pos) != c; pos++) {
+							
+							if (path.charAt (pos) == '\\' && pos + 1 < path.length ())
+								pos++;
+							
+							name.append (path.charAt (pos));
+							
+						}
+						
+						if (pos == path.length ())
+							throw syntaxError (path, pos, "Unterminated name");
+						
+						step.names.add (name.toString ());
+						pos++;
+						
+					} else if (c == ':' || (c >= '0' && c <= '9')) {
+						
+						int start = pos;
+						
+						while (pos < path.length () && path.charAt (pos) >= '0' && path.charAt (pos) <= '9')
+							pos++;
+						
+						int index = (pos > start ? parseIndex (path, start, pos) : 0);
+						
+						if (pos < path.length () && path.charAt (pos) == ':') {
+							
+							int end = ++pos;
+							
+							while (pos < path.length () && path.charAt (pos) >= '0' && path.charAt (pos) <= '9')
+								pos++;
+							
+							step.from = index;
+							step.to = (pos > end ? parseIndex (path, end, pos) : Integer.MAX_VALUE);
+							
+						} else step.addIndex (index);
+						
+					} else if (c == '-')
+						throw syntaxError (path, pos, "Negative indexes are not supported");
+					else if (c == '?' || c == '(')
+						throw syntaxError (path, pos, "Filters are not supported");
+					else
+						throw syntaxError (path, pos, "Expected a name or an index");
+					
+					if (pos < path.length () && path.charAt (pos) == ',')
+						pos++;
+					else
+						break;
+					
+				}
+			
+			if (pos == path.length () || path.charAt (pos) != ']')
+				throw syntaxError (path, pos, "Expected ']'");
+			
+			return pos + 1;
+			
+		}
+		
+		private static int parseIndex (String path, int start, int end) {
+			
+			try {
+				return Integer.parseInt (path.substring (start, end));
+			} catch (NumberFormatException e) {
+				throw syntaxError (path, start, "Index is too large");
+			}
+			
+		}
+		
+		private static JSONException syntaxError (String path, int pos, String message) {
+			return new JSONException (message + " at character " + pos + " of " + path);
+		}
+		
+		/**
+		 * Reads the next value from {@code reader}, passing the matching parts to
+		 * {@code listener}.
+		 *
+		 * @return false if the listener stopped reading.
+		 * @throws JSONException if the input is malformed.
+		 */
+		public boolean match (JSONReader reader, Listener listener) {
+			return match (reader, 1, listener);
+		}
+		
+		/**
+		 * Passes the matching parts of an already parsed {@code value} to
+		 * {@code listener}.
+		 *
+		 * @return false if the listener stopped.
+		 */
+		public boolean match (Object value, Listener listener) {
+			return match (value, 1, listener);
+		}
+		
+		/**
+		 * Returns all values matching in the next value from {@code reader}.
+		 */
+		public List<Object> select (JSONReader reader) {
+			
+			List<Object> result = new ArrayList<> ();
+			
+			match (reader, value -> result.add (value));
+			
+			return result;
+			
+		}
+		
+		public List<Object> select (String json) {
+			return select (new JSONReader (json));
+		}
+		
+		/**
+		 * Returns the first matching value, or null if there is none. Reading
+		 * stops at the match.
+		 */
+		public Object selectFirst (JSONReader reader) {
+			
+			Object[] result = new Object[1];
+			
+			match (reader, value -> {
+				
+				result[0] = value;
+				return false;
+				
+			});
+			
+			return result[0];
+			
+		}
+		
+		public Object selectFirst (String json) {
+			return selectFirst (new JSONReader (json));
+		}
+		
+		/**
+		 * Returns the steps active for the member {@code name} or the element
+		 * {@code index} of a value for which {@code active} are.
+		 */
+		private long next (long active, String name, int index) {
+			
+			long next = 0;
+			
+			for (int i = 0; i < steps.length; i++)
+				if ((active & (1L << i)) != 0) {
+					
+					Step step = steps[i];
+					
+					if (step.descendant)
+						next |= 1L << i;
+					
+					if (name != null ? step.matches (name) : step.matches (index))
+						next |= 1L << (i + 1);
+					
+				}
+			
+			return next;
+			
+		}
+		
+		private boolean match (JSONReader reader, long active, Listener listener) {
+			
+			if ((active & complete) != 0) {
+				
+				Object value = reader.nextValue ();
+				
+				// Descendant steps may still match inside of the value
+				
+				return listener.onMatch (value) && match (value, active & ~complete, listener);
+				
+			}
+			
+			if (active == 0) {
+				
+				reader.skipValue ();
+				return true;
+				
+			}
+			
+			switch (reader.peek ()) {
+				
+				case BEGIN_OBJECT:
+					
+					reader.beginObject ();
+					
+					while (reader.hasNext ()) {
+						
+						String name = reader.nextName ();
+						
+						if (!match (reader, next (active, name, -1), listener))
+							return false;
+						
+					}
+					
+					reader.endObject ();
+					
+					return true;
+				
+				case BEGIN_ARRAY:
+					
+					reader.beginArray ();
+					
+					for (int i = 0; reader.hasNext (); i++)
+						if (!match (reader, next (active, null, i), listener))
+							return false;
+					
+					reader.endArray ();
+					
+					return true;
+				
+				default:
+					
+					reader.skipValue ();
+					return true;
+				
+			}
+			
+		}
+		
+		private boolean match (Object value, long active, Listener listener) {
+			
+			if ((active & complete) != 0) {
+				
+				if (!listener.onMatch (value))
+					return false;
+				
+				active &= ~complete;
+				
+			}
+			
+			if (active == 0)
+				return true;
+			
+			if (value instanceof JSONObject) {
+				
+				for (Map.Entry<String, Object> entry : ((JSONObject) value).entrySet ())
+					if (!match (entry.getValue (), next (active, entry.getKey (), -1), listener))
+						return false;
+				
+			} else if (value instanceof JSONArray) {
+				
+				JSONArray array = (JSONArray) value;
+				
+				for (int i = 0; i < array.length (); i++)
+					if (!match (array.opt (i), next (active, null, i), listener))
+						return false;
+				
+			}
+			
+			return true;
+			
+		}
+		
+		@Override
+		public String toString () {
+			return path;
+		}
+		
+	}
\ No newline at end of file
@@ -0,0 +1,1023 @@
+	/*
+	 * Copyright (c) 2020 - 2024 UPL Foundation
+	 *
+	 * Licensed under the Apache License, Version 2.0 (the "License");
+	 * you may not use this file except in compliance with the License.
+	 * You may obtain a copy of the License at
+	 *
+	 *     http://www.apache.org/licenses/LICENSE-2.0
+	 *
+	 * Unless required by applicable law or agreed to in writing, software
+	 * distributed under the License is distributed on an "AS IS" BASIS,
+	 * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	 * See the License for the specific language governing permissions and
+	 * limitations under the License.
+	 */
+	
+	package upl.json;
+	
+	import java.io.Closeable;
+	import java.io.IOException;
+	import java.io.InputStream;
+	import java.io.InputStreamReader;
+	import java.io.Reader;
+	import java.io.StringReader;
+	import java.nio.charset.StandardCharsets;
+	import upl.math.NumberScanner;
+	
+	/**
+	 * Pull parser reading a JSON (<a href="http://www.ietf.org/rfc/rfc4627.txt">RFC 4627</a>)
+	 * stream incrementally. Unlike {@link JSONTokener} the input is never
+	 * materialized as a whole: characters are pulled from the underlying
+	 * {@link Reader} through a fixed size buffer, so memory use is bounded by the
+	 * buffer length plus the largest single string value. Example usage: <pre>
+	 * JSONReader reader = new JSONReader (stream);
+	 *
+	 * reader.beginObject ();
+	 *
+	 * while (reader.hasNext ()) {
+	 *
+	 *   String name = reader.nextName ();
+	 *
+	 *   if (name.equals ("query"))
+	 *     query = reader.nextString ();
+	 *   else
+	 *     reader.skipValue ();
+	 *
+	 * }
+	 *
+	 * reader.endObject ();</pre>
+	 *
+	 * <p>The reader accepts the same lenient syntax as {@link JSONTokener}:
+	 * comments, single quoted and unquoted strings, {@code =} and {@code =>} name
+	 * separators, {@code ;} value separators and empty array slots, read as
+	 * nulls: {@code [1,,2]} is {@code [1,null,2]} and {@code [1,]} is
+	 * {@code [1,null]}. Several top-level values may follow each other, which
+	 * makes it suitable for JSON Lines input.
+	 *
+	 * <p>Instances of this class are not thread safe.
+	 */
+	public class JSONReader implements Closeable {
+		
+		/**
+		 * Kinds of events the reader produces, as reported by {@link #peek}.
+		 */
+		public enum Token {
+			BEGIN_ARRAY,
+			END_ARRAY,
+			BEGIN_OBJECT,
+			END_OBJECT,
+			NAME,
+			STRING,
+			NUMBER,
+			BOOLEAN,
+			NULL,
+			END_DOCUMENT,
+		}
+		
+		public static final int BUFFER_LENGTH = 8192;
+		
+		/*
+		 * Lexical scopes, same as in JSONStringer but kept as ints to store them
+		 * in a growable array without boxing.
+		 */
+		private static final int EMPTY_ARRAY = 1;
+		private static final int NONEMPTY_ARRAY = 2;
+		private static final int EMPTY_OBJECT = 3;
+		private static final int DANGLING_NAME = 4;
+		private static final int NONEMPTY_OBJECT = 5;
+		private static final int EMPTY_DOCUMENT = 6;
+		private static final int NONEMPTY_DOCUMENT = 7;
+		
+		private static final String DELIMITERS = "{}[]/\\:,=;# \t\f\r\n";
+		
+		protected final Reader in;
+		
+		protected final char[] buffer;
+		protected int pos = 0, limit = 0;
+		
+		/**
+		 * Number of characters discarded from the buffer, used to report positions.
+		 */
+		protected long offset = 0;
+		
+		private int[] stack = new int[32];
+		private int stackSize = 0;
+		
+		private Token peeked;
+		
+		/**
+		 * Quote of the peeked string or name, or 0 if it was unquoted and is
+		 * already stored in {@link #literalValue}.
+		 */
+		private char quote;
+		private Object literalValue;
+		
+		private final StringBuilder literal = new StringBuilder ();
+		
+		/**
+		 * Interns names and shares object layouts, or null.
+		 */
+		protected JSONKeyCache keys;
+		
+		private NumberScanner numbers;
+		
+		public JSONReader (Reader in) {
+			this (in, BUFFER_LENGTH);
+		}
+		
+		public JSONReader (Reader in, int bufferLength) {
+			
+			if (in == null)
+				throw new NullPointerException ();
+			
+			this.in = in;
+			
+			buffer = new char[Math.max (bufferLength, 16)]; // room for the longest escape sequence
+			stack[stackSize++] = EMPTY_DOCUMENT;
+			
+		}
+		
+		/**
+		 * Reads UTF-8 encoded JSON from {@code in}.
+		 */
+		public JSONReader (InputStream in) {
+			this (new InputStreamReader (in, StandardCharsets.UTF_8));
+		}
+		
+		public JSONReader (String in) {
+			this (new StringReader (in), Math.max (16, Math.min (in.length (), BUFFER_LENGTH)));
+		}
+		
+		/**
+		 * Makes the reader intern names and share the layout of objects with the
+		 * same keys through {@code keys}, null turns it off again.
+		 */
+		public JSONReader setKeyCache (JSONKeyCache keys) {
+			
+			this.keys = keys;
+			return this;
+			
+		}
+		
+		/**
+		 * Returns the type of the next token without consuming it.
+		 */
+		public Token peek () {
+			
+			if (peeked == null)
+				peeked = doPeek ();
+			
+			return peeked;
+			
+		}
+		
+		/**
+		 * Returns true if the current array or object has another element.
+		 */
+		public boolean hasNext () {
+			
+			Token token = peek ();
+			return token != Token.END_OBJECT && token != Token.END_ARRAY && token != Token.END_DOCUMENT;
+			
+		}
+		
+		public void beginArray () {
+			
+			expect (Token.BEGIN_ARRAY);
+			push (EMPTY_ARRAY);
+			
+		}
+		
+		public void endArray () {
+			
+			expect (Token.END_ARRAY);
+			stackSize--;
+			
+		}
+		
+		public void beginObject () {
+			
+			expect (Token.BEGIN_OBJECT);
+			push (EMPTY_OBJECT);
+			
+		}
+		
+		public void endObject () {
+			
+			expect (Token.END_OBJECT);
+			stackSize--;
+			
+		}
+		
+		/**
+		 * Returns the next property name and consumes it.
+		 *
+		 * @throws JSONException if the next token is not a name.
+		 */
+		public String nextName () {
+			
+			expect (Token.NAME);
+			
+			if (keys != null)
+				return (quote != 0 ? readName (quote) : keys.intern ((String) literalValue));
+			
+			return quote != 0 ? readString (quote) : (String) literalValue;
+			
+		}
+		
+		/**
+		 * Returns the next string value and consumes it. Numbers and booleans are
+		 * coerced to their string form.
+		 *
+		 * @throws JSONException if the next token is not a scalar value.
+		 */
+		public String nextString () {
+			
+			Token token = peek ();
+			
+			if (token == Token.STRING && quote != 0) {
+				
+				peeked = null;
+				return readString (quote);
+				
+			} else if (token == Token.STRING || token == Token.NUMBER || token == Token.BOOLEAN) {
+				
+				peeked = null;
+				return literalValue.toString ();
+				
+			}
+			
+			throw unexpected (Token.STRING, token);
+			
+		}
+		
+		public boolean nextBoolean () {
+			
+			expect (Token.BOOLEAN);
+			return (Boolean) literalValue;
+			
+		}
+		
+		public void nextNull () {
+			expect (Token.NULL);
+		}
+		
+		/**
+		 * Returns the next number and consumes it. Quoted numbers are accepted too.
+		 *
+		 * @return an Integer, Long or Double, in that order of preference.
+		 */
+		public Number nextNumber () {
+			
+			Token token = peek ();
+			
+			if (token == Token.NUMBER) {
+				
+				peeked = null;
+				return (Number) literalValue;
+				
+			} else if (token == Token.STRING) {
+				
+				Object value = JSONTokener.parseLiteral (nextString ());
+				
+				if (value instanceof Number)
+					return (Number) value;
+				
+				throw syntaxError ("Expected a number but was " + value);
+				
+			}
+			
+			throw unexpected (Token.NUMBER, token);
+			
+		}
+		
+		public int nextInt () {
+			
+			Number number = nextNumber ();
+			
+			if (number instanceof Integer)
+				return (Integer) number;
+			
+			int value = number.intValue ();
+			
+			if (value != number.doubleValue ())
+				throw syntaxError ("Expected an int but was " + number);
+			
+			return value;
+			
+		}
+		
+		public long nextLong () {
+			
+			Number number = nextNumber ();
+			
+			if (number instanceof Integer || number instanceof Long)
+				return number.longValue ();
+			
+			long value = number.longValue ();
+			
+			if (value != number.doubleValue ())
+				throw syntaxError ("Expected a long but was " + number);
+			
+			return value;
+			
+		}
+		
+		public double nextDouble () {
+			return nextNumber ().doubleValue ();
+		}
+		
+		/**
+		 * Returns the next value and consumes it, materializing arrays and objects.
+		 *
+		 * @return a {@link JSONObject}, {@link JSONArray}, String, Boolean,
+		 * Integer, Long, Double or {@link JSONObject#NULL}.
+		 */
+		public Object nextValue () {
+			
+			Token token = peek ();
+			
+			switch (token) {
+				
+				case BEGIN_OBJECT:
+					return nextObject (keys != null ? keys.newObject () : new JSONObject ());
+				
+				case BEGIN_ARRAY:
+					return nextArray (new JSONArray ());
+				
+				case STRING:
+					return nextString ();
+				
+				case NUMBER:
+				case BOOLEAN:
+				case NULL:
+					peeked = null;
+					return literalValue;
+				
+				default:
+					throw syntaxError ("Expected a value but was " + token);
+				
+			}
+			
+		}
+		
+		/**
+		 * Reads the next object into {@code result}.
+		 *
+		 * @return {@code result}.
+		 */
+		public JSONObject nextObject (JSONObject result) {
+			
+			if (keys != null)
+				result.setShape (keys.getShapes ());
+			
+			beginObject ();
+			
+			while (hasNext ())
+				result.put (nextName (), nextValue ());
+			
+			endObject ();
+			
+			return result;
+			
+		}
+		
+		/**
+		 * Reads the next array into {@code result}.
+		 *
+		 * @return {@code result}.
+		 */
+		public JSONArray nextArray (JSONArray result) {
+			
+			beginArray ();
+			
+			while (hasNext ())
+				result.put (nextValue ());
+			
+			endArray ();
+			
+			return result;
+			
+		}
+		
+		/**
+		 * Skips the next value, including whole nested arrays and objects, without
+		 * materializing anything.
+		 */
+		public void skipValue () {
+			
+			int depth = 0;
+			
+			do {
+				
+				Token token = peek ();
+				
+				switch (token) {
+					
+					case BEGIN_ARRAY:
+						beginArray ();
+						depth++;
+						break;
+					
+					case BEGIN_OBJECT:
+						beginObject ();
+						depth++;
+						break;
+					
+					case END_ARRAY:
+						endArray ();
+						depth--;
+						break;
+					
+					case END_OBJECT:
+						endObject ();
+						depth--;
+						break;
+					
+					case NAME:
+					case STRING:
+						
+						peeked = null;
+						
+						if (quote != 0)
+							skipString (quote);
+						
+						break;
+					
+					case END_DOCUMENT:
+						throw syntaxError ("End of input");
+					
+					default:
+						peeked = null;
+						break;
+					
+				}
+				
+			} while (depth > 0);
+			
+		}
+		
+		/**
+		 * Returns the nesting depth of the current position, 0 at top level.
+		 */
+		public int getDepth () {
+			return stackSize - 1;
+		}
+		
+		private void expect (Token expected) {
+			
+			Token token = peek ();
+			
+			if (token != expected)
+				throw unexpected (expected, token);
+			
+			peeked = null;
+			
+		}
+		
+		private void push (int scope) {
+			
+			if (stackSize == stack.length) {
+				
+				int[] newStack = new int[stackSize * 2];
+				System.arraycopy (stack, 0, newStack, 0, stackSize);
+				stack = newStack;
+				
+			}
+			
+			stack[stackSize++] = scope;
+			
+		}
+		
+		private Token doPeek () {
+			
+			int scope = stack[stackSize - 1];
+			int c;
+			
+			switch (scope) {
+				
+				case EMPTY_ARRAY:
+					
+					stack[stackSize - 1] = NONEMPTY_ARRAY;
+					
+					c = nextCleanInternal ();
+					
+					if (c == ']')
+						return Token.END_ARRAY;
+					else if (c == -1)
+						throw syntaxError ("Unterminated array");
+					
+					pos--;
+					
+					if (c == ',' || c == ';')
+						return emptySlot ();
+					
+					break;
+				
+				case NONEMPTY_ARRAY:
+					
+					switch (nextCleanInternal ()) {
+						
+						case ']':
+							return Token.END_ARRAY;
+						
+						case ',':
+						case ';':
+							break;
+						
+						default:
+							throw syntaxError ("Unterminated array");
+						
+					}
+					
+					/* a separator followed by another one or by ']' leaves an empty slot, same as JSONTokener */
+					c = nextCleanInternal ();
+					
+					if (c == -1)
+						throw syntaxError ("Unterminated array");
+					
+					pos--;
+					
+					if (c == ',' || c == ';' || c == ']')
+						return emptySlot ();
+					
+					break;
+				
+				case EMPTY_OBJECT:
+				case NONEMPTY_OBJECT:
+					
+					stack[stackSize - 1] = DANGLING_NAME;
+					
+					if (scope == NONEMPTY_OBJECT) {
+						
+						switch (nextCleanInternal ()) {
+							
+							case '}':
+								return Token.END_OBJECT;
+							
+							case ',':
+							case ';':
+								break;
+							
+							default:
+								throw syntaxError ("Unterminated object");
+							
+						}
+						
+					}
+					
+					c = nextCleanInternal ();
+					
+					switch (c) {
+						
+						case '}':
+							
+							if (scope == EMPTY_OBJECT)
+								return Token.END_OBJECT;
+							
+							throw syntaxError ("Expected name");
+						
+						case '"':
+						case '\'':
+							quote = (char) c;
+							return Token.NAME;
+						
+						case -1:
+							throw syntaxError ("Unterminated object");
+						
+						default:
+							
+							pos--;
+							
+							if (readLiteral () != Token.STRING)
+								throw syntaxError ("Names must be strings, but " + literalValue + " is of type " + literalValue.getClass ().getName ());
+							
+							return Token.NAME;
+						
+					}
+				
+				case DANGLING_NAME:
+					
+					stack[stackSize - 1] = NONEMPTY_OBJECT;
+					
+					/*
+					 * Expect the name/value separator to be either a colon ':', an
+					 * equals sign '=', or an arrow "=>", same as JSONTokener.
+					 */
+					c = nextCleanInternal ();
+					
+					if (c != ':' && c != '=')
+						throw syntaxError ("Expected ':' after name");
+					
+					if ((pos < limit || fill (1)) && buffer[pos] == '>')
+						pos++;
+					
+					break;
+				
+				case EMPTY_DOCUMENT:
+				case NONEMPTY_DOCUMENT:
+					
+					stack[stackSize - 1] = NONEMPTY_DOCUMENT;
+					
+					if (nextCleanInternal () == -1)
+						return Token.END_DOCUMENT;
+					
+					pos--;
+					break;
+				
+			}
+			
+			c = nextCleanInternal ();
+			
+			switch (c) {
+				
+				case -1:
+					throw syntaxError ("End of input");
+				
+				case '{':
+					return Token.BEGIN_OBJECT;
+				
+				case '[':
+					return Token.BEGIN_ARRAY;
+				
+				case '"':
+				case '\'':
+					quote = (char) c;
+					return Token.STRING;
+				
+				default:
+					pos--;
+					return readLiteral ();
+				
+			}
+			
+		}
+		
+		/**
+		 * Returns a null for an array slot without a value, leaving the separator
+		 * which ends it unread.
+		 */
+		private Token emptySlot () {
+			
+			literalValue = JSONObject.NULL;
+			quote = 0;
+			
+			return Token.NULL;
+			
+		}
+		
+		/**
+		 * Reads a null, boolean, numeric or unquoted string literal into
+		 * {@link #literalValue} and returns its token.
+		 */
+		private Token readLiteral () {
+			
+			literal.setLength (0);
+			
+			while (pos < limit || fill (1)) {
+				
+				int start = pos;
+				
+				while (pos < limit && DELIMITERS.indexOf (buffer[pos]) == -1)
+					pos++;
+				
+				literal.append (buffer, start, pos - start);
+				
+				if (pos < limit) break;
+				
+			}
+			
+			if (literal.length () == 0)
+				throw syntaxError ("Expected literal value");
+			
+			quote = 0;
+			
+			char first = literal.charAt (0);
+			
+			if (first == '-' || (first >= '0' && first <= '9')) {
+				
+				if (numbers == null)
+					numbers = new NumberScanner ();
+				
+				if (numbers.scan (literal, 0, literal.length ()) != NumberScanner.NONE && numbers.getEnd () == literal.length ()) {
+					
+					literalValue = numbers.getNumber ();
+					return Token.NUMBER;
+					
+				}
+				
+			}
+			
+			literalValue = JSONTokener.parseLiteral (literal.toString ());
+			
+			if (literalValue == JSONObject.NULL)
+				return Token.NULL;
+			else if (literalValue instanceof Boolean)
+				return Token.BOOLEAN;
+			else if (literalValue instanceof Number)
+				return Token.NUMBER;
+			
+			return Token.STRING;
+			
+		}
+		
+		private int nextCleanInternal () {
+			
+			while (pos < limit || fill (1)) {
+				
+				char c = buffer[pos++];
+				
+				switch (c) {
+					
+					case '\t':
+					case ' ':
+					case '\n':
+					case '\r':
+						continue;
+					
+					case '/':
+						
+						if (pos == limit && !fill (1))
+							return c;
+						
+						char peek = buffer[pos];
+						
+						if (peek != '*' && peek != '/')
+							return c;
+						
+						pos++;
+						skipComment (peek);
+						
+						continue;
+					
+					default:
+						return c;
+					
+				}
+				
+			}
+			
+			return -1;
+			
+		}
+		
+		private void skipComment (char type) {
+			
+			if (type == '*') {
+				
+				while (pos < limit || fill (1)) {
+					
+					if (buffer[pos++] == '*') {
+						
+						if (pos == limit && !fill (1))
+							break;
+						
+						if (buffer[pos] == '/') {
+							
+							pos++;
+							return;
+							
+						}
+						
+					}
+					
+				}
+				
+				throw syntaxError ("Unterminated comment");
+				
+			} else {
+				
+				while (pos < limit || fill (1)) {
+					
+					char c = buffer[pos++];
+					
+					if (c == '\r' || c == '\n')
+						break;
+					
+				}
+				
+			}
+			
+		}
+		
+		/**
+		 * Returns the string up to but not including {@code quote}, unescaping any
+		 * character escape sequences encountered along the way. The opening quote
+		 * should have already been read.
+		 */
+		private String readString (char quote) {
+			
+			StringBuilder builder = null;
+			
+			while (true) {
+				
+				int start = pos;
+				
+				while (pos < limit) {
+					
+					char c = buffer[pos++];
+					
+					if (c == quote) {
+						
+						if (builder == null)
+							return new String (buffer, start, pos - start - 1);
+						
+						builder.append (buffer, start, pos - start - 1);
+						
+						return builder.toString ();
+						
+					} else if (c == '\\') {
+						
+						if (builder == null)
+							builder = new StringBuilder (Math.max (2 * (pos - start), 16));
+						
+						builder.append (buffer, start, pos - start - 1);
+						builder.append (readEscapeCharacter ());
+						
+						start = pos;
+						
+					}
+					
+				}
+				
+				if (builder == null)
+					builder = new StringBuilder (Math.max (2 * (pos - start), 16));
+				
+				builder.append (buffer, start, pos - start);
+				
+				if (!fill (1))
+					throw syntaxError ("Unterminated string");
+				
+			}
+			
+		}
+		
+		/**
+		 * Same as {@link #readString}, but names found in the buffer as a whole and
+		 * free of escape sequences are interned without allocating.
+		 */
+		private String readName (char quote) {
+			
+			for (int i = pos; i < limit; i++) {
+				
+				char c = buffer[i];
+				
+				if (c == quote) {
+					
+					String name = keys.intern (buffer, pos, i - pos);
+					pos = i + 1;
+					
+					return name;
+					
+				} else if (c == '\\')
+					break;
+				
+			}
+			
+			return keys.intern (readString (quote));
+			
+		}
+		
+		private void skipString (char quote) {
+			
+			while (pos < limit || fill (1)) {
+				
+				char c = buffer[pos++];
+				
+				if (c == quote)
+					return;
+				else if (c == '\\') {
+					
+					if (pos == limit && !fill (1))
+						break;
+					
+					pos++;
+					
+				}
+				
+			}
+			
+			throw syntaxError ("Unterminated string");
+			
+		}
+		
+		/**
+		 * Unescapes the character identified by the character or characters that
+		 * immediately follow a backslash. The backslash '\' should have already
+		 * been read.
+		 */
+		private char readEscapeCharacter () {
+			
+			if (pos == limit && !fill (1))
+				throw syntaxError ("Unterminated escape sequence");
+			
+			char escaped = buffer[pos++];
+			
+			switch (escaped) {
+				
+				case 'u':
+					
+					if (pos + 4 > limit && !fill (4))
+						throw syntaxError ("Unterminated escape sequence");
+					
+					int result = 0;
+					
+					for (int i = pos; i < pos + 4; i++) {
+						
+						int digit = JSONTokener.dehexchar (buffer[i]);
+						
+						if (digit == -1)
+							throw syntaxError ("Malformed unicode escape");
+						
+						result = (result << 4) + digit;
+						
+					}
+					
+					pos += 4;
+					
+					return (char) result;
+				
+				case 't':
+					return '\t';
+				
+				case 'b':
+					return '\b';
+				
+				case 'n':
+					return '\n';
+				
+				case 'r':
+					return '\r';
+				
+				case 'f':
+					return '\f';
+				
+				default:
+					return escaped;
+				
+			}
+			
+		}
+		
+		/**
+		 * Moves the unread characters to the start of the buffer and reads more
+		 * input until at least {@code minimum} characters are available.
+		 *
+		 * @return false if the input was exhausted first.
+		 */
+		protected boolean fill (int minimum) {
+			
+			if (pos > 0) {
+				
+				limit -= pos;
+				System.arraycopy (buffer, pos, buffer, 0, limit);
+				
+				offset += pos;
+				pos = 0;
+				
+			}
+			
+			try {
+				
+				int total;
+				
+				while (limit < minimum && (total = in.read (buffer, limit, buffer.length - limit)) != -1)
+					limit += total;
+				
+			} catch (IOException e) {
+				throw new JSONException (e.getMessage ());
+			}
+			
+			return limit >= minimum;
+			
+		}
+		
+		private JSONException unexpected (Token expected, Token actual) {
+			return syntaxError ("Expected " + expected + " but was " + actual);
+		}
+		
+		/**
+		 * Returns an exception containing the given message plus the current
+		 * position.
+		 */
+		public JSONException syntaxError (String message) {
+			return new JSONException (message + this);
+		}
+		
+		@Override
+		public String toString () {
+			return " at character " + (offset + pos);
+		}
+		
+		@Override
+		public void close () throws IOException {
+			
+			peeked = null;
+			stackSize = 0;
+			
+			in.close ();
+			
+		}
+		
+	}
\ No newline at end of file
@@ -226,6 +226,12 @@
 			} else if (value instanceof JSONObject) {
 				((JSONObject) value).writeTo (this);
 				return this;
+			} else if (value instanceof ImmutableJSONObject) {
+				((ImmutableJSONObject) value).writeTo (this);
+				return this;
+			} else if (value instanceof ImmutableJSONArray) {
+				((ImmutableJSONArray) value).writeTo (this);
+				return this;
 			}
 			beforeValue ();
 			if (value == null
@@ -286,44 +292,20 @@
 		
 		private void string (String value) {
 			out.append ("\"");
+			/*
+	     * Runs of characters which need no escaping are appended in bulk, the
+	     * others are looked up in the escape table shared with JSONWriter.
+	     */
+			int last = 0;
 			for (int i = 0, length = value.length (); i < length; i++) {
 				char c = value.charAt (i);
-				/*
-		     * From RFC 4627, "All Unicode characters may be placed within the
-		     * quotation marks except for the characters that must be escaped:
-		     * quotation mark, reverse solidus, and the control characters
-		     * (U+0000 through U+001F)."
-		     */
-				switch (c) {
-					case '"':
-					case '\\':
-					case '/':
-						out.append ('\\').append (c);
-						break;
-					case '\t':
-						out.append ("\\t");
-						break;
-					case '\b':
-						out.append ("\\b");
-						break;
-					case '\n':
-						out.append ("\\n");
-						break;
-					case '\r':
-						out.append ("\\r");
-						break;
-					case '\f':
-						out.append ("\\f");
-						break;
-					default:
-						if (c <= 0x1F) {
-							out.append (String.format ("\\u%04x", (int) c));
-						} else {
-							out.append (c);
-						}
-						break;
+				String replacement = c < 128 ? JSONWriter.REPLACEMENTS[c] : null;
+				if (replacement != null) {
+					out.append (value, last, i).append (replacement);
+					last = i + 1;
 				}
 			}
+			out.append (value, last, value.length ());
 			out.append ("\"");
 		}
 		
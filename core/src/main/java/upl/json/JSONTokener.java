@@ -16,6 +16,8 @@
 	
 	package upl.json;
 	
+	import upl.math.NumberScanner;
+	
 	// Note: this class was written without inspecting the non-free upl.json sourcecode.
 	
 	/**
@@ -55,6 +57,23 @@
      */
 		private int pos;
 		
+		/**
+     * How far {@link #estimateSize} looks for the end of a container.
+     */
+		protected static final int LOOKAHEAD = 256;
+		
+		/**
+ * Chars ending a literal, see {@link #readLiteral}.
+ */
+		static final String LITERAL_END = "{}[]/\\:,=;# \t\f\r\n";
+		
+		/**
+     * Interns names and shares object layouts, or null.
+     */
+		protected JSONKeyCache keys;
+		
+		private NumberScanner numbers;
+		
 		/**
      * @param in JSON encoded string. Null is not permitted and will yield a
      *			     tokener that throws {@code NullPointerExceptions} when methods are
@@ -64,6 +83,23 @@
 			this.in = in;
 		}
 		
+		/**
+     * Creates a tokener which interns names and shares the layout of objects
+     * with the same keys through {@code keys}.
+     */
+		public JSONTokener (String in, JSONKeyCache keys) {
+			this.in = in;
+			this.keys = keys;
+		}
+		
+		/**
+     * Creates a tokener reading {@code in} from the index {@code pos}.
+     */
+		JSONTokener (String in, int pos) {
+			this.in = in;
+			this.pos = pos;
+		}
+		
 		/**
      * Returns the next value from the input.
      *
@@ -78,10 +114,10 @@
 					throw syntaxError ("End of input");
 				
 				case '{':
-					return readObject ();
+					return readObject (newObject (estimateSize ('}')));
 				
 				case '[':
-					return readArray ();
+					return readArray (new JSONArray (estimateSize (']')));
 				
 				case '\'':
 				case '"':
@@ -253,11 +289,45 @@
      * preference.
      */
 		private Object readLiteral () {
+			if (scanNumber ()) {
+				return numbers.getNumber ();
+			}
+			
 			String literal = nextToInternal ("{}[]/\\:,=;# \t\f");
 			
 			if (literal.length () == 0) {
 				throw syntaxError ("Expected literal value");
-			} else if ("null".equalsIgnoreCase (literal)) {
+			}
+			
+			return parseLiteral (literal);
+		}
+		
+		/**
+     * Scans a number at the current position in place, without a substring,
+     * and moves past it. Returns false and leaves the position unchanged if
+     * the literal there is not a complete number.
+     */
+		private boolean scanNumber () {
+			if (pos < in.length () && (in.charAt (pos) == '-' || (in.charAt (pos) >= '0' && in.charAt (pos) <= '9'))) {
+				if (numbers == null) {
+					numbers = new NumberScanner ();
+				}
+				if (numbers.scan (in, pos, in.length ()) != NumberScanner.NONE
+						    && (numbers.getEnd () == in.length () || LITERAL_END.indexOf (in.charAt (numbers.getEnd ())) != -1)) {
+					pos = numbers.getEnd ();
+					return true;
+				}
+			}
+			return false;
+		}
+		
+		/**
+     * Converts a non-empty null, boolean, numeric or unquoted string literal
+     * to its value. Shared with {@link JSONReader} so both parsers coerce
+     * literals identically.
+     */
+		static Object parseLiteral (String literal) {
+			if ("null".equalsIgnoreCase (literal)) {
 				return JSONObject.NULL;
 			} else if ("true".equalsIgnoreCase (literal)) {
 				return Boolean.TRUE;
@@ -265,6 +335,12 @@
 				return Boolean.FALSE;
 			}
 			
+			/* skip both number parsers below for what can't be a number anyway */
+			char first = literal.charAt (0);
+			if (first > ' ' && (first < '0' || first > '9') && "+-.NI".indexOf (first) == -1) {
+				return new String (literal);
+			}
+			
 			/* try to parse as an integral type... */
 			if (literal.indexOf ('.') == -1) {
 				int base = 10;
@@ -317,12 +393,106 @@
 			return in.substring (start);
 		}
 		
+		/**
+     * Reads the next object into {@code result} instead of a new instance.
+     *
+     * @return {@code result}.
+     * @throws JSONException if the input is malformed or the next value is
+     *											 not an object.
+     */
+		public JSONObject nextObject (JSONObject result) {
+			if (nextCleanInternal () != '{') {
+				throw syntaxError ("A JSONObject text must begin with '{'");
+			}
+			if (keys != null) {
+				result.setShape (keys.getShapes ());
+			}
+			result.ensureCapacity (estimateSize ('}'));
+			return readObject (result);
+		}
+		
+		private JSONObject newObject (int capacity) {
+			if (keys == null) {
+				return new JSONObject (capacity);
+			}
+			JSONObject result = keys.newObject ();
+			result.ensureCapacity (capacity);
+			return result;
+		}
+		
+		/**
+     * Reads the next array into {@code result} instead of a new instance.
+     *
+     * @return {@code result}.
+     * @throws JSONException if the input is malformed or the next value is
+     *											 not an array.
+     */
+		public JSONArray nextArray (JSONArray result) {
+			if (nextCleanInternal () != '[') {
+				throw syntaxError ("A JSONArray text must begin with '['");
+			}
+			result.ensureCapacity (estimateSize (']'));
+			return readArray (result);
+		}
+		
+		/**
+     * Counts the elements of the container whose opening bracket was just
+     * read by scanning at most {@link #LOOKAHEAD} characters ahead, so that
+     * its storage can be allocated once. Returns 0 if the closing bracket is
+     * not found within that distance.
+     */
+		private int estimateSize (char close) {
+			int depth = 0, separators = 0;
+			boolean empty = true;
+			int end = Math.min (in.length (), pos + LOOKAHEAD);
+			for (int i = pos; i < end; i++) {
+				char c = in.charAt (i);
+				switch (c) {
+					case '"':
+					case '\'':
+						/* skip the string, keeping an eye on escaped quotes */
+						for (i++; i < end && in.charAt (i) != c; i++) {
+							if (in.charAt (i) == '\\') {
+								i++;
+							}
+						}
+						empty = false;
+						break;
+					case '{':
+					case '[':
+						depth++;
+						empty = false;
+						break;
+					case '}':
+					case ']':
+						if (depth-- == 0) {
+							return c == close ? (empty ? 0 : separators + 1) : 0;
+						}
+						break;
+					case ',':
+					case ';':
+						if (depth == 0) {
+							separators++;
+						}
+						break;
+					case ' ':
+					case '\t':
+					case '\n':
+					case '\r':
+						break;
+					default:
+						empty = false;
+				}
+			}
+			return 0;
+		}
+		
 		/**
      * Reads a sequence of key/value pairs and the trailing closing brace '}' of
-     * an object. The opening brace '{' should have already been read.
+     * an object into {@code result}. The opening brace '{' should have already
+     * been read.
      */
-		private JSONObject readObject () {
-			JSONObject result = new JSONObject ();
+		private JSONObject readObject (JSONObject result) {
 			
 			/* Peek to see if this is the empty object. */
 			int first = nextCleanInternal ();
@@ -333,7 +503,7 @@
 			}
 			
 			while (true) {
-				Object name = nextValue ();
+				Object name = (keys != null ? nextName () : nextValue ());
 				if (!(name instanceof String)) {
 					if (name == null) {
 						throw syntaxError ("Names cannot be null");
@@ -370,14 +540,38 @@
 			}
 		}
 		
+		/**
+     * Reads a name through the key cache, falling back to {@link #nextValue}
+     * for names which are unquoted or hold escape sequences.
+     */
+		private Object nextName () {
+			int c = nextCleanInternal ();
+			if (c == '"' || c == '\'') {
+				for (int i = pos; i < in.length (); i++) {
+					char n = in.charAt (i);
+					if (n == c) {
+						String name = keys.intern (in, pos, i);
+						pos = i + 1;
+						return name;
+					} else if (n == '\\') {
+						break;
+					}
+				}
+			}
+			if (c != -1) {
+				pos--;
+			}
+			Object name = nextValue ();
+			return (name instanceof String ? keys.intern ((String) name) : name);
+		}
+		
 		/**
      * Reads a sequence of values and the trailing closing brace ']' of an
-     * array. The opening brace '[' should have already been read. Note that
-     * "[]" yields an empty array, but "[,]" returns a two-element array
-     * equivalent to "[null,null]".
+     * array into {@code result}. The opening brace '[' should have already
+     * been read. Note that "[]" yields an empty array, but "[,]" returns a
+     * two-element array equivalent to "[null,null]".
      */
-		private JSONArray readArray () {
-			JSONArray result = new JSONArray ();
+		private JSONArray readArray (JSONArray result) {
 			
 			/* to cover input that ends with ",]". */
 			boolean hasTrailingSeparator = false;
@@ -401,7 +595,27 @@
 						pos--;
 				}
 				
-				result.put (nextValue ());
+				/* numbers go to the array unboxed */
+				if (scanNumber ()) {
+					switch (numbers.getType ()) {
+						case NumberScanner.INT:
+							result.put ((int) numbers.getLong ());
+							break;
+						case NumberScanner.LONG:
+							result.put (numbers.getLong ());
+							break;
+						default:
+							/* overflowing literals are kept as before, put (double) rejects them */
+							double value = numbers.getDouble ();
+							if (Double.isInfinite (value)) {
+								result.put ((Object) value);
+							} else {
+								result.put (value);
+							}
+					}
+				} else {
+					result.put (nextValue ());
+				}
 				
 				switch (nextCleanInternal ()) {
 					case ']':
@@ -0,0 +1,267 @@
+	/*
+	 * Copyright (c) 2020 - 2024 UPL Foundation
+	 *
+	 * Licensed under the Apache License, Version 2.0 (the "License");
+	 * you may not use this file except in compliance with the License.
+	 * You may obtain a copy of the License at
+	 *
+	 *     http://www.apache.org/licenses/LICENSE-2.0
+	 *
+	 * Unless required by applicable law or agreed to in writing, software
+	 * distributed under the License is distributed on an "AS IS" BASIS,
+	 * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	 * See the License for the specific language governing permissions and
+	 * limitations under the License.
+	 */
+	
+	package upl.json;
+	
+	import java.util.Arrays;
+	import java.util.Iterator;
+	import java.util.NoSuchElementException;
+	
+	/**
+	 * Persistent vector: a 32-way trie of fixed size leaves plus a tail holding
+	 * the last (up to 32) elements. Every update copies only the path from the
+	 * root to the changed leaf, so {@link #set} and {@link #append} take
+	 * O(log<sub>32</sub> n) time and space and share everything else with the
+	 * original vector, which stays unchanged.
+	 */
+	final class JSONVector implements Iterable<Object> {
+		
+		private static final int BITS = 5;
+		private static final int WIDTH = 1 << BITS;
+		private static final int MASK = WIDTH - 1;
+		
+		private static final Object[] NO_TAIL = {};
+		
+		static final JSONVector EMPTY = new JSONVector (0, BITS, new Object[WIDTH], NO_TAIL);
+		
+		final int size;
+		
+		/**
+		 * Bit offset of the root level, the root holds up to {@code 1 << shift}
+		 * leaves.
+		 */
+		private final int shift;
+		
+		private final Object[] root, tail;
+		
+		private JSONVector (int size, int shift, Object[] root, Object[] tail) {
+			
+			this.size = size;
+			this.shift = shift;
+			this.root = root;
+			this.tail = tail;
+			
+		}
+		
+		/**
+		 * Builds a vector of the first {@code count} items in one pass, without
+		 * the intermediate copies of repeated appends.
+		 */
+		static JSONVector of (Object[] items, int count) {
+			
+			if (count == 0)
+				return EMPTY;
+			
+			int tailOffset = tailOffset (count);
+			
+			Object[] nodes = new Object[tailOffset >>> BITS];
+			
+			for (int i = 0; i < nodes.length; i++)
+				nodes[i] = Arrays.copyOfRange (items, i << BITS, (i + 1) << BITS);
+			
+			int shift = BITS, length = nodes.length;
+			
+			while (length > WIDTH) {
+				
+				int parents = (length + MASK) >>> BITS;
+				
+				for (int i = 0; i < parents; i++)
+					nodes[i] = node (nodes, i << BITS, length);
+				
+				length = parents;
+				shift += BITS;
+				
+			}
+			
+			Object[] root = node (nodes, 0, length);
+			
+			return new JSONVector (count, shift, root, Arrays.copyOfRange (items, tailOffset, count));
+			
+		}
+		
+		/**
+		 * Returns a node of the (up to 32) nodes from {@code start}, ignoring the
+		 * ones past {@code end}.
+		 */
+		private static Object[] node (Object[] nodes, int start, int end) {
+			
+			Object[] node = new Object[WIDTH];
+			System.arraycopy (nodes, start, node, 0, Math.min (WIDTH, end - start));
+			
+			return node;
+			
+		}
+		
+		private static int tailOffset (int size) {
+			return size < WIDTH ? 0 : ((size - 1) >>> BITS) << BITS;
+		}
+		
+		/**
+		 * Returns the leaf holding {@code index}.
+		 */
+		private Object[] leaf (int index) {
+			
+			if (index >= tailOffset (size))
+				return tail;
+			
+			Object[] node = root;
+			
+			for (int level = shift; level > 0; level -= BITS)
+				node = (Object[]) node[(index >>> level) & MASK];
+			
+			return node;
+			
+		}
+		
+		Object get (int index) {
+			
+			if (index < 0 || index >= size)
+				throw new IndexOutOfBoundsException ("Index " + index + " out of range [0.." + size + ")");
+			
+			return leaf (index)[index & MASK];
+			
+		}
+		
+		/**
+		 * Returns a vector with {@code value} at {@code index}, which may be the
+		 * size of this vector to append.
+		 */
+		JSONVector set (int index, Object value) {
+			
+			if (index == size)
+				return append (value);
+			else if (index < 0 || index > size)
+				throw new IndexOutOfBoundsException ("Index " + index + " out of range [0.." + size + "]");
+			
+			if (index >= tailOffset (size)) {
+				
+				Object[] tail = this.tail.clone ();
+				tail[index & MASK] = value;
+				
+				return new JSONVector (size, shift, root, tail);
+				
+			}
+			
+			return new JSONVector (size, shift, set (shift, root, index, value), tail);
+			
+		}
+		
+		private static Object[] set (int level, Object[] node, int index, Object value) {
+			
+			Object[] copy = node.clone ();
+			
+			if (level == 0)
+				copy[index & MASK] = value;
+			else {
+				
+				int child = (index >>> level) & MASK;
+				copy[child] = set (level - BITS, (Object[]) node[child], index, value);
+				
+			}
+			
+			return copy;
+			
+		}
+		
+		JSONVector append (Object value) {
+			
+			if (size - tailOffset (size) < WIDTH) {
+				
+				Object[] tail = Arrays.copyOf (this.tail, this.tail.length + 1);
+				tail[this.tail.length] = value;
+				
+				return new JSONVector (size + 1, shift, root, tail);
+				
+			}
+			
+			// the tail is full, push it into the trie and start a new one
+			
+			Object[] root;
+			int shift = this.shift;
+			
+			if ((size >>> BITS) > (1 << shift)) {
+				
+				root = new Object[WIDTH];
+				root[0] = this.root;
+				root[1] = path (shift, tail);
+				
+				shift += BITS;
+				
+			} else root = push (shift, this.root, tail);
+			
+			return new JSONVector (size + 1, shift, root, new Object[] { value });
+			
+		}
+		
+		private Object[] push (int level, Object[] parent, Object[] leaf) {
+			
+			Object[] copy = parent.clone ();
+			int child = ((size - 1) >>> level) & MASK;
+			
+			if (level == BITS)
+				copy[child] = leaf;
+			else if (parent[child] != null)
+				copy[child] = push (level - BITS, (Object[]) parent[child], leaf);
+			else
+				copy[child] = path (level - BITS, leaf);
+			
+			return copy;
+			
+		}
+		
+		private static Object[] path (int level, Object[] leaf) {
+			
+			if (level == 0)
+				return leaf;
+			
+			Object[] node = new Object[WIDTH];
+			node[0] = path (level - BITS, leaf);
+			
+			return node;
+			
+		}
+		
+		@Override
+		public Iterator<Object> iterator () {
+			
+			return new Iterator<Object> () {
+				
+				private int index = 0;
+				private Object[] leaf;
+				
+				@Override
+				public boolean hasNext () {
+					return index < size;
+				}
+				
+				@Override
+				public Object next () {
+					
+					if (index >= size)
+						throw new NoSuchElementException ();
+					
+					if ((index & MASK) == 0 || leaf == null)
+						leaf = leaf (index);
+					
+					return leaf[index++ & MASK];
+					
+				}
+				
+			};
+			
+		}
+		
+	}
\ No newline at end of file
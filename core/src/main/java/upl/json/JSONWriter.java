@@ -0,0 +1,711 @@
+	/*
+	 * Copyright (c) 2020 - 2024 UPL Foundation
+	 *
+	 * Licensed under the Apache License, Version 2.0 (the "License");
+	 * you may not use this file except in compliance with the License.
+	 * You may obtain a copy of the License at
+	 *
+	 *     http://www.apache.org/licenses/LICENSE-2.0
+	 *
+	 * Unless required by applicable law or agreed to in writing, software
+	 * distributed under the License is distributed on an "AS IS" BASIS,
+	 * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	 * See the License for the specific language governing permissions and
+	 * limitations under the License.
+	 */
+	
+	package upl.json;
+	
+	import java.io.Closeable;
+	import java.io.Flushable;
+	import java.io.IOException;
+	import java.io.OutputStream;
+	import java.io.Writer;
+	import java.nio.ByteBuffer;
+	import java.util.Arrays;
+	import java.util.List;
+	import java.util.Map;
+	import upl.math.DoubleFormat;
+	
+	/**
+	 * Streaming counterpart of {@link JSONStringer}: encodes JSON straight into a
+	 * {@link Writer}, an {@link OutputStream} or a {@link ByteBuffer} instead of
+	 * accumulating a {@code String}. Values may be written by hand, the same way
+	 * as with a stringer: <pre>
+	 * JSONWriter writer = new JSONWriter (stream);
+	 *
+	 * writer.object ()
+	 *   .key ("query").value ("Pizza")
+	 *   .key ("locations").value (locations)
+	 *   .endObject ()
+	 *   .flush ();</pre>
+	 * or a whole {@link JSONObject}/{@link JSONArray} tree may be passed to
+	 * {@link #value(Object)}.
+	 *
+	 * <p>Characters are collected in a reusable buffer and, for byte targets,
+	 * encoded to UTF-8 through a second reusable buffer when it fills up or on
+	 * {@link #flush}. Runs of characters which need no escaping are copied in
+	 * bulk, escapes are looked up in a precomputed table.
+	 *
+	 * <p>Unlike a stringer, a writer accepts scalar top-level values and several
+	 * top-level values in a row, which are separated with newlines (JSON Lines).
+	 *
+	 * <p>Instances of this class are not thread safe.
+	 */
+	public class JSONWriter implements Closeable, Flushable {
+		
+		/**
+		 * Escape sequences for ASCII characters, null for characters which are
+		 * written as is. From RFC 4627, "All Unicode characters may be placed
+		 * within the quotation marks except for the characters that must be
+		 * escaped: quotation mark, reverse solidus, and the control characters
+		 * (U+0000 through U+001F)." The solidus is escaped as well for
+		 * compatibility with {@link JSONStringer}.
+		 */
+		static final String[] REPLACEMENTS = new String[128];
+		
+		static {
+			
+			for (int i = 0; i <= 0x1F; i++)
+				REPLACEMENTS[i] = String.format ("\\u%04x", i);
+			
+			REPLACEMENTS['"'] = "\\\"";
+			REPLACEMENTS['\\'] = "\\\\";
+			REPLACEMENTS['/'] = "\\/";
+			REPLACEMENTS['\t'] = "\\t";
+			REPLACEMENTS['\b'] = "\\b";
+			REPLACEMENTS['\n'] = "\\n";
+			REPLACEMENTS['\r'] = "\\r";
+			REPLACEMENTS['\f'] = "\\f";
+			
+		}
+		
+		public static final int BUFFER_LENGTH = 8192;
+		
+		protected Writer writer;
+		protected OutputStream stream;
+		protected ByteBuffer bytes;
+		
+		protected final char[] buffer;
+		protected int count = 0;
+		
+		/**
+		 * UTF-8 scratch buffer for byte targets, three bytes per buffered char at most.
+		 */
+		protected byte[] encoded;
+		
+		/**
+		 * A string containing a full set of spaces for a single level of
+		 * indentation, or null for no pretty printing.
+		 */
+		protected final String indent;
+		
+		private JSONStringer.Scope[] stack = new JSONStringer.Scope[32];
+		private int stackSize = 0;
+		
+		private boolean hasRoot = false;
+		
+		public JSONWriter (Writer writer) {
+			this (writer, 0);
+		}
+		
+		public JSONWriter (Writer writer, int indentSpaces) {
+			
+			this (indentSpaces);
+			this.writer = writer;
+			
+		}
+		
+		/**
+		 * Writes UTF-8 encoded JSON to {@code stream}.
+		 */
+		public JSONWriter (OutputStream stream) {
+			this (stream, 0);
+		}
+		
+		public JSONWriter (OutputStream stream, int indentSpaces) {
+			
+			this (indentSpaces);
+			
+			this.stream = stream;
+			encoded = new byte[buffer.length * 3];
+			
+		}
+		
+		/**
+		 * Writes UTF-8 encoded JSON to {@code bytes}. Flushing throws
+		 * {@link java.nio.BufferOverflowException} if the buffer has no room left.
+		 */
+		public JSONWriter (ByteBuffer bytes) {
+			this (bytes, 0);
+		}
+		
+		public JSONWriter (ByteBuffer bytes, int indentSpaces) {
+			
+			this (indentSpaces);
+			
+			this.bytes = bytes;
+			encoded = new byte[buffer.length * 3];
+			
+		}
+		
+		private JSONWriter (int indentSpaces) {
+			
+			buffer = new char[BUFFER_LENGTH];
+			
+			if (indentSpaces > 0) {
+				
+				char[] indentChars = new char[indentSpaces];
+				Arrays.fill (indentChars, ' ');
+				
+				indent = new String (indentChars);
+				
+			} else indent = null;
+			
+		}
+		
+		/**
+		 * Begins encoding a new array. Each call to this method must be paired with
+		 * a call to {@link #endArray}.
+		 *
+		 * @return this writer.
+		 */
+		public JSONWriter array () {
+			return open (JSONStringer.Scope.EMPTY_ARRAY, '[');
+		}
+		
+		/**
+		 * Ends encoding the current array.
+		 *
+		 * @return this writer.
+		 */
+		public JSONWriter endArray () {
+			return close (JSONStringer.Scope.EMPTY_ARRAY, JSONStringer.Scope.NONEMPTY_ARRAY, ']');
+		}
+		
+		/**
+		 * Begins encoding a new object. Each call to this method must be paired
+		 * with a call to {@link #endObject}.
+		 *
+		 * @return this writer.
+		 */
+		public JSONWriter object () {
+			return open (JSONStringer.Scope.EMPTY_OBJECT, '{');
+		}
+		
+		/**
+		 * Ends encoding the current object.
+		 *
+		 * @return this writer.
+		 */
+		public JSONWriter endObject () {
+			return close (JSONStringer.Scope.EMPTY_OBJECT, JSONStringer.Scope.NONEMPTY_OBJECT, '}');
+		}
+		
+		private JSONWriter open (JSONStringer.Scope empty, char openBracket) {
+			
+			beforeValue ();
+			
+			if (stackSize == stack.length)
+				stack = Arrays.copyOf (stack, stackSize * 2);
+			
+			stack[stackSize++] = empty;
+			write (openBracket);
+			
+			return this;
+			
+		}
+		
+		private JSONWriter close (JSONStringer.Scope empty, JSONStringer.Scope nonempty, char closeBracket) {
+			
+			JSONStringer.Scope context = peek ();
+			
+			if (context != nonempty && context != empty)
+				throw new JSONException ("Nesting problem");
+			
+			stackSize--;
+			
+			if (context == nonempty)
+				newline ();
+			
+			write (closeBracket);
+			
+			return this;
+			
+		}
+		
+		private JSONStringer.Scope peek () {
+			
+			if (stackSize == 0)
+				throw new JSONException ("Nesting problem");
+			
+			return stack[stackSize - 1];
+			
+		}
+		
+		/**
+		 * Encodes the key (property name) to this writer.
+		 *
+		 * @param name the name of the forthcoming value. May not be null.
+		 * @return this writer.
+		 */
+		public JSONWriter key (String name) {
+			
+			if (name == null)
+				throw new JSONException ("Names must be non-null");
+			
+			JSONStringer.Scope context = peek ();
+			
+			if (context == JSONStringer.Scope.NONEMPTY_OBJECT)
+				write (',');
+			else if (context != JSONStringer.Scope.EMPTY_OBJECT)
+				throw new JSONException ("Nesting problem");
+			
+			newline ();
+			stack[stackSize - 1] = JSONStringer.Scope.DANGLING_KEY;
+			
+			string (name);
+			
+			return this;
+			
+		}
+		
+		/**
+		 * Encodes {@code value}, walking whole {@link JSONObject} and
+		 * {@link JSONArray} trees and their immutable counterparts.
+		 *
+		 * @param value a {@link JSONObject}, {@link JSONArray}, String, Boolean,
+		 *              Integer, Long, Double or null. May not be {@link Double#isNaN() NaNs}
+		 *              or {@link Double#isInfinite() infinities}.
+		 * @return this writer.
+		 */
+		public JSONWriter value (Object value) {
+			
+			if (value instanceof JSONObject) {
+				
+				object ();
+				
+				for (Map.Entry<String, Object> entry : ((JSONObject) value).entrySet ())
+					key (entry.getKey ()).value (entry.getValue ());
+				
+				return endObject ();
+				
+			} else if (value instanceof JSONArray) {
+				
+				array ();
+				
+				List<Object> items = ((JSONArray) value).getList ();
+				
+				if (items instanceof JSONNumberList && ((JSONNumberList) items).getKind () != JSONNumberList.OBJECT) {
+					
+					JSONNumberList numbers = (JSONNumberList) items;
+					
+					for (int i = 0; i < numbers.size (); i++)
+						if (numbers.getKind () == JSONNumberList.DOUBLE)
+							value (numbers.getDouble (i));
+						else
+							value (numbers.getLong (i));
+					
+				} else for (Object item : items)
+					value (item);
+				
+				return endArray ();
+				
+			} else if (value instanceof ImmutableJSONObject) {
+				
+				((ImmutableJSONObject) value).writeTo (this);
+				return this;
+				
+			} else if (value instanceof ImmutableJSONArray) {
+				
+				((ImmutableJSONArray) value).writeTo (this);
+				return this;
+				
+			} else if (value instanceof Integer || value instanceof Long) {
+				return value (((Number) value).longValue ());
+			} else if (value instanceof Double) {
+				return value (((Double) value).doubleValue ());
+			}
+			
+			beforeValue ();
+			
+			if (value == null || value == JSONObject.NULL)
+				write ("null");
+			else if (value instanceof Boolean)
+				write ((Boolean) value ? "true" : "false");
+			else if (value instanceof Number)
+				write (JSONObject.numberToString ((Number) value));
+			else
+				string (value.toString ());
+			
+			return this;
+			
+		}
+		
+		/**
+		 * Encodes {@code value} to this writer.
+		 *
+		 * @return this writer.
+		 */
+		public JSONWriter value (boolean value) {
+			
+			beforeValue ();
+			write (value ? "true" : "false");
+			
+			return this;
+			
+		}
+		
+		/**
+		 * Encodes {@code value} to this writer.
+		 *
+		 * @param value a finite value. May not be {@link Double#isNaN() NaNs} or
+		 *              {@link Double#isInfinite() infinities}.
+		 * @return this writer.
+		 */
+		public JSONWriter value (double value) {
+			
+			JSONArray.checkDouble (value);
+			
+			long longValue = (long) value;
+			
+			if (value == (double) longValue && (longValue != 0 || Double.doubleToRawLongBits (value) == 0))
+				return value (longValue);
+			
+			beforeValue ();
+			
+			if (value == 0) // the original writes "-0" instead of "-0.0" for negative zero
+				write ("-0");
+			else {
+				
+				if (count + DoubleFormat.MAX_CHARS > buffer.length)
+					flushBuffer (false);
+				
+				count = DoubleFormat.toChars (value, buffer, count);
+				
+			}
+			
+			return this;
+			
+		}
+		
+		/**
+		 * Encodes {@code value} to this writer without allocating.
+		 *
+		 * @return this writer.
+		 */
+		public JSONWriter value (long value) {
+			
+			beforeValue ();
+			
+			if (value == Long.MIN_VALUE) {
+				
+				write ("-9223372036854775808");
+				return this;
+				
+			}
+			
+			if (count + 20 > buffer.length)
+				flushBuffer (false);
+			
+			if (value < 0) {
+				
+				buffer[count++] = '-';
+				value = -value;
+				
+			}
+			
+			int end = count + digits (value);
+			int index = end;
+			
+			do {
+				
+				buffer[--index] = (char) ('0' + (value % 10));
+				value /= 10;
+				
+			} while (value != 0);
+			
+			count = end;
+			
+			return this;
+			
+		}
+		
+		private static int digits (long value) {
+			
+			int digits = 1;
+			
+			while (value >= 10) {
+				
+				value /= 10;
+				digits++;
+				
+			}
+			
+			return digits;
+			
+		}
+		
+		/**
+		 * Encodes {@code value} as a quoted and escaped string.
+		 *
+		 * @return this writer.
+		 */
+		public JSONWriter value (String value) {
+			
+			if (value == null)
+				return value ((Object) null);
+			
+			beforeValue ();
+			string (value);
+			
+			return this;
+			
+		}
+		
+		private void string (String value) {
+			
+			write ('"');
+			
+			int last = 0, length = value.length ();
+			
+			for (int i = 0; i < length; i++) {
+				
+				char c = value.charAt (i);
+				
+				if (c >= 128) continue;
+				
+				String replacement = REPLACEMENTS[c];
+				
+				if (replacement == null) continue;
+				
+				if (last < i)
+					write (value, last, i - last);
+				
+				write (replacement);
+				
+				last = i + 1;
+				
+			}
+			
+			if (last < length)
+				write (value, last, length - last);
+			
+			write ('"');
+			
+		}
+		
+		private void newline () {
+			
+			if (indent == null) return;
+			
+			write ('\n');
+			
+			for (int i = 0; i < stackSize; i++)
+				write (indent);
+			
+		}
+		
+		/**
+		 * Inserts any necessary separators and whitespace before a literal value,
+		 * inline array, or inline object. Also adjusts the stack to expect either a
+		 * closing bracket or another element.
+		 */
+		private void beforeValue () {
+			
+			if (stackSize == 0) {
+				
+				if (hasRoot) write ('\n');
+				
+				hasRoot = true;
+				
+				return;
+				
+			}
+			
+			JSONStringer.Scope context = peek ();
+			
+			if (context == JSONStringer.Scope.EMPTY_ARRAY) { // first in array
+				
+				stack[stackSize - 1] = JSONStringer.Scope.NONEMPTY_ARRAY;
+				newline ();
+				
+			} else if (context == JSONStringer.Scope.NONEMPTY_ARRAY) { // another in array
+				
+				write (',');
+				newline ();
+				
+			} else if (context == JSONStringer.Scope.DANGLING_KEY) { // value for key
+				
+				write (indent == null ? ":" : ": ");
+				stack[stackSize - 1] = JSONStringer.Scope.NONEMPTY_OBJECT;
+				
+			} else throw new JSONException ("Nesting problem");
+			
+		}
+		
+		private void write (char c) {
+			
+			if (count == buffer.length)
+				flushBuffer (false);
+			
+			buffer[count++] = c;
+			
+		}
+		
+		private void write (String str) {
+			write (str, 0, str.length ());
+		}
+		
+		private void write (String str, int offset, int length) {
+			
+			while (length > 0) {
+				
+				if (count == buffer.length)
+					flushBuffer (false);
+				
+				int chunk = Math.min (length, buffer.length - count);
+				
+				str.getChars (offset, offset + chunk, buffer, count);
+				
+				count += chunk;
+				offset += chunk;
+				length -= chunk;
+				
+			}
+			
+		}
+		
+		/**
+		 * Hands buffered characters to the target. A trailing high surrogate is
+		 * kept back unless {@code last} so that pairs are never split between two
+		 * encoding passes.
+		 */
+		protected void flushBuffer (boolean last) {
+			
+			try {
+				
+				if (writer != null) {
+					
+					writer.write (buffer, 0, count);
+					count = 0;
+					
+				} else {
+					
+					int length = count;
+					
+					if (!last && length > 0 && Character.isHighSurrogate (buffer[length - 1]))
+						length--;
+					
+					int total = encode (length);
+					
+					if (stream != null)
+						stream.write (encoded, 0, total);
+					else
+						bytes.put (encoded, 0, total);
+					
+					System.arraycopy (buffer, length, buffer, 0, count - length);
+					count -= length;
+					
+				}
+				
+			} catch (IOException e) {
+				throw new JSONException (e.getMessage ());
+			}
+			
+		}
+		
+		/**
+		 * Encodes the first {@code length} buffered chars to UTF-8.
+		 *
+		 * @return the number of bytes produced.
+		 */
+		private int encode (int length) {
+			
+			byte[] out = encoded;
+			int total = 0;
+			
+			for (int i = 0; i < length; i++) {
+				
+				char c = buffer[i];
+				
+				if (c < 0x80)
+					out[total++] = (byte) c;
+				else if (c < 0x800) {
+					
+					out[total++] = (byte) (0xC0 | (c >> 6));
+					out[total++] = (byte) (0x80 | (c & 0x3F));
+					
+				} else if (Character.isHighSurrogate (c) && i + 1 < length && Character.isLowSurrogate (buffer[i + 1])) {
+					
+					int codePoint = Character.toCodePoint (c, buffer[++i]);
+					
+					out[total++] = (byte) (0xF0 | (codePoint >> 18));
+					out[total++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+					out[total++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+					out[total++] = (byte) (0x80 | (codePoint & 0x3F));
+					
+				} else if (Character.isSurrogate (c)) {
+					out[total++] = '?'; // unpaired surrogate, same as the JDK encoder
+				} else {
+					
+					out[total++] = (byte) (0xE0 | (c >> 12));
+					out[total++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+					out[total++] = (byte) (0x80 | (c & 0x3F));
+					
+				}
+				
+			}
+			
+			return total;
+			
+		}
+		
+		/**
+		 * Discards buffered output and nesting state so that the writer can be
+		 * reused for a new document.
+		 */
+		public JSONWriter reset () {
+			
+			count = 0;
+			stackSize = 0;
+			hasRoot = false;
+			
+			return this;
+			
+		}
+		
+		/**
+		 * Hands all buffered output to the target and flushes it.
+		 */
+		@Override
+		public void flush () {
+			
+			flushBuffer (true);
+			
+			try {
+				
+				if (writer != null)
+					writer.flush ();
+				else if (stream != null)
+					stream.flush ();
+				
+			} catch (IOException e) {
+				throw new JSONException (e.getMessage ());
+			}
+			
+		}
+		
+		@Override
+		public void close () throws IOException {
+			
+			flush ();
+			
+			if (writer != null)
+				writer.close ();
+			else if (stream != null)
+				stream.close ();
+			
+		}
+		
+	}
\ No newline at end of file
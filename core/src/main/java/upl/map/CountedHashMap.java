@@ -16,6 +16,13 @@
 	
 	package upl.map;
 	
+	import java.util.AbstractMap;
+	import java.util.ArrayList;
+	import java.util.Collections;
+	import java.util.List;
+	import java.util.Map;
+	import java.util.PriorityQueue;
+	
 	public class CountedHashMap<K extends Comparable<K>> extends ValuesSortedHashMap<K, Integer> {
 		
 		public CountedHashMap<K> put (K key) {
@@ -33,4 +40,35 @@
 			
 		}
 		
+		/**
+		 * Returns the (up to) {@code k} most counted entries, greatest first.
+		 * Unlike {@link #rsort()} it doesn't reorder the map, keeping only
+		 * {@code k} entries in a heap while scanning it. See {@link StreamCounter}
+		 * for a concurrent and bounded memory counter.
+		 */
+		public List<Map.Entry<K, Integer>> top (int k) {
+			
+			List<Map.Entry<K, Integer>> result = new ArrayList<> ();
+			
+			if (k < 1) return result;
+			
+			PriorityQueue<Map.Entry<K, Integer>> heap = new PriorityQueue<> (k + 1, Map.Entry.comparingByValue ());
+			
+			for (Map.Entry<K, Integer> entry : entrySet ())
+				if (heap.size () < k)
+					heap.add (new AbstractMap.SimpleImmutableEntry<> (entry));
+				else if (entry.getValue () > heap.peek ().getValue ()) {
+					
+					heap.poll ();
+					heap.add (new AbstractMap.SimpleImmutableEntry<> (entry));
+					
+				}
+			
+			result.addAll (heap);
+			result.sort (Collections.reverseOrder (Map.Entry.comparingByValue ()));
+			
+			return result;
+			
+		}
+		
 	}
\ No newline at end of file
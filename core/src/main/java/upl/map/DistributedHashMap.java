@@ -16,78 +16,92 @@
 	
 	package upl.map;
 	
-	import java.util.Iterator;
-	import java.util.SortedMap;
-	import java.util.TreeMap;
 	import upl.core.Hash;
-	import upl.core.Log;
+	import upl.hash.HashFunction;
+	import upl.hash.HashRing;
 	import upl.json.JSONObject;
 	
 	/**
 	 * Distributed Hash Table (DHT) implementation.
 	 *
-	 * Named as DistributedHashMap because of based on TreeMap instead of Hashtable and to avoid names confusion.
+	 * Named as DistributedHashMap because of based on a hash ring instead of Hashtable and to avoid names confusion. The
+	 * ring is a {@link HashRing}, see it for the lookup strategies. This class used to be the {@code TreeMap} of the ring
+	 * points itself; it isn't a {@link java.util.Map} anymore, the points are reached through {@link #getRing}.
 	 */
-	public class DistributedHashMap extends TreeMap<Long, DistributedHashMap.Node> {
+	public class DistributedHashMap {
 		
+		protected final HashRing<Node> ring = new HashRing<> ();
 		protected int replicationFactor;
-		protected Hash hashFunction;
 		
 		public DistributedHashMap () {
 			this (1);
 		}
 		
 		public DistributedHashMap (int replicationFactor) {
+			
+			if (replicationFactor < 1)
+				throw new IllegalArgumentException ("Replication factor must be at least 1: " + replicationFactor);
+			
 			this.replicationFactor = replicationFactor;
+			
 		}
 		
 		public DistributedHashMap setHash (Hash hash) {
+			return setHash (HashFunction.of (hash));
+		}
+		
+		public DistributedHashMap setHash (HashFunction hash) {
 			
-			hashFunction = hash;
+			ring.setHash (hash);
 			return this;
 			
 		}
 		
-		public void put (Node node) {
+		public DistributedHashMap setStrategy (HashRing.Strategy strategy) {
 			
-			for (int i = 1; i <= replicationFactor; i++) {
-				
-				node.replicaId = i;
-				
-				put (getHash (node.getKey () + "-" + node.replicaId), node);
-				
-			}
+			ring.setStrategy (strategy);
+			return this;
 			
 		}
 		
-		protected long getHash (String key) {
+		public HashRing<Node> getRing () {
+			return ring;
+		}
+		
+		/**
+     * Adds {@code node} with {@code replicationFactor} replicas. Putting it again
+     * changes nothing, putting another node with the same key replaces it.
+     */
+		public void put (Node node) {
 			
-			if (hashFunction == null)
-				hashFunction = new Hash ();
+			String key = node.getKey ();
 			
-			return hashFunction.process (key).toLong ();
+			synchronized (ring) {
+				
+				if (ring.contains (key) && ring.getNode (key) != node)
+					ring.remove (key);
+				
+				int missing = replicationFactor - ring.getReplicas (key);
+				
+				if (missing > 0)
+					ring.add (key, node, missing);
+				
+				node.replicaId = ring.getReplicas (key) - 1;
+				
+			}
 			
 		}
 		
+		/**
+     * Returns the node serving the last replica of {@code node}, the node itself
+     * while it is in the ring.
+     */
 		public Node get (Node node) {
 			return get (node.getKey () + "-" + node.replicaId);
 		}
 		
 		public Node get (String key) {
-			
-			long hash = getHash (key);
-			
-			if (isEmpty ()) return null;
-			
-			if (!containsKey (hash)) {
-				
-				SortedMap<Long, Node> tailMap = tailMap (hash);
-				hash = tailMap.isEmpty () ? firstKey () : tailMap.firstKey ();
-				
-			}
-			
-			return get (hash);
-			
+			return ring.get (key);
 		}
 		
 		/**
@@ -96,13 +110,15 @@
      * @param pNode Physical node
      */
 		public void remove (Node pNode) {
-			
-			Iterator<Long> it = keySet ().iterator ();
-			
-			while (it.hasNext ())
-				if (get (it.next ()).equals (pNode))
-					it.remove ();
-			
+			ring.remove (pNode.getKey ());
+		}
+		
+		public boolean isEmpty () {
+			return ring.isEmpty ();
+		}
+		
+		public int size () {
+			return ring.size ();
 		}
 		
 		public static abstract class Node extends JSONObject {
@@ -16,14 +16,23 @@
 	
 	package upl.map;
 	
+	import java.util.AbstractMap;
+	import java.util.ArrayList;
 	import java.util.Comparator;
-	import java.util.LinkedList;
 	import java.util.List;
 	import java.util.Map;
 	import upl.util.LinkedHashMap;
 	
 	public class KeysSortedHashMap<K extends Comparable<K>, V> extends LinkedHashMap<K, V> {
 		
+		public KeysSortedHashMap () {
+			super ();
+		}
+		
+		protected KeysSortedHashMap (java.util.Map<K, V> object) {
+			super (object);
+		}
+		
 		/**
      * Sorts current map by keys in ascending order
      */
@@ -61,46 +70,49 @@
      */
 		public KeysSortedHashMap<K, V> sort (Comparator<K> comparator) {
 			
-			List<K> list = new LinkedList<> (keySet ());
+			List<Map.Entry<K, V>> list = new ArrayList<> (size ());
 			
-			list.sort (comparator);
+			for (Map.Entry<K, V> entry : entrySet ()) // copies, the entries may be views of the storage
+				list.add (new AbstractMap.SimpleEntry<> (entry.getKey (), entry.getValue ()));
 			
-			Map<K, V> map = this;
+			list.sort ((o1, o2) -> comparator.compare (o1.getKey (), o2.getKey ()));
 			
 			clear ();
 			
-			for (K key : list)
-				put (key, map.get (key));
+			for (Map.Entry<K, V> entry : list)
+				put (entry.getKey (), entry.getValue ());
 			
 			return this;
 			
 		}
 		
 		/**
-     * Gets max key from map
+     * Gets max key from map, leaving the order as it is
      */
 		public K max () {
 			
-			Map<K, V> map = rsort ();
+			K max = null;
 			
-			for (K key : map.keySet ())
-				return key;
+			for (K key : keySet ())
+				if (max == null || key.compareTo (max) > 0)
+					max = key;
 			
-			return null;
+			return max;
 			
 		}
 		
 		/**
-     * Gets min key from map
+     * Gets min key from map, leaving the order as it is
      */
 		public K min () {
 			
-			Map<K, V> map = sort ();
+			K min = null;
 			
-			for (K key : map.keySet ())
-				return key;
+			for (K key : keySet ())
+				if (min == null || key.compareTo (min) < 0)
+					min = key;
 			
-			return null;
+			return min;
 			
 		}
 		
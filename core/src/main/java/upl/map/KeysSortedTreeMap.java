@@ -0,0 +1,205 @@
+	/*
+	 * Copyright (c) 2020 - 2024 UPL Foundation
+	 *
+	 * Licensed under the Apache License, Version 2.0 (the "License");
+	 * you may not use this file except in compliance with the License.
+	 * You may obtain a copy of the License at
+	 *
+	 *     http://www.apache.org/licenses/LICENSE-2.0
+	 *
+	 * Unless required by applicable law or agreed to in writing, software
+	 * distributed under the License is distributed on an "AS IS" BASIS,
+	 * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	 * See the License for the specific language governing permissions and
+	 * limitations under the License.
+	 */
+	
+	package upl.map;
+	
+	import java.util.Collections;
+	import java.util.Comparator;
+	import java.util.NavigableMap;
+	import java.util.NavigableSet;
+	import java.util.TreeMap;
+	
+	/**
+	 * {@link KeysSortedHashMap} which keeps its keys sorted all the time in a
+	 * red-black tree instead of sorting on request. Insertion, removal, {@link
+	 * #min}, {@link #max} and the floor, ceiling and range lookups take
+	 * O(log n), and iteration is always in key order. {@link #sort()} and
+	 * {@link #rsort()} only switch the order used from then on.
+	 */
+	public class KeysSortedTreeMap<K extends Comparable<K>, V> extends KeysSortedHashMap<K, V> {
+		
+		public KeysSortedTreeMap () {
+			super (new TreeMap<> ());
+		}
+		
+		public KeysSortedTreeMap (Comparator<? super K> comparator) {
+			super (new TreeMap<> (comparator));
+		}
+		
+		private TreeMap<K, V> tree () {
+			return (TreeMap<K, V>) object;
+		}
+		
+		/**
+		 * Keeps the keys in ascending order from now on.
+		 */
+		@Override
+		public KeysSortedTreeMap<K, V> sort () {
+			return reorder (null);
+		}
+		
+		/**
+		 * Keeps the keys in descending order from now on.
+		 */
+		@Override
+		public KeysSortedTreeMap<K, V> rsort () {
+			return reorder (Collections.reverseOrder ());
+		}
+		
+		/**
+		 * Keeps the keys in the order of {@code comparator} from now on.
+		 */
+		@Override
+		public KeysSortedTreeMap<K, V> sort (Comparator<K> comparator) {
+			return reorder (comparator);
+		}
+		
+		private KeysSortedTreeMap<K, V> reorder (Comparator<? super K> comparator) {
+			
+			if (tree ().comparator () != comparator) {
+				
+				TreeMap<K, V> tree = new TreeMap<> (comparator);
+				
+				tree.putAll (object);
+				object = tree;
+				
+			}
+			
+			return this;
+			
+		}
+		
+		/**
+		 * Returns the greatest key by the natural order, or null if the map is
+		 * empty.
+		 */
+		@Override
+		public K max () {
+			
+			if (isEmpty ())
+				return null;
+			
+			Comparator<? super K> comparator = tree ().comparator ();
+			
+			if (comparator == null)
+				return tree ().lastKey ();
+			else if (comparator == Collections.reverseOrder ())
+				return tree ().firstKey ();
+			
+			return super.max ();
+			
+		}
+		
+		/**
+		 * Returns the least key by the natural order, or null if the map is
+		 * empty.
+		 */
+		@Override
+		public K min () {
+			
+			if (isEmpty ())
+				return null;
+			
+			Comparator<? super K> comparator = tree ().comparator ();
+			
+			if (comparator == null)
+				return tree ().firstKey ();
+			else if (comparator == Collections.reverseOrder ())
+				return tree ().lastKey ();
+			
+			return super.min ();
+			
+		}
+		
+		/**
+		 * Returns the first key in the order of the map, or null if it's empty.
+		 */
+		public K firstKey () {
+			return isEmpty () ? null : tree ().firstKey ();
+		}
+		
+		/**
+		 * Returns the last key in the order of the map, or null if it's empty.
+		 */
+		public K lastKey () {
+			return isEmpty () ? null : tree ().lastKey ();
+		}
+		
+		/**
+		 * Returns the greatest key less than or equal to {@code key} in the order
+		 * of the map, or null.
+		 */
+		public K floorKey (K key) {
+			return tree ().floorKey (key);
+		}
+		
+		/**
+		 * Returns the least key greater than or equal to {@code key} in the order
+		 * of the map, or null.
+		 */
+		public K ceilingKey (K key) {
+			return tree ().ceilingKey (key);
+		}
+		
+		/**
+		 * Returns the greatest key strictly less than {@code key} in the order of
+		 * the map, or null.
+		 */
+		public K lowerKey (K key) {
+			return tree ().lowerKey (key);
+		}
+		
+		/**
+		 * Returns the least key strictly greater than {@code key} in the order of
+		 * the map, or null.
+		 */
+		public K higherKey (K key) {
+			return tree ().higherKey (key);
+		}
+		
+		/**
+		 * Returns a read-only live view of the mappings from {@code from}
+		 * inclusive to {@code to} exclusive. Views are read-only so that values
+		 * are only stored through {@link #put}, which checks them.
+		 */
+		public NavigableMap<K, V> range (K from, K to) {
+			return Collections.unmodifiableNavigableMap (tree ().subMap (from, true, to, false));
+		}
+		
+		/**
+		 * Returns a read-only live view of the mappings before {@code to},
+		 * exclusive.
+		 */
+		public NavigableMap<K, V> head (K to) {
+			return Collections.unmodifiableNavigableMap (tree ().headMap (to, false));
+		}
+		
+		/**
+		 * Returns a read-only live view of the mappings from {@code from},
+		 * inclusive.
+		 */
+		public NavigableMap<K, V> tail (K from) {
+			return Collections.unmodifiableNavigableMap (tree ().tailMap (from, true));
+		}
+		
+		/**
+		 * Returns the keys in reverse order, without reordering the map.
+		 */
+		public NavigableSet<K> descendingKeySet () {
+			return tree ().descendingKeySet ();
+		}
+		
+	}
\ No newline at end of file
@@ -0,0 +1,939 @@
+	/*
+	 * Copyright (c) 2020 - 2024 UPL Foundation
+	 *
+	 * Licensed under the Apache License, Version 2.0 (the "License");
+	 * you may not use this file except in compliance with the License.
+	 * You may obtain a copy of the License at
+	 *
+	 *     http://www.apache.org/licenses/LICENSE-2.0
+	 *
+	 * Unless required by applicable law or agreed to in writing, software
+	 * distributed under the License is distributed on an "AS IS" BASIS,
+	 * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	 * See the License for the specific language governing permissions and
+	 * limitations under the License.
+	 */
+	
+	package upl.map;
+	
+	import java.io.Closeable;
+	import java.io.File;
+	import java.io.IOException;
+	import java.nio.ByteBuffer;
+	import java.nio.MappedByteBuffer;
+	import java.nio.channels.FileChannel;
+	import java.nio.charset.StandardCharsets;
+	import java.nio.file.Files;
+	import java.nio.file.Path;
+	import java.nio.file.Paths;
+	import java.nio.file.StandardCopyOption;
+	import java.nio.file.StandardOpenOption;
+	import java.util.Arrays;
+	import java.util.concurrent.ThreadLocalRandom;
+	import java.util.concurrent.locks.ReadWriteLock;
+	import java.util.concurrent.locks.ReentrantReadWriteLock;
+	import java.util.function.BiConsumer;
+	import upl.json.JSONObject;
+	
+	/**
+	 * Off-heap hash map kept in memory-mapped files, for lookup tables too large
+	 * to live on the heap without long GC pauses.
+	 *
+	 * <p>Entries are appended as serialized key and value bytes to the data
+	 * {@code file}, which is a log: an update appends a new record and a removal
+	 * appends a removal record. The {@code file.index} next to it is an
+	 * open-addressing table (linear probing) of record offsets and key hashes.
+	 * Both files are mapped in chunks of 1 GB, so their size is only bound by
+	 * the address space, and nothing but the lock lives on the heap.
+	 *
+	 * <p>Reopening a map maps both files and is ready: the index header records
+	 * how much of the log it covers, and only records appended after that are
+	 * replayed. A missing or foreign index is rebuilt from the whole log. Data
+	 * is written to the mapped pages, which the OS saves to the files on its own
+	 * schedule; {@link #flush} forces them to the disk. Records superseded by
+	 * later ones stay in the log until {@link #compact}.
+	 *
+	 * <p>Any number of threads may read concurrently, writers get exclusive
+	 * access. Keys are compared by their serialized bytes.
+	 *
+	 * Example usage: <pre>
+	 * try (MappedHashMap&lt;String, JSONObject&gt; items = new MappedHashMap&lt;&gt; (new File ("items.map"), MappedHashMap.Serializer.STRING, MappedHashMap.Serializer.JSON)) {
+	 *
+	 *   items.put (url, metadata);
+	 *   JSONObject item = items.get (url);
+	 *
+	 * }</pre>
+	 *
+	 * @param <K> the type of keys
+	 * @param <V> the type of values
+	 */
+	public class MappedHashMap<K, V> implements Closeable {
+		
+		/**
+		 * Converts keys and values to bytes and back.
+		 */
+		public interface Serializer<T> {
+			
+			byte[] write (T value);
+			
+			/**
+			 * Reads a value from the bytes between the position and the limit of
+			 * {@code bytes}, a read-only view which is usually mapped memory.
+			 */
+			T read (ByteBuffer bytes);
+			
+			Serializer<String> STRING = new Serializer<String> () {
+				
+				@Override
+				public byte[] write (String value) {
+					return value.getBytes (StandardCharsets.UTF_8);
+				}
+				
+				@Override
+				public String read (ByteBuffer bytes) {
+					return StandardCharsets.UTF_8.decode (bytes).toString ();
+				}
+				
+			};
+			
+			Serializer<Long> LONG = new Serializer<Long> () {
+				
+				@Override
+				public byte[] write (Long value) {
+					return ByteBuffer.allocate (Long.BYTES).putLong (value).array ();
+				}
+				
+				@Override
+				public Long read (ByteBuffer bytes) {
+					return bytes.getLong (bytes.position ());
+				}
+				
+			};
+			
+			/**
+			 * Compact UTF-8 JSON, parsed straight from the mapped bytes.
+			 */
+			Serializer<JSONObject> JSON = new Serializer<JSONObject> () {
+				
+				@Override
+				public byte[] write (JSONObject value) {
+					return value.toString ().getBytes (StandardCharsets.UTF_8);
+				}
+				
+				@Override
+				public JSONObject read (ByteBuffer bytes) {
+					return new JSONObject (bytes);
+				}
+				
+			};
+			
+		}
+		
+		private static final long DATA_MAGIC = 0x55504C4D48440001L, INDEX_MAGIC = 0x55504C4D48490001L;
+		
+		/**
+		 * Data header: magic, generation, end of the log.
+		 */
+		private static final int DATA_HEADER = 64;
+		
+		/**
+		 * Index header: magic, generation, capacity, size, used slots, end of the
+		 * log covered by the index.
+		 */
+		private static final int INDEX_HEADER = 64;
+		
+		/**
+		 * Index slot: record offset (or {@link #FREE}, {@link #DELETED}) and key
+		 * hash.
+		 */
+		private static final int SLOT = 16;
+		
+		private static final long FREE = 0, DELETED = -1;
+		
+		/**
+		 * Record header: key length and value length, -1 for a removal.
+		 */
+		private static final int RECORD_HEADER = 8;
+		
+		protected final Path dataPath, indexPath;
+		protected final Serializer<K> keySerializer;
+		protected final Serializer<V> valueSerializer;
+		
+		private final ReadWriteLock lock = new ReentrantReadWriteLock ();
+		
+		private Region data, index;
+		
+		private long generation, capacity, size, used, dataEnd;
+		
+		public MappedHashMap (File file, Serializer<K> keySerializer, Serializer<V> valueSerializer) throws IOException {
+			this (file, keySerializer, valueSerializer, 1024);
+		}
+		
+		/**
+		 * Opens the map stored in {@code file}, creating it if missing.
+		 *
+		 * @param capacity expected number of entries of a new map.
+		 * @throws IOException if the file can't be mapped or is not a map.
+		 */
+		public MappedHashMap (File file, Serializer<K> keySerializer, Serializer<V> valueSerializer, long capacity) throws IOException {
+			
+			this.keySerializer = keySerializer;
+			this.valueSerializer = valueSerializer;
+			
+			dataPath = file.toPath ();
+			indexPath = Paths.get (file.getPath () + ".index");
+			
+			boolean exists = Files.exists (dataPath) && Files.size (dataPath) > 0;
+			
+			if (exists && Files.size (dataPath) < DATA_HEADER)
+				throw new IOException (file + " is not a mapped hash map");
+			
+			data = new Region (dataPath, DATA_HEADER);
+			
+			if (!exists) {
+				
+				generation = ThreadLocalRandom.current ().nextLong ();
+				dataEnd = DATA_HEADER;
+				
+				data.putLong (0, DATA_MAGIC);
+				data.putLong (8, generation);
+				data.putLong (16, dataEnd);
+				
+			} else if (data.getLong (0) != DATA_MAGIC) {
+				
+				data.close ();
+				throw new IOException (file + " is not a mapped hash map");
+				
+			} else {
+				
+				generation = data.getLong (8);
+				dataEnd = data.getLong (16);
+				
+			}
+			
+			openIndex (capacity);
+			
+		}
+		
+		/**
+		 * Maps the index if it matches the log, or builds it, then replays the
+		 * records it doesn't cover yet.
+		 */
+		private void openIndex (long capacity) throws IOException {
+			
+			long covered = DATA_HEADER;
+			
+			if (Files.exists (indexPath) && Files.size (indexPath) >= INDEX_HEADER) {
+				
+				index = new Region (indexPath, INDEX_HEADER);
+				
+				if (index.getLong (0) == INDEX_MAGIC && index.getLong (8) == generation && index.getLong (40) <= dataEnd) {
+					
+					this.capacity = index.getLong (16);
+					size = index.getLong (24);
+					used = index.getLong (32);
+					covered = index.getLong (40);
+					
+				} else {
+					
+					index.close ();
+					index = null;
+					
+				}
+				
+			}
+			
+			if (index == null) {
+				
+				Files.deleteIfExists (indexPath);
+				
+				this.capacity = tableSize (capacity);
+				size = 0;
+				used = 0;
+				
+				index = createIndex (indexPath, this.capacity);
+				
+			}
+			
+			for (long position = covered; position < dataEnd; position += recordLength (position)) {
+				
+				byte[] key = new byte[data.getInt (position)];
+				
+				data.get (position + RECORD_HEADER, key, 0, key.length);
+				
+				apply (key, hash (key), position, data.getInt (position + 4) < 0);
+				
+			}
+			
+			commit ();
+			
+		}
+		
+		private Region createIndex (Path path, long capacity) throws IOException {
+			
+			Region index = new Region (path, INDEX_HEADER + capacity * SLOT);
+			
+			index.putLong (0, INDEX_MAGIC);
+			index.putLong (8, generation);
+			index.putLong (16, capacity);
+			
+			return index;
+			
+		}
+		
+		private static long tableSize (long capacity) {
+			return Math.max (16, Long.highestOneBit (Math.max (1, capacity + capacity / 3) - 1) << 1);
+		}
+		
+		private static long align (long length) {
+			return (length + 7) & ~7L;
+		}
+		
+		private long recordLength (long position) {
+			return align (RECORD_HEADER + data.getInt (position) + Math.max (0, data.getInt (position + 4)));
+		}
+		
+		private static long slot (long i) {
+			return INDEX_HEADER + i * SLOT;
+		}
+		
+		/**
+		 * FNV-1a with a final mix, stable across runs as it is stored.
+		 */
+		private static long hash (byte[] bytes) {
+			
+			long hash = 0xCBF29CE484222325L;
+			
+			for (byte b : bytes) {
+				
+				hash ^= b & 0xFF;
+				hash *= 0x100000001B3L;
+				
+			}
+			
+			hash ^= hash >>> 33;
+			hash *= 0xFF51AFD7ED558CCDL;
+			
+			return hash ^ (hash >>> 33);
+			
+		}
+		
+		private boolean keyEquals (long position, byte[] key) {
+			return data.getInt (position) == key.length && data.slice (position + RECORD_HEADER, key.length).equals (ByteBuffer.wrap (key));
+		}
+		
+		/**
+		 * Returns the slot of {@code key}, or -1.
+		 */
+		private long find (byte[] key, long hash) {
+			
+			long mask = capacity - 1;
+			
+			for (long i = hash & mask; ; i = (i + 1) & mask) {
+				
+				long ref = index.getLong (slot (i));
+				
+				if (ref == FREE)
+					return -1;
+				else if (ref != DELETED && index.getLong (slot (i) + 8) == hash && keyEquals (ref, key))
+					return i;
+				
+			}
+			
+		}
+		
+		/**
+		 * Points the slot of {@code key} to the record at {@code position}, or
+		 * frees it for a removal.
+		 */
+		private void apply (byte[] key, long hash, long position, boolean removal) throws IOException {
+			
+			long slot = find (key, hash);
+			
+			if (slot >= 0) {
+				
+				if (removal) {
+					
+					index.putLong (slot (slot), DELETED);
+					size--;
+					
+				} else index.putLong (slot (slot), position);
+				
+			} else if (!removal) {
+				
+				if ((used + 1) * 4 > capacity * 3)
+					rehash (size * 2 > capacity ? capacity * 2 : capacity);
+				
+				if (insert (index, capacity, hash, position))
+					used++;
+				
+				size++;
+				
+			}
+			
+		}
+		
+		/**
+		 * Stores a record offset in the first free or deleted slot, returning
+		 * whether a free one was taken.
+		 */
+		private static boolean insert (Region index, long capacity, long hash, long position) {
+			
+			long mask = capacity - 1, i = hash & mask, ref;
+			
+			while ((ref = index.getLong (slot (i))) != FREE && ref != DELETED)
+				i = (i + 1) & mask;
+			
+			index.putLong (slot (i), position);
+			index.putLong (slot (i) + 8, hash);
+			
+			return ref == FREE;
+			
+		}
+		
+		/**
+		 * Rebuilds the index with {@code capacity} slots, dropping the deleted
+		 * ones.
+		 */
+		private void rehash (long capacity) throws IOException {
+			
+			Path path = Paths.get (indexPath + ".tmp");
+			
+			Files.deleteIfExists (path);
+			
+			Region index = createIndex (path, capacity);
+			
+			for (long i = 0; i < this.capacity; i++) {
+				
+				long ref = this.index.getLong (slot (i));
+				
+				if (ref != FREE && ref != DELETED)
+					insert (index, capacity, this.index.getLong (slot (i) + 8), ref);
+				
+			}
+			
+			this.capacity = capacity;
+			used = size;
+			
+			replaceIndex (index, path);
+			
+		}
+		
+		private void replaceIndex (Region index, Path path) throws IOException {
+			
+			index.putLong (24, size);
+			index.putLong (32, used);
+			index.putLong (40, this.index.getLong (40));
+			index.force ();
+			index.close ();
+			
+			this.index.close ();
+			
+			Files.move (path, indexPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			
+			this.index = new Region (indexPath, INDEX_HEADER);
+			
+		}
+		
+		/**
+		 * Appends a record, {@code value} null meaning a removal.
+		 */
+		private long append (byte[] key, byte[] value) throws IOException {
+			
+			long position = dataEnd;
+			long length = align (RECORD_HEADER + key.length + (value != null ? value.length : 0));
+			
+			if (position + length > data.length ())
+				data.map (position + length + Math.min (data.length (), Region.CHUNK));
+			
+			data.putInt (position, key.length);
+			data.putInt (position + 4, (value != null ? value.length : -1));
+			data.put (position + RECORD_HEADER, key);
+			
+			if (value != null)
+				data.put (position + RECORD_HEADER + key.length, value);
+			
+			dataEnd = position + length;
+			data.putLong (16, dataEnd);
+			
+			return position;
+			
+		}
+		
+		/**
+		 * Saves the counters to the index header, marking the log as covered.
+		 */
+		private void commit () {
+			
+			index.putLong (24, size);
+			index.putLong (32, used);
+			index.putLong (40, dataEnd);
+			
+		}
+		
+		private void ensureOpen () {
+			
+			if (data == null)
+				throw new IllegalStateException ("Map is closed");
+			
+		}
+		
+		public long size () {
+			
+			lock.readLock ().lock ();
+			
+			try {
+				return size;
+			} finally {
+				lock.readLock ().unlock ();
+			}
+			
+		}
+		
+		public long length () {
+			return size ();
+		}
+		
+		public boolean isEmpty () {
+			return size () == 0;
+		}
+		
+		public boolean containsKey (K key) {
+			
+			byte[] bytes = keySerializer.write (key);
+			
+			lock.readLock ().lock ();
+			
+			try {
+				
+				ensureOpen ();
+				return find (bytes, hash (bytes)) >= 0;
+				
+			} finally {
+				lock.readLock ().unlock ();
+			}
+			
+		}
+		
+		public V get (K key) {
+			return get (key, null);
+		}
+		
+		public V get (K key, V defVal) {
+			
+			byte[] bytes = keySerializer.write (key);
+			
+			lock.readLock ().lock ();
+			
+			try {
+				
+				ensureOpen ();
+				
+				long slot = find (bytes, hash (bytes));
+				
+				if (slot < 0)
+					return defVal;
+				
+				return value (index.getLong (slot (slot)));
+				
+			} finally {
+				lock.readLock ().unlock ();
+			}
+			
+		}
+		
+		private V value (long position) {
+			return valueSerializer.read (data.slice (position + RECORD_HEADER + data.getInt (position), data.getInt (position + 4)));
+		}
+		
+		/**
+		 * Maps {@code key} to {@code value}. Unlike {@link java.util.Map#put} the
+		 * previous value is not returned, which would cost reading it.
+		 *
+		 * @throws IOException if a file can't be extended.
+		 */
+		public void put (K key, V value) throws IOException {
+			
+			byte[] keyBytes = keySerializer.write (key);
+			byte[] valueBytes = valueSerializer.write (value);
+			
+			lock.writeLock ().lock ();
+			
+			try {
+				
+				ensureOpen ();
+				
+				apply (keyBytes, hash (keyBytes), append (keyBytes, valueBytes), false);
+				commit ();
+				
+			} finally {
+				lock.writeLock ().unlock ();
+			}
+			
+		}
+		
+		/**
+		 * Removes {@code key}.
+		 *
+		 * @return whether the key was present.
+		 * @throws IOException if a file can't be extended.
+		 */
+		public boolean remove (K key) throws IOException {
+			
+			byte[] bytes = keySerializer.write (key);
+			long hash = hash (bytes);
+			
+			lock.writeLock ().lock ();
+			
+			try {
+				
+				ensureOpen ();
+				
+				if (find (bytes, hash) < 0)
+					return false;
+				
+				apply (bytes, hash, append (bytes, null), true);
+				commit ();
+				
+				return true;
+				
+			} finally {
+				lock.writeLock ().unlock ();
+			}
+			
+		}
+		
+		/**
+		 * Passes every entry to {@code action} under the read lock, so the action
+		 * must not modify the map.
+		 */
+		public void forEach (BiConsumer<? super K, ? super V> action) {
+			
+			lock.readLock ().lock ();
+			
+			try {
+				
+				ensureOpen ();
+				
+				for (long i = 0; i < capacity; i++) {
+					
+					long ref = index.getLong (slot (i));
+					
+					if (ref != FREE && ref != DELETED)
+						action.accept (keySerializer.read (data.slice (ref + RECORD_HEADER, data.getInt (ref))), value (ref));
+					
+				}
+				
+			} finally {
+				lock.readLock ().unlock ();
+			}
+			
+		}
+		
+		/**
+		 * Returns the number of bytes the log takes, including superseded records.
+		 */
+		public long dataLength () {
+			
+			lock.readLock ().lock ();
+			
+			try {
+				return dataEnd;
+			} finally {
+				lock.readLock ().unlock ();
+			}
+			
+		}
+		
+		/**
+		 * Forces the mapped pages of both files to the disk.
+		 */
+		public void flush () throws IOException {
+			
+			lock.writeLock ().lock ();
+			
+			try {
+				
+				ensureOpen ();
+				
+				data.force ();
+				index.force ();
+				
+			} finally {
+				lock.writeLock ().unlock ();
+			}
+			
+		}
+		
+		/**
+		 * Rewrites the log with the current entries only, and the index for them.
+		 * The files are replaced when both are written; a crash in between leaves
+		 * a new log with an old index, which is then rebuilt on open.
+		 */
+		public void compact () throws IOException {
+			
+			lock.writeLock ().lock ();
+			
+			try {
+				
+				ensureOpen ();
+				
+				Path newDataPath = Paths.get (dataPath + ".tmp"), newIndexPath = Paths.get (indexPath + ".tmp");
+				
+				Files.deleteIfExists (newDataPath);
+				Files.deleteIfExists (newIndexPath);
+				
+				long generation = ThreadLocalRandom.current ().nextLong (), capacity = tableSize (size), end = DATA_HEADER;
+				
+				Region newData = new Region (newDataPath, DATA_HEADER), newIndex = new Region (newIndexPath, INDEX_HEADER + capacity * SLOT);
+				
+				byte[] buffer = new byte[0];
+				
+				for (long i = 0; i < this.capacity; i++) {
+					
+					long ref = index.getLong (slot (i));
+					
+					if (ref != FREE && ref != DELETED) {
+						
+						int length = (int) recordLength (ref);
+						
+						if (buffer.length < length)
+							buffer = new byte[length];
+						
+						if (end + length > newData.length ())
+							newData.map (end + length + Math.min (newData.length (), Region.CHUNK));
+						
+						data.get (ref, buffer, 0, length);
+						newData.put (end, buffer, 0, length);
+						
+						insert (newIndex, capacity, index.getLong (slot (i) + 8), end);
+						
+						end += length;
+						
+					}
+					
+				}
+				
+				newData.putLong (0, DATA_MAGIC);
+				newData.putLong (8, generation);
+				newData.putLong (16, end);
+				
+				newIndex.putLong (0, INDEX_MAGIC);
+				newIndex.putLong (8, generation);
+				newIndex.putLong (16, capacity);
+				newIndex.putLong (24, size);
+				newIndex.putLong (32, size);
+				newIndex.putLong (40, end);
+				
+				newData.force ();
+				newIndex.force ();
+				
+				newData.close ();
+				newIndex.close ();
+				
+				data.close ();
+				index.close ();
+				
+				Files.move (newDataPath, dataPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+				Files.move (newIndexPath, indexPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+				
+				data = new Region (dataPath, DATA_HEADER);
+				index = new Region (indexPath, INDEX_HEADER);
+				
+				this.generation = generation;
+				this.capacity = capacity;
+				used = size;
+				dataEnd = end;
+				
+			} finally {
+				lock.writeLock ().unlock ();
+			}
+			
+		}
+		
+		@Override
+		public void close () throws IOException {
+			
+			lock.writeLock ().lock ();
+			
+			try {
+				
+				if (data != null) {
+					
+					data.force ();
+					index.force ();
+					
+					data.close ();
+					index.close ();
+					
+					data = null;
+					index = null;
+					
+				}
+				
+			} finally {
+				lock.writeLock ().unlock ();
+			}
+			
+		}
+		
+		/**
+		 * A file mapped in chunks of {@link #CHUNK} bytes. Numbers are stored at
+		 * aligned offsets and never cross a chunk, byte arrays may.
+		 */
+		private static final class Region {
+			
+			private static final int CHUNK_BITS = 30;
+			private static final int CHUNK = 1 << CHUNK_BITS;
+			
+			private final FileChannel channel;
+			private MappedByteBuffer[] chunks = new MappedByteBuffer[0];
+			private long length = 0;
+			
+			/**
+			 * Maps the whole file, extended to {@code length} bytes at least.
+			 */
+			private Region (Path path, long length) throws IOException {
+				
+				channel = FileChannel.open (path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+				
+				try {
+					map (Math.max (length, channel.size ()));
+				} catch (IOException e) {
+					
+					channel.close ();
+					throw e;
+					
+				}
+				
+			}
+			
+			private long length () {
+				return length;
+			}
+			
+			/**
+			 * Extends the mapping, and the file, to {@code length} bytes.
+			 */
+			private void map (long length) throws IOException {
+				
+				int count = (int) ((length + CHUNK - 1) >>> CHUNK_BITS);
+				MappedByteBuffer[] chunks = Arrays.copyOf (this.chunks, count);
+				
+				for (int i = Math.max (0, this.chunks.length - 1); i < count; i++) {
+					
+					long start = (long) i << CHUNK_BITS;
+					chunks[i] = channel.map (FileChannel.MapMode.READ_WRITE, start, Math.min (CHUNK, length - start));
+					
+				}
+				
+				this.chunks = chunks;
+				this.length = length;
+				
+			}
+			
+			private MappedByteBuffer chunk (long position) {
+				return chunks[(int) (position >>> CHUNK_BITS)];
+			}
+			
+			private static int offset (long position) {
+				return (int) (position & (CHUNK - 1));
+			}
+			
+			private long getLong (long position) {
+				return chunk (position).getLong (offset (position));
+			}
+			
+			private void putLong (long position, long value) {
+				chunk (position).putLong (offset (position), value);
+			}
+			
+			private int getInt (long position) {
+				return chunk (position).getInt (offset (position));
+			}
+			
+			private void putInt (long position, int value) {
+				chunk (position).putInt (offset (position), value);
+			}
+			
+			private void get (long position, byte[] bytes, int from, int length) {
+				
+				while (length > 0) {
+					
+					ByteBuffer chunk = chunk (position).duplicate ();
+					int offset = offset (position), count = Math.min (length, chunk.capacity () - offset);
+					
+					chunk.position (offset);
+					chunk.get (bytes, from, count);
+					
+					position += count;
+					from += count;
+					length -= count;
+					
+				}
+				
+			}
+			
+			private void put (long position, byte[] bytes) {
+				put (position, bytes, 0, bytes.length);
+			}
+			
+			private void put (long position, byte[] bytes, int from, int length) {
+				
+				while (length > 0) {
+					
+					ByteBuffer chunk = chunk (position).duplicate ();
+					int offset = offset (position), count = Math.min (length, chunk.capacity () - offset);
+					
+					chunk.position (offset);
+					chunk.put (bytes, from, count);
+					
+					position += count;
+					from += count;
+					length -= count;
+					
+				}
+				
+			}
+			
+			/**
+			 * Returns a read-only view of {@code length} bytes, copied only if they
+			 * cross a chunk.
+			 */
+			private ByteBuffer slice (long position, int length) {
+				
+				int offset = offset (position);
+				ByteBuffer chunk = chunk (position);
+				
+				if (offset + length <= chunk.capacity ()) {
+					
+					ByteBuffer slice = chunk.duplicate ();
+					
+					slice.limit (offset + length).position (offset);
+					
+					return slice.slice ().asReadOnlyBuffer ();
+					
+				}
+				
+				byte[] bytes = new byte[length];
+				
+				get (position, bytes, 0, length);
+				
+				return ByteBuffer.wrap (bytes).asReadOnlyBuffer ();
+				
+			}
+			
+			private void force () {
+				
+				for (MappedByteBuffer chunk : chunks)
+					chunk.force ();
+				
+			}
+			
+			private void close () throws IOException {
+				channel.close ();
+			}
+			
+		}
+		
+	}
\ No newline at end of file
@@ -0,0 +1,447 @@
+	/*
+	 * Copyright (c) 2020 - 2024 UPL Foundation
+	 *
+	 * Licensed under the Apache License, Version 2.0 (the "License");
+	 * you may not use this file except in compliance with the License.
+	 * You may obtain a copy of the License at
+	 *
+	 *     http://www.apache.org/licenses/LICENSE-2.0
+	 *
+	 * Unless required by applicable law or agreed to in writing, software
+	 * distributed under the License is distributed on an "AS IS" BASIS,
+	 * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	 * See the License for the specific language governing permissions and
+	 * limitations under the License.
+	 */
+	
+	package upl.map;
+	
+	import java.util.AbstractMap;
+	import java.util.ArrayList;
+	import java.util.Collections;
+	import java.util.HashMap;
+	import java.util.List;
+	import java.util.Map;
+	import java.util.PriorityQueue;
+	import java.util.concurrent.ConcurrentHashMap;
+	import java.util.concurrent.atomic.LongAdder;
+	
+	/**
+	 * Thread safe counter of keys seen in a stream, the concurrent counterpart of
+	 * {@link CountedHashMap}. It works in one of two modes:
+	 *
+	 * <ul>
+	 *   <li>Exact, created with {@link #StreamCounter()}: every key gets a
+	 *       {@link LongAdder}, so threads counting the same key don't contend.
+	 *       {@link #top} scans all keys through a heap of K entries.
+	 *   <li>Approximate, created with {@link #StreamCounter(int)}: at most
+	 *       {@code capacity} keys are kept, using the Space-Saving algorithm. A
+	 *       new key replaces the least counted one and inherits its count as the
+	 *       possible overestimation, see {@link #getError}. Any key counted more
+	 *       than {@code total / capacity} times is guaranteed to be kept. Counts
+	 *       are kept in buckets ordered by count, so an update is O(1) and
+	 *       {@link #top} walks the K greatest counts only. The keys are split
+	 *       over a few independently locked stripes by hash.
+	 * </ul>
+	 *
+	 * Example usage: <pre>
+	 * StreamCounter&lt;String&gt; hosts = new StreamCounter&lt;&gt; (10000);
+	 *
+	 * hosts.add (request.getHost ());
+	 *
+	 * for (Map.Entry&lt;String, Long&gt; entry : hosts.top (10))
+	 *   System.out.println (entry.getKey () + ": " + entry.getValue ());</pre>
+	 *
+	 * @param <K> the type of keys
+	 */
+	public class StreamCounter<K> {
+		
+		/**
+		 * Fewest keys per stripe worth a stripe of its own.
+		 */
+		private static final int MIN_STRIPE_CAPACITY = 64;
+		
+		private final ConcurrentHashMap<K, LongAdder> counts;
+		private final Summary<K>[] stripes;
+		
+		private final LongAdder total = new LongAdder ();
+		
+		/**
+		 * Creates an exact counter.
+		 */
+		public StreamCounter () {
+			
+			counts = new ConcurrentHashMap<> ();
+			stripes = null;
+			
+		}
+		
+		/**
+		 * Creates an approximate counter keeping at most {@code capacity} keys.
+		 */
+		public StreamCounter (int capacity) {
+			
+			if (capacity < 1)
+				throw new IllegalArgumentException ("Capacity must be positive");
+			
+			int stripes = Math.min (Runtime.getRuntime ().availableProcessors () * 2, Math.max (1, capacity / MIN_STRIPE_CAPACITY));
+			stripes = Integer.highestOneBit (stripes);
+			
+			counts = null;
+			this.stripes = newSummaries (stripes);
+			
+			for (int i = 0; i < stripes; i++)
+				this.stripes[i] = new Summary<> ((capacity + stripes - 1) / stripes);
+			
+		}
+		
+		@SuppressWarnings ("unchecked")
+		private static <K> Summary<K>[] newSummaries (int length) {
+			return (Summary<K>[]) new Summary<?>[length];
+		}
+		
+		private Summary<K> stripe (Object key) {
+			
+			int hash = key.hashCode ();
+			hash ^= hash >>> 16;
+			
+			return stripes[hash & (stripes.length - 1)];
+			
+		}
+		
+		/**
+		 * Counts {@code key} once.
+		 */
+		public void add (K key) {
+			add (key, 1);
+		}
+		
+		/**
+		 * Counts {@code key} {@code delta} times.
+		 */
+		public void add (K key, long delta) {
+			
+			if (delta < 1)
+				throw new IllegalArgumentException ("Delta must be positive");
+			
+			if (counts != null)
+				counts.computeIfAbsent (key, k -> new LongAdder ()).add (delta);
+			else
+				stripe (key).add (key, delta);
+			
+			total.add (delta);
+			
+		}
+		
+		/**
+		 * Returns the count of {@code key}, 0 if it isn't (or no more) kept. In
+		 * the approximate mode it may be greater than the true count by up to
+		 * {@link #getError}.
+		 */
+		public long get (K key) {
+			
+			if (counts != null) {
+				
+				LongAdder count = counts.get (key);
+				return count != null ? count.sum () : 0;
+				
+			}
+			
+			return stripe (key).get (key);
+			
+		}
+		
+		/**
+		 * Returns how much the count of {@code key} may be overestimated, always
+		 * 0 in the exact mode.
+		 */
+		public long getError (K key) {
+			return counts != null ? 0 : stripe (key).getError (key);
+		}
+		
+		/**
+		 * Returns the total of all counts added.
+		 */
+		public long total () {
+			return total.sum ();
+		}
+		
+		/**
+		 * Returns the number of keys kept.
+		 */
+		public int size () {
+			
+			if (counts != null)
+				return counts.size ();
+			
+			int size = 0;
+			
+			for (Summary<K> stripe : stripes)
+				size += stripe.size ();
+			
+			return size;
+			
+		}
+		
+		public void clear () {
+			
+			if (counts != null)
+				counts.clear ();
+			else
+				for (Summary<K> stripe : stripes)
+					stripe.clear ();
+			
+			total.reset ();
+			
+		}
+		
+		/**
+		 * Returns the (up to) {@code k} keys with the greatest counts with their
+		 * counts, greatest first.
+		 */
+		public List<Map.Entry<K, Long>> top (int k) {
+			
+			if (k < 1)
+				return new ArrayList<> ();
+			
+			PriorityQueue<Map.Entry<K, Long>> heap = new PriorityQueue<> (k + 1, Map.Entry.comparingByValue ());
+			
+			if (counts != null) {
+				
+				for (Map.Entry<K, LongAdder> entry : counts.entrySet ())
+					offer (heap, k, new AbstractMap.SimpleImmutableEntry<> (entry.getKey (), entry.getValue ().sum ()));
+				
+			} else for (Summary<K> stripe : stripes)
+				for (Map.Entry<K, Long> entry : stripe.top (k))
+					offer (heap, k, entry);
+			
+			List<Map.Entry<K, Long>> result = new ArrayList<> (heap);
+			
+			result.sort (Collections.reverseOrder (Map.Entry.comparingByValue ()));
+			
+			return result;
+			
+		}
+		
+		private static <K> void offer (PriorityQueue<Map.Entry<K, Long>> heap, int k, Map.Entry<K, Long> entry) {
+			
+			if (heap.size () < k)
+				heap.add (entry);
+			else if (entry.getValue () > heap.peek ().getValue ()) {
+				
+				heap.poll ();
+				heap.add (entry);
+				
+			}
+			
+		}
+		
+		/**
+		 * Space-Saving summary: counters grouped in buckets of equal counts, the
+		 * buckets linked in ascending order of counts.
+		 */
+		private static final class Summary<K> {
+			
+			private static final class Bucket<K> {
+				
+				private final long count;
+				private Bucket<K> lower, higher;
+				private Counter<K> first;
+				
+				private Bucket (long count) {
+					this.count = count;
+				}
+				
+			}
+			
+			private static final class Counter<K> {
+				
+				private K key;
+				private long error;
+				private Bucket<K> bucket;
+				private Counter<K> previous, next;
+				
+			}
+			
+			private final int capacity;
+			private final HashMap<K, Counter<K>> counters;
+			
+			private Bucket<K> lowest, highest;
+			
+			private Summary (int capacity) {
+				
+				this.capacity = capacity;
+				counters = new HashMap<> (capacity * 4 / 3 + 1);
+				
+			}
+			
+			private synchronized void add (K key, long delta) {
+				
+				Counter<K> counter = counters.get (key);
+				
+				if (counter != null)
+					move (counter, counter.bucket.count + delta);
+				else if (counters.size () < capacity) {
+					
+					counter = new Counter<> ();
+					counter.key = key;
+					
+					counters.put (key, counter);
+					
+					attach (counter, find (null, delta));
+					
+				} else {
+					
+					counter = lowest.first; // evict one of the least counted keys
+					
+					counters.remove (counter.key);
+					
+					counter.key = key;
+					counter.error = lowest.count;
+					
+					counters.put (key, counter);
+					
+					move (counter, lowest.count + delta);
+					
+				}
+				
+			}
+			
+			/**
+			 * Returns the bucket of {@code count}, created above {@code from} (or
+			 * from the lowest one) if missing.
+			 */
+			private Bucket<K> find (Bucket<K> from, long count) {
+				
+				Bucket<K> lower = from;
+				Bucket<K> higher = (from != null ? from.higher : lowest);
+				
+				while (higher != null && higher.count <= count) {
+					
+					if (higher.count == count)
+						return higher;
+					
+					lower = higher;
+					higher = higher.higher;
+					
+				}
+				
+				Bucket<K> bucket = new Bucket<> (count);
+				
+				bucket.lower = lower;
+				bucket.higher = higher;
+				
+				if (lower != null)
+					lower.higher = bucket;
+				else
+					lowest = bucket;
+				
+				if (higher != null)
+					higher.lower = bucket;
+				else
+					highest = bucket;
+				
+				return bucket;
+				
+			}
+			
+			private void move (Counter<K> counter, long count) {
+				
+				Bucket<K> from = counter.bucket;
+				Bucket<K> to = find (from, count);
+				
+				detach (counter);
+				attach (counter, to);
+				
+			}
+			
+			private void attach (Counter<K> counter, Bucket<K> bucket) {
+				
+				counter.bucket = bucket;
+				counter.previous = null;
+				counter.next = bucket.first;
+				
+				if (bucket.first != null)
+					bucket.first.previous = counter;
+				
+				bucket.first = counter;
+				
+			}
+			
+			/**
+			 * Unlinks a counter from its bucket, and the bucket from the list if it
+			 * becomes empty.
+			 */
+			private void detach (Counter<K> counter) {
+				
+				Bucket<K> bucket = counter.bucket;
+				
+				if (counter.previous != null)
+					counter.previous.next = counter.next;
+				else
+					bucket.first = counter.next;
+				
+				if (counter.next != null)
+					counter.next.previous = counter.previous;
+				
+				if (bucket.first == null) {
+					
+					if (bucket.lower != null)
+						bucket.lower.higher = bucket.higher;
+					else
+						lowest = bucket.higher;
+					
+					if (bucket.higher != null)
+						bucket.higher.lower = bucket.lower;
+					else
+						highest = bucket.lower;
+					
+				}
+				
+			}
+			
+			private synchronized long get (Object key) {
+				
+				Counter<K> counter = counters.get (key);
+				return counter != null ? counter.bucket.count : 0;
+				
+			}
+			
+			private synchronized long getError (Object key) {
+				
+				Counter<K> counter = counters.get (key);
+				return counter != null ? counter.error : 0;
+				
+			}
+			
+			private synchronized int size () {
+				return counters.size ();
+			}
+			
+			private synchronized void clear () {
+				
+				counters.clear ();
+				
+				lowest = null;
+				highest = null;
+				
+			}
+			
+			/**
+			 * Returns the (up to) {@code k} greatest counts, greatest first.
+			 */
+			private synchronized List<Map.Entry<K, Long>> top (int k) {
+				
+				List<Map.Entry<K, Long>> result = new ArrayList<> (Math.min (k, counters.size ()));
+				
+				for (Bucket<K> bucket = highest; bucket != null && result.size () < k; bucket = bucket.lower)
+					for (Counter<K> counter = bucket.first; counter != null && result.size () < k; counter = counter.next)
+						result.add (new AbstractMap.SimpleImmutableEntry<> (counter.key, bucket.count));
+				
+				return result;
+				
+			}
+			
+		}
+		
+	}
\ No newline at end of file
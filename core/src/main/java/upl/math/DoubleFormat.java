@@ -0,0 +1,336 @@
+	/*
+	 * Copyright (c) 2020 - 2024 UPL Foundation
+	 *
+	 * Licensed under the Apache License, Version 2.0 (the "License");
+	 * you may not use this file except in compliance with the License.
+	 * You may obtain a copy of the License at
+	 *
+	 *     http://www.apache.org/licenses/LICENSE-2.0
+	 *
+	 * Unless required by applicable law or agreed to in writing, software
+	 * distributed under the License is distributed on an "AS IS" BASIS,
+	 * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	 * See the License for the specific language governing permissions and
+	 * limitations under the License.
+	 */
+	
+	package upl.math;
+	
+	import java.math.BigInteger;
+	
+	/**
+	 * Shortest round-trip formatting of doubles, after Raffaello Giulietti's
+	 * Schubfach algorithm. The result is the shortest decimal which parses back
+	 * to the same double, choosing the closest one if there are several, in the
+	 * same layout as {@link Double#toString(double)}: plain notation for
+	 * magnitudes from 10<sup>-3</sup> to 10<sup>7</sup> and computerized
+	 * scientific notation ({@code 1.0E-5}) otherwise.
+	 *
+	 * <p>Unlike {@code Double.toString} on older JDKs the digits are always the
+	 * shortest, and {@link #toChars} writes them into a caller's buffer without
+	 * allocating.
+	 */
+	public final class DoubleFormat {
+		
+		/**
+		 * Most chars {@link #toChars} writes, as in {@code -1.2345678901234567E-308}.
+		 */
+		public static final int MAX_CHARS = 24;
+		
+		private static final int P = 53;
+		private static final int Q_MIN = -1074;
+		private static final int K_MIN = -324;
+		private static final int K_MAX = 292;
+		
+		private static final long C_MIN = 1L << (P - 1);
+		private static final long C_TINY = 3;
+		
+		private static final long MASK_63 = (1L << 63) - 1;
+		
+		/**
+		 * Upper and lower 63 bits of the 126 bit approximations of 10^-k, for k
+		 * from K_MIN to K_MAX.
+		 */
+		private static final long[] G = new long[2 * (K_MAX - K_MIN + 1)];
+		
+		static {
+			
+			BigInteger ten = BigInteger.TEN;
+			
+			for (int k = K_MIN; k <= K_MAX; k++) {
+				
+				int r = flog2pow10 (-k) - 125;
+				BigInteger g;
+				
+				if (k <= 0) {
+					
+					g = ten.pow (-k);
+					g = (r >= 0 ? g.shiftRight (r) : g.shiftLeft (-r));
+					
+				} else g = BigInteger.ONE.shiftLeft (-r).divide (ten.pow (k));
+				
+				g = g.add (BigInteger.ONE);
+				
+				G[2 * (k - K_MIN)] = g.shiftRight (63).longValue ();
+				G[2 * (k - K_MIN) + 1] = g.longValue () & MASK_63;
+				
+			}
+			
+		}
+		
+		private DoubleFormat () {}
+		
+		public static String toString (double value) {
+			
+			char[] chars = new char[MAX_CHARS];
+			return new String (chars, 0, toChars (value, chars, 0));
+			
+		}
+		
+		/**
+		 * Writes the shortest representation of {@code value} into
+		 * {@code buffer}, which needs room for {@link #MAX_CHARS} chars from
+		 * {@code offset}.
+		 *
+		 * @return the offset after the last char written.
+		 */
+		public static int toChars (double value, char[] buffer, int offset) {
+			
+			long bits = Double.doubleToRawLongBits (value);
+			long t = bits & ((1L << (P - 1)) - 1);
+			int bq = (int) (bits >>> (P - 1)) & 0x7FF;
+			
+			if (bq == 0x7FF)
+				return write (t != 0 ? "NaN" : (bits > 0 ? "Infinity" : "-Infinity"), buffer, offset);
+			
+			if (bits < 0)
+				buffer[offset++] = '-';
+			
+			if (bq != 0) {
+				
+				int mq = -Q_MIN + 1 - bq;
+				long c = C_MIN | t;
+				
+				if (0 < mq && mq < P) {
+					
+					long f = c >> mq;
+					
+					if (f << mq == c) // integer below 2^53
+						return toChars (f, 0, buffer, offset);
+					
+				}
+				
+				return toDecimal (-mq, c, 0, buffer, offset);
+				
+			}
+			
+			if (t != 0)
+				return (t < C_TINY ? toDecimal (Q_MIN, 10 * t, -1, buffer, offset) : toDecimal (Q_MIN, t, 0, buffer, offset));
+			
+			return write ("0.0", buffer, offset);
+			
+		}
+		
+		private static int toDecimal (int q, long c, int dk, char[] buffer, int offset) {
+			
+			int out = (int) c & 1;
+			
+			long cb = c << 2;
+			long cbr = cb + 2;
+			long cbl;
+			int k;
+			
+			if (c != C_MIN || q == Q_MIN) {
+				
+				cbl = cb - 2;
+				k = flog10pow2 (q);
+				
+			} else {
+				
+				cbl = cb - 1;
+				k = flog10threeQuartersPow2 (q);
+				
+			}
+			
+			int h = q + flog2pow10 (-k) + 2;
+			
+			long g1 = G[2 * (k - K_MIN)];
+			long g0 = G[2 * (k - K_MIN) + 1];
+			
+			long vb = rop (g1, g0, cb << h);
+			long vbl = rop (g1, g0, cbl << h);
+			long vbr = rop (g1, g0, cbr << h);
+			
+			long s = vb >> 2;
+			
+			if (s >= 100) {
+				
+				long sp10 = 10 * Math.multiplyHigh (s, 115_292_150_460_684_698L << 4);
+				long tp10 = sp10 + 10;
+				
+				boolean upin = vbl + out <= sp10 << 2;
+				boolean wpin = (tp10 << 2) + out <= vbr;
+				
+				if (upin != wpin)
+					return toChars (upin ? sp10 : tp10, k, buffer, offset);
+				
+			}
+			
+			long t = s + 1;
+			
+			boolean uin = vbl + out <= s << 2;
+			boolean win = (t << 2) + out <= vbr;
+			
+			if (uin != win)
+				return toChars (uin ? s : t, k + dk, buffer, offset);
+			
+			long cmp = vb - (s + t << 1);
+			
+			return toChars (cmp < 0 || cmp == 0 && (s & 1) == 0 ? s : t, k + dk, buffer, offset);
+			
+		}
+		
+		/**
+		 * Rounds the product of g and cp to odd.
+		 */
+		private static long rop (long g1, long g0, long cp) {
+			
+			long x1 = Math.multiplyHigh (g0, cp);
+			long y0 = g1 * cp;
+			long y1 = Math.multiplyHigh (g1, cp);
+			long z = (y0 >>> 1) + x1;
+			long vbp = y1 + (z >>> 63);
+			
+			return vbp | (z & MASK_63) + MASK_63 >>> 63;
+			
+		}
+		
+		private static int flog10pow2 (int e) {
+			return (int) (e * 661_971_961_083L >> 41);
+		}
+		
+		private static int flog10threeQuartersPow2 (int e) {
+			return (int) (e * 661_971_961_083L + -274_743_187_321L >> 41);
+		}
+		
+		private static int flog2pow10 (int e) {
+			return (int) (e * 913_124_641_741L >> 38);
+		}
+		
+		/**
+		 * Writes the decimal f * 10^e.
+		 */
+		private static int toChars (long f, int e, char[] buffer, int offset) {
+			
+			while (f % 10 == 0 && f != 0) {
+				
+				f /= 10;
+				e++;
+				
+			}
+			
+			int length = digits (f);
+			int exponent = e + length - 1; // of the leading digit
+			
+			if (exponent >= -3 && exponent < 7) {
+				
+				if (exponent < 0) {
+					
+					buffer[offset++] = '0';
+					buffer[offset++] = '.';
+					
+					for (int i = exponent + 1; i < 0; i++)
+						buffer[offset++] = '0';
+					
+					return writeDigits (f, length, -1, buffer, offset);
+					
+				} else if (length <= exponent + 1) {
+					
+					offset = writeDigits (f, length, -1, buffer, offset);
+					
+					for (int i = length; i <= exponent; i++)
+						buffer[offset++] = '0';
+					
+					buffer[offset++] = '.';
+					buffer[offset++] = '0';
+					
+					return offset;
+					
+				} else return writeDigits (f, length, exponent, buffer, offset);
+				
+			}
+			
+			if (length == 1) {
+				
+				buffer[offset++] = (char) ('0' + f);
+				buffer[offset++] = '.';
+				buffer[offset++] = '0';
+				
+			} else offset = writeDigits (f, length, 0, buffer, offset);
+			
+			buffer[offset++] = 'E';
+			
+			if (exponent < 0) {
+				
+				buffer[offset++] = '-';
+				exponent = -exponent;
+				
+			}
+			
+			if (exponent >= 100)
+				buffer[offset++] = (char) ('0' + exponent / 100);
+			
+			if (exponent >= 10)
+				buffer[offset++] = (char) ('0' + exponent / 10 % 10);
+			
+			buffer[offset++] = (char) ('0' + exponent % 10);
+			
+			return offset;
+			
+		}
+		
+		/**
+		 * Writes the {@code length} digits of {@code f}, followed by a point after
+		 * the digit at index {@code point} unless it is negative.
+		 */
+		private static int writeDigits (long f, int length, int point, char[] buffer, int offset) {
+			
+			int end = offset + length + (point >= 0 ? 1 : 0);
+			
+			for (int i = length - 1; i >= 0; i--) {
+				
+				buffer[offset + i + (point >= 0 && i > point ? 1 : 0)] = (char) ('0' + f % 10);
+				f /= 10;
+				
+			}
+			
+			if (point >= 0)
+				buffer[offset + point + 1] = '.';
+			
+			return end;
+			
+		}
+		
+		private static int digits (long value) {
+			
+			int digits = 1;
+			
+			while (value >= 10) {
+				
+				value /= 10;
+				digits++;
+				
+			}
+			
+			return digits;
+			
+		}
+		
+		private static int write (String value, char[] buffer, int offset) {
+			
+			value.getChars (0, value.length (), buffer, offset);
+			return offset + value.length ();
+			
+		}
+		
+	}
\ No newline at end of file
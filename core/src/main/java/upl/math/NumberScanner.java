@@ -0,0 +1,616 @@
+	/*
+	 * Copyright (c) 2020 - 2024 UPL Foundation
+	 *
+	 * Licensed under the Apache License, Version 2.0 (the "License");
+	 * you may not use this file except in compliance with the License.
+	 * You may obtain a copy of the License at
+	 *
+	 *     http://www.apache.org/licenses/LICENSE-2.0
+	 *
+	 * Unless required by applicable law or agreed to in writing, software
+	 * distributed under the License is distributed on an "AS IS" BASIS,
+	 * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	 * See the License for the specific language governing permissions and
+	 * limitations under the License.
+	 */
+	
+	package upl.math;
+	
+	import java.math.BigInteger;
+	import java.nio.ByteBuffer;
+	import java.nio.charset.StandardCharsets;
+	
+	/**
+	 * Scans JSON numbers ({@code -?(0|[1-9][0-9]*)(\.[0-9]+)?([eE][+-]?[0-9]+)?})
+	 * in place from chars or bytes, without substrings and without exceptions:
+	 * <pre>
+	 * NumberScanner scanner = new NumberScanner ();
+	 *
+	 * if (scanner.scan (json, pos, json.length ()) == NumberScanner.DOUBLE)
+	 *   value = scanner.getDouble ();
+	 * pos = scanner.getEnd ();</pre>
+	 *
+	 * <p>Integers fitting into a long are returned as {@link #INT} or
+	 * {@link #LONG}, everything else as {@link #DOUBLE}. Doubles are correctly
+	 * rounded: mantissas of up to 15 digits with small exponents are converted
+	 * exactly, others with up to 19 digits go through the Eisel-Lemire algorithm,
+	 * and the rare remaining ones are handed to {@link Double#parseDouble}.
+	 *
+	 * <p>A scanner keeps the result of the last scan and is not thread safe.
+	 */
+	public final class NumberScanner {
+		
+		/**
+		 * No number starts at the scanned position.
+		 */
+		public static final int NONE = 0;
+		public static final int INT = 1;
+		public static final int LONG = 2;
+		public static final int DOUBLE = 3;
+		
+		private static final int SMALLEST_POWER = -342;
+		private static final int LARGEST_POWER = 308;
+		
+		/**
+		 * 128 bit approximations of 5^q for q from SMALLEST_POWER to
+		 * LARGEST_POWER, normalized to have their highest bit set.
+		 */
+		private static final long[] POWERS_OF_FIVE = new long[2 * (LARGEST_POWER - SMALLEST_POWER + 1)];
+		
+		private static final double[] POWERS_OF_TEN = {
+			1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+			1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22,
+		};
+		
+		static {
+			
+			BigInteger five = BigInteger.valueOf (5);
+			BigInteger mask = BigInteger.ONE.shiftLeft (64).subtract (BigInteger.ONE);
+			
+			for (int q = SMALLEST_POWER; q <= LARGEST_POWER; q++) {
+				
+				BigInteger power;
+				
+				if (q < 0) {
+					
+					BigInteger power5 = five.pow (-q);
+					
+					int z = power5.bitLength ();
+					int b = (q >= -27 ? z + 127 : 2 * z + 128);
+					
+					power = BigInteger.ONE.shiftLeft (b).divide (power5).add (BigInteger.ONE);
+					
+					if (power.bitLength () > 128)
+						power = power.shiftRight (power.bitLength () - 128);
+					
+				} else {
+					
+					power = five.pow (q);
+					
+					if (power.bitLength () < 128)
+						power = power.shiftLeft (128 - power.bitLength ());
+					else
+						power = power.shiftRight (power.bitLength () - 128);
+					
+				}
+				
+				POWERS_OF_FIVE[2 * (q - SMALLEST_POWER)] = power.shiftRight (64).longValue ();
+				POWERS_OF_FIVE[2 * (q - SMALLEST_POWER) + 1] = power.and (mask).longValue ();
+				
+			}
+			
+		}
+		
+		private int type, end;
+		private long longValue;
+		private double doubleValue;
+		
+		/*
+		 * State shared by both scan methods.
+		 */
+		private boolean negative;
+		private long mantissa;
+		private int digits, exponent;
+		private boolean truncated;
+		
+		/**
+		 * Scans the number starting at {@code start}, reading up to {@code end}.
+		 *
+		 * @return the type of the number, or {@link #NONE} if there is none. In
+		 * both cases {@link #getEnd} returns where the number ends, which for an
+		 * incomplete number like "1." or "-" is where it stopped being valid.
+		 */
+		public int scan (CharSequence in, int start, int end) {
+			
+			int i = start;
+			
+			negative = (i < end && in.charAt (i) == '-');
+			
+			if (negative)
+				i++;
+			
+			if (i == end || !isDigit (in.charAt (i)))
+				return none (i);
+			
+			mantissa = 0;
+			digits = 0;
+			exponent = 0;
+			truncated = false;
+			
+			if (in.charAt (i) == '0') {
+				
+				i++;
+				
+				if (i < end && isDigit (in.charAt (i)))
+					return none (i); // leading zeros are not JSON
+				
+			} else
+				for (; i < end && isDigit (in.charAt (i)); i++)
+					digit (in.charAt (i) - '0', 0);
+			
+			boolean integer = true;
+			
+			if (i < end && in.charAt (i) == '.') {
+				
+				int point = ++i;
+				
+				for (; i < end && isDigit (in.charAt (i)); i++)
+					digit (in.charAt (i) - '0', -1);
+				
+				if (i == point)
+					return none (i);
+				
+				integer = false;
+				
+			}
+			
+			if (i < end && (in.charAt (i) == 'e' || in.charAt (i) == 'E')) {
+				
+				i++;
+				
+				boolean negativeExponent = false;
+				
+				if (i < end && (in.charAt (i) == '-' || in.charAt (i) == '+'))
+					negativeExponent = (in.charAt (i++) == '-');
+				
+				int expStart = i, value = 0;
+				
+				for (; i < end && isDigit (in.charAt (i)); i++)
+					if (value < 100_000)
+						value = value * 10 + in.charAt (i) - '0';
+				
+				if (i == expStart)
+					return none (i);
+				
+				exponent += (negativeExponent ? -value : value);
+				integer = false;
+				
+			}
+			
+			this.end = i;
+			
+			if (integer && toLong ())
+				return type;
+			
+			return toDouble (in, start, i);
+			
+		}
+		
+		/**
+		 * Scans the number encoded in ASCII/UTF-8 bytes starting at
+		 * {@code start}, see {@link #scan(CharSequence, int, int)}.
+		 */
+		public int scan (byte[] in, int start, int end) {
+			
+			int i = start;
+			
+			negative = (i < end && in[i] == '-');
+			
+			if (negative)
+				i++;
+			
+			if (i == end || !isDigit (in[i]))
+				return none (i);
+			
+			mantissa = 0;
+			digits = 0;
+			exponent = 0;
+			truncated = false;
+			
+			if (in[i] == '0') {
+				
+				i++;
+				
+				if (i < end && isDigit (in[i]))
+					return none (i);
+				
+			} else
+				for (; i < end && isDigit (in[i]); i++)
+					digit (in[i] - '0', 0);
+			
+			boolean integer = true;
+			
+			if (i < end && in[i] == '.') {
+				
+				int point = ++i;
+				
+				for (; i < end && isDigit (in[i]); i++)
+					digit (in[i] - '0', -1);
+				
+				if (i == point)
+					return none (i);
+				
+				integer = false;
+				
+			}
+			
+			if (i < end && (in[i] == 'e' || in[i] == 'E')) {
+				
+				i++;
+				
+				boolean negativeExponent = false;
+				
+				if (i < end && (in[i] == '-' || in[i] == '+'))
+					negativeExponent = (in[i++] == '-');
+				
+				int expStart = i, value = 0;
+				
+				for (; i < end && isDigit (in[i]); i++)
+					if (value < 100_000)
+						value = value * 10 + in[i] - '0';
+				
+				if (i == expStart)
+					return none (i);
+				
+				exponent += (negativeExponent ? -value : value);
+				integer = false;
+				
+			}
+			
+			this.end = i;
+			
+			if (integer && toLong ())
+				return type;
+			
+			if (!toDouble ())
+				doubleValue = Double.parseDouble (new String (in, start, i - start, StandardCharsets.ISO_8859_1));
+			
+			return type;
+			
+		}
+		
+		/**
+		 * Scans the number encoded in ASCII/UTF-8 bytes of a heap, direct or mapped
+		 * buffer starting at the absolute index {@code start}, see
+		 * {@link #scan(CharSequence, int, int)}. The position of {@code in} is not
+		 * changed.
+		 */
+		public int scan (ByteBuffer in, int start, int end) {
+			
+			int i = start;
+			
+			negative = (i < end && in.get (i) == '-');
+			
+			if (negative)
+				i++;
+			
+			if (i == end || !isDigit (in.get (i)))
+				return none (i);
+			
+			mantissa = 0;
+			digits = 0;
+			exponent = 0;
+			truncated = false;
+			
+			if (in.get (i) == '0') {
+				
+				i++;
+				
+				if (i < end && isDigit (in.get (i)))
+					return none (i);
+				
+			} else
+				for (; i < end && isDigit (in.get (i)); i++)
+					digit (in.get (i) - '0', 0);
+			
+			boolean integer = true;
+			
+			if (i < end && in.get (i) == '.') {
+				
+				int point = ++i;
+				
+				for (; i < end && isDigit (in.get (i)); i++)
+					digit (in.get (i) - '0', -1);
+				
+				if (i == point)
+					return none (i);
+				
+				integer = false;
+				
+			}
+			
+			if (i < end && (in.get (i) == 'e' || in.get (i) == 'E')) {
+				
+				i++;
+				
+				boolean negativeExponent = false;
+				
+				if (i < end && (in.get (i) == '-' || in.get (i) == '+'))
+					negativeExponent = (in.get (i++) == '-');
+				
+				int expStart = i, value = 0;
+				
+				for (; i < end && isDigit (in.get (i)); i++)
+					if (value < 100_000)
+						value = value * 10 + in.get (i) - '0';
+				
+				if (i == expStart)
+					return none (i);
+				
+				exponent += (negativeExponent ? -value : value);
+				integer = false;
+				
+			}
+			
+			this.end = i;
+			
+			if (integer && toLong ())
+				return type;
+			
+			if (!toDouble ()) {
+				
+				byte[] bytes = new byte[i - start];
+				
+				for (int j = 0; j < bytes.length; j++)
+					bytes[j] = in.get (start + j);
+				
+				doubleValue = Double.parseDouble (new String (bytes, StandardCharsets.ISO_8859_1));
+				
+			}
+			
+			return type;
+			
+		}
+		
+		private static boolean isDigit (int c) {
+			return c >= '0' && c <= '9';
+		}
+		
+		private int none (int end) {
+			
+			this.end = end;
+			type = NONE;
+			
+			return type;
+			
+		}
+		
+		/**
+		 * Adds a digit to the mantissa, keeping the first 19 significant digits
+		 * and adjusting the exponent for the dropped ones.
+		 */
+		private void digit (int digit, int scale) {
+			
+			if (digits < 19) {
+				
+				if (digits > 0 || digit != 0) {
+					
+					mantissa = mantissa * 10 + digit;
+					digits++;
+					
+				}
+				
+				exponent += scale;
+				
+			} else {
+				
+				if (digit != 0)
+					truncated = true;
+				
+				exponent += scale + 1;
+				
+			}
+			
+		}
+		
+		private boolean toLong () {
+			
+			if (truncated || exponent > 0 || (digits == 19 && Long.compareUnsigned (mantissa, negative ? Long.MIN_VALUE : Long.MAX_VALUE) > 0))
+				return false;
+			
+			longValue = (negative ? -mantissa : mantissa);
+			type = (longValue >= Integer.MIN_VALUE && longValue <= Integer.MAX_VALUE ? INT : LONG);
+			
+			return true;
+			
+		}
+		
+		private int toDouble (CharSequence in, int start, int end) {
+			
+			if (!toDouble ())
+				doubleValue = Double.parseDouble (in.subSequence (start, end).toString ());
+			
+			return type;
+			
+		}
+		
+		/**
+		 * Converts the scanned mantissa and exponent, returning false if they have
+		 * to be handed to {@link Double#parseDouble} instead.
+		 */
+		private boolean toDouble () {
+			
+			type = DOUBLE;
+			
+			if (mantissa == 0)
+				doubleValue = 0;
+			else if (truncated || !eiselLemire ())
+				return false;
+			
+			if (negative)
+				doubleValue = -doubleValue;
+			
+			return true;
+			
+		}
+		
+		/**
+		 * Converts {@link #mantissa} * 10^{@link #exponent} into
+		 * {@link #doubleValue}, returning false if the result can't be proven
+		 * correctly rounded.
+		 */
+		private boolean eiselLemire () {
+			
+			long w = mantissa;
+			int q = exponent;
+			
+			if (w >>> 53 == 0 && q >= -22 && q <= 22) { // exact, as in Clinger's fast path
+				
+				doubleValue = (q < 0 ? w / POWERS_OF_TEN[-q] : w * POWERS_OF_TEN[q]);
+				return true;
+				
+			}
+			
+			if (q < SMALLEST_POWER) {
+				
+				doubleValue = 0;
+				return true;
+				
+			} else if (q > LARGEST_POWER) {
+				
+				doubleValue = Double.POSITIVE_INFINITY;
+				return true;
+				
+			}
+			
+			int lz = Long.numberOfLeadingZeros (w);
+			w <<= lz;
+			
+			int index = 2 * (q - SMALLEST_POWER);
+			
+			long high = unsignedMultiplyHigh (w, POWERS_OF_FIVE[index]);
+			long low = w * POWERS_OF_FIVE[index];
+			
+			if ((high & 0x1FF) == 0x1FF) {
+				
+				long secondHigh = unsignedMultiplyHigh (w, POWERS_OF_FIVE[index + 1]);
+				
+				low += secondHigh;
+				
+				if (Long.compareUnsigned (secondHigh, low) > 0)
+					high++;
+				
+				if (low == -1 && (q < -27 || q > 55))
+					return false;
+				
+			}
+			
+			int upperBit = (int) (high >>> 63);
+			long bits = high >>> (upperBit + 9);
+			int power2 = ((217706 * q) >> 16) + 63 + upperBit - lz + 1023;
+			
+			if (power2 <= 0) { // subnormal
+				
+				if (-power2 + 1 >= 64) {
+					
+					doubleValue = 0;
+					return true;
+					
+				}
+				
+				bits >>>= -power2 + 1;
+				bits += (bits & 1);
+				bits >>>= 1;
+				
+				power2 = (bits < (1L << 52) ? 0 : 1);
+				
+				doubleValue = Double.longBitsToDouble (bits | (long) power2 << 52);
+				return true;
+				
+			}
+			
+			if (Long.compareUnsigned (low, 1) <= 0 && q >= -4 && q <= 23 && (bits & 3) == 1 && (bits << (upperBit + 9)) == high)
+				bits &= ~1L; // exactly halfway, round to even
+			
+			bits += (bits & 1);
+			bits >>>= 1;
+			
+			if (bits >= (2L << 52)) {
+				
+				bits = (1L << 52);
+				power2++;
+				
+			}
+			
+			bits &= ~(1L << 52);
+			
+			if (power2 >= 0x7FF) {
+				
+				doubleValue = Double.POSITIVE_INFINITY;
+				return true;
+				
+			}
+			
+			doubleValue = Double.longBitsToDouble (bits | (long) power2 << 52);
+			
+			return true;
+			
+		}
+		
+		private static long unsignedMultiplyHigh (long x, long y) {
+			return Math.multiplyHigh (x, y) + ((x >> 63) & y) + ((y >> 63) & x);
+		}
+		
+		/**
+		 * Returns the type of the last scanned number.
+		 */
+		public int getType () {
+			return type;
+		}
+		
+		/**
+		 * Returns the index after the last scanned number.
+		 */
+		public int getEnd () {
+			return end;
+		}
+		
+		/**
+		 * Returns the value of the last scanned {@link #INT} or {@link #LONG}.
+		 */
+		public long getLong () {
+			return longValue;
+		}
+		
+		/**
+		 * Returns the value of the last scanned number as a double.
+		 */
+		public double getDouble () {
+			return (type == DOUBLE ? doubleValue : longValue);
+		}
+		
+		/**
+		 * Returns the last scanned number boxed as an Integer, Long or Double, or
+		 * null if there was none.
+		 */
+		public Number getNumber () {
+			
+			switch (type) {
+				
+				case INT:
+					return (int) longValue;
+				
+				case LONG:
+					return longValue;
+				
+				case DOUBLE:
+					return doubleValue;
+				
+				default:
+					return null;
+				
+			}
+			
+		}
+		
+	}
\ No newline at end of file
@@ -2,6 +2,10 @@
 	
 	import upl.regex2.tree.SyntaxTree;
 	import upl.regex2.util.CommonSets;
+	import upl.util.CharObjectMap;
+	import upl.util.IntIntMap;
+	import upl.util.IntList;
+	import upl.util.IntObjectMap;
 	
 	import java.util.*;
 	
@@ -36,9 +40,9 @@
 			Map<NFABitmapState, NFABitmapStatePack> closureMap = calculateClosure (nfaiStates);
 			
 			// construct a NFA first
-			Map<NFABitmapState, Map<Character, NFABitmapStatePack>> nfaTransitionMap = new HashMap<> ();
+			Map<NFABitmapState, CharObjectMap<NFABitmapStatePack>> nfaTransitionMap = new HashMap<> ();
 			for (NFABitmapState state : nfaiStates) {
-				Map<Character, NFABitmapStatePack> subMap = new HashMap<> ();
+				CharObjectMap<NFABitmapStatePack> subMap = new CharObjectMap<> ();
 				for (char ch = 0; ch < CommonSets.ENCODING_LENGTH; ch++) {
 					NFABitmapStatePack closure = closureMap.get (state);
 					NFABitmapStatePack reachable = traceReachable (closure, ch, closureMap);
@@ -50,7 +54,7 @@
 			}
 			
 			// Construct an original DFA using the constructed NFA. Each key which is set of nfa states is a new dfa state.
-			Map<NFABitmapStatePack, Map<Character, NFABitmapStatePack>> originalDFATransitionMap = new HashMap<> ();
+			Map<NFABitmapStatePack, CharObjectMap<NFABitmapStatePack>> originalDFATransitionMap = new HashMap<> ();
 			constructOriginalDFA (closureMap.get (initState), nfaTransitionMap, originalDFATransitionMap);
 			
 			// construct minimum DFA
@@ -119,16 +123,16 @@
 			
 		}
 		
-		protected void constructOriginalDFA (NFABitmapStatePack stateSet, Map<NFABitmapState, Map<Character, NFABitmapStatePack>> nfaTransitionMap, Map<NFABitmapStatePack, Map<Character, NFABitmapStatePack>> originalDFATransitionMap) {
+		protected void constructOriginalDFA (NFABitmapStatePack stateSet, Map<NFABitmapState, CharObjectMap<NFABitmapStatePack>> nfaTransitionMap, Map<NFABitmapStatePack, CharObjectMap<NFABitmapStatePack>> originalDFATransitionMap) {
 			
 			Stack<NFABitmapStatePack> stack = new Stack<> ();
 			stack.push (stateSet);
 			
 			do {
 				NFABitmapStatePack pop = stack.pop ();
-				Map<Character, NFABitmapStatePack> subMap = originalDFATransitionMap.get (pop);
+				CharObjectMap<NFABitmapStatePack> subMap = originalDFATransitionMap.get (pop);
 				if (subMap == null) {
-					subMap = new HashMap<> ();
+					subMap = new CharObjectMap<> ();
 					originalDFATransitionMap.put (pop, subMap);
 				}
 				for (char ch = 0; ch < CommonSets.ENCODING_LENGTH; ch++) {
@@ -178,8 +182,7 @@
 		protected NFABitmapStatePack traceReachable (NFABitmapStatePack closure, char ch, Map<NFABitmapState, NFABitmapStatePack> closureMap) {
 			NFABitmapStatePack result = nfaiStateManager.newEmptyPack ();
 			for (NFABitmapState closureState : closure.asList ()) {
-				Map<Character, NFABitmapStatePack> transitionMap = closureState.getTransitionMap ();
-				NFABitmapStatePack stateSet = transitionMap.get (ch);
+				NFABitmapStatePack stateSet = closureState.getTransition (ch);
 				if (stateSet != null) {
 					for (NFABitmapState state : stateSet.asList ()) {
 						result.addAll (closureMap.get (state)); // closure of all the reachable states by scanning a char of the given closure.
@@ -190,8 +193,8 @@
 			return result;
 		}
 		
-		protected void minimize (Map<NFABitmapStatePack, Map<Character, NFABitmapStatePack>> oriDFATransitionMap, NFABitmapStatePack initClosure, NFABitmapState finalNFAIState) {
-			Map<Integer, int[]> renamedDFATransitionTable = new HashMap<> ();
+		protected void minimize (Map<NFABitmapStatePack, CharObjectMap<NFABitmapStatePack>> oriDFATransitionMap, NFABitmapStatePack initClosure, NFABitmapState finalNFAIState) {
+			IntObjectMap<int[]> renamedDFATransitionTable = new IntObjectMap<> ();
 			Map<Integer, Boolean> finalFlags = new HashMap<> ();
 			Map<NFABitmapStatePack, Integer> stateRenamingMap = new HashMap<> ();
 			int initStateAfterRenaming = -1;
@@ -209,11 +212,12 @@
 			finalFlags.put (0, false);
 			
 			// construct renamed dfa transition table
-			for (Map.Entry<NFABitmapStatePack, Map<Character, NFABitmapStatePack>> entry : oriDFATransitionMap.entrySet ()) {
+			for (Map.Entry<NFABitmapStatePack, CharObjectMap<NFABitmapStatePack>> entry : oriDFATransitionMap.entrySet ()) {
 				renamingStateID = stateRenamingMap.get (entry.getKey ());
 				int[] state = newRejectedState ();
-				for (Map.Entry<Character, NFABitmapStatePack> row : entry.getValue ().entrySet ()) {
-					state[row.getKey ()] = stateRenamingMap.get (row.getValue ());
+				CharObjectMap<NFABitmapStatePack> row = entry.getValue ();
+				for (int slot = row.next (-1); slot >= 0; slot = row.next (slot)) {
+					state[row.keyAt (slot)] = stateRenamingMap.get (row.valueAt (slot));
 				}
 				renamedDFATransitionTable.put (renamingStateID, state);
 				if (entry.getKey ().contains (finalNFAIState.getId ())) {
@@ -224,7 +228,7 @@
 			}
 			
 			// group states to final states and non-final states
-			Map<Integer, Integer> groupFlags = new HashMap<> ();
+			IntIntMap groupFlags = new IntIntMap ();
 			for (int i = 0; i < finalFlags.size (); i++) {
 				boolean b = finalFlags.get (i);
 				if (b) {
@@ -240,15 +244,14 @@
 				prevGroupTotal = groupTotal;
 				for (int sensitiveGroup = 0; sensitiveGroup < prevGroupTotal; sensitiveGroup++) {
 					//  <target group table, state id set>
-					Map<Map<Integer, Integer>, Set<Integer>> invertMap = new HashMap<> ();
+					Map<IntList, Set<Integer>> invertMap = new HashMap<> ();
 					for (int sid = 0; sid < groupFlags.size (); sid++) { //use state id to iterate
 						int group = groupFlags.get (sid);
 						if (sensitiveGroup == group) {
-							Map<Integer, Integer> targetGroupTable = new HashMap<> (CommonSets.ENCODING_LENGTH);
+							IntList targetGroupTable = new IntList (CommonSets.ENCODING_LENGTH);
+							int[] row = renamedDFATransitionTable.get (sid);
 							for (char ch = 0; ch < CommonSets.ENCODING_LENGTH; ch++) {
-								int targetState = renamedDFATransitionTable.get (sid)[ch];
-								int targetGroup = groupFlags.get (targetState);
-								targetGroupTable.put ((int) ch, targetGroup);
+								targetGroupTable.add (groupFlags.get (row[ch]));
 							}
 							Set<Integer> stateIDSet = invertMap.get (targetGroupTable);
 							if (stateIDSet == null) {
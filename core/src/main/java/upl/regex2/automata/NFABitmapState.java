@@ -1,9 +1,7 @@
 package upl.regex2.automata;
 
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Objects;
+import upl.util.CharObjectMap;
 
 /**
  * Bitmap based NFA State. This should always be used to represent each NFA States once the NFA is fully constructed.
@@ -11,7 +9,7 @@ import java.util.Objects;
 public class NFABitmapState {
     protected final NFABitmapStatePack directTable;
     protected final NFABitmapStateManager manager;
-    protected final Map<Character, NFABitmapStatePack> transitionMap = new HashMap<>();
+    protected final CharObjectMap<NFABitmapStatePack> transitionMap = new CharObjectMap<>();
     protected final int id;
 
     protected boolean writable = true;
@@ -41,8 +39,8 @@ public class NFABitmapState {
         return directTable;
     }
 
-    public Map<Character, NFABitmapStatePack> getTransitionMap() {
-        return Collections.unmodifiableMap(transitionMap);
+    public NFABitmapStatePack getTransition(char ch) {
+        return transitionMap.get(ch);
     }
 
     public int getId() {
@@ -51,8 +49,8 @@ public class NFABitmapState {
 
     public void freeze() {
         directTable.freeze();
-        for (Map.Entry<Character, NFABitmapStatePack> entry : transitionMap.entrySet()) {
-            entry.getValue().freeze();
+        for (int slot = transitionMap.next(-1); slot >= 0; slot = transitionMap.next(slot)) {
+            transitionMap.valueAt(slot).freeze();
         }
         writable = false;
     }
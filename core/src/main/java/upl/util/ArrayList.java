@@ -17,6 +17,16 @@
 			object = new java.util.ArrayList<> (length);
 		}
 		
+		/**
+		 * Makes room for at least {@code capacity} values.
+		 */
+		public void ensureCapacity (int capacity) {
+			
+			if (object instanceof java.util.ArrayList)
+				((java.util.ArrayList<V>) object).ensureCapacity (capacity);
+			
+		}
+		
 		@SafeVarargs
 		public ArrayList (V... values) {
 			super (values);
@@ -0,0 +1,361 @@
+	/*
+	 * Copyright (c) 2020 - 2024 UPL Foundation
+	 *
+	 * Licensed under the Apache License, Version 2.0 (the "License");
+	 * you may not use this file except in compliance with the License.
+	 * You may obtain a copy of the License at
+	 *
+	 *     http://www.apache.org/licenses/LICENSE-2.0
+	 *
+	 * Unless required by applicable law or agreed to in writing, software
+	 * distributed under the License is distributed on an "AS IS" BASIS,
+	 * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	 * See the License for the specific language governing permissions and
+	 * limitations under the License.
+	 */
+	
+	package upl.util;
+	
+	import java.util.Arrays;
+	import java.util.Objects;
+	
+	/**
+	 * Open-addressing hash map from primitive {@code char} keys to objects,
+	 * storing keys and values in two flat arrays without boxing or entry
+	 * objects. Collisions are resolved by linear probing and removal shifts the
+	 * following entries back, so the table never fills up with tombstones. Key
+	 * {@code 0} is kept apart from the table, where it marks free slots.
+	 *
+	 * <p>Entries are iterated without allocation either by {@link #forEach} or
+	 * by slot: <pre>
+	 * for (int slot = map.next (-1); slot &gt;= 0; slot = map.next (slot))
+	 *   use (map.keyAt (slot), map.valueAt (slot));</pre>
+	 *
+	 * The map is not thread safe and must not be modified while iterated by
+	 * slot.
+	 *
+	 * @param <V> the type of values
+	 */
+	public class CharObjectMap<V> {
+		
+		public interface Consumer<V> {
+			void accept (char key, V value);
+		}
+		
+		protected char[] keys;
+		protected Object[] values;
+		
+		protected int mask, size, threshold;
+		
+		/**
+		 * Key {@code 0} lives in the extra slot {@code keys.length} of {@link #values}.
+		 */
+		protected boolean hasZero = false;
+		
+		public CharObjectMap () {
+			this (PrimitiveHash.DEFAULT_CAPACITY);
+		}
+		
+		public CharObjectMap (int capacity) {
+			allocate (PrimitiveHash.tableSize (capacity));
+		}
+		
+		private void allocate (int length) {
+			
+			keys = new char[length];
+			values = new Object[length + 1];
+			
+			mask = length - 1;
+			threshold = PrimitiveHash.threshold (length);
+			
+		}
+		
+		private int find (char key) {
+			
+			if (key == 0)
+				return (hasZero ? keys.length : -1);
+			
+			for (int i = PrimitiveHash.mix ((int) key) & mask; ; i = (i + 1) & mask) {
+				
+				if (keys[i] == key)
+					return i;
+				else if (keys[i] == 0)
+					return -1;
+				
+			}
+			
+		}
+		
+		public int length () {
+			return size;
+		}
+		
+		public int size () {
+			return size;
+		}
+		
+		public boolean isEmpty () {
+			return size == 0;
+		}
+		
+		public boolean containsKey (char key) {
+			return find (key) >= 0;
+		}
+		
+		public V get (char key) {
+			return get (key, null);
+		}
+		
+		@SuppressWarnings ("unchecked")
+		public V get (char key, V defVal) {
+			
+			int slot = find (key);
+			return (slot >= 0 ? (V) values[slot] : defVal);
+			
+		}
+		
+		/**
+		 * Maps {@code key} to {@code value}, returning the previous value or
+		 * {@code null}.
+		 */
+		@SuppressWarnings ("unchecked")
+		public V put (char key, V value) {
+			
+			if (key == 0) {
+				
+				V previous = (V) values[keys.length];
+				
+				values[keys.length] = value;
+				
+				if (!hasZero) {
+					
+					hasZero = true;
+					size++;
+					
+				}
+				
+				return previous;
+				
+			}
+			
+			int i = PrimitiveHash.mix ((int) key) & mask;
+			
+			for (; keys[i] != 0; i = (i + 1) & mask)
+				if (keys[i] == key) {
+					
+					V previous = (V) values[i];
+					
+					values[i] = value;
+					
+					return previous;
+					
+				}
+			
+			keys[i] = key;
+			values[i] = value;
+			
+			if (++size > threshold)
+				rehash (keys.length * 2);
+			
+			return null;
+			
+		}
+		
+		/**
+		 * Removes {@code key}, returning its value or {@code null}.
+		 */
+		@SuppressWarnings ("unchecked")
+		public V remove (char key) {
+			
+			int slot = find (key);
+			
+			if (slot < 0)
+				return null;
+			
+			V previous = (V) values[slot];
+			
+			values[slot] = null;
+			size--;
+			
+			if (slot == keys.length)
+				hasZero = false;
+			else
+				shift (slot);
+			
+			return previous;
+			
+		}
+		
+		/**
+		 * Moves back the entries following the freed {@code slot} which would be
+		 * unreachable otherwise.
+		 */
+		private void shift (int slot) {
+			
+			for (int i = (slot + 1) & mask; keys[i] != 0; i = (i + 1) & mask) {
+				
+				char key = keys[i];
+				int home = PrimitiveHash.mix ((int) key) & mask;
+				
+				if (((i - home) & mask) >= ((i - slot) & mask)) {
+					
+					keys[slot] = key;
+					values[slot] = values[i];
+					
+					slot = i;
+					
+				}
+				
+			}
+			
+			keys[slot] = 0;
+			values[slot] = null;
+			
+		}
+		
+		private void rehash (int length) {
+			
+			char[] oldKeys = keys;
+			Object[] oldValues = values;
+			
+			allocate (length);
+			
+			values[keys.length] = oldValues[oldKeys.length];
+			
+			for (int j = 0; j < oldKeys.length; j++) {
+				
+				char key = oldKeys[j];
+				
+				if (key != 0) {
+					
+					int i = PrimitiveHash.mix ((int) key) & mask;
+					
+					while (keys[i] != 0)
+						i = (i + 1) & mask;
+					
+					keys[i] = key;
+					values[i] = oldValues[j];
+					
+				}
+				
+			}
+			
+		}
+		
+		public void clear () {
+			
+			Arrays.fill (keys, (char) 0);
+			Arrays.fill (values, null);
+			
+			size = 0;
+			hasZero = false;
+			
+		}
+		
+		/**
+		 * Returns the slot of the entry following {@code slot}, or -1 past the
+		 * last one. Iteration starts from slot -1.
+		 */
+		public int next (int slot) {
+			
+			while (++slot < keys.length)
+				if (keys[slot] != 0)
+					return slot;
+			
+			return (slot == keys.length && hasZero ? slot : -1);
+			
+		}
+		
+		public char keyAt (int slot) {
+			return (slot == keys.length ? 0 : keys[slot]);
+		}
+		
+		@SuppressWarnings ("unchecked")
+		public V valueAt (int slot) {
+			return (V) values[slot];
+		}
+		
+		public void forEach (Consumer<? super V> consumer) {
+			
+			for (int slot = next (-1); slot >= 0; slot = next (slot))
+				consumer.accept (keyAt (slot), valueAt (slot));
+			
+		}
+		
+		public char[] keys () {
+			
+			char[] result = new char[size];
+			
+			int i = 0;
+			
+			for (int slot = next (-1); slot >= 0; slot = next (slot))
+				result[i++] = keyAt (slot);
+			
+			return result;
+			
+		}
+		
+		public String implode () {
+			return implode ("\n");
+		}
+		
+		public String implode (String sep1) {
+			return implode (sep1, ": ");
+		}
+		
+		public String implode (String sep1, String sep2) {
+			
+			StringBuilder output = new StringBuilder ();
+			
+			for (int slot = next (-1); slot >= 0; slot = next (slot)) {
+				
+				if (output.length () > 0) output.append (sep1);
+				output.append (keyAt (slot)).append (sep2).append (valueAt (slot));
+				
+			}
+			
+			return output.toString ();
+			
+		}
+		
+		@Override
+		public boolean equals (Object object) {
+			
+			if (object == this) return true;
+			if (!(object instanceof CharObjectMap)) return false;
+			
+			CharObjectMap<?> map = (CharObjectMap<?>) object;
+			
+			if (map.size != size) return false;
+			
+			for (int slot = next (-1); slot >= 0; slot = next (slot)) {
+				
+				int other = map.find (keyAt (slot));
+				
+				if (other < 0 || !Objects.equals (values[slot], map.values[other]))
+					return false;
+				
+			}
+			
+			return true;
+			
+		}
+		
+		@Override
+		public int hashCode () {
+			
+			int hash = 0;
+			
+			for (int slot = next (-1); slot >= 0; slot = next (slot))
+				hash += Character.hashCode (keyAt (slot)) ^ Objects.hashCode (values[slot]);
+			
+			return hash;
+			
+		}
+		
+		@Override
+		public String toString () {
+			return implode (", ");
+		}
+		
+	}
\ No newline at end of file
@@ -0,0 +1,840 @@
+	/*
+	 * Copyright (c) 2020 - 2024 UPL Foundation
+	 *
+	 * Licensed under the Apache License, Version 2.0 (the "License");
+	 * you may not use this file except in compliance with the License.
+	 * You may obtain a copy of the License at
+	 *
+	 *     http://www.apache.org/licenses/LICENSE-2.0
+	 *
+	 * Unless required by applicable law or agreed to in writing, software
+	 * distributed under the License is distributed on an "AS IS" BASIS,
+	 * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	 * See the License for the specific language governing permissions and
+	 * limitations under the License.
+	 */
+	
+	package upl.util;
+	
+	import java.util.AbstractCollection;
+	import java.util.AbstractSet;
+	import java.util.Arrays;
+	import java.util.Collection;
+	import java.util.ConcurrentModificationException;
+	import java.util.Iterator;
+	import java.util.NoSuchElementException;
+	import java.util.Objects;
+	import java.util.Set;
+	import java.util.concurrent.ConcurrentHashMap;
+	import java.util.concurrent.atomic.AtomicInteger;
+	import javax.annotation.NonNull;
+	
+	/**
+	 * Insertion-ordered map keeping keys and values in two flat arrays instead of
+	 * a table of entry objects. Small maps are searched linearly; once they grow
+	 * past {@link #LINEAR_LIMIT} entries an open-addressing index of array
+	 * positions is built. Removed entries leave a tombstone which is compacted
+	 * away on the next growth.
+	 *
+	 * <p>Compared to {@link LinkedHashMap} a map holds three arrays and no
+	 * per-entry objects, which matters when millions of small maps (parsed
+	 * {@code JSONObject}s for example) are alive at the same time.
+	 *
+	 * <p>Maps created from a {@link Shape} go one step further: maps which
+	 * received the same keys in the same order share a single key array and
+	 * index, and each of them only stores its values. The map leaves the shape
+	 * and takes a private copy of its keys as soon as a key is removed or a key
+	 * leads outside the shape tree.
+	 *
+	 * @param <K> the type of keys
+	 * @param <V> the type of values
+	 */
+	public class CompactHashMap<K, V> extends Map<K, V> {
+		
+		/**
+		 * Maps up to this size are searched linearly and have no index.
+		 */
+		public static final int LINEAR_LIMIT = 8;
+		
+		private static final Object[] EMPTY = {};
+		private static final Object REMOVED = new Object ();
+		
+		/**
+		 * Index slot of a removed entry, probing continues past it.
+		 */
+		private static final int DELETED = -1;
+		
+		protected Object[] entryKeys, entryValues;
+		
+		/**
+		 * Open-addressing table of entry positions plus one, 0 marks a free slot.
+		 */
+		protected int[] index;
+		
+		/**
+		 * Number of used entry positions, including tombstones.
+		 */
+		protected int used = 0;
+		
+		protected int size = 0;
+		
+		protected int modCount = 0;
+		
+		/**
+		 * Shape whose keys and index this map shares, or null when it owns them.
+		 */
+		protected Shape shape;
+		
+		public CompactHashMap () {
+			this (0);
+		}
+		
+		/**
+		 * @param capacity number of entries the map can hold without growing.
+		 */
+		public CompactHashMap (int capacity) {
+			
+			if (capacity > 0) {
+				
+				entryKeys = new Object[capacity];
+				entryValues = new Object[capacity];
+				
+				if (capacity > LINEAR_LIMIT)
+					index = new int[tableSize (capacity)];
+				
+			} else {
+				
+				entryKeys = EMPTY;
+				entryValues = EMPTY;
+				
+			}
+			
+		}
+		
+		/**
+		 * Creates an empty map which follows the transitions of {@code shape}, the
+		 * root of a shape tree usually shared by all maps of one kind of record.
+		 */
+		public CompactHashMap (Shape shape) {
+			
+			this.shape = shape;
+			
+			entryKeys = shape.keys;
+			entryValues = EMPTY;
+			index = shape.index;
+			
+		}
+		
+		private static int tableSize (int capacity) {
+			return Integer.highestOneBit (capacity * 2 - 1) << 1; // load factor stays below 0.5
+		}
+		
+		private static int hash (Object key) {
+			
+			int h = (key == null ? 0 : key.hashCode ());
+			return h ^ (h >>> 16);
+			
+		}
+		
+		/**
+		 * Returns the entry position of {@code key}, or -1.
+		 */
+		protected int position (Object key) {
+			
+			if (index == null) {
+				
+				for (int i = 0; i < used; i++)
+					if (entryKeys[i] != REMOVED && Objects.equals (entryKeys[i], key))
+						return i;
+				
+				return -1;
+				
+			}
+			
+			int slot = slot (key);
+			return slot >= 0 ? index[slot] - 1 : -1;
+			
+		}
+		
+		/**
+		 * Returns the index slot holding {@code key}, or -1.
+		 */
+		private int slot (Object key) {
+			
+			int mask = index.length - 1;
+			
+			for (int i = hash (key) & mask; ; i = (i + 1) & mask) {
+				
+				int entry = index[i];
+				
+				if (entry == 0)
+					return -1;
+				else if (entry != DELETED && Objects.equals (entryKeys[entry - 1], key))
+					return i;
+				
+			}
+			
+		}
+		
+		/**
+		 * Returns the value stored at entry {@code position}. Every read of a value
+		 * goes through here, so subclasses keeping values in a deferred form can
+		 * resolve them on first access.
+		 */
+		@SuppressWarnings ("unchecked")
+		protected V valueAt (int position) {
+			return (V) entryValues[position];
+		}
+		
+		private void indexPosition (int position) {
+			indexPosition (index, entryKeys, position);
+		}
+		
+		private static void indexPosition (int[] index, Object[] keys, int position) {
+			
+			int mask = index.length - 1;
+			int i = hash (keys[position]) & mask;
+			
+			while (index[i] > 0)
+				i = (i + 1) & mask;
+			
+			index[i] = position + 1;
+			
+		}
+		
+		/**
+		 * Makes room for at least {@code capacity} entries.
+		 */
+		public void ensureCapacity (int capacity) {
+			
+			if (shape != null) {
+				
+				if (capacity > entryValues.length)
+					entryValues = Arrays.copyOf (entryValues, capacity);
+				
+			} else if (capacity > entryKeys.length)
+				resize (Math.max (capacity, entryKeys.length * 2));
+			
+		}
+		
+		/**
+		 * Returns the shape this map currently shares its keys with, or null.
+		 */
+		public Shape getShape () {
+			return shape;
+		}
+		
+		/**
+		 * Makes an empty map follow the transitions of {@code shape}. Does nothing
+		 * if the map already holds entries.
+		 */
+		public void setShape (Shape shape) {
+			
+			if (used == 0) {
+				
+				this.shape = shape;
+				
+				entryKeys = shape.keys;
+				index = shape.index;
+				
+			}
+			
+		}
+		
+		/**
+		 * Takes a private copy of the shared keys and index.
+		 */
+		private void unshare () {
+			
+			shape = null;
+			index = null; // the shape's own, reindex must not refill it
+			
+			resize (Math.max (4, entryValues.length));
+			
+		}
+		
+		/**
+		 * Reallocates the arrays with the given capacity, dropping tombstones and
+		 * rebuilding the index.
+		 */
+		private void resize (int capacity) {
+			
+			Object[] newKeys = new Object[capacity];
+			Object[] newValues = new Object[capacity];
+			
+			int total = 0;
+			
+			for (int i = 0; i < used; i++) {
+				
+				if (entryKeys[i] != REMOVED) {
+					
+					newKeys[total] = entryKeys[i];
+					newValues[total] = entryValues[i];
+					
+					total++;
+					
+				}
+				
+			}
+			
+			entryKeys = newKeys;
+			entryValues = newValues;
+			used = total;
+			
+			reindex ();
+			
+		}
+		
+		private void reindex () {
+			
+			if (entryKeys.length > LINEAR_LIMIT) {
+				
+				int length = tableSize (entryKeys.length);
+				
+				if (index == null || index.length != length)
+					index = new int[length];
+				else
+					Arrays.fill (index, 0);
+				
+				for (int i = 0; i < used; i++)
+					indexPosition (i);
+				
+			} else index = null;
+			
+		}
+		
+		@Override
+		public int size () {
+			return size;
+		}
+		
+		@Override
+		public boolean isEmpty () {
+			return size == 0;
+		}
+		
+		@Override
+		public boolean containsKey (Object key) {
+			return position (key) >= 0;
+		}
+		
+		@Override
+		public boolean containsValue (Object value) {
+			
+			for (int i = 0; i < used; i++)
+				if (entryKeys[i] != REMOVED && Objects.equals (valueAt (i), value))
+					return true;
+			
+			return false;
+			
+		}
+		
+		@Override
+		public V get (Object key) {
+			
+			int position = position (key);
+			return position >= 0 ? valueAt (position) : null;
+			
+		}
+		
+		@Override
+		public V put (K key, V value) {
+			
+			value = super.put (key, value);
+			
+			int position = position (key);
+			
+			if (position >= 0) {
+				
+				V old = valueAt (position);
+				entryValues[position] = value;
+				
+				return old;
+				
+			}
+			
+			if (shape != null) {
+				
+				Shape next = shape.next (key);
+				
+				if (next != null) {
+					
+					if (used == entryValues.length)
+						entryValues = Arrays.copyOf (entryValues, Math.max (4, used * 2));
+					
+					shape = next;
+					
+					entryKeys = next.keys;
+					index = next.index;
+					entryValues[used] = value;
+					
+					used++;
+					size++;
+					modCount++;
+					
+					return null;
+					
+				}
+				
+				unshare ();
+				
+			}
+			
+			if (used == entryKeys.length) {
+				
+				if (size < used && size < entryKeys.length - (entryKeys.length >> 2))
+					resize (entryKeys.length); // enough tombstones to make room in place
+				else
+					resize (Math.max (4, entryKeys.length * 2));
+				
+			}
+			
+			entryKeys[used] = key;
+			entryValues[used] = value;
+			
+			if (index != null)
+				indexPosition (used);
+			
+			used++;
+			size++;
+			modCount++;
+			
+			return null;
+			
+		}
+		
+		@Override
+		public V remove (Object key) {
+			
+			int position = position (key);
+			return position >= 0 ? removeAt (position) : null;
+			
+		}
+		
+		protected V removeAt (int position) {
+			
+			if (shape != null)
+				unshare (); // positions stay the same, shaped maps have no tombstones
+			
+			V old = valueAt (position);
+			
+			if (index != null)
+				index[slot (entryKeys[position])] = DELETED;
+			
+			entryKeys[position] = REMOVED;
+			entryValues[position] = null;
+			
+			if (position == used - 1 && index == null)
+				used--;
+			
+			size--;
+			modCount++;
+			
+			return old;
+			
+		}
+		
+		@Override
+		public void putAll (@NonNull java.util.Map<? extends K, ? extends V> map) {
+			
+			ensureCapacity (size + map.size ());
+			
+			for (java.util.Map.Entry<? extends K, ? extends V> entry : map.entrySet ())
+				put (entry.getKey (), entry.getValue ());
+			
+		}
+		
+		@Override
+		public void clear () {
+			
+			if (shape != null) {
+				
+				Arrays.fill (entryValues, 0, used, null);
+				
+				shape = shape.root;
+				
+				entryKeys = shape.keys;
+				index = shape.index;
+				used = 0;
+				size = 0;
+				modCount++;
+				
+				return;
+				
+			}
+			
+			Arrays.fill (entryKeys, 0, used, null);
+			Arrays.fill (entryValues, 0, used, null);
+			
+			if (index != null)
+				Arrays.fill (index, 0);
+			
+			used = 0;
+			size = 0;
+			modCount++;
+			
+		}
+		
+		@Override
+		public int hashCode () {
+			
+			int hash = 0;
+			
+			for (int i = 0; i < used; i++)
+				if (entryKeys[i] != REMOVED)
+					hash += Objects.hashCode (entryKeys[i]) ^ Objects.hashCode (valueAt (i));
+			
+			return hash;
+			
+		}
+		
+		@Override
+		@NonNull
+		public Set<K> keySet () {
+			
+			return new AbstractSet<> () {
+				
+				@Override
+				public Iterator<K> iterator () {
+					
+					return new PositionIterator<> () {
+						
+						@Override
+						@SuppressWarnings ("unchecked")
+						protected K get (int position) {
+							return (K) entryKeys[position];
+						}
+						
+					};
+					
+				}
+				
+				@Override
+				public int size () {
+					return size;
+				}
+				
+				@Override
+				public boolean contains (Object key) {
+					return containsKey (key);
+				}
+				
+				@Override
+				public boolean remove (Object key) {
+					
+					int position = position (key);
+					
+					if (position >= 0) {
+						
+						removeAt (position);
+						return true;
+						
+					}
+					
+					return false;
+					
+				}
+				
+			};
+			
+		}
+		
+		@Override
+		@NonNull
+		public Collection<V> values () {
+			
+			return new AbstractCollection<> () {
+				
+				@Override
+				public Iterator<V> iterator () {
+					
+					return new PositionIterator<> () {
+						
+						@Override
+						protected V get (int position) {
+							return valueAt (position);
+						}
+						
+					};
+					
+				}
+				
+				@Override
+				public int size () {
+					return size;
+				}
+				
+			};
+			
+		}
+		
+		@Override
+		@NonNull
+		public Set<java.util.Map.Entry<K, V>> entrySet () {
+			
+			return new AbstractSet<> () {
+				
+				@Override
+				public Iterator<java.util.Map.Entry<K, V>> iterator () {
+					
+					return new PositionIterator<> () {
+						
+						@Override
+						protected java.util.Map.Entry<K, V> get (int position) {
+							return new Entry (position);
+						}
+						
+					};
+					
+				}
+				
+				@Override
+				public int size () {
+					return size;
+				}
+				
+			};
+			
+		}
+		
+		/**
+		 * Write-through entry addressing an array position.
+		 */
+		protected class Entry implements java.util.Map.Entry<K, V> {
+			
+			protected final int position;
+			
+			protected Entry (int position) {
+				this.position = position;
+			}
+			
+			@Override
+			@SuppressWarnings ("unchecked")
+			public K getKey () {
+				return (K) entryKeys[position];
+			}
+			
+			@Override
+			public V getValue () {
+				return valueAt (position);
+			}
+			
+			@Override
+			public V setValue (V value) {
+				
+				V old = valueAt (position);
+				entryValues[position] = value;
+				
+				return old;
+				
+			}
+			
+			@Override
+			public boolean equals (Object o) {
+				
+				if (!(o instanceof java.util.Map.Entry)) return false;
+				
+				java.util.Map.Entry<?, ?> entry = (java.util.Map.Entry<?, ?>) o;
+				
+				return Objects.equals (getKey (), entry.getKey ()) && Objects.equals (getValue (), entry.getValue ());
+				
+			}
+			
+			@Override
+			public int hashCode () {
+				return Objects.hashCode (getKey ()) ^ Objects.hashCode (getValue ());
+			}
+			
+			@Override
+			public String toString () {
+				return getKey () + "=" + getValue ();
+			}
+			
+		}
+		
+		/**
+		 * Walks live entry positions in insertion order.
+		 */
+		protected abstract class PositionIterator<T> implements Iterator<T> {
+			
+			protected int next = 0, last = -1;
+			protected int expectedModCount = modCount;
+			
+			protected abstract T get (int position);
+			
+			@Override
+			public boolean hasNext () {
+				
+				while (next < used && entryKeys[next] == REMOVED)
+					next++;
+				
+				return next < used;
+				
+			}
+			
+			@Override
+			public T next () {
+				
+				if (modCount != expectedModCount)
+					throw new ConcurrentModificationException ();
+				
+				if (!hasNext ())
+					throw new NoSuchElementException ();
+				
+				last = next++;
+				
+				return get (last);
+				
+			}
+			
+			@Override
+			public void remove () {
+				
+				if (last < 0)
+					throw new IllegalStateException ();
+				
+				if (modCount != expectedModCount)
+					throw new ConcurrentModificationException ();
+				
+				removeAt (last);
+				
+				last = -1;
+				expectedModCount = modCount;
+				
+			}
+			
+		}
+		
+		/**
+		 * Node of a shape tree: an ordered key sequence with its index, plus the
+		 * shapes reached by appending one more key. The tree is bounded, once it
+		 * holds {@link #getLimit} shapes or a shape reaches {@link #MAX_KEYS} keys
+		 * new layouts are not recorded and maps store their own keys again.
+		 *
+		 * <p>A tree may be shared by maps populated from several threads.
+		 */
+		public static class Shape {
+			
+			/**
+			 * Longest key sequence a shape can describe.
+			 */
+			public static final int MAX_KEYS = 64;
+			
+			protected final Shape root;
+			
+			protected final Object[] keys;
+			protected final int[] index;
+			
+			protected final ConcurrentHashMap<Object, Shape> transitions = new ConcurrentHashMap<> (4);
+			
+			/**
+			 * Last transition taken, which on homogeneous data is the next one too.
+			 */
+			private volatile Shape last;
+			
+			private final int limit;
+			private final AtomicInteger count;
+			
+			/**
+			 * Creates the root of a tree holding up to 1024 shapes.
+			 */
+			public Shape () {
+				this (1024);
+			}
+			
+			/**
+			 * Creates the root of a tree holding up to {@code limit} shapes.
+			 */
+			public Shape (int limit) {
+				
+				root = this;
+				keys = EMPTY;
+				index = null;
+				
+				this.limit = limit;
+				count = new AtomicInteger (1);
+				
+			}
+			
+			private Shape (Shape parent, Object key) {
+				
+				root = parent.root;
+				limit = parent.limit;
+				count = parent.count;
+				
+				keys = Arrays.copyOf (parent.keys, parent.keys.length + 1);
+				keys[parent.keys.length] = key;
+				
+				if (keys.length > LINEAR_LIMIT) {
+					
+					index = new int[tableSize (keys.length)];
+					
+					for (int i = 0; i < keys.length; i++)
+						indexPosition (index, keys, i);
+					
+				} else index = null;
+				
+			}
+			
+			/**
+			 * Returns the shape reached by appending {@code key}, or null if the tree
+			 * is full.
+			 */
+			public Shape next (Object key) {
+				
+				Shape shape = last;
+				
+				if (shape != null && Objects.equals (shape.keys[keys.length], key))
+					return shape;
+				
+				shape = transitions.get (key);
+				
+				if (shape == null) {
+					
+					if (keys.length >= MAX_KEYS || count.get () >= limit)
+						return null;
+					
+					Shape created = new Shape (this, key);
+					
+					shape = transitions.putIfAbsent (key, created);
+					
+					if (shape == null) {
+						
+						count.incrementAndGet ();
+						shape = created;
+						
+					}
+					
+				}
+				
+				last = shape;
+				
+				return shape;
+				
+			}
+			
+			/**
+			 * Returns the keys of this shape in insertion order.
+			 */
+			public Object[] getKeys () {
+				return keys.clone ();
+			}
+			
+			public int size () {
+				return keys.length;
+			}
+			
+			/**
+			 * Returns the number of shapes recorded in the tree.
+			 */
+			public int getCount () {
+				return count.get ();
+			}
+			
+			public int getLimit () {
+				return limit;
+			}
+			
+		}
+		
+	}
\ No newline at end of file
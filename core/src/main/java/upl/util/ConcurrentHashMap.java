@@ -0,0 +1,108 @@
+	/*
+	 * Copyright (c) 2020 - 2024 UPL Foundation
+	 *
+	 * Licensed under the Apache License, Version 2.0 (the "License");
+	 * you may not use this file except in compliance with the License.
+	 * You may obtain a copy of the License at
+	 *
+	 *     http://www.apache.org/licenses/LICENSE-2.0
+	 *
+	 * Unless required by applicable law or agreed to in writing, software
+	 * distributed under the License is distributed on an "AS IS" BASIS,
+	 * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	 * See the License for the specific language governing permissions and
+	 * limitations under the License.
+	 */
+	
+	package upl.util;
+	
+	import java.util.function.BiConsumer;
+	import java.util.function.BiFunction;
+	import java.util.function.Function;
+	
+	/**
+	 * Thread safe {@link HashMap} backed by a
+	 * {@link java.util.concurrent.ConcurrentHashMap}: reads don't lock and
+	 * iteration is weakly consistent, never throwing
+	 * {@link java.util.ConcurrentModificationException}. The compound
+	 * operations ({@code getOrDefault}, {@code putIfAbsent},
+	 * {@code computeIfAbsent}, {@code merge} and so on) are atomic, unlike the
+	 * default ones of {@link java.util.Map}, and {@code replaceAll} is atomic
+	 * for each key.
+	 *
+	 * <p>Null keys are not permitted, null values are stored as {@code "null"}
+	 * as by any {@link Map}. A null result of a remapping function removes the
+	 * key.
+	 *
+	 * @see ConcurrentLinkedHashMap
+	 */
+	public class ConcurrentHashMap<K, V> extends HashMap<K, V> {
+		
+		public ConcurrentHashMap () {
+			super (new java.util.concurrent.ConcurrentHashMap<> ());
+		}
+		
+		public ConcurrentHashMap (int capacity) {
+			super (new java.util.concurrent.ConcurrentHashMap<> (capacity));
+		}
+		
+		@Override
+		public V getOrDefault (Object key, V defVal) {
+			return object.getOrDefault (key, defVal);
+		}
+		
+		@Override
+		public void forEach (BiConsumer<? super K, ? super V> action) {
+			object.forEach (action);
+		}
+		
+		@Override
+		public void replaceAll (BiFunction<? super K, ? super V, ? extends V> function) {
+			object.replaceAll ((k, v) -> check (k, function.apply (k, v)));
+		}
+		
+		@Override
+		public V putIfAbsent (K key, V value) {
+			return object.putIfAbsent (key, check (key, value));
+		}
+		
+		@Override
+		public boolean remove (Object key, Object value) {
+			return object.remove (key, value);
+		}
+		
+		@Override
+		public boolean replace (K key, V oldValue, V newValue) {
+			return object.replace (key, oldValue, check (key, newValue));
+		}
+		
+		@Override
+		public V replace (K key, V value) {
+			return object.replace (key, check (key, value));
+		}
+		
+		@Override
+		public V computeIfAbsent (K key, Function<? super K, ? extends V> function) {
+			return object.computeIfAbsent (key, k -> checkNullable (k, function.apply (k)));
+		}
+		
+		@Override
+		public V computeIfPresent (K key, BiFunction<? super K, ? super V, ? extends V> function) {
+			return object.computeIfPresent (key, (k, v) -> checkNullable (k, function.apply (k, v)));
+		}
+		
+		@Override
+		public V compute (K key, BiFunction<? super K, ? super V, ? extends V> function) {
+			return object.compute (key, (k, v) -> checkNullable (k, function.apply (k, v)));
+		}
+		
+		@Override
+		public V merge (K key, V value, BiFunction<? super V, ? super V, ? extends V> function) {
+			return object.merge (key, check (key, value), (v1, v2) -> checkNullable (key, function.apply (v1, v2)));
+		}
+		
+		private V checkNullable (K key, V value) {
+			return (value != null ? check (key, value) : null);
+		}
+		
+	}
\ No newline at end of file
@@ -0,0 +1,664 @@
+	/*
+	 * Copyright (c) 2020 - 2024 UPL Foundation
+	 *
+	 * Licensed under the Apache License, Version 2.0 (the "License");
+	 * you may not use this file except in compliance with the License.
+	 * You may obtain a copy of the License at
+	 *
+	 *     http://www.apache.org/licenses/LICENSE-2.0
+	 *
+	 * Unless required by applicable law or agreed to in writing, software
+	 * distributed under the License is distributed on an "AS IS" BASIS,
+	 * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	 * See the License for the specific language governing permissions and
+	 * limitations under the License.
+	 */
+	
+	package upl.util;
+	
+	import java.util.AbstractMap;
+	import java.util.AbstractSet;
+	import java.util.Iterator;
+	import java.util.NoSuchElementException;
+	import java.util.Objects;
+	import java.util.Set;
+	import java.util.function.BiConsumer;
+	import java.util.function.BiFunction;
+	import java.util.function.Function;
+	
+	/**
+	 * Thread safe, insertion-ordered {@link LinkedHashMap}.
+	 *
+	 * <p>Entries are nodes indexed by a
+	 * {@link java.util.concurrent.ConcurrentHashMap} and linked in insertion
+	 * order. Reads look the node up and read its volatile value without
+	 * locking. Writers lock one of several stripes chosen by the key hash, so
+	 * writers of different keys rarely contend, and take a short list lock only
+	 * to link or unlink a node when a key is added or removed. Replacing the
+	 * value of an existing key never touches the list lock.
+	 *
+	 * <p>Iteration follows the links without locking and is weakly consistent
+	 * as in {@link java.util.concurrent.ConcurrentHashMap}: it never throws
+	 * {@link java.util.ConcurrentModificationException} and it skips entries
+	 * removed meanwhile. It stops at the last entry linked when it started, so
+	 * it returns every key at most once even if the key is removed and added
+	 * again meanwhile. The compound operations ({@code getOrDefault},
+	 * {@code putIfAbsent}, {@code computeIfAbsent}, {@code merge} and so on)
+	 * are atomic and {@code replaceAll} is atomic for each key; their
+	 * functions run under the stripe lock and must not modify the map.
+	 *
+	 * <p>Null keys are not permitted, null values are stored as {@code "null"}
+	 * as by any {@link Map}. A null result of a remapping function removes the
+	 * key.
+	 *
+	 * @see ConcurrentHashMap
+	 */
+	public class ConcurrentLinkedHashMap<K, V> extends LinkedHashMap<K, V> {
+		
+		public ConcurrentLinkedHashMap () {
+			this (16);
+		}
+		
+		public ConcurrentLinkedHashMap (int capacity) {
+			super (new Table<> (capacity));
+		}
+		
+		@SuppressWarnings ("unchecked")
+		private Table<K, V> table () {
+			return (Table<K, V>) object;
+		}
+		
+		@Override
+		public V getOrDefault (Object key, V defVal) {
+			return table ().getOrDefault (key, defVal);
+		}
+		
+		@Override
+		public void forEach (BiConsumer<? super K, ? super V> action) {
+			table ().forEach (action);
+		}
+		
+		@Override
+		public void replaceAll (BiFunction<? super K, ? super V, ? extends V> function) {
+			table ().replaceAll ((k, v) -> check (k, function.apply (k, v)));
+		}
+		
+		@Override
+		public V putIfAbsent (K key, V value) {
+			return table ().putIfAbsent (key, check (key, value));
+		}
+		
+		@Override
+		public boolean remove (Object key, Object value) {
+			return table ().remove (key, value);
+		}
+		
+		@Override
+		public boolean replace (K key, V oldValue, V newValue) {
+			return table ().replace (key, oldValue, check (key, newValue));
+		}
+		
+		@Override
+		public V replace (K key, V value) {
+			return table ().replace (key, check (key, value));
+		}
+		
+		@Override
+		public V computeIfAbsent (K key, Function<? super K, ? extends V> function) {
+			return table ().computeIfAbsent (key, k -> checkNullable (k, function.apply (k)));
+		}
+		
+		@Override
+		public V computeIfPresent (K key, BiFunction<? super K, ? super V, ? extends V> function) {
+			return table ().computeIfPresent (key, (k, v) -> checkNullable (k, function.apply (k, v)));
+		}
+		
+		@Override
+		public V compute (K key, BiFunction<? super K, ? super V, ? extends V> function) {
+			return table ().compute (key, (k, v) -> checkNullable (k, function.apply (k, v)));
+		}
+		
+		@Override
+		public V merge (K key, V value, BiFunction<? super V, ? super V, ? extends V> function) {
+			return table ().merge (key, check (key, value), (v1, v2) -> checkNullable (key, function.apply (v1, v2)));
+		}
+		
+		private V checkNullable (K key, V value) {
+			return (value != null ? check (key, value) : null);
+		}
+		
+		private static final class Node<K, V> implements java.util.Map.Entry<K, V> {
+			
+			private final K key;
+			private volatile V value;
+			
+			/**
+			 * Links, changed under the list lock only. A removed node keeps its
+			 * {@code next} link so that iterators standing on it can go on.
+			 */
+			private volatile Node<K, V> next;
+			private Node<K, V> previous;
+			
+			/**
+			 * Position in the order of linking, set under the list lock before
+			 * the node is published through {@code next}.
+			 */
+			private long order = -1;
+			
+			private volatile boolean removed = false;
+			
+			private Node (K key, V value) {
+				
+				this.key = key;
+				this.value = value;
+				
+			}
+			
+			@Override
+			public K getKey () {
+				return key;
+			}
+			
+			@Override
+			public V getValue () {
+				return value;
+			}
+			
+			/**
+			 * Unlike the map itself this is not atomic with concurrent writers of
+			 * the same key, as in {@link java.util.concurrent.ConcurrentHashMap}.
+			 */
+			@Override
+			public V setValue (V value) {
+				
+				V previous = this.value;
+				
+				this.value = Objects.requireNonNull (value);
+				
+				return previous;
+				
+			}
+			
+			@Override
+			public boolean equals (Object object) {
+				
+				if (!(object instanceof java.util.Map.Entry)) return false;
+				
+				java.util.Map.Entry<?, ?> entry = (java.util.Map.Entry<?, ?>) object;
+				
+				return key.equals (entry.getKey ()) && Objects.equals (value, entry.getValue ());
+				
+			}
+			
+			@Override
+			public int hashCode () {
+				return key.hashCode () ^ Objects.hashCode (value);
+			}
+			
+			@Override
+			public String toString () {
+				return key + "=" + value;
+			}
+			
+		}
+		
+		private static final class Table<K, V> extends AbstractMap<K, V> {
+			
+			private final java.util.concurrent.ConcurrentHashMap<K, Node<K, V>> nodes;
+			private final Object[] stripes;
+			
+			/**
+			 * Sentinel before the first node, its lock guards the links.
+			 */
+			private final Node<K, V> head = new Node<> (null, null);
+			private Node<K, V> tail = head;
+			
+			/**
+			 * Number of nodes ever linked, changed under the list lock.
+			 */
+			private volatile long linked = 0;
+			
+			private Set<java.util.Map.Entry<K, V>> entrySet;
+			
+			private Table (int capacity) {
+				
+				nodes = new java.util.concurrent.ConcurrentHashMap<> (capacity);
+				stripes = new Object[Integer.highestOneBit (Math.max (1, Runtime.getRuntime ().availableProcessors ()) * 4 - 1) << 1];
+				
+				for (int i = 0; i < stripes.length; i++)
+					stripes[i] = new Object ();
+				
+			}
+			
+			private Object lock (Object key) {
+				
+				int hash = key.hashCode ();
+				hash ^= hash >>> 16;
+				
+				return stripes[hash & (stripes.length - 1)];
+				
+			}
+			
+			/**
+			 * Appends a node of a new key, called under its stripe lock.
+			 */
+			private void link (K key, V value) {
+				
+				Node<K, V> node = new Node<> (key, Objects.requireNonNull (value));
+				
+				synchronized (head) {
+					
+					node.order = linked++;
+					node.previous = tail;
+					tail.next = node;
+					tail = node;
+					
+				}
+				
+				nodes.put (key, node);
+				
+			}
+			
+			/**
+			 * Removes the node of a key, called under its stripe lock.
+			 */
+			private void unlink (Node<K, V> node) {
+				
+				nodes.remove (node.key);
+				
+				synchronized (head) {
+					
+					node.removed = true;
+					node.previous.next = node.next;
+					
+					if (node.next != null)
+						node.next.previous = node.previous;
+					else
+						tail = node.previous;
+					
+				}
+				
+			}
+			
+			@Override
+			public int size () {
+				return nodes.size ();
+			}
+			
+			@Override
+			public boolean isEmpty () {
+				return nodes.isEmpty ();
+			}
+			
+			@Override
+			public boolean containsKey (Object key) {
+				return nodes.containsKey (key);
+			}
+			
+			@Override
+			public V get (Object key) {
+				
+				Node<K, V> node = nodes.get (key);
+				return (node != null ? node.value : null);
+				
+			}
+			
+			@Override
+			public V getOrDefault (Object key, V defVal) {
+				
+				Node<K, V> node = nodes.get (key);
+				return (node != null ? node.value : defVal);
+				
+			}
+			
+			@Override
+			public void forEach (BiConsumer<? super K, ? super V> action) {
+				
+				for (NodeIterator iterator = new NodeIterator (); iterator.hasNext (); ) {
+					
+					Node<K, V> node = iterator.next ();
+					action.accept (node.key, node.value);
+					
+				}
+				
+			}
+			
+			@Override
+			public void replaceAll (BiFunction<? super K, ? super V, ? extends V> function) {
+				
+				for (NodeIterator iterator = new NodeIterator (); iterator.hasNext (); ) {
+					
+					Node<K, V> node = iterator.next ();
+					
+					synchronized (lock (node.key)) {
+						
+						if (!node.removed)
+							node.setValue (function.apply (node.key, node.value));
+						
+					}
+					
+				}
+				
+			}
+			
+			@Override
+			public V put (K key, V value) {
+				
+				synchronized (lock (key)) {
+					
+					Node<K, V> node = nodes.get (key);
+					
+					if (node != null)
+						return node.setValue (value);
+					
+					link (key, value);
+					
+					return null;
+					
+				}
+				
+			}
+			
+			@Override
+			public V remove (Object key) {
+				
+				synchronized (lock (key)) {
+					
+					Node<K, V> node = nodes.get (key);
+					
+					if (node == null)
+						return null;
+					
+					unlink (node);
+					
+					return node.value;
+					
+				}
+				
+			}
+			
+			@Override
+			public void clear () {
+				
+				for (Object key : nodes.keySet ())
+					remove (key);
+				
+			}
+			
+			@Override
+			public V putIfAbsent (K key, V value) {
+				
+				synchronized (lock (key)) {
+					
+					Node<K, V> node = nodes.get (key);
+					
+					if (node != null)
+						return node.value;
+					
+					link (key, value);
+					
+					return null;
+					
+				}
+				
+			}
+			
+			@Override
+			public boolean remove (Object key, Object value) {
+				
+				synchronized (lock (key)) {
+					
+					Node<K, V> node = nodes.get (key);
+					
+					if (node == null || !node.value.equals (value))
+						return false;
+					
+					unlink (node);
+					
+					return true;
+					
+				}
+				
+			}
+			
+			@Override
+			public boolean replace (K key, V oldValue, V newValue) {
+				
+				synchronized (lock (key)) {
+					
+					Node<K, V> node = nodes.get (key);
+					
+					if (node == null || !node.value.equals (oldValue))
+						return false;
+					
+					node.setValue (newValue);
+					
+					return true;
+					
+				}
+				
+			}
+			
+			@Override
+			public V replace (K key, V value) {
+				
+				synchronized (lock (key)) {
+					
+					Node<K, V> node = nodes.get (key);
+					return (node != null ? node.setValue (value) : null);
+					
+				}
+				
+			}
+			
+			@Override
+			public V computeIfAbsent (K key, Function<? super K, ? extends V> function) {
+				
+				Node<K, V> node = nodes.get (key);
+				
+				if (node != null)
+					return node.value;
+				
+				synchronized (lock (key)) {
+					
+					node = nodes.get (key);
+					
+					if (node != null)
+						return node.value;
+					
+					V value = function.apply (key);
+					
+					if (value != null)
+						link (key, value);
+					
+					return value;
+					
+				}
+				
+			}
+			
+			@Override
+			public V computeIfPresent (K key, BiFunction<? super K, ? super V, ? extends V> function) {
+				
+				if (!nodes.containsKey (key))
+					return null;
+				
+				synchronized (lock (key)) {
+					
+					Node<K, V> node = nodes.get (key);
+					
+					if (node == null)
+						return null;
+					
+					return update (node, function.apply (key, node.value));
+					
+				}
+				
+			}
+			
+			@Override
+			public V compute (K key, BiFunction<? super K, ? super V, ? extends V> function) {
+				
+				synchronized (lock (key)) {
+					
+					Node<K, V> node = nodes.get (key);
+					V value = function.apply (key, (node != null ? node.value : null));
+					
+					if (node != null)
+						return update (node, value);
+					
+					if (value != null)
+						link (key, value);
+					
+					return value;
+					
+				}
+				
+			}
+			
+			@Override
+			public V merge (K key, V value, BiFunction<? super V, ? super V, ? extends V> function) {
+				
+				synchronized (lock (key)) {
+					
+					Node<K, V> node = nodes.get (key);
+					
+					if (node != null)
+						return update (node, function.apply (node.value, value));
+					
+					link (key, value);
+					
+					return value;
+					
+				}
+				
+			}
+			
+			/**
+			 * Stores a remapped value, null removing the node.
+			 */
+			private V update (Node<K, V> node, V value) {
+				
+				if (value != null)
+					node.value = value;
+				else
+					unlink (node);
+				
+				return value;
+				
+			}
+			
+			@Override
+			public Set<java.util.Map.Entry<K, V>> entrySet () {
+				
+				if (entrySet == null)
+					entrySet = new AbstractSet<java.util.Map.Entry<K, V>> () {
+						
+						@Override
+						public Iterator<java.util.Map.Entry<K, V>> iterator () {
+							return new NodeIterator ();
+						}
+						
+						@Override
+						public int size () {
+							return nodes.size ();
+						}
+						
+						@Override
+						public boolean contains (Object object) {
+							
+							if (!(object instanceof java.util.Map.Entry)) return false;
+							
+							java.util.Map.Entry<?, ?> entry = (java.util.Map.Entry<?, ?>) object;
+							Node<K, V> node = nodes.get (entry.getKey ());
+							
+							return node != null && node.value.equals (entry.getValue ());
+							
+						}
+						
+						@Override
+						public boolean remove (Object object) {
+							
+							if (!(object instanceof java.util.Map.Entry)) return false;
+							
+							java.util.Map.Entry<?, ?> entry = (java.util.Map.Entry<?, ?>) object;
+							
+							return Table.this.remove (entry.getKey (), entry.getValue ());
+							
+						}
+						
+						@Override
+						public void clear () {
+							Table.this.clear ();
+						}
+						
+					};
+				
+				return entrySet;
+				
+			}
+			
+			private final class NodeIterator implements Iterator<java.util.Map.Entry<K, V>> {
+				
+				/**
+				 * Nodes are linked in ascending order, so the ones from here on
+				 * were linked after the iterator started.
+				 */
+				private final long limit = linked;
+				
+				private Node<K, V> next = advance (head), last;
+				
+				/**
+				 * Returns the first node after {@code node} still in the map, or
+				 * null past the limit.
+				 */
+				private Node<K, V> advance (Node<K, V> node) {
+					
+					do
+						node = node.next;
+					while (node != null && node.removed && node.order < limit);
+					
+					return (node != null && node.order < limit ? node : null);
+					
+				}
+				
+				@Override
+				public boolean hasNext () {
+					return next != null;
+				}
+				
+				@Override
+				public Node<K, V> next () {
+					
+					if (next == null)
+						throw new NoSuchElementException ();
+					
+					last = next;
+					next = advance (next);
+					
+					return last;
+					
+				}
+				
+				@Override
+				public void remove () {
+					
+					if (last == null)
+						throw new IllegalStateException ();
+					
+					synchronized (lock (last.key)) {
+						
+						if (nodes.get (last.key) == last)
+							unlink (last);
+						
+					}
+					
+					last = null;
+					
+				}
+				
+			}
+			
+		}
+		
+	}
\ No newline at end of file
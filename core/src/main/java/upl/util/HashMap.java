@@ -6,7 +6,19 @@
 	
 	public class HashMap<K, V> extends Map<K, V> {
 		
-		protected java.util.Map<K, V> object = new java.util.HashMap<> ();
+		protected java.util.Map<K, V> object;
+		
+		public HashMap () {
+			this (new java.util.HashMap<> ());
+		}
+		
+		/**
+		 * Wraps {@code object} as the backing storage. Unlike
+		 * {@link Map#Map(java.util.Map)} nothing is copied.
+		 */
+		protected HashMap (java.util.Map<K, V> object) {
+			this.object = object;
+		}
 		
 		@Override
 		public int size () {
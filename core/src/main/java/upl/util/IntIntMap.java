@@ -0,0 +1,361 @@
+	/*
+	 * Copyright (c) 2020 - 2024 UPL Foundation
+	 *
+	 * Licensed under the Apache License, Version 2.0 (the "License");
+	 * you may not use this file except in compliance with the License.
+	 * You may obtain a copy of the License at
+	 *
+	 *     http://www.apache.org/licenses/LICENSE-2.0
+	 *
+	 * Unless required by applicable law or agreed to in writing, software
+	 * distributed under the License is distributed on an "AS IS" BASIS,
+	 * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	 * See the License for the specific language governing permissions and
+	 * limitations under the License.
+	 */
+	
+	package upl.util;
+	
+	import java.util.Arrays;
+	
+	/**
+	 * Open-addressing hash map from {@code int} keys to {@code int} values, the
+	 * unboxed counterpart of a {@code Map<Integer, Integer>}. It is laid out as
+	 * {@link IntObjectMap}: flat key and value arrays, linear probing, removal by
+	 * shifting entries back and key {@code 0} kept apart from the table.
+	 *
+	 * <p>Absent keys read as 0 unless another default is given, which also
+	 * makes the map a counter through {@link #add}.
+	 */
+	public class IntIntMap {
+		
+		public interface Consumer {
+			void accept (int key, int value);
+		}
+		
+		protected int[] keys, values;
+		
+		protected int mask, size, threshold;
+		
+		/**
+		 * Key {@code 0} lives in the extra slot {@code keys.length} of {@link #values}.
+		 */
+		protected boolean hasZero = false;
+		
+		public IntIntMap () {
+			this (PrimitiveHash.DEFAULT_CAPACITY);
+		}
+		
+		public IntIntMap (int capacity) {
+			allocate (PrimitiveHash.tableSize (capacity));
+		}
+		
+		private void allocate (int length) {
+			
+			keys = new int[length];
+			values = new int[length + 1];
+			
+			mask = length - 1;
+			threshold = PrimitiveHash.threshold (length);
+			
+		}
+		
+		private int find (int key) {
+			
+			if (key == 0)
+				return (hasZero ? keys.length : -1);
+			
+			for (int i = PrimitiveHash.mix (key) & mask; ; i = (i + 1) & mask) {
+				
+				if (keys[i] == key)
+					return i;
+				else if (keys[i] == 0)
+					return -1;
+				
+			}
+			
+		}
+		
+		/**
+		 * Returns the slot of {@code key}, inserting it with value 0 if missing.
+		 */
+		private int insert (int key) {
+			
+			if (key == 0) {
+				
+				if (!hasZero) {
+					
+					hasZero = true;
+					values[keys.length] = 0;
+					size++;
+					
+				}
+				
+				return keys.length;
+				
+			}
+			
+			int i = PrimitiveHash.mix (key) & mask;
+			
+			for (; keys[i] != 0; i = (i + 1) & mask)
+				if (keys[i] == key)
+					return i;
+			
+			keys[i] = key;
+			values[i] = 0;
+			
+			if (++size > threshold) {
+				
+				rehash (keys.length * 2);
+				return find (key);
+				
+			}
+			
+			return i;
+			
+		}
+		
+		public int length () {
+			return size;
+		}
+		
+		public int size () {
+			return size;
+		}
+		
+		public boolean isEmpty () {
+			return size == 0;
+		}
+		
+		public boolean containsKey (int key) {
+			return find (key) >= 0;
+		}
+		
+		public int get (int key) {
+			return get (key, 0);
+		}
+		
+		public int get (int key, int defVal) {
+			
+			int slot = find (key);
+			return (slot >= 0 ? values[slot] : defVal);
+			
+		}
+		
+		/**
+		 * Maps {@code key} to {@code value}, returning the previous value or 0.
+		 */
+		public int put (int key, int value) {
+			
+			int slot = insert (key);
+			int previous = values[slot];
+			
+			values[slot] = value;
+			
+			return previous;
+			
+		}
+		
+		/**
+		 * Adds {@code delta} to the value of {@code key}, absent keys counting as
+		 * 0, and returns the new value.
+		 */
+		public int add (int key, int delta) {
+			
+			int slot = insert (key);
+			return (values[slot] += delta);
+			
+		}
+		
+		/**
+		 * Removes {@code key}, returning its value or 0.
+		 */
+		public int remove (int key) {
+			
+			int slot = find (key);
+			
+			if (slot < 0)
+				return 0;
+			
+			int previous = values[slot];
+			
+			size--;
+			
+			if (slot == keys.length)
+				hasZero = false;
+			else
+				shift (slot);
+			
+			return previous;
+			
+		}
+		
+		/**
+		 * Moves back the entries following the freed {@code slot} which would be
+		 * unreachable otherwise.
+		 */
+		private void shift (int slot) {
+			
+			for (int i = (slot + 1) & mask; keys[i] != 0; i = (i + 1) & mask) {
+				
+				int key = keys[i];
+				int home = PrimitiveHash.mix (key) & mask;
+				
+				if (((i - home) & mask) >= ((i - slot) & mask)) {
+					
+					keys[slot] = key;
+					values[slot] = values[i];
+					
+					slot = i;
+					
+				}
+				
+			}
+			
+			keys[slot] = 0;
+			
+		}
+		
+		private void rehash (int length) {
+			
+			int[] oldKeys = keys, oldValues = values;
+			
+			allocate (length);
+			
+			values[keys.length] = oldValues[oldKeys.length];
+			
+			for (int j = 0; j < oldKeys.length; j++) {
+				
+				int key = oldKeys[j];
+				
+				if (key != 0) {
+					
+					int i = PrimitiveHash.mix (key) & mask;
+					
+					while (keys[i] != 0)
+						i = (i + 1) & mask;
+					
+					keys[i] = key;
+					values[i] = oldValues[j];
+					
+				}
+				
+			}
+			
+		}
+		
+		public void clear () {
+			
+			Arrays.fill (keys, 0);
+			
+			size = 0;
+			hasZero = false;
+			
+		}
+		
+		/**
+		 * Returns the slot of the entry following {@code slot}, or -1 past the
+		 * last one. Iteration starts from slot -1.
+		 */
+		public int next (int slot) {
+			
+			while (++slot < keys.length)
+				if (keys[slot] != 0)
+					return slot;
+			
+			return (slot == keys.length && hasZero ? slot : -1);
+			
+		}
+		
+		public int keyAt (int slot) {
+			return (slot == keys.length ? 0 : keys[slot]);
+		}
+		
+		public int valueAt (int slot) {
+			return values[slot];
+		}
+		
+		public void forEach (Consumer consumer) {
+			
+			for (int slot = next (-1); slot >= 0; slot = next (slot))
+				consumer.accept (keyAt (slot), values[slot]);
+			
+		}
+		
+		public int[] keys () {
+			
+			int[] result = new int[size];
+			
+			int i = 0;
+			
+			for (int slot = next (-1); slot >= 0; slot = next (slot))
+				result[i++] = keyAt (slot);
+			
+			return result;
+			
+		}
+		
+		public String implode () {
+			return implode ("\n");
+		}
+		
+		public String implode (String sep1) {
+			return implode (sep1, ": ");
+		}
+		
+		public String implode (String sep1, String sep2) {
+			
+			StringBuilder output = new StringBuilder ();
+			
+			for (int slot = next (-1); slot >= 0; slot = next (slot)) {
+				
+				if (output.length () > 0) output.append (sep1);
+				output.append (keyAt (slot)).append (sep2).append (values[slot]);
+				
+			}
+			
+			return output.toString ();
+			
+		}
+		
+		@Override
+		public boolean equals (Object object) {
+			
+			if (object == this) return true;
+			if (!(object instanceof IntIntMap)) return false;
+			
+			IntIntMap map = (IntIntMap) object;
+			
+			if (map.size != size) return false;
+			
+			for (int slot = next (-1); slot >= 0; slot = next (slot)) {
+				
+				int other = map.find (keyAt (slot));
+				
+				if (other < 0 || values[slot] != map.values[other])
+					return false;
+				
+			}
+			
+			return true;
+			
+		}
+		
+		@Override
+		public int hashCode () {
+			
+			int hash = 0;
+			
+			for (int slot = next (-1); slot >= 0; slot = next (slot))
+				hash += keyAt (slot) ^ values[slot];
+			
+			return hash;
+			
+		}
+		
+		@Override
+		public String toString () {
+			return implode (", ");
+		}
+		
+	}
\ No newline at end of file
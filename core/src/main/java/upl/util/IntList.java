@@ -0,0 +1,264 @@
+	/*
+	 * Copyright (c) 2020 - 2024 UPL Foundation
+	 *
+	 * Licensed under the Apache License, Version 2.0 (the "License");
+	 * you may not use this file except in compliance with the License.
+	 * You may obtain a copy of the License at
+	 *
+	 *     http://www.apache.org/licenses/LICENSE-2.0
+	 *
+	 * Unless required by applicable law or agreed to in writing, software
+	 * distributed under the License is distributed on an "AS IS" BASIS,
+	 * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	 * See the License for the specific language governing permissions and
+	 * limitations under the License.
+	 */
+	
+	package upl.util;
+	
+	import java.util.Arrays;
+	import java.util.function.IntConsumer;
+	
+	/**
+	 * Growable array of {@code int} values, the unboxed counterpart of a
+	 * {@code List<Integer>}. Values are read by index without allocation.
+	 */
+	public class IntList {
+		
+		private static final int[] EMPTY = {};
+		
+		protected int[] values;
+		protected int size = 0;
+		
+		public IntList () {
+			values = EMPTY;
+		}
+		
+		public IntList (int capacity) {
+			
+			if (capacity < 0)
+				throw new IllegalArgumentException ("Illegal capacity: " + capacity);
+			
+			values = (capacity > 0 ? new int[capacity] : EMPTY);
+			
+		}
+		
+		/**
+		 * Returns a list of {@code values}. Not a constructor, so it can't be
+		 * mistaken for {@link #IntList (int)} with a single value.
+		 */
+		public static IntList of (int... values) {
+			
+			IntList list = new IntList ();
+			
+			list.values = values.clone ();
+			list.size = values.length;
+			
+			return list;
+			
+		}
+		
+		public int length () {
+			return size;
+		}
+		
+		public int size () {
+			return size;
+		}
+		
+		public boolean isEmpty () {
+			return size == 0;
+		}
+		
+		private void grow (int capacity) {
+			
+			if (capacity > values.length)
+				values = Arrays.copyOf (values, Math.max (capacity, Math.max (PrimitiveHash.DEFAULT_CAPACITY, values.length + (values.length >> 1))));
+			
+		}
+		
+		private void check (int index) {
+			
+			if (index < 0 || index >= size)
+				throw new IndexOutOfBoundsException ("Index: " + index + ", Size: " + size);
+			
+		}
+		
+		public IntList put (int value) {
+			
+			add (value);
+			return this;
+			
+		}
+		
+		public void add (int value) {
+			
+			if (size == values.length)
+				grow (size + 1);
+			
+			values[size++] = value;
+			
+		}
+		
+		public void add (int index, int value) {
+			
+			if (index < 0 || index > size)
+				throw new IndexOutOfBoundsException ("Index: " + index + ", Size: " + size);
+			
+			grow (size + 1);
+			
+			System.arraycopy (values, index, values, index + 1, size - index);
+			
+			values[index] = value;
+			size++;
+			
+		}
+		
+		public void addAll (int... values) {
+			
+			grow (size + values.length);
+			
+			System.arraycopy (values, 0, this.values, size, values.length);
+			size += values.length;
+			
+		}
+		
+		public int get (int index) {
+			
+			check (index);
+			return values[index];
+			
+		}
+		
+		/**
+		 * Replaces the value at {@code index}, returning the previous one.
+		 */
+		public int set (int index, int value) {
+			
+			check (index);
+			
+			int previous = values[index];
+			
+			values[index] = value;
+			
+			return previous;
+			
+		}
+		
+		/**
+		 * Removes the value at {@code index}, returning it.
+		 */
+		public int removeAt (int index) {
+			
+			check (index);
+			
+			int previous = values[index];
+			
+			System.arraycopy (values, index + 1, values, index, size - index - 1);
+			size--;
+			
+			return previous;
+			
+		}
+		
+		public int indexOf (int value) {
+			
+			for (int i = 0; i < size; i++)
+				if (values[i] == value)
+					return i;
+			
+			return -1;
+			
+		}
+		
+		public boolean contains (int value) {
+			return indexOf (value) >= 0;
+		}
+		
+		public void clear () {
+			size = 0;
+		}
+		
+		public void sort () {
+			Arrays.sort (values, 0, size);
+		}
+		
+		public void forEach (IntConsumer consumer) {
+			
+			for (int i = 0; i < size; i++)
+				consumer.accept (values[i]);
+			
+		}
+		
+		public int[] toArray () {
+			return Arrays.copyOf (values, size);
+		}
+		
+		public String implode () {
+			return implode ("\n");
+		}
+		
+		public String implode (String preg) {
+			return implode (preg, 0, 0);
+		}
+		
+		/**
+		 * Joins the values from {@code min} to {@code max}, negative positions
+		 * counting from the end and {@code max} 0 meaning the end, as
+		 * {@link List#implode(String, int, int)} does.
+		 */
+		public String implode (String preg, int min, int max) {
+			
+			StringBuilder output = new StringBuilder ();
+			
+			if (min < 0) min = (size + min);
+			
+			if (max == 0)
+				max = size;
+			else if (max < 0)
+				max = (size + max);
+			
+			for (int i = min; i < max; ++i) {
+				
+				if (i > min) output.append (preg);
+				output.append (values[i]);
+				
+			}
+			
+			return output.toString ();
+			
+		}
+		
+		@Override
+		public boolean equals (Object object) {
+			
+			if (object == this) return true;
+			if (!(object instanceof IntList)) return false;
+			
+			IntList list = (IntList) object;
+			
+			return Arrays.equals (values, 0, size, list.values, 0, list.size);
+			
+		}
+		
+		/**
+		 * The same as the hash of a {@code List<Integer>} holding the values.
+		 */
+		@Override
+		public int hashCode () {
+			
+			int hash = 1;
+			
+			for (int i = 0; i < size; i++)
+				hash = 31 * hash + values[i];
+			
+			return hash;
+			
+		}
+		
+		@Override
+		public String toString () {
+			return implode (", ");
+		}
+		
+	}
\ No newline at end of file
@@ -0,0 +1,308 @@
+	/*
+	 * Copyright (c) 2020 - 2024 UPL Foundation
+	 *
+	 * Licensed under the Apache License, Version 2.0 (the "License");
+	 * you may not use this file except in compliance with the License.
+	 * You may obtain a copy of the License at
+	 *
+	 *     http://www.apache.org/licenses/LICENSE-2.0
+	 *
+	 * Unless required by applicable law or agreed to in writing, software
+	 * distributed under the License is distributed on an "AS IS" BASIS,
+	 * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	 * See the License for the specific language governing permissions and
+	 * limitations under the License.
+	 */
+	
+	package upl.util;
+	
+	import java.util.Arrays;
+	import java.util.function.IntConsumer;
+	
+	/**
+	 * Open-addressing hash set of {@code int} values, the unboxed counterpart of
+	 * a {@code Set<Integer>}. It is laid out as {@link IntIntMap} without the
+	 * values.
+	 */
+	public class IntSet {
+		
+		protected int[] keys;
+		
+		protected int mask, size, threshold;
+		
+		/**
+		 * Value {@code 0} marks free slots so it's kept as a flag.
+		 */
+		protected boolean hasZero = false;
+		
+		public IntSet () {
+			this (PrimitiveHash.DEFAULT_CAPACITY);
+		}
+		
+		public IntSet (int capacity) {
+			allocate (PrimitiveHash.tableSize (capacity));
+		}
+		
+		/**
+		 * Returns a set of {@code values}, see {@link IntList#of}.
+		 */
+		public static IntSet of (int... values) {
+			
+			IntSet set = new IntSet (values.length);
+			
+			for (int value : values)
+				set.add (value);
+			
+			return set;
+			
+		}
+		
+		private void allocate (int length) {
+			
+			keys = new int[length];
+			
+			mask = length - 1;
+			threshold = PrimitiveHash.threshold (length);
+			
+		}
+		
+		public int length () {
+			return size;
+		}
+		
+		public int size () {
+			return size;
+		}
+		
+		public boolean isEmpty () {
+			return size == 0;
+		}
+		
+		public boolean contains (int value) {
+			
+			if (value == 0)
+				return hasZero;
+			
+			for (int i = PrimitiveHash.mix (value) & mask; ; i = (i + 1) & mask) {
+				
+				if (keys[i] == value)
+					return true;
+				else if (keys[i] == 0)
+					return false;
+				
+			}
+			
+		}
+		
+		/**
+		 * Adds {@code value}, returning {@code false} if it is already present.
+		 */
+		public boolean add (int value) {
+			
+			if (value == 0) {
+				
+				if (hasZero)
+					return false;
+				
+				hasZero = true;
+				size++;
+				
+				return true;
+				
+			}
+			
+			int i = PrimitiveHash.mix (value) & mask;
+			
+			for (; keys[i] != 0; i = (i + 1) & mask)
+				if (keys[i] == value)
+					return false;
+			
+			keys[i] = value;
+			
+			if (++size > threshold)
+				rehash (keys.length * 2);
+			
+			return true;
+			
+		}
+		
+		/**
+		 * Removes {@code value}, returning {@code false} if it is absent.
+		 */
+		public boolean remove (int value) {
+			
+			if (value == 0) {
+				
+				if (!hasZero)
+					return false;
+				
+				hasZero = false;
+				size--;
+				
+				return true;
+				
+			}
+			
+			for (int i = PrimitiveHash.mix (value) & mask; keys[i] != 0; i = (i + 1) & mask)
+				if (keys[i] == value) {
+					
+					shift (i);
+					size--;
+					
+					return true;
+					
+				}
+			
+			return false;
+			
+		}
+		
+		/**
+		 * Moves back the values following the freed {@code slot} which would be
+		 * unreachable otherwise.
+		 */
+		private void shift (int slot) {
+			
+			for (int i = (slot + 1) & mask; keys[i] != 0; i = (i + 1) & mask) {
+				
+				int home = PrimitiveHash.mix (keys[i]) & mask;
+				
+				if (((i - home) & mask) >= ((i - slot) & mask)) {
+					
+					keys[slot] = keys[i];
+					slot = i;
+					
+				}
+				
+			}
+			
+			keys[slot] = 0;
+			
+		}
+		
+		private void rehash (int length) {
+			
+			int[] oldKeys = keys;
+			
+			allocate (length);
+			
+			for (int value : oldKeys)
+				if (value != 0) {
+					
+					int i = PrimitiveHash.mix (value) & mask;
+					
+					while (keys[i] != 0)
+						i = (i + 1) & mask;
+					
+					keys[i] = value;
+					
+				}
+			
+		}
+		
+		public void clear () {
+			
+			Arrays.fill (keys, 0);
+			
+			size = 0;
+			hasZero = false;
+			
+		}
+		
+		/**
+		 * Returns the slot of the value following {@code slot}, or -1 past the
+		 * last one. Iteration starts from slot -1, see {@link IntObjectMap}.
+		 */
+		public int next (int slot) {
+			
+			while (++slot < keys.length)
+				if (keys[slot] != 0)
+					return slot;
+			
+			return (slot == keys.length && hasZero ? slot : -1);
+			
+		}
+		
+		public int valueAt (int slot) {
+			return (slot == keys.length ? 0 : keys[slot]);
+		}
+		
+		public void forEach (IntConsumer consumer) {
+			
+			for (int slot = next (-1); slot >= 0; slot = next (slot))
+				consumer.accept (valueAt (slot));
+			
+		}
+		
+		public int[] toArray () {
+			
+			int[] result = new int[size];
+			
+			int i = 0;
+			
+			for (int slot = next (-1); slot >= 0; slot = next (slot))
+				result[i++] = valueAt (slot);
+			
+			return result;
+			
+		}
+		
+		public String implode () {
+			return implode ("\n");
+		}
+		
+		public String implode (String preg) {
+			
+			StringBuilder output = new StringBuilder ();
+			
+			for (int slot = next (-1); slot >= 0; slot = next (slot)) {
+				
+				if (output.length () > 0) output.append (preg);
+				output.append (valueAt (slot));
+				
+			}
+			
+			return output.toString ();
+			
+		}
+		
+		@Override
+		public boolean equals (Object object) {
+			
+			if (object == this) return true;
+			if (!(object instanceof IntSet)) return false;
+			
+			IntSet set = (IntSet) object;
+			
+			if (set.size != size) return false;
+			
+			for (int slot = next (-1); slot >= 0; slot = next (slot))
+				if (!set.contains (valueAt (slot)))
+					return false;
+			
+			return true;
+			
+		}
+		
+		/**
+		 * Sum of the values, the same as the hash of a {@code Set<Integer>}
+		 * holding them.
+		 */
+		@Override
+		public int hashCode () {
+			
+			int hash = 0;
+			
+			for (int value : keys)
+				hash += value;
+			
+			return hash;
+			
+		}
+		
+		@Override
+		public String toString () {
+			return implode (", ");
+		}
+		
+	}
\ No newline at end of file
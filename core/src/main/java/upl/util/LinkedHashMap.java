@@ -7,7 +7,19 @@
 	
 	public class LinkedHashMap<K, V> extends Map<K, V> {
 		
-		protected java.util.Map<K, V> object = new java.util.LinkedHashMap<> ();
+		protected java.util.Map<K, V> object;
+		
+		public LinkedHashMap () {
+			this (new java.util.LinkedHashMap<> ());
+		}
+		
+		/**
+		 * Wraps {@code object} as the backing storage, which must keep insertion
+		 * order. Unlike {@link Map#Map(java.util.Map)} nothing is copied.
+		 */
+		protected LinkedHashMap (java.util.Map<K, V> object) {
+			this.object = object;
+		}
 		
 		@Override
 		public int size () {
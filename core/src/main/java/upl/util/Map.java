@@ -19,6 +19,11 @@
      */
 		protected java.util.Map<String, List<String>> values;
 		
+		/**
+     * Constraints checked by {@link #put} and {@link #validate}, or null.
+     */
+		protected Schema schema;
+		
 		/**
      * Instantiates a new Map.
      */
@@ -26,6 +31,21 @@
 			
 			required = getRequiredPairs ();
 			values = getRequiredValues ();
+			schema = getSchema ();
+			
+			if (required != null || values != null) {
+				
+				// the schema of the class may be shared, so the legacy pairs go to a copy
+				schema = (schema != null ? new Schema (schema) : new Schema ());
+				
+				if (required != null)
+					schema.require (required.toArray (new String[0]));
+				
+				if (values != null)
+					for (java.util.Map.Entry<String, List<String>> entry : values.entrySet ())
+						schema.values (entry.getKey (), entry.getValue ().toArray ());
+				
+			}
 			
 		}
 		
@@ -36,7 +56,7 @@
      */
 		public Map (java.util.Map<K, V> data) {
 			
-			super ();
+			this ();
 			
 			for (K key : getPairs ().keySet ())
 				add (key, get (key));
@@ -67,19 +87,41 @@
 		/**
      * Gets required pairs.
      *
-     * @return the required pairs
+     * @return the required pairs, or null if no key is required
      */
 		protected List<String> getRequiredPairs () {
-			return new ArrayList<> ();
+			return null;
 		}
 		
 		/**
      * Gets required values.
      *
-     * @return the required values
+     * @return the required values, or null if values are not restricted
      */
 		protected java.util.Map<String, List<String>> getRequiredValues () {
-			return new java.util.HashMap<> ();
+			return null;
+		}
+		
+		/**
+     * Gets the schema of this class, called once per map. Return a shared
+     * constant so that it's declared only once.
+     *
+     * @return the schema, or null if the map has no constraints
+     */
+		protected Schema getSchema () {
+			return null;
+		}
+		
+		/**
+     * Attaches {@code schema} to this map instead of the one of its class.
+     *
+     * @return the map
+     */
+		public Map<K, V> setSchema (Schema schema) {
+			
+			this.schema = schema;
+			return this;
+			
 		}
 		
 		/**
@@ -91,12 +133,23 @@
      */
 		@Override
 		public V put (K key, V value) {
+			return check (key, value);
+		}
+		
+		/**
+     * Checks {@code value} against the schema and returns what is to be
+     * stored for it.
+     *
+     * @param key	 the key
+     * @param value the value
+     * @return the value, {@code "null"} for null
+     */
+		protected V check (K key, V value) {
 			
-			List<String> values = this.values.get (key);
+			if (schema != null)
+				schema.check (key, value);
 			
-			if (this.values.containsKey (key) && !values.contains (value))
-				throw new IllegalArgumentException (key + " value must be " + values.implode (", "));
-			else if (value == null)
+			if (value == null)
 				value = (V) "null";
 			
 			return value;
@@ -130,10 +183,8 @@
      */
 		public void validate () {
 			
-			List<?> missed = diff (keySet (), required);
-			
-			if (missed.size () > 0)
-				throw new IllegalArgumentException ("Required keys missed: " + missed.implode (", "));
+			if (schema != null)
+				schema.validate (this);
 			
 		}
 		
@@ -146,8 +197,12 @@
      */
 		protected List<?> diff (Set<K> where, List<?> required) {
 			
-			required.removeAll (where);
-			return required;
+			List<Object> missed = new ArrayList<> ();
+			
+			missed.addAll (required);
+			missed.removeAll (where);
+			
+			return missed;
 			
 		}
 		
@@ -178,13 +233,13 @@
 			
 			int i = 0;
 			
-			for (K key : getKeys ()) {
+			for (java.util.Map.Entry<K, V> entry : entrySet ()) {
 				
 				if (i > 0) output.append (sep1);
 				
-				output.append (key);
+				output.append (entry.getKey ());
 				output.append (sep2);
-				output.append (get (key));
+				output.append (entry.getValue ());
 				
 				i++;
 				
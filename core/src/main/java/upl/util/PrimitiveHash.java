@@ -0,0 +1,74 @@
+	/*
+	 * Copyright (c) 2020 - 2024 UPL Foundation
+	 *
+	 * Licensed under the Apache License, Version 2.0 (the "License");
+	 * you may not use this file except in compliance with the License.
+	 * You may obtain a copy of the License at
+	 *
+	 *     http://www.apache.org/licenses/LICENSE-2.0
+	 *
+	 * Unless required by applicable law or agreed to in writing, software
+	 * distributed under the License is distributed on an "AS IS" BASIS,
+	 * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	 * See the License for the specific language governing permissions and
+	 * limitations under the License.
+	 */
+	
+	package upl.util;
+	
+	/**
+	 * Sizing and hashing shared by the primitive collections, {@link IntIntMap}
+	 * and friends.
+	 */
+	final class PrimitiveHash {
+		
+		static final int DEFAULT_CAPACITY = 8;
+		
+		/**
+		 * Largest power of two table size.
+		 */
+		static final int MAX_TABLE_SIZE = 1 << 30;
+		
+		private PrimitiveHash () {}
+		
+		/**
+		 * Spreads the bits of a key, consecutive keys would fill runs of
+		 * neighbouring slots otherwise.
+		 */
+		static int mix (int key) {
+			
+			int h = key * 0x9E3779B9;
+			return h ^ (h >>> 16);
+			
+		}
+		
+		static int mix (long key) {
+			
+			long h = key * 0x9E3779B97F4A7C15L;
+			return (int) (h ^ (h >>> 32));
+			
+		}
+		
+		/**
+		 * Returns the power of two table size holding {@code capacity} entries
+		 * below the load factor of 3/4.
+		 */
+		static int tableSize (int capacity) {
+			
+			if (capacity < 0)
+				throw new IllegalArgumentException ("Illegal capacity: " + capacity);
+			
+			long length = Math.max (2, capacity + capacity / 3 + 1);
+			
+			if (length > MAX_TABLE_SIZE)
+				throw new IllegalArgumentException ("Capacity too large: " + capacity);
+			
+			return Integer.highestOneBit ((int) length - 1) << 1;
+			
+		}
+		
+		static int threshold (int length) {
+			return Math.max (1, length / 4 * 3);
+		}
+		
+	}
\ No newline at end of file
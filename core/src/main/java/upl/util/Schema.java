@@ -0,0 +1,304 @@
+	/*
+	 * Copyright (c) 2020 - 2024 UPL Foundation
+	 *
+	 * Licensed under the Apache License, Version 2.0 (the "License");
+	 * you may not use this file except in compliance with the License.
+	 * You may obtain a copy of the License at
+	 *
+	 *     http://www.apache.org/licenses/LICENSE-2.0
+	 *
+	 * Unless required by applicable law or agreed to in writing, software
+	 * distributed under the License is distributed on an "AS IS" BASIS,
+	 * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	 * See the License for the specific language governing permissions and
+	 * limitations under the License.
+	 */
+	
+	package upl.util;
+	
+	import java.util.Arrays;
+	import java.util.HashSet;
+	import java.util.Set;
+	
+	/**
+	 * Constraints on the keys and values of a {@link Map}: keys which have to
+	 * be present, the values a key may take and the type of its values. The
+	 * constrained keys are numbered once when they are declared, so checking a
+	 * value is one hash lookup and {@link #validate} walks the declared keys
+	 * with a bitset of the required ones instead of diffing key sets, without
+	 * allocating anything unless it fails. Example usage: <pre>
+	 * class Request extends JSONObject {
+	 *
+	 *   private static final Schema SCHEMA = new Schema ()
+	 *     .require ("path", "mode")
+	 *     .values ("mode", "read", "write")
+	 *     .type ("size", Number.class);
+	 *
+	 *   &#64;Override
+	 *   protected Schema getSchema () {
+	 *     return SCHEMA;
+	 *   }
+	 *
+	 * }</pre>
+	 *
+	 * <p>A schema is declared once and then shared by any number of maps, which
+	 * is thread safe as long as it isn't declared further. Maps without a
+	 * schema don't pay for any of this.
+	 */
+	public final class Schema {
+		
+		private String[] keys = new String[4];
+		private int count = 0;
+		
+		/**
+		 * Open-addressing table of slots plus one, 0 marks a free entry.
+		 */
+		private int[] index = new int[8];
+		
+		private long[] required = new long[1];
+		private Set<Object>[] values = newSets (4);
+		private Class<?>[] types = new Class<?>[4];
+		
+		public Schema () {}
+		
+		/**
+		 * Copies the constraints of {@code schema}, to declare more of them
+		 * without changing a shared one.
+		 */
+		public Schema (Schema schema) {
+			
+			keys = schema.keys.clone ();
+			count = schema.count;
+			index = schema.index.clone ();
+			required = schema.required.clone ();
+			types = schema.types.clone ();
+			values = newSets (schema.values.length);
+			
+			for (int slot = 0; slot < count; slot++)
+				if (schema.values[slot] != null)
+					values[slot] = new HashSet<> (schema.values[slot]);
+			
+		}
+		
+		/**
+		 * Makes {@code keys} required.
+		 */
+		public Schema require (String... keys) {
+			
+			for (String key : keys) {
+				
+				int slot = declare (key);
+				required[slot >>> 6] |= 1L << slot;
+				
+			}
+			
+			return this;
+			
+		}
+		
+		/**
+		 * Restricts the values of {@code key} to {@code allowed}, compared with
+		 * {@link Object#equals}.
+		 */
+		public Schema values (String key, Object... allowed) {
+			
+			int slot = declare (key);
+			
+			if (values[slot] == null)
+				values[slot] = new HashSet<> ();
+			
+			values[slot].addAll (Arrays.asList (allowed));
+			
+			return this;
+			
+		}
+		
+		/**
+		 * Requires the values of {@code key} to be instances of {@code type}.
+		 */
+		public Schema type (String key, Class<?> type) {
+			
+			types[declare (key)] = type;
+			return this;
+			
+		}
+		
+		@SuppressWarnings ("unchecked")
+		private static Set<Object>[] newSets (int length) {
+			return (Set<Object>[]) new Set<?>[length];
+		}
+		
+		private static int hash (Object key) {
+			
+			int hash = key.hashCode ();
+			return hash ^ (hash >>> 16);
+			
+		}
+		
+		/**
+		 * Returns the slot of {@code key}, or -1 if it has no constraints.
+		 */
+		private int slot (Object key) {
+			
+			if (count == 0 || !(key instanceof String))
+				return -1;
+			
+			int mask = index.length - 1;
+			
+			for (int i = hash (key) & mask; ; i = (i + 1) & mask) {
+				
+				int slot = index[i] - 1;
+				
+				if (slot < 0)
+					return -1;
+				else if (keys[slot].equals (key))
+					return slot;
+				
+			}
+			
+		}
+		
+		private int declare (String key) {
+			
+			int slot = slot (key);
+			
+			if (slot >= 0)
+				return slot;
+			
+			slot = count++;
+			
+			if (slot == keys.length) {
+				
+				keys = Arrays.copyOf (keys, slot * 2);
+				values = Arrays.copyOf (values, slot * 2);
+				types = Arrays.copyOf (types, slot * 2);
+				
+			}
+			
+			if ((slot >>> 6) == required.length)
+				required = Arrays.copyOf (required, required.length + 1);
+			
+			keys[slot] = key;
+			
+			if (count * 2 > index.length)
+				index = new int[index.length * 2];
+			
+			reindex ();
+			
+			return slot;
+			
+		}
+		
+		private void reindex () {
+			
+			Arrays.fill (index, 0);
+			
+			int mask = index.length - 1;
+			
+			for (int slot = 0; slot < count; slot++) {
+				
+				int i = hash (keys[slot]) & mask;
+				
+				while (index[i] != 0)
+					i = (i + 1) & mask;
+				
+				index[i] = slot + 1;
+				
+			}
+			
+		}
+		
+		private boolean isRequired (int slot) {
+			return (required[slot >>> 6] & (1L << slot)) != 0;
+		}
+		
+		/**
+		 * Checks a value about to be stored under {@code key}.
+		 *
+		 * @throws IllegalArgumentException if the value isn't allowed.
+		 */
+		public void check (Object key, Object value) {
+			
+			int slot = slot (key);
+			
+			if (slot >= 0)
+				check (slot, value);
+			
+		}
+		
+		private void check (int slot, Object value) {
+			
+			Set<Object> values = this.values[slot];
+			
+			if (values != null && !values.contains (value))
+				throw new IllegalArgumentException (keys[slot] + " value must be " + implode (values));
+			
+			Class<?> type = types[slot];
+			
+			if (type != null && value != null && !type.isInstance (value))
+				throw new IllegalArgumentException (keys[slot] + " value must be of type " + type.getName () + ", got " + value.getClass ().getName ());
+			
+		}
+		
+		/**
+		 * Checks that {@code map} has all required keys and that all constrained
+		 * values are allowed.
+		 *
+		 * @throws IllegalArgumentException if it hasn't.
+		 */
+		public void validate (java.util.Map<?, ?> map) {
+			
+			boolean missed = false;
+			
+			for (int slot = 0; slot < count; slot++) {
+				
+				Object value = map.get (keys[slot]);
+				
+				if (value != null)
+					check (slot, value);
+				else if (isRequired (slot))
+					missed = true;
+				
+			}
+			
+			if (missed)
+				throw new IllegalArgumentException ("Required keys missed: " + missed (map));
+			
+		}
+		
+		private String missed (java.util.Map<?, ?> map) {
+			
+			StringBuilder output = new StringBuilder ();
+			
+			for (int slot = 0; slot < count; slot++)
+				if (isRequired (slot) && map.get (keys[slot]) == null) {
+					
+					if (output.length () > 0)
+						output.append (", ");
+					
+					output.append (keys[slot]);
+					
+				}
+			
+			return output.toString ();
+			
+		}
+		
+		private static String implode (Set<Object> values) {
+			
+			StringBuilder output = new StringBuilder ();
+			
+			for (Object value : values) {
+				
+				if (output.length () > 0)
+					output.append (", ");
+				
+				output.append (value);
+				
+			}
+			
+			return output.toString ();
+			
+		}
+		
+	}
\ No newline at end of file
@@ -20,7 +20,7 @@
 	import upl.storage.adapters.SFTP;
 	import upl.storage.adapters.YandexDisk;
 	import upl.util.ArrayList;
-	import upl.util.HashMap;
+	import upl.util.ConcurrentHashMap;
 	import upl.util.LinkedHashMap;
 	import upl.util.List;
 	import upl.util.Map;
@@ -105,7 +105,7 @@
 			
 		}
 		
-		protected Map<String, JSONObject> items = new HashMap<> ();
+		protected Map<String, JSONObject> items = new ConcurrentHashMap<> ();
 		
 		public final Storage setProviderItem (String type, JSONObject data) {
 			